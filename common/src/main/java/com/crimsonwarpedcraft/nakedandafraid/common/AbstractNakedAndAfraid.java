@@ -1,8 +1,14 @@
 package com.crimsonwarpedcraft.nakedandafraid.common;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.config.ConfigSnapshot;
+import com.crimsonwarpedcraft.nakedandafraid.common.config.EnabledWorldIndex;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PlayerResolver;
 import com.crimsonwarpedcraft.nakedandafraid.common.util.PluginLogger;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.UpdateCheckService;
 import com.crimsonwarpedcraft.nakedandafraid.common.util.VersionChecker;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
@@ -34,6 +40,31 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
 
     protected final Plugin plugin;
 
+    /**
+     * Current typed view of config.yml. Replaced wholesale (never mutated) on
+     * enable and on {@code /nf reloadconfig}, so readers on any thread see
+     * either the old or the new snapshot, never a mix.
+     */
+    private volatile ConfigSnapshot configSnapshot;
+
+    /**
+     * Mirror of {@code configSnapshot.isDebugMode()} so the disabled
+     * {@link #debugLog} path is a single field read.
+     */
+    private volatile boolean debugEnabled;
+
+    /** {@code enabled-worlds} keyed by world UID; rebuilt with every snapshot. */
+    private final EnabledWorldIndex enabledWorldIndex = new EnabledWorldIndex(this::getConfigSnapshot);
+
+    /** Version and Paper feature flags, probed once; see {@link #getServerCapabilities()}. */
+    private volatile ServerCapabilities serverCapabilities;
+
+    /** Background update check; {@code null} until {@link #logStartupInfo()} runs. */
+    private UpdateCheckService updateCheckService;
+
+    /** Name-to-UUID lookups for commands; {@code null} outside enable/disable. */
+    private PlayerResolver playerResolver;
+
     /** Whether players teleport the moment the countdown expires. */
     protected boolean teleportOnCountdownEnd;
 
@@ -54,8 +85,10 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
 
     @Override
     public void onEnable() {
-        debugLog("[NakedAndAfraid] Starting plugin initialization for Bukkit version "
-                + Bukkit.getBukkitVersion());
+        // Prime the debug gate before the first log line
+        reloadConfigSnapshot();
+        serverCapabilities = ServerCapabilities.probe();
+        debugLog("[NakedAndAfraid] Starting plugin initialization for Bukkit version {}, {}", Bukkit.getBukkitVersion(), serverCapabilities);
 
         debugLog("[NakedAndAfraid] Loading default config");
         plugin.saveDefaultConfig();
@@ -63,15 +96,19 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
         debugLog("[NakedAndAfraid] Updating enabled-worlds in config");
         setWorldList();
 
+        reloadConfigSnapshot();
+        debugLog("[NakedAndAfraid] Loaded config: teleport-on-countdown-end={}, multiple-spawn-priority={}",
+                teleportOnCountdownEnd, multipleSpawnPriority);
+
+        plugin.getServer().getPluginManager().registerEvents(enabledWorldIndex, plugin);
+        debugLog("[NakedAndAfraid] Indexed {} loaded worlds", enabledWorldIndex.size());
+
+        playerResolver = new PlayerResolver(plugin, this);
+        plugin.getServer().getPluginManager().registerEvents(playerResolver, plugin);
+
         debugLog("[NakedAndAfraid] Reloading listeners");
         reloadListeners();
 
-        teleportOnCountdownEnd = plugin.getConfig().getBoolean("teleport-on-countdown-end", false);
-        multipleSpawnPriority  = plugin.getConfig()
-                .getString("multiple-spawn-priority", "FIRST").toUpperCase();
-        debugLog("[NakedAndAfraid] Loaded config: teleport-on-countdown-end=" + teleportOnCountdownEnd
-                + ", multiple-spawn-priority=" + multipleSpawnPriority);
-
         initManagers();
 
         debugLog("[NakedAndAfraid] Registered GlobalDeathSoundListener and TeamListener");
@@ -94,9 +131,15 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
     @Override
     public void onDisable() {
         debugLog("[NakedAndAfraid] Shutting down plugin");
+        stopUpdateCheckService();
         disableTabListClearer();
         disableArmorDamage();
         saveSpawnManager();
+        shutdownManagers();
+        if (playerResolver != null) {
+            playerResolver.shutdown();
+            playerResolver = null;
+        }
         unregisterVersionListeners();
         HandlerList.unregisterAll(plugin);
         debugLog("[NakedAndAfraid] Unregistered all listeners");
@@ -106,27 +149,87 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
     // PluginLogger
     // -----------------------------------------------------------------------
 
+    @Override
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
     @Override
     public void debugLog(String message) {
-        if (plugin.getConfig().getBoolean("debug-mode", false)) {
+        if (debugEnabled) {
             plugin.getLogger().info(message);
         }
     }
 
+    // -----------------------------------------------------------------------
+    // Server capabilities
+    // -----------------------------------------------------------------------
+
+    /**
+     * Returns the server's version and feature flags. Probed at the start of
+     * {@link #onEnable()}; listeners should capture this in their constructor
+     * instead of checking the Bukkit version themselves.
+     */
+    public ServerCapabilities getServerCapabilities() {
+        ServerCapabilities capabilities = serverCapabilities;
+        if (capabilities == null) {
+            // First access before onEnable (e.g. listeners built directly in tests)
+            capabilities = ServerCapabilities.probe();
+            serverCapabilities = capabilities;
+        }
+        return capabilities;
+    }
+
+    // -----------------------------------------------------------------------
+    // Config snapshot
+    // -----------------------------------------------------------------------
+
+    /**
+     * Returns the current config snapshot. Hot paths should read values from
+     * here rather than from {@link #getConfig()}.
+     */
+    public ConfigSnapshot getConfigSnapshot() {
+        ConfigSnapshot snapshot = configSnapshot;
+        if (snapshot == null) {
+            // First access before onEnable (e.g. constructor debug logging)
+            snapshot = reloadConfigSnapshot();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the snapshot from the live {@code plugin.getConfig()} and
+     * publishes it. Call after anything that changes the in-memory config.
+     */
+    public ConfigSnapshot reloadConfigSnapshot() {
+        ConfigSnapshot snapshot = ConfigSnapshot.of(plugin.getConfig());
+        teleportOnCountdownEnd = snapshot.isTeleportOnCountdownEnd();
+        multipleSpawnPriority = snapshot.getMultipleSpawnPriority();
+        debugEnabled = snapshot.isDebugMode();
+        configSnapshot = snapshot;
+        if (Bukkit.getServer() != null) {
+            enabledWorldIndex.rebuild(snapshot, Bukkit.getWorlds());
+        }
+        return snapshot;
+    }
+
     // -----------------------------------------------------------------------
     // Shared helpers
     // -----------------------------------------------------------------------
 
+    /**
+     * Whether the plugin's mechanics apply in {@code world}. Constant-time and
+     * allocation-free; use this on event paths.
+     */
+    public boolean isWorldEnabled(World world) {
+        return enabledWorldIndex.isEnabled(world);
+    }
+
+    /** Name-based variant for worlds that may not be loaded (e.g. saved spawn locations). */
     public boolean isWorldEnabled(String worldName) {
-        if (plugin.getConfig().contains("enabled-worlds." + worldName)) {
-            boolean enabled = plugin.getConfig()
-                    .getBoolean("enabled-worlds." + worldName, true);
-            debugLog("[NakedAndAfraid] World '" + worldName + "' enabled: " + enabled);
-            return enabled;
-        }
-        debugLog("[NakedAndAfraid] World '" + worldName
-                + "' not in config, default enabled: true");
-        return true;
+        boolean enabled = getConfigSnapshot().isWorldEnabled(worldName);
+        debugLog("[NakedAndAfraid] World '{}' enabled: {}", worldName, enabled);
+        return enabled;
     }
 
     public org.bukkit.configuration.file.FileConfiguration getConfig() {
@@ -161,9 +264,10 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
         doUnregisterVersionListeners();   // hook for totem etc.
 
         // ---- rebuild phase ----
+        ConfigSnapshot config = getConfigSnapshot();
 
         // Chat restriction
-        if (plugin.getConfig().getBoolean("disable-chat", true)) {
+        if (config.isDisableChat()) {
             setChatRestrictionListener(createChatRestrictionListener());
             plugin.getServer().getPluginManager()
                     .registerEvents(getChatRestrictionListener(), plugin);
@@ -175,22 +279,17 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
         }
 
         // Tab hiding
-        if (plugin.getConfig().getBoolean("disable-tab", true)) {
+        if (config.isDisableTab()) {
             enableTabListClearer();
             plugin.getLogger().info("Naked And Afraid - Tab Hider Enabled.");
+            // enable() already queues every online player in an enabled world
             debugLog("[NakedAndAfraid] Enabled TabListClearer");
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                if (isWorldEnabled(player.getWorld().getName())) {
-                    applyTabListClearerToPlayer(player);
-                    debugLog("[NakedAndAfraid] Applied TabListClearer to " + player.getName());
-                }
-            }
         } else {
             debugLog("[NakedAndAfraid] Tab hider not enabled (disable-tab=false)");
         }
 
         // Armor damage
-        if (plugin.getConfig().getBoolean("armor-damage.enabled", true)) {
+        if (config.isArmorDamageEnabled()) {
             setArmorDamageListener(createArmorDamageListener());
             plugin.getServer().getPluginManager()
                     .registerEvents(getArmorDamageListener(), plugin);
@@ -203,7 +302,7 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
         }
 
         // Join/quit suppression
-        if (plugin.getConfig().getBoolean("disable-join-quit-messages", true)) {
+        if (config.isDisableJoinQuitMessages()) {
             setJoinQuitSuppressor(createJoinQuitSuppressor());
             plugin.getServer().getPluginManager()
                     .registerEvents(getJoinQuitSuppressor(), plugin);
@@ -229,29 +328,30 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
     @Override
     public boolean onCommand(CommandSender sender, Command command,
                              String label, String[] args) {
-        debugLog("[NakedAndAfraid] Processing command: " + label
-                + " " + String.join(" ", args));
+        if (isDebugEnabled()) {
+            debugLog("[NakedAndAfraid] Processing command: " + label
+                    + " " + String.join(" ", args));
+        }
 
         if (!(label.equalsIgnoreCase("nf")
                 || label.equalsIgnoreCase("nakedafraid"))) {
-            debugLog("[NakedAndAfraid] Invalid command label: " + label);
+            debugLog("[NakedAndAfraid] Invalid command label: {}", label);
             return false;
         }
 
         // Pre-1.13 servers treat `return false` as "show usage"; 1.13+ treat it as
         // "unknown command".  We preserve the original behaviour.
-        boolean isPre113 = !Bukkit.getBukkitVersion()
-                .matches(".*1\\.(1[3-9]|2[0-9]).*");
+        boolean isPre113 = getServerCapabilities().isPre113();
 
         if (args.length == 0 || args[0].equalsIgnoreCase("help")) {
             int page = 1;
             if (args.length >= 2) {
                 try {
                     page = Integer.parseInt(args[1]);
-                    debugLog("[NakedAndAfraid] Parsed help page: " + page);
+                    debugLog("[NakedAndAfraid] Parsed help page: {}", page);
                 } catch (NumberFormatException ignored) {
                     sendErrorMessage(sender, "Invalid help page number. Showing page 1.");
-                    debugLog("[NakedAndAfraid] Invalid help page: " + args[1]);
+                    debugLog("[NakedAndAfraid] Invalid help page: {}", args[1]);
                 }
             }
             sendHelpMessage(sender, page);
@@ -265,15 +365,11 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
                 if (!sender.hasPermission("nakedandafraid.reload")) {
                     sendErrorMessage(sender,
                             "You don't have permission to execute this command.");
-                    debugLog("[NakedAndAfraid] " + sender.getName()
-                            + " lacks permission for reloadconfig");
+                    debugLog("[NakedAndAfraid] {} lacks permission for reloadconfig", sender.getName());
                     return !isPre113;
                 }
                 plugin.reloadConfig();
-                teleportOnCountdownEnd = plugin.getConfig()
-                        .getBoolean("teleport-on-countdown-end", false);
-                multipleSpawnPriority = plugin.getConfig()
-                        .getString("multiple-spawn-priority", "FIRST").toUpperCase();
+                reloadConfigSnapshot();
                 debugLog("[NakedAndAfraid] Reloaded config");
                 reloadListeners();
                 if (getArmorDamageListener() != null) {
@@ -318,8 +414,7 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
         }
 
         sendErrorMessage(sender, "Unknown subcommand. Use /nf help for commands.");
-        debugLog("[NakedAndAfraid] Unknown subcommand from "
-                + sender.getName() + ": " + args[0]);
+        debugLog("[NakedAndAfraid] Unknown subcommand from {}: {}", sender.getName(), args[0]);
         return !isPre113;
     }
 
@@ -330,8 +425,10 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command,
                                       String alias, String[] args) {
-        debugLog("[NakedAndAfraid] Tab completion: " + command.getName()
-                + " " + String.join(" ", args));
+        if (isDebugEnabled()) {
+            debugLog("[NakedAndAfraid] Tab completion: " + command.getName()
+                    + " " + String.join(" ", args));
+        }
 
         if (!(command.getName().equalsIgnoreCase("nf")
                 || command.getName().equalsIgnoreCase("nakedafraid"))) {
@@ -377,7 +474,10 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
 
     private List<String> tabCompleteSpawn(CommandSender sender, String[] args) {
         if (args.length == 2) {
-            return Arrays.asList("create", "rename", "remove", "list", "tp", "tpall");
+            return Arrays.asList("create", "generate", "rename", "remove", "list", "tp", "tpall");
+        }
+        if (args.length == 5 && args[1].equalsIgnoreCase("generate")) {
+            return Arrays.asList("ring", "grid", "poisson");
         }
         if (args.length == 3) {
             if (args[1].equalsIgnoreCase("create")) {
@@ -388,6 +488,9 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
                     || args[1].equalsIgnoreCase("tp")) {
                 return new java.util.ArrayList<>(getSpawnNames());
             }
+            if (args[1].equalsIgnoreCase("tpall")) {
+                return Collections.singletonList("cancel");
+            }
         }
         if (args.length == 4) {
             if (args[1].equalsIgnoreCase("create")
@@ -403,7 +506,14 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
 
     private List<String> tabCompleteTeams(CommandSender sender, String[] args) {
         if (args.length == 2) {
-            return Arrays.asList("create", "remove", "list");
+            return Arrays.asList("create", "remove", "list", "autofill");
+        }
+        if (args[1].equalsIgnoreCase("autofill")) {
+            List<String> completions = new java.util.ArrayList<>(getOnlinePlayerNames());
+            if (args.length == 3) {
+                completions.addAll(0, Arrays.asList("round-robin", "smallest", "pairs"));
+            }
+            return completions;
         }
         if (args.length == 3) {
             if (args[1].equalsIgnoreCase("remove")) {
@@ -494,7 +604,7 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
         }
 
         sendRawMessage(sender, "§ePage " + page + " of " + totalPages);
-        debugLog("[NakedAndAfraid] Sent help page " + page + " to " + sender.getName());
+        debugLog("[NakedAndAfraid] Sent help page {} to {}", page, sender.getName());
     }
 
     /**
@@ -510,10 +620,12 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
                 "§e/nf spawn remove (spawn-name) §7- Delete a spawn",
                 "§e/nf spawn list §7- List all spawns",
                 "§e/nf spawn tp (spawn-name) (player) §7- Teleport a player to a spawn",
-                "§e/nf spawn tpall §7- Teleport all players to their spawns",
+                "§e/nf spawn tpall [cancel] §7- Teleport all players to their spawns, or stop a running teleport",
+                "§e/nf spawn generate (count) (radius) [ring|grid|poisson] §7- Generate spawns on safe ground around you",
                 "§e/nf teams create (team-name) (team-color) §7- Define a new team",
                 "§e/nf teams remove (team-name) §7- Delete an existing team",
                 "§e/nf teams list §7- List all existing teams",
+                "§e/nf teams autofill [round-robin|smallest|pairs] [players...] §7- Spread unassigned players across teams",
                 "§e/nf team (team-name) meta color get §7- Get a team's color",
                 "§e/nf team (team-name) meta color set (color) §7- Change a team's color",
                 "§e/nf team (team-name) setblock (y) (z) §7- Set a team's spawn block with coordinates",
@@ -537,17 +649,56 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
         console.sendMessage("");
 
         String currentVersion = plugin.getDescription().getVersion();
-        debugLog("[NakedAndAfraid] Checking version: current=" + currentVersion);
-        VersionChecker checker = new VersionChecker(
-                this, plugin.getConfig().getString("github-api-token", null));
-        String latestVersion = checker.getLatestVersion();
-
-        if (latestVersion != null && checker.isOutdated(currentVersion)) {
-            sendOutdatedWarning(console, currentVersion, latestVersion);
-            debugLog("[NakedAndAfraid] Notified console of outdated version: "
-                    + latestVersion);
-        } else {
-            debugLog("[NakedAndAfraid] Version is up to date");
+        debugLog("[NakedAndAfraid] Checking version: current={}", currentVersion);
+
+        // The lookup runs off-thread; the warning is posted back to the main thread
+        startUpdateCheckService(currentVersion).start().thenAccept(result -> {
+            if (!result.isOutdated()) {
+                debugLog("[NakedAndAfraid] Version is up to date");
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                sendOutdatedWarning(console, result.getCurrentVersion(), result.getLatestVersion());
+                debugLog("[NakedAndAfraid] Notified console of outdated version: {}", result.getLatestVersion());
+            });
+        });
+    }
+
+    /**
+     * Resolves player names from commands without blocking on a profile lookup.
+     *
+     * @return the resolver, or {@code null} while the plugin is disabled
+     */
+    public PlayerResolver getPlayerResolver() {
+        return playerResolver;
+    }
+
+    // -----------------------------------------------------------------------
+    // Update check
+    // -----------------------------------------------------------------------
+
+    /**
+     * Shared update check. Join listeners read {@link UpdateCheckService#getCached()}
+     * and never trigger a lookup themselves.
+     *
+     * @return the service, or {@code null} before startup has run
+     */
+    public UpdateCheckService getUpdateCheckService() {
+        return updateCheckService;
+    }
+
+    private UpdateCheckService startUpdateCheckService(String currentVersion) {
+        stopUpdateCheckService();
+        VersionChecker checker = new VersionChecker(this, getConfigSnapshot().getGithubApiToken());
+        updateCheckService = new UpdateCheckService(
+                this, checker, currentVersion, UpdateCheckService.DEFAULT_TTL_MILLIS);
+        return updateCheckService;
+    }
+
+    private void stopUpdateCheckService() {
+        if (updateCheckService != null) {
+            updateCheckService.shutdown();
+            updateCheckService = null;
         }
     }
 
@@ -707,6 +858,9 @@ public abstract class AbstractNakedAndAfraid implements PluginDelegate, PluginLo
     /** Saves spawn data to disk (called on disable). */
     protected abstract void saveSpawnManager();
 
+    /** Releases what managers leave on the server, e.g. scoreboard teams (called on disable). */
+    protected abstract void shutdownManagers();
+
     // --- chat / manager listener cleanup ---
 
     private void unregisterAndClearChatRestriction() {
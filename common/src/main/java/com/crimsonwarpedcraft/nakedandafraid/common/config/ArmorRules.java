@@ -0,0 +1,141 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.config;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * {@code armor-damage.armor-slot} and {@code armor-damage.armor-material}
+ * compiled into a slot bitmask and a {@link Material#ordinal()}-indexed table.
+ * <p>
+ * Built once per config load; the per-player checks do no string work, no
+ * hashing and no boxing. Slot indices follow
+ * {@link PlayerInventory#getArmorContents()}: boots, leggings, chestplate,
+ * helmet.
+ */
+public final class ArmorRules {
+
+    public static final int BOOTS = 0;
+    public static final int LEGGINGS = 1;
+    public static final int CHESTPLATE = 2;
+    public static final int HELMET = 3;
+    public static final int ALL_SLOTS = 0b1111;
+
+    private static final String[] SLOT_NAMES = {"BOOTS", "LEGGINGS", "CHESTPLATE", "HELMET"};
+
+    private final int slotMask;
+    private final boolean[] materials;
+
+    private ArmorRules(int slotMask, boolean[] materials) {
+        this.slotMask = slotMask;
+        this.materials = materials;
+    }
+
+    /**
+     * @param slotNames slot names ({@code HELMET}, ...), case-insensitive; unknown names are ignored
+     * @param armorMaterials materials that count as armor; {@code null} entries are ignored
+     */
+    public static ArmorRules of(Collection<String> slotNames, Collection<Material> armorMaterials) {
+        int mask = 0;
+        for (String name : slotNames) {
+            int slot = slotIndex(name);
+            if (slot >= 0) {
+                mask |= 1 << slot;
+            }
+        }
+        boolean[] table = new boolean[Material.values().length];
+        for (Material material : armorMaterials) {
+            if (material != null) {
+                table[material.ordinal()] = true;
+            }
+        }
+        return new ArmorRules(mask, table);
+    }
+
+    /** Slot index for a slot name, or {@code -1}. */
+    public static int slotIndex(String slotName) {
+        if (slotName == null) {
+            return -1;
+        }
+        String upper = slotName.toUpperCase(Locale.ENGLISH);
+        for (int i = 0; i < SLOT_NAMES.length; i++) {
+            if (SLOT_NAMES[i].equals(upper)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Slot a material is worn in, judged by its name, or {@code -1} if it isn't
+     * a helmet, chestplate, leggings or boots. Meant for config loading only.
+     */
+    public static int slotOf(Material material) {
+        if (material == null) {
+            return -1;
+        }
+        String name = material.name();
+        for (int i = 0; i < SLOT_NAMES.length; i++) {
+            if (name.endsWith("_" + SLOT_NAMES[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static String slotName(int slot) {
+        return SLOT_NAMES[slot];
+    }
+
+    public int getSlotMask() {
+        return slotMask;
+    }
+
+    public boolean isSlotEnabled(int slot) {
+        return (slotMask & (1 << slot)) != 0;
+    }
+
+    public boolean isMaterialEnabled(Material material) {
+        return material != null && materials[material.ordinal()];
+    }
+
+    /** Whether {@code item} worn in {@code slot} triggers armor damage. */
+    public boolean matches(int slot, ItemStack item) {
+        return item != null && isSlotEnabled(slot) && materials[item.getType().ordinal()];
+    }
+
+    /** Index of the first slot in {@code armorContents} that matches, or {@code -1}. */
+    public int firstMatch(ItemStack[] armorContents) {
+        int slots = Math.min(armorContents.length, SLOT_NAMES.length);
+        for (int slot = 0; slot < slots; slot++) {
+            if (matches(slot, armorContents[slot])) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the first enabled slot of {@code inventory} that matches, or
+     * {@code -1}. Only reads the slots in the mask, and doesn't build the
+     * array {@link PlayerInventory#getArmorContents()} would.
+     */
+    public int firstMatch(PlayerInventory inventory) {
+        if ((slotMask & (1 << BOOTS)) != 0 && matches(BOOTS, inventory.getBoots())) {
+            return BOOTS;
+        }
+        if ((slotMask & (1 << LEGGINGS)) != 0 && matches(LEGGINGS, inventory.getLeggings())) {
+            return LEGGINGS;
+        }
+        if ((slotMask & (1 << CHESTPLATE)) != 0 && matches(CHESTPLATE, inventory.getChestplate())) {
+            return CHESTPLATE;
+        }
+        if ((slotMask & (1 << HELMET)) != 0 && matches(HELMET, inventory.getHelmet())) {
+            return HELMET;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,280 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, typed view of {@code config.yml}.
+ * <p>
+ * Built once from the live configuration on enable and on
+ * {@code /nf reloadconfig}, then published through a single volatile field in
+ * {@code AbstractNakedAndAfraid}. Event handlers read plain final fields from
+ * the current snapshot instead of walking the {@code MemorySection} tree with
+ * string paths on every call.
+ * <p>
+ * Defaults match the ones previously passed to {@code getConfig().getXxx(path, def)}
+ * at each call site, so behaviour is unchanged when a key is missing.
+ */
+public final class ConfigSnapshot {
+
+    // Global toggles
+    private final boolean debugMode;
+    private final boolean disableChat;
+    private final boolean disableTab;
+    private final String tabHideMode;
+    private final int tabPacketsPerTick;
+    private final boolean disableJoinQuitMessages;
+    private final boolean disableTotems;
+    private final boolean deathSound;
+
+    // Armor damage
+    private final boolean armorDamageEnabled;
+    private final double armorDamageAmount;
+    private final long armorDamageIntervalTicks;
+    private final boolean armorIncludeOffhand;
+    private final List<String> armorSlots;
+    private final List<String> armorMaterials;
+    private final long armorReconcileIntervalTicks;
+
+    // Worlds
+    private final Map<String, Boolean> enabledWorlds;
+
+    // Spawns / countdown
+    private final int maxSpawns;
+    private final boolean enableCountdown;
+    private final int countdownDuration;
+    private final String countdownColor;
+    private final boolean countdownFreeze;
+    private final String countdownMessage;
+    private final boolean teleportOnCountdownEnd;
+    private final String multipleSpawnPriority;
+    private final int tpAllPlayersPerTick;
+    private final long tpAllTickBudgetMillis;
+    private final long spawnsSaveDelayTicks;
+
+    // Teams
+    private final int maxTeams;
+    private final String teamBlock;
+
+    // Misc
+    private final String githubApiToken;
+
+    private ConfigSnapshot(ConfigurationSection config) {
+        this.debugMode = config.getBoolean("debug-mode", false);
+        this.disableChat = config.getBoolean("disable-chat", true);
+        this.disableTab = config.getBoolean("disable-tab", true);
+        this.tabHideMode = upper(config.getString("tab-hide-mode", "REMOVE"), "REMOVE");
+        this.tabPacketsPerTick = config.getInt("tab-packets-per-tick", 200);
+        this.disableJoinQuitMessages = config.getBoolean("disable-join-quit-messages", true);
+        this.disableTotems = config.getBoolean("disable-totems", true);
+        this.deathSound = config.getBoolean("death-sound", true);
+
+        this.armorDamageEnabled = config.getBoolean("armor-damage.enabled", true);
+        this.armorDamageAmount = config.getDouble("armor-damage.damage-amount", 1.0);
+        this.armorDamageIntervalTicks = config.getLong("armor-damage.damage-interval-ticks", 20L);
+        this.armorIncludeOffhand = config.getBoolean("armor-damage.include-offhand", false);
+        this.armorSlots = copyOf(config.getStringList("armor-damage.armor-slot"));
+        this.armorMaterials = copyOf(config.getStringList("armor-damage.armor-material"));
+        this.armorReconcileIntervalTicks = config.getLong("armor-damage.reconcile-interval-ticks", 600L);
+
+        Map<String, Boolean> worlds = new HashMap<>();
+        ConfigurationSection worldSection = config.getConfigurationSection("enabled-worlds");
+        if (worldSection != null) {
+            for (String worldName : worldSection.getKeys(false)) {
+                worlds.put(worldName, worldSection.getBoolean(worldName, true));
+            }
+        }
+        this.enabledWorlds = Collections.unmodifiableMap(worlds);
+
+        this.maxSpawns = config.getInt("max-spawns", 10);
+        this.enableCountdown = config.getBoolean("enable-countdown", true);
+        this.countdownDuration = config.getInt("countdown-duration", 10);
+        this.countdownColor = upper(config.getString("countdown-color", "RED"), "RED");
+        this.countdownFreeze = config.getBoolean("countdown-freeze", true);
+        this.countdownMessage = orDefault(config.getString("countdown-message", "Game starts in {time}"),
+                "Game starts in {time}");
+        this.teleportOnCountdownEnd = config.getBoolean("teleport-on-countdown-end", false);
+        this.multipleSpawnPriority = upper(config.getString("multiple-spawn-priority", "FIRST"), "FIRST");
+        this.tpAllPlayersPerTick = config.getInt("tpall-players-per-tick", 5);
+        this.tpAllTickBudgetMillis = config.getLong("tpall-tick-budget-ms", 0L);
+        this.spawnsSaveDelayTicks = config.getLong("spawns-save-delay-ticks", 20L);
+
+        this.maxTeams = config.getInt("max-teams", 10);
+        this.teamBlock = upper(config.getString("team-block", "LODESTONE"), "LODESTONE");
+
+        this.githubApiToken = config.getString("github-api-token", null);
+    }
+
+    /**
+     * Reads every key the plugin uses from {@code config} and freezes the result.
+     * Must be called on the main thread; the returned object is safe to share.
+     */
+    public static ConfigSnapshot of(ConfigurationSection config) {
+        return new ConfigSnapshot(config);
+    }
+
+    private static List<String> copyOf(List<String> list) {
+        if (list == null || list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    private static String orDefault(String value, String def) {
+        return value != null ? value : def;
+    }
+
+    private static String upper(String value, String def) {
+        return value != null ? value.toUpperCase(java.util.Locale.ENGLISH) : def;
+    }
+
+    // -----------------------------------------------------------------------
+    // Accessors
+    // -----------------------------------------------------------------------
+
+    public boolean isDebugMode() {
+        return debugMode;
+    }
+
+    public boolean isDisableChat() {
+        return disableChat;
+    }
+
+    public boolean isDisableTab() {
+        return disableTab;
+    }
+
+    /**
+     * {@code REMOVE} (send removal packets after the server's own) or
+     * {@code FILTER} (strip hidden entries from outbound packets).
+     */
+    public String getTabHideMode() {
+        return tabHideMode;
+    }
+
+    /** Most tab list packets to send per tick; 0 or less means no limit. */
+    public int getTabPacketsPerTick() {
+        return tabPacketsPerTick;
+    }
+
+    public boolean isDisableJoinQuitMessages() {
+        return disableJoinQuitMessages;
+    }
+
+    public boolean isDisableTotems() {
+        return disableTotems;
+    }
+
+    public boolean isDeathSound() {
+        return deathSound;
+    }
+
+    public boolean isArmorDamageEnabled() {
+        return armorDamageEnabled;
+    }
+
+    public double getArmorDamageAmount() {
+        return armorDamageAmount;
+    }
+
+    public long getArmorDamageIntervalTicks() {
+        return armorDamageIntervalTicks;
+    }
+
+    public boolean isArmorIncludeOffhand() {
+        return armorIncludeOffhand;
+    }
+
+    /** Raw {@code armor-damage.armor-slot} entries, unvalidated. */
+    public List<String> getArmorSlots() {
+        return armorSlots;
+    }
+
+    /** Raw {@code armor-damage.armor-material} entries, unvalidated. */
+    public List<String> getArmorMaterials() {
+        return armorMaterials;
+    }
+
+    /**
+     * Ticks between full armor re-checks of every online player when armor
+     * changes are tracked through inventory events; {@code <= 0} disables the sweep.
+     */
+    public long getArmorReconcileIntervalTicks() {
+        return armorReconcileIntervalTicks;
+    }
+
+    /** Unmodifiable view of the {@code enabled-worlds} section. */
+    public Map<String, Boolean> getEnabledWorlds() {
+        return enabledWorlds;
+    }
+
+    /** A world missing from {@code enabled-worlds} counts as enabled. */
+    public boolean isWorldEnabled(String worldName) {
+        Boolean enabled = enabledWorlds.get(worldName);
+        return enabled == null || enabled;
+    }
+
+    public int getMaxSpawns() {
+        return maxSpawns;
+    }
+
+    public boolean isEnableCountdown() {
+        return enableCountdown;
+    }
+
+    public int getCountdownDuration() {
+        return countdownDuration;
+    }
+
+    public String getCountdownColor() {
+        return countdownColor;
+    }
+
+    public boolean isCountdownFreeze() {
+        return countdownFreeze;
+    }
+
+    public String getCountdownMessage() {
+        return countdownMessage;
+    }
+
+    public boolean isTeleportOnCountdownEnd() {
+        return teleportOnCountdownEnd;
+    }
+
+    public String getMultipleSpawnPriority() {
+        return multipleSpawnPriority;
+    }
+
+    /** Teleports /nf spawn tpall starts per tick; 0 or less for no limit. */
+    public int getTpAllPlayersPerTick() {
+        return tpAllPlayersPerTick;
+    }
+
+    /** Milliseconds per tick /nf spawn tpall may spend starting teleports; 0 or less for no limit. */
+    public long getTpAllTickBudgetMillis() {
+        return tpAllTickBudgetMillis;
+    }
+
+    /** Ticks to wait after a spawn change before spawns.yml is written; later changes share the write. */
+    public long getSpawnsSaveDelayTicks() {
+        return spawnsSaveDelayTicks;
+    }
+
+    public int getMaxTeams() {
+        return maxTeams;
+    }
+
+    public String getTeamBlock() {
+        return teamBlock;
+    }
+
+    public String getGithubApiToken() {
+        return githubApiToken;
+    }
+}
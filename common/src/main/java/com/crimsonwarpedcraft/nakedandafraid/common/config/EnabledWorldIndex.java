@@ -0,0 +1,84 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.config;
+
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * {@code enabled-worlds} resolved against the loaded worlds, keyed by
+ * {@link World#getUID()}.
+ * <p>
+ * Per-event checks ({@link #isEnabled(World)}) are a single hash lookup on a
+ * UUID the world already holds: no string concatenation, no config read and
+ * no allocation. The map is copy-on-write: it is rebuilt whenever the config
+ * snapshot is swapped and patched on {@link WorldLoadEvent} /
+ * {@link WorldUnloadEvent}, so readers on any thread always see a complete
+ * table.
+ * <p>
+ * A world that isn't in the table (e.g. one loaded before this listener was
+ * registered) falls back to the snapshot's name lookup.
+ */
+public final class EnabledWorldIndex implements Listener {
+
+    private final Supplier<ConfigSnapshot> config;
+    private volatile Map<UUID, Boolean> byUid = Collections.emptyMap();
+
+    /**
+     * @param config supplies the current snapshot for world-load events and lookups that miss
+     */
+    public EnabledWorldIndex(Supplier<ConfigSnapshot> config) {
+        this.config = config;
+    }
+
+    /** Replaces the whole table with {@code worlds} resolved against {@code snapshot}. */
+    public void rebuild(ConfigSnapshot snapshot, Collection<? extends World> worlds) {
+        Map<UUID, Boolean> next = new HashMap<>(Math.max(16, worlds.size() * 2));
+        for (World world : worlds) {
+            next.put(world.getUID(), snapshot.isWorldEnabled(world.getName()));
+        }
+        byUid = next;
+    }
+
+    /** Whether the plugin's mechanics apply in {@code world}. */
+    public boolean isEnabled(World world) {
+        Boolean enabled = byUid.get(world.getUID());
+        if (enabled != null) {
+            return enabled;
+        }
+        return config.get().isWorldEnabled(world.getName());
+    }
+
+    /** Number of indexed worlds. */
+    public int size() {
+        return byUid.size();
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onWorldLoad(WorldLoadEvent event) {
+        World world = event.getWorld();
+        Map<UUID, Boolean> next = new HashMap<>(byUid);
+        next.put(world.getUID(), config.get().isWorldEnabled(world.getName()));
+        byUid = next;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        UUID uid = event.getWorld().getUID();
+        if (!byUid.containsKey(uid)) {
+            return;
+        }
+        Map<UUID, Boolean> next = new HashMap<>(byUid);
+        next.remove(uid);
+        byUid = next;
+    }
+}
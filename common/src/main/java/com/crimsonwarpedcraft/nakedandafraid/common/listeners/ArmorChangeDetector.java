@@ -0,0 +1,195 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.listeners;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerPickupItemEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Spigot-compatible replacement for Paper's {@code PlayerArmorChangeEvent}.
+ * <p>
+ * Listens for everything that can put on, take off or break armor (inventory
+ * clicks and drags, right-click equips, dispensers, item breaks, respawns) or
+ * change the held/offhand item, and marks the player dirty. The owner drains
+ * the dirty set once per tick with {@link #drain(Consumer)}, so only players
+ * whose equipment may have changed get re-checked, at most once per tick and
+ * after the inventory change has actually been applied.
+ * <p>
+ * Not thread-safe; all events and {@link #drain(Consumer)} run on the server thread.
+ */
+public final class ArmorChangeDetector implements Listener {
+
+    /** Players within this distance (squared) of a dispenser may have been equipped by it. */
+    private static final double DISPENSE_RANGE_SQUARED = 4.0;
+
+    private final Plugin plugin;
+    private final ServerCapabilities capabilities;
+    /** Only references 1.9+ events, so it's registered separately. */
+    private final Listener swapHandListener = new SwapHandListener();
+    private Set<UUID> dirty = new HashSet<>();
+    private Set<UUID> draining = new HashSet<>();
+    private boolean started;
+
+    public ArmorChangeDetector(Plugin plugin, ServerCapabilities capabilities) {
+        this.plugin = plugin;
+        this.capabilities = capabilities;
+    }
+
+    /** Registers the event handlers; no-op if already started. */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        if (capabilities.isAtLeast(1, 9, 0)) {
+            plugin.getServer().getPluginManager().registerEvents(swapHandListener, plugin);
+        }
+    }
+
+    /** Unregisters the event handlers and forgets all dirty players. */
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        HandlerList.unregisterAll(this);
+        HandlerList.unregisterAll(swapHandListener);
+        dirty.clear();
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    /** Queues {@code player} for a re-check on the next {@link #drain(Consumer)}. */
+    public void markDirty(HumanEntity player) {
+        if (started && player instanceof Player) {
+            dirty.add(player.getUniqueId());
+        }
+    }
+
+    /** Number of players waiting for a re-check. */
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Hands every dirty player that is still online to {@code recheck} and
+     * clears the set. Players marked dirty by {@code recheck} itself are kept
+     * for the next drain.
+     *
+     * @return number of players re-checked
+     */
+    public int drain(Consumer<Player> recheck) {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        Set<UUID> batch = dirty;
+        dirty = draining;
+        draining = batch;
+
+        int checked = 0;
+        for (UUID uuid : batch) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null && player.isOnline()) {
+                recheck.accept(player);
+                checked++;
+            }
+        }
+        batch.clear();
+        return checked;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    // Not ignoreCancelled: the item use may go through even when the block interaction is denied
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        Action action = event.getAction();
+        if (event.hasItem() && (action == Action.RIGHT_CLICK_AIR || action == Action.RIGHT_CLICK_BLOCK)) {
+            markDirty(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerItemBreak(PlayerItemBreakEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    // Held-item changes only matter where the "offhand" is the main hand (pre-1.9)
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerItemHeld(PlayerItemHeldEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerDropItem(PlayerDropItemEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @SuppressWarnings("deprecation")
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerPickupItem(PlayerPickupItemEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockDispense(BlockDispenseEvent event) {
+        String name = event.getItem().getType().name();
+        if (!name.endsWith("_HELMET") && !name.endsWith("_CHESTPLATE")
+                && !name.endsWith("_LEGGINGS") && !name.endsWith("_BOOTS")) {
+            return;
+        }
+        World world = event.getBlock().getWorld();
+        Location center = event.getBlock().getLocation().add(0.5, 0.5, 0.5);
+        for (Player player : world.getPlayers()) {
+            if (player.getLocation().distanceSquared(center) <= DISPENSE_RANGE_SQUARED) {
+                markDirty(player);
+            }
+        }
+    }
+
+    private final class SwapHandListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onPlayerSwapHandItems(PlayerSwapHandItemsEvent event) {
+            markDirty(event.getPlayer());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.listeners;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PluginLogger;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Holds players in place during a teleport countdown.
+ * <p>
+ * Frozen players are kept by UUID. The event handlers are only registered
+ * while at least one player is frozen, so outside of countdowns the plugin
+ * adds nothing to {@link PlayerMoveEvent} and the other hot events. Moves
+ * that only turn the head are let through untouched. Players who quit are
+ * forgotten.
+ * <p>
+ * Not thread-safe; all calls and events run on the server thread.
+ */
+public final class FreezeEngine implements Listener {
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final ServerCapabilities capabilities;
+    /** Only references 1.9+ events, so it's registered separately. */
+    private final Listener swapHandListener = new SwapHandListener();
+    private final Set<UUID> frozen = new HashSet<>();
+
+    public FreezeEngine(Plugin plugin, PluginLogger logger, ServerCapabilities capabilities) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.capabilities = capabilities;
+    }
+
+    public void freeze(Player player) {
+        if (frozen.add(player.getUniqueId()) && frozen.size() == 1) {
+            plugin.getServer().getPluginManager().registerEvents(this, plugin);
+            if (capabilities.isAtLeast(1, 9, 0)) {
+                plugin.getServer().getPluginManager().registerEvents(swapHandListener, plugin);
+            }
+            logger.debugLog("[FreezeEngine] Registered freeze listeners");
+        }
+    }
+
+    public void unfreeze(Player player) {
+        unfreeze(player.getUniqueId());
+    }
+
+    public boolean isFrozen(Player player) {
+        return frozen.contains(player.getUniqueId());
+    }
+
+    /** Number of players currently frozen. */
+    public int frozenCount() {
+        return frozen.size();
+    }
+
+    private void unfreeze(UUID uuid) {
+        if (frozen.remove(uuid) && frozen.isEmpty()) {
+            HandlerList.unregisterAll(this);
+            HandlerList.unregisterAll(swapHandListener);
+            logger.debugLog("[FreezeEngine] Unregistered freeze listeners");
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (!frozen.contains(event.getPlayer().getUniqueId())) {
+            return;
+        }
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null || (from.getX() == to.getX() && from.getY() == to.getY() && from.getZ() == to.getZ())) {
+            return;
+        }
+        // Keep where they're looking, undo where they went
+        Location held = from.clone();
+        held.setYaw(to.getYaw());
+        held.setPitch(to.getPitch());
+        event.setTo(held);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (frozen.contains(event.getPlayer().getUniqueId())) {
+            event.setCancelled(true);
+            logger.debugLog("[FreezeEngine] Cancelled interact for {}", event.getPlayer().getName());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerDropItem(PlayerDropItemEvent event) {
+        if (frozen.contains(event.getPlayer().getUniqueId())) {
+            event.setCancelled(true);
+            logger.debugLog("[FreezeEngine] Cancelled item drop for {}", event.getPlayer().getName());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerCommandPreprocess(PlayerCommandPreprocessEvent event) {
+        if (frozen.contains(event.getPlayer().getUniqueId())) {
+            event.setCancelled(true);
+            event.getPlayer().sendMessage("§cYou cannot run commands while teleporting!");
+            logger.debugLog("[FreezeEngine] Cancelled command '{}' for {}", event.getMessage(), event.getPlayer().getName());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        unfreeze(event.getPlayer().getUniqueId());
+    }
+
+    private final class SwapHandListener implements Listener {
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onPlayerSwapHandItems(PlayerSwapHandItemsEvent event) {
+            if (frozen.contains(event.getPlayer().getUniqueId())) {
+                event.setCancelled(true);
+                logger.debugLog("[FreezeEngine] Cancelled hand swap for {}", event.getPlayer().getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.listeners;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PluginLogger;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps team nametag colors on the server's main scoreboard in step with the
+ * plugin's teams.
+ * <p>
+ * The main scoreboard is shared with vanilla {@code /team} and other plugins,
+ * so every scoreboard team made here is named {@value #TEAM_PREFIX} plus the
+ * team name (shortened to fit before 1.18) and only those are ever touched. They are unregistered again on
+ * {@link #shutdown}, and leftovers from a crash are swept when the engine is
+ * created. Players keep whatever scoreboard they are shown.
+ * <p>
+ * The owner reports what changed (a member joined or left a team, a color
+ * changed, a team went away) and the engine works out, per player, which
+ * scoreboard team their entry should be in. Changes are collected and
+ * applied once on the next tick, adding or removing only the entries and
+ * colors that differ from what was last applied. Players who join get their
+ * entry then; players who quit have it removed.
+ * <p>
+ * A team's nametags only show once it has been {@linkplain #activate
+ * activated}, e.g. by a member using the locator compass, and stay shown for
+ * the rest of the session. Before 1.12 the color is set as the team prefix.
+ * Main thread only.
+ */
+public final class NametagSyncEngine implements Listener {
+
+    /** Marks scoreboard teams owned by this engine. */
+    static final String TEAM_PREFIX = "naf_";
+    /** Scoreboard team name limit before 1.18. */
+    private static final int LEGACY_NAME_LENGTH = 16;
+    /** Hex digits that keep a shortened name unique. */
+    private static final int HASH_LENGTH = 4;
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final boolean teamColorSupported;
+    private final boolean longTeamNames;
+
+    private final Map<String, Desired> teams = new HashMap<>();
+    private final Map<UUID, String> teamOf = new HashMap<>();
+    /** Activated team keys; kept across {@link #remove} so a reloaded team stays shown. */
+    private final Set<String> active = new HashSet<>();
+
+    private final Map<UUID, Applied> applied = new HashMap<>();
+    private final Map<String, ChatColor> appliedColor = new HashMap<>();
+    /** Scoreboard team names registered here, by team key. */
+    private final Map<String, String> registered = new HashMap<>();
+
+    private final Set<String> dirtyTeams = new LinkedHashSet<>();
+    private final Set<UUID> dirtyPlayers = new LinkedHashSet<>();
+    private BukkitTask flushTask;
+
+    public NametagSyncEngine(Plugin plugin, PluginLogger logger, ServerCapabilities capabilities) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.teamColorSupported = capabilities.isAtLeast(1, 12, 0);
+        this.longTeamNames = capabilities.isAtLeast(1, 18, 0);
+        unregisterOwnTeams();
+    }
+
+    /** Creates or replaces a team's color and member list. */
+    public void define(String name, String colorName, Collection<UUID> members) {
+        String key = key(name);
+        Desired team = teams.get(key);
+        if (team == null) {
+            team = new Desired(name);
+            teams.put(key, team);
+        }
+        team.color = colorOf(colorName);
+        dirtyTeams.add(key);
+        for (Iterator<UUID> it = team.members.iterator(); it.hasNext(); ) {
+            UUID uuid = it.next();
+            if (!members.contains(uuid)) {
+                it.remove();
+                teamOf.remove(uuid, key);
+                dirtyPlayers.add(uuid);
+            }
+        }
+        for (UUID uuid : members) {
+            if (team.members.add(uuid)) {
+                teamOf.put(uuid, key);
+                dirtyPlayers.add(uuid);
+            }
+        }
+        scheduleFlush();
+    }
+
+    public void remove(String name) {
+        String key = key(name);
+        Desired team = teams.remove(key);
+        if (team == null) {
+            return;
+        }
+        for (UUID uuid : team.members) {
+            teamOf.remove(uuid, key);
+            dirtyPlayers.add(uuid);
+        }
+        dirtyTeams.add(key);
+        scheduleFlush();
+    }
+
+    public void setColor(String name, String colorName) {
+        Desired team = teams.get(key(name));
+        if (team == null) {
+            return;
+        }
+        team.color = colorOf(colorName);
+        dirtyTeams.add(key(name));
+        scheduleFlush();
+    }
+
+    public void addMember(String name, UUID player) {
+        String key = key(name);
+        Desired team = teams.get(key);
+        if (team != null && team.members.add(player)) {
+            teamOf.put(player, key);
+            dirtyPlayers.add(player);
+            scheduleFlush();
+        }
+    }
+
+    public void removeMember(String name, UUID player) {
+        String key = key(name);
+        Desired team = teams.get(key);
+        if (team != null && team.members.remove(player)) {
+            teamOf.remove(player, key);
+            dirtyPlayers.add(player);
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Starts showing a team's nametag color.
+     *
+     * @return {@code false} if it was already shown
+     */
+    public boolean activate(String name) {
+        String key = key(name);
+        if (!active.add(key)) {
+            return false;
+        }
+        dirtyTeams.add(key);
+        Desired team = teams.get(key);
+        if (team != null) {
+            dirtyPlayers.addAll(team.members);
+        }
+        scheduleFlush();
+        logger.debugLog("[NametagSyncEngine] Activated nametags for team '{}'", name);
+        return true;
+    }
+
+    public boolean isActive(String name) {
+        return active.contains(key(name));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        if (teamOf.containsKey(uuid) || applied.containsKey(uuid)) {
+            dirtyPlayers.add(uuid);
+            scheduleFlush();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        if (applied.containsKey(uuid)) {
+            dirtyPlayers.add(uuid);
+            scheduleFlush();
+        }
+    }
+
+    /** Applies everything collected since the last flush. Called automatically on the next tick. */
+    public void flush() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        if (dirtyTeams.isEmpty() && dirtyPlayers.isEmpty()) {
+            return;
+        }
+        Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
+        int teamChanges = 0;
+        int entryChanges = 0;
+
+        // Players first, so a removed team is empty by the time it is unregistered
+        for (UUID uuid : dirtyPlayers) {
+            Player player = Bukkit.getPlayer(uuid);
+            String want = teamOf.get(uuid);
+            if (player == null || want == null || !active.contains(want)) {
+                want = null;
+            }
+            Applied current = applied.get(uuid);
+            if (current != null && current.teamKey.equals(want) && current.entry.equals(player.getName())) {
+                continue;
+            }
+            if (current != null) {
+                Team from = scoreboard.getTeam(current.scoreboardName);
+                if (from != null) {
+                    from.removeEntry(current.entry);
+                }
+                applied.remove(uuid);
+                entryChanges++;
+            }
+            if (want != null) {
+                Team to = scoreboardTeam(scoreboard, teams.get(want));
+                to.addEntry(player.getName());
+                applied.put(uuid, new Applied(want, to.getName(), player.getName()));
+                entryChanges++;
+            }
+        }
+
+        for (String key : dirtyTeams) {
+            Desired team = teams.get(key);
+            if (team == null || !active.contains(key)) {
+                if (appliedColor.remove(key) != null && team == null) {
+                    String name = registered.remove(key);
+                    Team stale = name != null ? scoreboard.getTeam(name) : null;
+                    if (stale != null && stale.getEntries().isEmpty()) {
+                        stale.unregister();
+                    }
+                    teamChanges++;
+                }
+                continue;
+            }
+            Team scoreboardTeam = scoreboardTeam(scoreboard, team);
+            if (appliedColor.get(key) != team.color) {
+                if (teamColorSupported) {
+                    scoreboardTeam.setColor(team.color);
+                } else {
+                    scoreboardTeam.setPrefix(team.color.toString());
+                }
+                appliedColor.put(key, team.color);
+                teamChanges++;
+            }
+        }
+
+        dirtyPlayers.clear();
+        dirtyTeams.clear();
+        logger.debugLog("[NametagSyncEngine] Applied {} team and {} entry changes", teamChanges, entryChanges);
+    }
+
+    /**
+     * Drops pending changes and unregisters every scoreboard team this engine
+     * owns, so nothing is left on the main scoreboard once the plugin is disabled.
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        dirtyPlayers.clear();
+        dirtyTeams.clear();
+        applied.clear();
+        appliedColor.clear();
+        registered.clear();
+        unregisterOwnTeams();
+    }
+
+    private void unregisterOwnTeams() {
+        int removed = 0;
+        for (Team team : new ArrayList<>(Bukkit.getScoreboardManager().getMainScoreboard().getTeams())) {
+            if (team.getName().startsWith(TEAM_PREFIX)) {
+                team.unregister();
+                removed++;
+            }
+        }
+        logger.debugLog("[NametagSyncEngine] Unregistered {} scoreboard teams", removed);
+    }
+
+    private void scheduleFlush() {
+        if (flushTask == null) {
+            flushTask = Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    private Team scoreboardTeam(Scoreboard scoreboard, Desired team) {
+        String key = key(team.name);
+        String name = registered.get(key);
+        if (name == null) {
+            name = scoreboardName(key, team.name);
+            registered.put(key, name);
+        }
+        Team scoreboardTeam = scoreboard.getTeam(name);
+        if (scoreboardTeam == null) {
+            scoreboardTeam = scoreboard.registerNewTeam(name);
+            scoreboardTeam.setDisplayName(team.name);
+        }
+        return scoreboardTeam;
+    }
+
+    /**
+     * Picks a scoreboard team name no other team key uses. Before 1.18 a name
+     * that doesn't fit is cut short and ends in four hex digits taken from the
+     * key's hash, moved on by one until it is free, so two long names sharing
+     * a start still get separate scoreboard teams.
+     */
+    private String scoreboardName(String key, String teamName) {
+        String name = TEAM_PREFIX + teamName;
+        if (longTeamNames || (name.length() <= LEGACY_NAME_LENGTH && !registered.containsValue(name))) {
+            return name;
+        }
+        String head = name.substring(0, Math.min(name.length(), LEGACY_NAME_LENGTH - HASH_LENGTH));
+        int hash = key.hashCode();
+        for (int i = 0; ; i++) {
+            String candidate = head + String.format("%04x", (hash + i) & 0xffff);
+            if (!registered.containsValue(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static ChatColor colorOf(String colorName) {
+        try {
+            return ChatColor.valueOf(colorName.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            return ChatColor.WHITE;
+        }
+    }
+
+    private static final class Desired {
+        final String name;
+        final Set<UUID> members = new HashSet<>();
+        ChatColor color = ChatColor.WHITE;
+
+        Desired(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Applied {
+        final String teamKey;
+        final String scoreboardName;
+        final String entry;
+
+        Applied(String teamKey, String scoreboardName, String entry) {
+            this.teamKey = teamKey;
+            this.scoreboardName = scoreboardName;
+            this.entry = entry;
+        }
+    }
+}
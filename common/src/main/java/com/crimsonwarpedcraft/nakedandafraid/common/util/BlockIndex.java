@@ -0,0 +1,208 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Values pinned to single blocks, such as team lodestones, looked up by block.
+ * <p>
+ * A position is a world UUID plus the block coordinates packed into one
+ * {@code long}, so "what is at this block" from a block event is two hash
+ * lookups with no scanning, and no {@link World} is held on to. Each value has
+ * at most one block and each block at most one value.
+ * <p>
+ * Positions in worlds that aren't loaded are kept by world name and bound
+ * when the world loads; a world that unloads goes back to waiting. The owner
+ * registers the index as a listener for that. Main thread only.
+ */
+public final class BlockIndex<T> implements Listener {
+
+    private final PluginLogger logger;
+    private final Map<UUID, Map<Long, T>> bound = new HashMap<UUID, Map<Long, T>>();
+    private final Map<String, Map<Long, T>> waiting = new HashMap<String, Map<Long, T>>();
+    private final Map<T, Position> positions = new HashMap<T, Position>();
+
+    public BlockIndex(PluginLogger logger) {
+        this.logger = logger;
+    }
+
+    /** Packs block coordinates into one long: 26 bits each for x and z, 12 for y. */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int unpackX(long key) {
+        return (int) (key >> 38);
+    }
+
+    public static int unpackY(long key) {
+        return (int) (key << 52 >> 52);
+    }
+
+    public static int unpackZ(long key) {
+        return (int) (key << 26 >> 38);
+    }
+
+    /**
+     * Pins {@code value} to a block, replacing its previous block. Whatever was
+     * on that block before loses its position.
+     */
+    public void put(T value, String worldName, int x, int y, int z) {
+        remove(value);
+        long key = pack(x, y, z);
+        World world = Bukkit.getWorld(worldName);
+        Position position = new Position(worldName, key);
+        Map<Long, T> blocks;
+        if (world != null) {
+            position.worldId = world.getUID();
+            blocks = bound.get(position.worldId);
+            if (blocks == null) {
+                blocks = new HashMap<Long, T>();
+                bound.put(position.worldId, blocks);
+            }
+        } else {
+            blocks = waiting.get(worldName);
+            if (blocks == null) {
+                blocks = new HashMap<Long, T>();
+                waiting.put(worldName, blocks);
+            }
+            logger.debugLog("[BlockIndex] World '{}' not loaded, position waits for it", worldName);
+        }
+        T previous = blocks.put(key, value);
+        if (previous != null) {
+            positions.remove(previous);
+        }
+        positions.put(value, position);
+    }
+
+    public void put(T value, Location location) {
+        put(value, location.getWorld().getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public void remove(T value) {
+        Position position = positions.remove(value);
+        if (position == null) {
+            return;
+        }
+        Map<Long, T> blocks = position.worldId != null ? bound.get(position.worldId) : waiting.get(position.worldName);
+        if (blocks != null) {
+            blocks.remove(position.key);
+            if (blocks.isEmpty()) {
+                if (position.worldId != null) {
+                    bound.remove(position.worldId);
+                } else {
+                    waiting.remove(position.worldName);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        bound.clear();
+        waiting.clear();
+        positions.clear();
+    }
+
+    /** The value pinned to this block, or {@code null}. */
+    public T get(World world, int x, int y, int z) {
+        Map<Long, T> blocks = bound.get(world.getUID());
+        return blocks == null ? null : blocks.get(pack(x, y, z));
+    }
+
+    public T get(Block block) {
+        return get(block.getWorld(), block.getX(), block.getY(), block.getZ());
+    }
+
+    /** Where {@code value} is pinned, or {@code null} if nowhere. */
+    public Position positionOf(T value) {
+        return positions.get(value);
+    }
+
+    /** A fresh block-corner location for {@code value}, or {@code null} if it has none or its world isn't loaded. */
+    public Location locationOf(T value) {
+        Position position = positions.get(value);
+        if (position == null || position.worldId == null) {
+            return null;
+        }
+        World world = Bukkit.getWorld(position.worldId);
+        return world == null ? null : new Location(world, position.getX(), position.getY(), position.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onWorldLoad(WorldLoadEvent event) {
+        World world = event.getWorld();
+        Map<Long, T> blocks = waiting.remove(world.getName());
+        if (blocks == null) {
+            return;
+        }
+        UUID worldId = world.getUID();
+        for (T value : blocks.values()) {
+            positions.get(value).worldId = worldId;
+        }
+        Map<Long, T> existing = bound.get(worldId);
+        if (existing == null) {
+            bound.put(worldId, blocks);
+        } else {
+            existing.putAll(blocks);
+        }
+        logger.debugLog("[BlockIndex] Bound {} positions in world '{}'", blocks.size(), world.getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        World world = event.getWorld();
+        Map<Long, T> blocks = bound.remove(world.getUID());
+        if (blocks == null) {
+            return;
+        }
+        for (T value : blocks.values()) {
+            positions.get(value).worldId = null;
+        }
+        waiting.put(world.getName(), blocks);
+        logger.debugLog("[BlockIndex] World '{}' unloaded, {} positions wait for it", world.getName(), blocks.size());
+    }
+
+    /** A block position: world name, the world's UUID once loaded, and the packed coordinates. */
+    public static final class Position {
+        private final String worldName;
+        private final long key;
+        private UUID worldId;
+
+        private Position(String worldName, long key) {
+            this.worldName = worldName;
+            this.key = key;
+        }
+
+        public String getWorldName() {
+            return worldName;
+        }
+
+        /** Whether the world is loaded and the position can be looked up by block. */
+        public boolean isBound() {
+            return worldId != null;
+        }
+
+        public int getX() {
+            return unpackX(key);
+        }
+
+        public int getY() {
+            return unpackY(key);
+        }
+
+        public int getZ() {
+            return unpackZ(key);
+        }
+    }
+}
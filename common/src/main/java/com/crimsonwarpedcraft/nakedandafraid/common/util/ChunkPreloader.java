@@ -0,0 +1,160 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import io.papermc.lib.PaperLib;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads teleport destinations ahead of the teleport itself.
+ * <p>
+ * On Paper 1.13+ chunks are loaded off the main thread through
+ * {@link PaperLib#getChunkAtAsync(Location)}. Elsewhere (Spigot, and every
+ * server the 1.8 module covers) chunks can only be loaded synchronously, so
+ * requests are queued and loaded a few per tick instead of all at once.
+ * Requests for the same chunk share one load, and every request completes
+ * with the loaded {@link Chunk} so callers don't have to look it up again.
+ * <p>
+ * Futures always complete on the main thread. Main thread only.
+ */
+public final class ChunkPreloader {
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final int syncLoadsPerTick;
+    private final boolean async;
+    private final Map<ChunkKey, Request> pending = new LinkedHashMap<ChunkKey, Request>();
+    private BukkitTask task;
+
+    /**
+     * @param syncLoadsPerTick chunks to load per tick when loading can't be done asynchronously
+     */
+    public ChunkPreloader(Plugin plugin, PluginLogger logger, int syncLoadsPerTick) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.syncLoadsPerTick = Math.max(1, syncLoadsPerTick);
+        this.async = PaperLib.isPaper() && PaperLib.isVersion(13);
+    }
+
+    /**
+     * Completes, on the main thread, with the chunk containing {@code target}
+     * once it is loaded, or with {@code null} if {@code target} has no world.
+     */
+    public CompletableFuture<Chunk> preload(Location target) {
+        World world = target.getWorld();
+        int chunkX = target.getBlockX() >> 4;
+        int chunkZ = target.getBlockZ() >> 4;
+        if (world == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (world.isChunkLoaded(chunkX, chunkZ)) {
+            return CompletableFuture.completedFuture(world.getChunkAt(chunkX, chunkZ));
+        }
+
+        if (async) {
+            CompletableFuture<Chunk> loaded = new CompletableFuture<Chunk>();
+            PaperLib.getChunkAtAsync(target).whenComplete((chunk, error) -> onMainThread(() -> {
+                if (error != null) {
+                    loaded.completeExceptionally(error);
+                } else {
+                    loaded.complete(chunk);
+                }
+            }));
+            return loaded;
+        }
+
+        ChunkKey key = new ChunkKey(world.getUID(), chunkX, chunkZ);
+        Request request = pending.get(key);
+        if (request == null) {
+            request = new Request(world, chunkX, chunkZ);
+            pending.put(key, request);
+        }
+        schedule();
+        return request.loaded;
+    }
+
+    /** Number of chunks still waiting for a synchronous load. */
+    public int pendingLoads() {
+        return pending.size();
+    }
+
+    private void schedule() {
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::loadBatch, 1L, 1L);
+        }
+    }
+
+    private void loadBatch() {
+        int loaded = 0;
+        Iterator<Request> it = pending.values().iterator();
+        while (it.hasNext() && loaded < syncLoadsPerTick) {
+            Request request = it.next();
+            it.remove();
+            try {
+                request.loaded.complete(request.world.getChunkAt(request.x, request.z));
+            } catch (RuntimeException e) {
+                request.loaded.completeExceptionally(e);
+            }
+            loaded++;
+        }
+        logger.debugLog("[ChunkPreloader] Loaded {} chunks this tick, {} still queued", loaded, pending.size());
+        if (pending.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void onMainThread(Runnable action) {
+        if (Bukkit.isPrimaryThread()) {
+            action.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, action);
+        }
+    }
+
+    private static final class Request {
+        final World world;
+        final int x;
+        final int z;
+        final CompletableFuture<Chunk> loaded = new CompletableFuture<Chunk>();
+
+        Request(World world, int x, int z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+    }
+
+    private static final class ChunkKey {
+        final UUID world;
+        final long xz;
+
+        ChunkKey(UUID world, int x, int z) {
+            this.world = world;
+            this.xz = ((long) x << 32) | (z & 0xFFFFFFFFL);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ChunkKey)) {
+                return false;
+            }
+            ChunkKey other = (ChunkKey) o;
+            return xz == other.xz && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * world.hashCode() + (int) (xz ^ (xz >>> 32));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Sound;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs every teleport countdown from one task.
+ * <p>
+ * Countdowns started in the same tick with the same duration form a group
+ * that shares a single boss bar, updated once a second for the whole group.
+ * Servers without boss bars (before 1.9) get the countdown message in chat
+ * instead. The task only runs while a countdown is in progress.
+ * <p>
+ * Main thread only.
+ */
+public final class CountdownTicker {
+
+    private static final long TICKS_PER_SECOND = 20L;
+
+    /** One player's part in a countdown. */
+    public interface Participant {
+        Player getPlayer();
+
+        /** Called on the countdown's first second. */
+        void onStart();
+
+        /** Called once the countdown reaches zero. */
+        void onFinish();
+
+        /**
+         * Called instead of {@link #onFinish()} if the player goes offline first
+         * or the ticker is {@linkplain CountdownTicker#shutdown shut down}.
+         */
+        void onLeave();
+    }
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final boolean bossBarSupported;
+    private final Sound tickSound;
+    private final Sound endSound;
+    private final List<Group> groups = new ArrayList<Group>();
+    private final Set<UUID> counting = new HashSet<UUID>();
+    private BukkitTask task;
+    private long tick;
+
+    public CountdownTicker(Plugin plugin, PluginLogger logger, ServerCapabilities capabilities,
+                           Sound tickSound, Sound endSound) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.bossBarSupported = capabilities.isAtLeast(1, 9, 0);
+        this.tickSound = tickSound;
+        this.endSound = endSound;
+    }
+
+    public boolean isCountingDown(Player player) {
+        return counting.contains(player.getUniqueId());
+    }
+
+    /**
+     * Adds {@code participant} to this tick's countdown of {@code seconds},
+     * starting one if there isn't one yet.
+     *
+     * @param messageTemplate shown each second, with {@code {time}} replaced by the seconds left
+     * @param color           a {@link BarColor} name; also picks the chat color where there are no boss bars
+     */
+    public void start(Participant participant, int seconds, String messageTemplate, String color) {
+        Group group = null;
+        for (Group candidate : groups) {
+            if (candidate.startTick == tick && candidate.duration == seconds) {
+                group = candidate;
+                break;
+            }
+        }
+        if (group == null) {
+            group = new Group(seconds, messageTemplate, color);
+            groups.add(group);
+            logger.debugLog("[CountdownTicker] Started {} second countdown, {} running", seconds, groups.size());
+        }
+        group.add(participant);
+        counting.add(participant.getPlayer().getUniqueId());
+
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::run, 0L, 1L);
+        }
+    }
+
+    /**
+     * Stops every countdown and takes its boss bar off the players' screens.
+     * Boss bars outlive the plugin otherwise, so this is called on disable.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (Group group : groups) {
+            if (group.bar != null) {
+                group.bar.removeAll();
+            }
+            for (Participant participant : group.participants) {
+                participant.onLeave();
+            }
+        }
+        logger.debugLog("[CountdownTicker] Shut down with {} countdowns running", groups.size());
+        groups.clear();
+        counting.clear();
+    }
+
+    private void run() {
+        Iterator<Group> it = groups.iterator();
+        while (it.hasNext()) {
+            Group group = it.next();
+            if (group.nextStepTick <= tick && group.step()) {
+                it.remove();
+            }
+        }
+        tick++;
+        if (groups.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private static BarColor barColor(String color) {
+        try {
+            return BarColor.valueOf(color);
+        } catch (IllegalArgumentException e) {
+            return BarColor.RED;
+        }
+    }
+
+    private static ChatColor chatColor(String color) {
+        try {
+            return ChatColor.valueOf(color);
+        } catch (IllegalArgumentException e) {
+            return ChatColor.YELLOW;
+        }
+    }
+
+    private final class Group {
+        final long startTick;
+        final int duration;
+        final String messageTemplate;
+        final String color;
+        final List<Participant> participants = new ArrayList<Participant>();
+        BossBar bar;
+        long nextStepTick;
+        int timeLeft;
+
+        Group(int duration, String messageTemplate, String color) {
+            this.startTick = tick;
+            this.nextStepTick = tick;
+            this.duration = duration;
+            this.timeLeft = duration;
+            this.messageTemplate = messageTemplate;
+            this.color = color;
+            if (bossBarSupported) {
+                bar = Bukkit.createBossBar(message(), barColor(color), BarStyle.SOLID);
+            }
+        }
+
+        void add(Participant participant) {
+            participants.add(participant);
+            if (bar != null) {
+                bar.addPlayer(participant.getPlayer());
+            }
+        }
+
+        /** Advances one second. Returns true once the countdown is over. */
+        boolean step() {
+            dropOffline();
+            if (participants.isEmpty()) {
+                if (bar != null) {
+                    bar.removeAll();
+                }
+                return true;
+            }
+            if (timeLeft == duration) {
+                for (Participant participant : participants) {
+                    participant.onStart();
+                }
+            }
+
+            if (timeLeft <= 0) {
+                for (Participant participant : participants) {
+                    Player player = participant.getPlayer();
+                    counting.remove(player.getUniqueId());
+                    participant.onFinish();
+                    player.playSound(player.getLocation(), endSound, 1, 1);
+                }
+                if (bar != null) {
+                    bar.removeAll();
+                }
+                logger.debugLog("[CountdownTicker] Countdown finished for {} players", participants.size());
+                return true;
+            }
+
+            String message = message();
+            if (bar != null) {
+                bar.setTitle(message);
+                bar.setProgress(Math.max(0.0, Math.min(1.0, (double) timeLeft / duration)));
+            }
+            for (Participant participant : participants) {
+                Player player = participant.getPlayer();
+                if (bar == null) {
+                    player.sendMessage(chatColor(color) + message);
+                }
+                player.playSound(player.getLocation(), tickSound, 1, 1);
+            }
+            logger.debugLog("[CountdownTicker] Countdown at {} seconds for {} players", timeLeft, participants.size());
+
+            timeLeft--;
+            nextStepTick += TICKS_PER_SECOND;
+            return false;
+        }
+
+        private void dropOffline() {
+            Iterator<Participant> it = participants.iterator();
+            while (it.hasNext()) {
+                Participant participant = it.next();
+                Player player = participant.getPlayer();
+                if (player.isOnline()) {
+                    continue;
+                }
+                it.remove();
+                counting.remove(player.getUniqueId());
+                if (bar != null) {
+                    bar.removePlayer(player);
+                }
+                participant.onLeave();
+                logger.debugLog("[CountdownTicker] {} left during their countdown", player.getName());
+            }
+        }
+
+        private String message() {
+            return messageTemplate.replace("{time}", String.valueOf(timeLeft));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Teleports a list of players in waves rather than all in one tick.
+ * <p>
+ * Each tick starts at most {@code playersPerTick} teleports and stops early
+ * once {@code tickBudgetMillis} has been spent, so the entity-tracker and
+ * chunk-send work of a large {@code /nf spawn tpall} is spread out. Players
+ * are looked up when their wave comes round; anyone offline by then is
+ * skipped. Progress is shown to the sender on a boss bar (1.9+) and in chat,
+ * followed by a summary of who was offline or failed.
+ * <p>
+ * One run at a time. Main thread only.
+ */
+public final class MassTeleportScheduler {
+
+    /** Starts one player's teleport; completes with whether it happened. */
+    public interface Teleporter {
+        CompletableFuture<Boolean> teleport(Player player, Location target);
+    }
+
+    /** A player, by name, and where they go. */
+    public static final class Assignment {
+        final String playerName;
+        final Location target;
+
+        public Assignment(String playerName, Location target) {
+            this.playerName = playerName;
+            this.target = target;
+        }
+    }
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final boolean bossBarSupported;
+    private final Teleporter teleporter;
+    private Run current;
+
+    public MassTeleportScheduler(Plugin plugin, PluginLogger logger, ServerCapabilities capabilities,
+                                 Teleporter teleporter) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.bossBarSupported = capabilities.isAtLeast(1, 9, 0);
+        this.teleporter = teleporter;
+    }
+
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    /**
+     * Starts teleporting {@code assignments} in order.
+     *
+     * @param playersPerTick   most teleports started per tick; 0 or less for no limit
+     * @param tickBudgetMillis most time spent starting teleports per tick; 0 or less for no
+     *                         limit. At least one teleport is started every tick.
+     * @return {@code false} if a run is already in progress
+     */
+    public boolean start(CommandSender sender, List<Assignment> assignments, int playersPerTick, long tickBudgetMillis) {
+        if (current != null) {
+            return false;
+        }
+        Run run = new Run(sender, new ArrayList<Assignment>(assignments), playersPerTick, tickBudgetMillis);
+        current = run;
+        logger.debugLog("[MassTeleportScheduler] Starting run of {} teleports for {}", assignments.size(), sender.getName());
+        run.begin();
+        return true;
+    }
+
+    /**
+     * Stops starting new teleports. Teleports already under way still finish
+     * and are included in the summary.
+     *
+     * @return {@code false} if nothing was running
+     */
+    public boolean cancel() {
+        Run run = current;
+        if (run == null) {
+            return false;
+        }
+        current = null;
+        run.cancel();
+        return true;
+    }
+
+    /**
+     * Stops the current run and takes its boss bar down straight away, without
+     * waiting for teleports under way. Boss bars outlive the plugin otherwise,
+     * so this is called on disable.
+     */
+    public void shutdown() {
+        Run run = current;
+        if (run == null) {
+            return;
+        }
+        current = null;
+        run.shutdown();
+    }
+
+    private final class Run {
+        private final CommandSender sender;
+        private final List<Assignment> assignments;
+        private final int playersPerTick;
+        private final long tickBudgetNanos;
+        private final List<String> offline = new ArrayList<String>();
+        private final List<String> failed = new ArrayList<String>();
+        private BossBar bar;
+        private BukkitTask task;
+        private int next;
+        private int inFlight;
+        private int finished;
+        private int teleported;
+        private boolean cancelled;
+        private boolean summarized;
+
+        Run(CommandSender sender, List<Assignment> assignments, int playersPerTick, long tickBudgetMillis) {
+            this.sender = sender;
+            this.assignments = assignments;
+            this.playersPerTick = playersPerTick;
+            this.tickBudgetNanos = tickBudgetMillis > 0 ? tickBudgetMillis * 1_000_000L : 0L;
+        }
+
+        void begin() {
+            if (bossBarSupported && sender instanceof Player) {
+                bar = Bukkit.createBossBar(title(), BarColor.GREEN, BarStyle.SOLID);
+                bar.setProgress(0.0);
+                bar.addPlayer((Player) sender);
+            }
+            sender.sendMessage("§aTeleporting " + assignments.size() + " players in waves...");
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::wave, 0L, 1L);
+        }
+
+        private void wave() {
+            long start = System.nanoTime();
+            int started = 0;
+            while (next < assignments.size()) {
+                if (started > 0 && ((playersPerTick > 0 && started >= playersPerTick)
+                        || (tickBudgetNanos > 0 && System.nanoTime() - start >= tickBudgetNanos))) {
+                    break;
+                }
+                Assignment assignment = assignments.get(next++);
+                Player player = Bukkit.getPlayerExact(assignment.playerName);
+                if (player == null) {
+                    offline.add(assignment.playerName);
+                    finished++;
+                    continue;
+                }
+                started++;
+                inFlight++;
+                String name = player.getName();
+                teleporter.teleport(player, assignment.target).whenComplete((success, error) -> onTeleported(name, success, error));
+            }
+            logger.debugLog("[MassTeleportScheduler] Started {} teleports this tick, {} left", started, assignments.size() - next);
+            updateBar();
+            if (next >= assignments.size()) {
+                stopWaves();
+                summarizeIfDone();
+            }
+        }
+
+        private void onTeleported(String name, Boolean success, Throwable error) {
+            inFlight--;
+            finished++;
+            String progress = " (" + finished + "/" + assignments.size() + ")";
+            if (error == null && Boolean.TRUE.equals(success)) {
+                teleported++;
+                sender.sendMessage("§aTeleported " + name + progress);
+            } else {
+                failed.add(name);
+                sender.sendMessage("§cCould not teleport " + name + progress);
+                logger.debugLog("[MassTeleportScheduler] Teleport of {} failed: {}", name, error);
+            }
+            updateBar();
+            summarizeIfDone();
+        }
+
+        void cancel() {
+            cancelled = true;
+            stopWaves();
+            summarizeIfDone();
+        }
+
+        void shutdown() {
+            cancelled = true;
+            summarized = true;
+            stopWaves();
+            if (bar != null) {
+                bar.removeAll();
+                bar = null;
+            }
+            logger.debugLog("[MassTeleportScheduler] Shut down with {} teleports not started", assignments.size() - next);
+        }
+
+        private void stopWaves() {
+            if (task != null) {
+                task.cancel();
+                task = null;
+            }
+        }
+
+        private void summarizeIfDone() {
+            if (summarized || task != null || inFlight > 0) {
+                return;
+            }
+            summarized = true;
+            if (current == this) {
+                current = null;
+            }
+            if (bar != null) {
+                bar.removeAll();
+                bar = null;
+            }
+
+            int total = assignments.size();
+            sender.sendMessage((cancelled ? "§eTeleport cancelled. " : "§a") + "Teleported " + teleported + "/" + total + " players.");
+            if (!offline.isEmpty()) {
+                sender.sendMessage("§cOffline: " + String.join(", ", offline));
+            }
+            if (!failed.isEmpty()) {
+                sender.sendMessage("§cFailed: " + String.join(", ", failed));
+            }
+            if (cancelled && next < total) {
+                sender.sendMessage("§eNot started: " + (total - next));
+            }
+            logger.debugLog("[MassTeleportScheduler] Run finished, teleported {} of {}", teleported, total);
+        }
+
+        private void updateBar() {
+            if (bar == null) {
+                return;
+            }
+            bar.setTitle(title());
+            bar.setProgress(assignments.isEmpty() ? 1.0 : Math.min(1.0, (double) finished / assignments.size()));
+        }
+
+        private String title() {
+            return "Teleporting players " + finished + "/" + assignments.size();
+        }
+    }
+}
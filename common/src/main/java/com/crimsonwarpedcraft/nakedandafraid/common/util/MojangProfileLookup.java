@@ -0,0 +1,126 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Looks up player UUIDs by name with Mojang's bulk profile endpoint, ten
+ * names per request. A request that fails only loses its own ten names; the
+ * rest are still returned. Blocking; {@link PlayerResolver} only calls it from
+ * its background thread.
+ */
+public class MojangProfileLookup implements PlayerResolver.ProfileLookup {
+
+    private static final String BULK_PROFILE_URL =
+            "https://api.minecraftservices.com/minecraft/profile/lookup/bulk/byname";
+
+    /** Most names the endpoint accepts in one request. */
+    private static final int MAX_NAMES_PER_REQUEST = 10;
+
+    private final PluginLogger logger;
+    private final String url;
+
+    public MojangProfileLookup(PluginLogger logger) {
+        this(logger, BULK_PROFILE_URL);
+    }
+
+    /** Same as {@link #MojangProfileLookup(PluginLogger)} but queries {@code url} instead (used by tests with a local stub). */
+    public MojangProfileLookup(PluginLogger logger, String url) {
+        this.logger = logger;
+        this.url = url;
+    }
+
+    @Override
+    public Map<String, UUID> lookup(Collection<String> names) {
+        Map<String, UUID> found = new HashMap<String, UUID>();
+        List<String> chunk = new ArrayList<String>(MAX_NAMES_PER_REQUEST);
+        for (String name : names) {
+            chunk.add(name);
+            if (chunk.size() == MAX_NAMES_PER_REQUEST) {
+                tryRequest(chunk, found);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            tryRequest(chunk, found);
+        }
+        return found;
+    }
+
+    private void tryRequest(List<String> names, Map<String, UUID> found) {
+        try {
+            request(names, found);
+        } catch (IOException | RuntimeException e) {
+            logger.debugLog("[MojangProfileLookup] Lookup of {} failed: {}", names, e);
+        }
+    }
+
+    private void request(List<String> names, Map<String, UUID> found) throws IOException {
+        JsonArray body = new JsonArray();
+        for (String name : names) {
+            body.add(name);
+        }
+        HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setRequestProperty("User-Agent", "NakedAndAfraid-Plugin");
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        int responseCode = connection.getResponseCode();
+        logger.debugLog("[MojangProfileLookup] Looked up {} names, HTTP {}", names.size(), responseCode);
+        if (responseCode != 200) {
+            InputStream error = connection.getErrorStream();
+            if (error != null) {
+                error.close();
+            }
+            throw new IOException("Profile lookup failed with HTTP " + responseCode);
+        }
+
+        JsonElement json;
+        try (InputStreamReader in = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+            json = JsonParser.parseReader(in);
+        }
+        for (JsonElement element : json.getAsJsonArray()) {
+            JsonObject profile = element.getAsJsonObject();
+            UUID uuid = parseUndashed(profile.get("id").getAsString());
+            if (uuid != null) {
+                found.put(profile.get("name").getAsString(), uuid);
+            }
+        }
+    }
+
+    /** Parses the 32-digit hex form Mojang returns, or {@code null} if malformed. */
+    static UUID parseUndashed(String id) {
+        if (id == null || id.length() != 32) {
+            return null;
+        }
+        try {
+            return new UUID(Long.parseUnsignedLong(id.substring(0, 16), 16),
+                    Long.parseUnsignedLong(id.substring(16), 16));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Sends raw NMS packets to players through {@code CraftPlayer#getHandle()},
+ * the handle's connection field and the connection's send method.
+ * <p>
+ * All three are resolved once, by {@link #resolve}, into {@link MethodHandle}s;
+ * {@link #send(Player, Object)} is then three direct invocations with no
+ * class, method or field lookups.
+ */
+public final class PacketSender {
+
+    private static final MethodType OBJECT_TO_OBJECT = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SEND = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> craftPlayerClass;
+    private final MethodHandle getHandle;
+    private final MethodHandle getConnection;
+    private final MethodHandle sendPacket;
+
+    private PacketSender(Class<?> craftPlayerClass, MethodHandle getHandle, MethodHandle getConnection,
+                         MethodHandle sendPacket) {
+        this.craftPlayerClass = craftPlayerClass;
+        this.getHandle = getHandle;
+        this.getConnection = getConnection;
+        this.sendPacket = sendPacket;
+    }
+
+    /** The running server's {@code CraftPlayer} class, found next to its {@code CraftServer}. */
+    public static Class<?> craftPlayerClass() throws ClassNotFoundException {
+        String craftPackage = Bukkit.getServer().getClass().getPackage().getName();
+        return Class.forName(craftPackage + ".entity.CraftPlayer");
+    }
+
+    /**
+     * Resolves the send path for {@code craftPlayerClass}.
+     *
+     * @param connectionFields candidate names of the player handle's connection field, tried in order
+     * @param packetClass the NMS {@code Packet} interface
+     * @param sendMethods candidate names of the connection's send method, tried in order
+     * @throws ReflectiveOperationException if any member is missing
+     */
+    public static PacketSender resolve(Class<?> craftPlayerClass, String[] connectionFields,
+                                       Class<?> packetClass, String[] sendMethods)
+            throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        Method handleMethod = craftPlayerClass.getMethod("getHandle");
+        Class<?> handleClass = handleMethod.getReturnType();
+        MethodHandle getHandle = lookup.unreflect(handleMethod).asType(OBJECT_TO_OBJECT);
+
+        Field connectionField = findField(handleClass, connectionFields);
+        MethodHandle getConnection = lookup.unreflectGetter(connectionField).asType(OBJECT_TO_OBJECT);
+
+        Method sendMethod = findMethod(connectionField.getType(), sendMethods, packetClass);
+        MethodHandle sendPacket = lookup.unreflect(sendMethod).asType(SEND);
+
+        return new PacketSender(craftPlayerClass, getHandle, getConnection, sendPacket);
+    }
+
+    /** The NMS player ({@code EntityPlayer} / {@code ServerPlayer}) behind {@code player}. */
+    public Object handle(Player player) {
+        try {
+            return (Object) getHandle.invokeExact((Object) craftPlayerClass.cast(player));
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /** Writes {@code packet} to {@code recipient}'s connection. */
+    public void send(Player recipient, Object packet) {
+        try {
+            Object handle = (Object) getHandle.invokeExact((Object) craftPlayerClass.cast(recipient));
+            Object connection = (Object) getConnection.invokeExact(handle);
+            sendPacket.invokeExact(connection, packet);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Field findField(Class<?> owner, String[] names) throws NoSuchFieldException {
+        for (String name : names) {
+            try {
+                return owner.getField(name);
+            } catch (NoSuchFieldException ignored) {
+                // try the next candidate
+            }
+        }
+        throw new NoSuchFieldException(owner.getName() + " has none of the fields " + String.join(", ", names));
+    }
+
+    private static Method findMethod(Class<?> owner, String[] names, Class<?> parameter) throws NoSuchMethodException {
+        for (String name : names) {
+            try {
+                return owner.getMethod(name, parameter);
+            } catch (NoSuchMethodException ignored) {
+                // try the next candidate
+            }
+        }
+        throw new NoSuchMethodException(owner.getName() + " has none of the methods " + String.join(", ", names)
+                + "(" + parameter.getName() + ")");
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException("NMS packet send failed", t);
+    }
+}
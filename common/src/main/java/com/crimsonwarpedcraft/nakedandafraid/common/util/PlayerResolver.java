@@ -0,0 +1,404 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Turns player names from commands into UUIDs without blocking the server
+ * thread on a profile lookup.
+ * <p>
+ * A name is looked for in this order: online players, the server's
+ * {@code usercache.json} (read once at startup), then the plugin's own
+ * {@code players.yml}, which remembers everyone who joined and every earlier
+ * lookup. Names found there are answered straight away, on the calling
+ * thread. Anything else is queued for one {@link ProfileLookup} call on a
+ * background thread; every name missed in the same tick shares that call,
+ * and the callbacks run on the main thread once it returns.
+ * <p>
+ * Offline-mode servers never look names up: their UUIDs are derived from the
+ * name, the same way the server does it. A backend behind a BungeeCord or
+ * Velocity proxy also runs in offline mode, but gets its UUIDs from the
+ * proxy, so it is treated like an online-mode server. Main thread only, apart
+ * from the lookup itself.
+ */
+public final class PlayerResolver implements Listener {
+
+    /** Blocking name-to-UUID lookup; called off the main thread. */
+    public interface ProfileLookup {
+        /**
+         * @return UUIDs keyed by the names as the lookup spells them; names
+         *         that don't exist are left out
+         */
+        Map<String, UUID> lookup(Collection<String> names) throws Exception;
+    }
+
+    /** How long {@code players.yml} waits after a change before it is saved. */
+    private static final long SAVE_DELAY_TICKS = 100L;
+
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9_]{1,16}");
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final ProfileLookup lookup;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+    private final boolean onlineMode;
+    private final YamlWriteBehind writer;
+
+    private final Map<String, Resolved> serverCache;
+    private final Map<UUID, Resolved> known = new HashMap<UUID, Resolved>();
+    private final Map<String, Resolved> knownByName = new HashMap<String, Resolved>();
+
+    /** Callbacks waiting on a lookup, keyed by lower-case name. */
+    private final Map<String, List<Consumer<Resolved>>> pending = new HashMap<String, List<Consumer<Resolved>>>();
+    /** Lower-case names missed this tick, sent together as one lookup. */
+    private final List<String> batch = new ArrayList<String>();
+
+    /**
+     * Resolver for the running server: {@code usercache.json} from the working
+     * directory, where the server keeps it, {@code players.yml} in the plugin's
+     * data folder, and Mojang's profile API when the server is in online mode
+     * or behind a proxy.
+     */
+    public PlayerResolver(Plugin plugin, PluginLogger logger) {
+        this(plugin, logger,
+                new File("usercache.json"),
+                new File(plugin.getDataFolder(), "players.yml"),
+                new MojangProfileLookup(logger), null, Bukkit.getOnlineMode() || isBehindProxy(logger));
+    }
+
+    /**
+     * @param executor   runs lookups; {@code null} for a daemon thread owned by this resolver
+     * @param onlineMode {@code false} to derive offline-mode UUIDs instead of looking names up
+     */
+    public PlayerResolver(Plugin plugin, PluginLogger logger, File serverCacheFile, File cacheFile,
+                          ProfileLookup lookup, Executor executor, boolean onlineMode) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.lookup = lookup;
+        this.onlineMode = onlineMode;
+        if (executor == null) {
+            this.ownExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "NakedAndAfraid-PlayerLookup");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = ownExecutor;
+        } else {
+            this.ownExecutor = null;
+            this.executor = executor;
+        }
+        this.serverCache = loadServerCache(serverCacheFile);
+        loadCache(cacheFile);
+        this.writer = new YamlWriteBehind(plugin, logger, cacheFile, SAVE_DELAY_TICKS, this::snapshot);
+        logger.debugLog("[PlayerResolver] Loaded {} server cache and {} plugin cache entries, online mode {}",
+                serverCache.size(), known.size(), onlineMode);
+    }
+
+    /**
+     * Answers from online players and the caches only; never looks anything up.
+     *
+     * @return the player, or {@code null} if the name isn't known locally
+     */
+    public Resolved resolveCached(String name) {
+        Player online = Bukkit.getPlayerExact(name);
+        if (online != null) {
+            return new Resolved(online.getUniqueId(), online.getName(), true);
+        }
+        String key = key(name);
+        Resolved cached = knownByName.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        cached = serverCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (!onlineMode) {
+            UUID offlineId = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+            Resolved previous = known.get(offlineId);
+            return previous != null ? previous : new Resolved(offlineId, name, false);
+        }
+        return null;
+    }
+
+    /**
+     * Resolves one name. {@code callback} runs immediately if the name is known
+     * locally, otherwise on the main thread once the lookup is back; it gets
+     * {@code null} if the player doesn't exist or the lookup failed.
+     */
+    public void resolve(String name, Consumer<Resolved> callback) {
+        Resolved cached = resolveCached(name);
+        if (cached != null) {
+            callback.accept(cached);
+            return;
+        }
+        if (!VALID_NAME.matcher(name).matches()) {
+            logger.debugLog("[PlayerResolver] '{}' is not a valid player name", name);
+            callback.accept(null);
+            return;
+        }
+        String key = key(name);
+        List<Consumer<Resolved>> waiting = pending.get(key);
+        if (waiting == null) {
+            waiting = new ArrayList<Consumer<Resolved>>(1);
+            pending.put(key, waiting);
+            if (batch.isEmpty()) {
+                Bukkit.getScheduler().runTask(plugin, this::sendBatch);
+            }
+            batch.add(key);
+        }
+        waiting.add(callback);
+    }
+
+    /**
+     * Resolves many names with at most one lookup. {@code callback} gets every
+     * name that was found, keyed as given; names that weren't are left out.
+     */
+    public void resolveAll(Collection<String> names, Consumer<Map<String, Resolved>> callback) {
+        Map<String, Resolved> results = new LinkedHashMap<String, Resolved>();
+        if (names.isEmpty()) {
+            callback.accept(results);
+            return;
+        }
+        int[] remaining = {names.size()};
+        for (String name : names) {
+            resolve(name, resolved -> {
+                if (resolved != null) {
+                    results.put(name, resolved);
+                }
+                if (--remaining[0] == 0) {
+                    callback.accept(results);
+                }
+            });
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        remember(new Resolved(player.getUniqueId(), player.getName(), true));
+    }
+
+    /** Saves {@code players.yml} now and stops the lookup thread. */
+    public void shutdown() {
+        writer.flush();
+        if (ownExecutor != null) {
+            ownExecutor.shutdownNow();
+        }
+        logger.debugLog("[PlayerResolver] Shut down");
+    }
+
+    private void sendBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> names = new ArrayList<String>(batch);
+        batch.clear();
+        logger.debugLog("[PlayerResolver] Looking up {} unknown names", names.size());
+        try {
+            executor.execute(() -> {
+                Map<String, UUID> found;
+                try {
+                    found = lookup.lookup(names);
+                } catch (Exception e) {
+                    logger.debugLog("[PlayerResolver] Lookup of {} failed: {}", names, e);
+                    found = Collections.emptyMap();
+                }
+                Map<String, UUID> result = found;
+                Bukkit.getScheduler().runTask(plugin, () -> complete(names, result));
+            });
+        } catch (RejectedExecutionException e) {
+            complete(names, Collections.<String, UUID>emptyMap());
+        }
+    }
+
+    private void complete(List<String> names, Map<String, UUID> found) {
+        Map<String, Resolved> byKey = new HashMap<String, Resolved>();
+        for (Map.Entry<String, UUID> entry : found.entrySet()) {
+            Resolved previous = known.get(entry.getValue());
+            Resolved resolved = new Resolved(entry.getValue(), entry.getKey(), previous != null && previous.joined);
+            remember(resolved);
+            byKey.put(key(entry.getKey()), resolved);
+        }
+        for (String key : names) {
+            List<Consumer<Resolved>> waiting = pending.remove(key);
+            if (waiting == null) {
+                continue;
+            }
+            Resolved resolved = byKey.get(key);
+            for (Consumer<Resolved> callback : waiting) {
+                callback.accept(resolved);
+            }
+        }
+    }
+
+    private void remember(Resolved resolved) {
+        Resolved previous = known.get(resolved.uuid);
+        if (resolved.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            knownByName.remove(key(previous.name), previous);
+        }
+        known.put(resolved.uuid, resolved);
+        knownByName.put(key(resolved.name), resolved);
+        writer.markDirty();
+    }
+
+    private void loadCache(File file) {
+        if (!file.exists()) {
+            return;
+        }
+        ConfigurationSection players = YamlConfiguration.loadConfiguration(file).getConfigurationSection("players");
+        if (players == null) {
+            return;
+        }
+        for (String id : players.getKeys(false)) {
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(id);
+            } catch (IllegalArgumentException e) {
+                logger.debugLog("[PlayerResolver] Skipping cache entry with invalid UUID {}", id);
+                continue;
+            }
+            String name = players.getString(id + ".name");
+            if (name == null) {
+                continue;
+            }
+            Resolved resolved = new Resolved(uuid, name, players.getBoolean(id + ".joined"));
+            known.put(uuid, resolved);
+            knownByName.put(key(name), resolved);
+        }
+    }
+
+    private YamlConfiguration snapshot() {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Resolved resolved : known.values()) {
+            String path = "players." + resolved.uuid;
+            config.set(path + ".name", resolved.name);
+            config.set(path + ".joined", resolved.joined);
+        }
+        return config;
+    }
+
+    private Map<String, Resolved> loadServerCache(File file) {
+        Map<String, Resolved> entries = new HashMap<String, Resolved>();
+        if (!file.exists()) {
+            return entries;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+                JsonObject entry = element.getAsJsonObject();
+                String name = entry.get("name").getAsString();
+                UUID uuid = UUID.fromString(entry.get("uuid").getAsString());
+                entries.put(key(name), new Resolved(uuid, name, true));
+            }
+        } catch (Exception e) {
+            logger.debugLog("[PlayerResolver] Could not read {}: {}", file.getName(), e);
+        }
+        return entries;
+    }
+
+    /**
+     * Whether player UUIDs come from a proxy: Spigot's {@code settings.bungeecord},
+     * or Velocity forwarding in Paper's {@code config/paper-global.yml} (1.19+)
+     * or {@code paper.yml} (older). Both files sit in the working directory.
+     */
+    private static boolean isBehindProxy(PluginLogger logger) {
+        try {
+            if (Bukkit.spigot().getConfig().getBoolean("settings.bungeecord")) {
+                logger.debugLog("[PlayerResolver] BungeeCord forwarding is enabled");
+                return true;
+            }
+        } catch (RuntimeException | LinkageError e) {
+            // Plain CraftBukkit has no Spigot configuration
+        }
+        if (isEnabled(new File("config", "paper-global.yml"), "proxies.velocity.enabled")
+                || isEnabled(new File("paper.yml"), "settings.velocity-support.enabled")) {
+            logger.debugLog("[PlayerResolver] Velocity forwarding is enabled");
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isEnabled(File file, String path) {
+        return file.exists() && YamlConfiguration.loadConfiguration(file).getBoolean(path);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    /** A player name matched to its UUID. */
+    public static final class Resolved {
+        private final UUID uuid;
+        private final String name;
+        private final boolean joined;
+
+        Resolved(UUID uuid, String name, boolean joined) {
+            this.uuid = uuid;
+            this.name = name;
+            this.joined = joined;
+        }
+
+        public UUID getUniqueId() {
+            return uuid;
+        }
+
+        /** The name as the server or the lookup spells it. */
+        public String getName() {
+            return name;
+        }
+
+        /** Whether the player is known to have been on this server. */
+        public boolean hasJoined() {
+            return joined;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Resolved)) {
+                return false;
+            }
+            Resolved other = (Resolved) o;
+            return uuid.equals(other.uuid) && name.equals(other.name) && joined == other.joined;
+        }
+
+        @Override
+        public int hashCode() {
+            return uuid.hashCode() * 31 + name.hashCode();
+        }
+    }
+}
@@ -1,9 +1,66 @@
 package com.crimsonwarpedcraft.nakedandafraid.common.util;
 
+import java.util.function.Supplier;
+
 /**
  * Minimal logging abstraction used by common utilities so they don't
  * depend on any specific version's NakedAndAfraid class.
+ * <p>
+ * Only {@link #debugLog(String)} builds its message before the debug gate is
+ * checked. Callers that concatenate or format should use the
+ * {@link Supplier} or {@code {}}-placeholder overloads, which cost a single
+ * {@link #isDebugEnabled()} read and no allocation while debug-mode is off.
  */
 public interface PluginLogger {
+
+    /** Cached debug-mode flag; must be a plain field read, no config lookup. */
+    boolean isDebugEnabled();
+
     void debugLog(String message);
-}
\ No newline at end of file
+
+    /** Builds the message only when debug-mode is on. */
+    default void debugLog(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            debugLog(message.get());
+        }
+    }
+
+    /** Replaces the first {@code {}} in {@code pattern} with {@code arg}, only when debug-mode is on. */
+    default void debugLog(String pattern, Object arg) {
+        if (isDebugEnabled()) {
+            debugLog(format(pattern, arg));
+        }
+    }
+
+    /** Two-argument form of {@link #debugLog(String, Object)}; no varargs array on the disabled path. */
+    default void debugLog(String pattern, Object arg1, Object arg2) {
+        if (isDebugEnabled()) {
+            debugLog(format(pattern, arg1, arg2));
+        }
+    }
+
+    /** Three-argument form of {@link #debugLog(String, Object)}. */
+    default void debugLog(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isDebugEnabled()) {
+            debugLog(format(pattern, arg1, arg2, arg3));
+        }
+    }
+
+    /**
+     * Substitutes each {@code {}} in {@code pattern} with the next argument,
+     * left to right. Surplus placeholders are kept verbatim.
+     */
+    static String format(String pattern, Object... args) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 16 * args.length);
+        int from = 0;
+        for (Object arg : args) {
+            int at = pattern.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+            sb.append(pattern, from, at).append(arg);
+            from = at + 2;
+        }
+        return sb.append(pattern, from, pattern.length()).toString();
+    }
+}
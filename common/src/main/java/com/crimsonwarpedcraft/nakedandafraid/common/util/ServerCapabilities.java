@@ -0,0 +1,190 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.Bukkit;
+
+import java.util.function.Predicate;
+
+/**
+ * What the running server can do, probed once at startup.
+ * <p>
+ * Replaces the scattered {@code isPreXXX()} / {@code isPaperXxxSupported()}
+ * helpers that re-ran a regex or re-parsed {@link Bukkit#getBukkitVersion()}
+ * (plus {@code Class.forName}) on every call. Every answer here is a final
+ * field, so checks on hot event paths are plain reads.
+ * <p>
+ * Versions are compared numerically as {@code major.minor.patch}, so releases
+ * past 1.21 (or a future {@code 2x.y} scheme) count as newer rather than
+ * falling through a hard-coded upper bound. An unparseable version is treated
+ * as the oldest possible server, which selects the legacy code paths.
+ */
+public final class ServerCapabilities {
+
+    private static final String PAPER_CHAT_EVENT = "io.papermc.paper.event.player.AsyncChatEvent";
+    private static final String PAPER_ARMOR_CHANGE_EVENT =
+            "com.destroystokyo.paper.event.player.PlayerArmorChangeEvent";
+
+    private final String bukkitVersion;
+    private final int major;
+    private final int minor;
+    private final int patch;
+
+    private final boolean pre1122;
+    private final boolean pre113;
+    private final boolean pre114;
+    private final boolean pre116;
+    private final boolean pre119;
+    private final boolean adventureSupported;
+    private final boolean paperChatSupported;
+    private final boolean paperArmorChangeSupported;
+
+    private ServerCapabilities(String bukkitVersion, Predicate<String> classPresent) {
+        this.bukkitVersion = bukkitVersion;
+        int[] parsed = parseVersion(bukkitVersion);
+        this.major = parsed[0];
+        this.minor = parsed[1];
+        this.patch = parsed[2];
+
+        this.pre1122 = !isAtLeast(1, 12, 2);
+        this.pre113 = !isAtLeast(1, 13, 0);
+        this.pre114 = !isAtLeast(1, 14, 0);
+        this.pre116 = !isAtLeast(1, 16, 0);
+        this.pre119 = !isAtLeast(1, 19, 0);
+        this.adventureSupported = !pre119;
+        this.paperChatSupported = !pre119 && classPresent.test(PAPER_CHAT_EVENT);
+        this.paperArmorChangeSupported = isAtLeast(1, 16, 5) && classPresent.test(PAPER_ARMOR_CHANGE_EVENT);
+    }
+
+    /** Reads the running server's version and probes for the Paper event classes. */
+    public static ServerCapabilities probe() {
+        String version;
+        try {
+            version = Bukkit.getBukkitVersion();
+        } catch (RuntimeException e) {
+            // No server (e.g. unit tests without a mock server)
+            version = null;
+        }
+        return of(version, ServerCapabilities::isClassPresent);
+    }
+
+    /**
+     * Builds capabilities for an explicit version string.
+     *
+     * @param bukkitVersion value in the form returned by {@link Bukkit#getBukkitVersion()},
+     *                      e.g. {@code "1.21.4-R0.1-SNAPSHOT"}; {@code null} means unknown
+     * @param classPresent  answers whether a class name is loadable on this server
+     */
+    public static ServerCapabilities of(String bukkitVersion, Predicate<String> classPresent) {
+        return new ServerCapabilities(bukkitVersion, classPresent);
+    }
+
+    /**
+     * Returns {@code true} if the server version is at least {@code major.minor.patch}.
+     */
+    public boolean isAtLeast(int major, int minor, int patch) {
+        if (this.major != major) {
+            return this.major > major;
+        }
+        if (this.minor != minor) {
+            return this.minor > minor;
+        }
+        return this.patch >= patch;
+    }
+
+    /** Raw {@link Bukkit#getBukkitVersion()} captured at probe time, or {@code null}. */
+    public String getBukkitVersion() {
+        return bukkitVersion;
+    }
+
+    /** Minecraft 1.12–1.12.1. */
+    public boolean isPre1122() {
+        return pre1122;
+    }
+
+    /** Before the 1.13 flattening (legacy material names, {@code return false} shows usage). */
+    public boolean isPre113() {
+        return pre113;
+    }
+
+    /** Before 1.14 (no {@code PersistentDataContainer}). */
+    public boolean isPre114() {
+        return pre114;
+    }
+
+    /** Before 1.16 (no lodestone or netherite). */
+    public boolean isPre116() {
+        return pre116;
+    }
+
+    /** Before 1.19. */
+    public boolean isPre119() {
+        return pre119;
+    }
+
+    /** Adventure API is native (1.19+). */
+    public boolean isAdventureSupported() {
+        return adventureSupported;
+    }
+
+    /** Paper's {@code AsyncChatEvent} is available (Paper 1.19+). */
+    public boolean isPaperChatSupported() {
+        return paperChatSupported;
+    }
+
+    /** Paper's {@code PlayerArmorChangeEvent} is available (Paper 1.16.5+). */
+    public boolean isPaperArmorChangeSupported() {
+        return paperArmorChangeSupported;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerCapabilities{version=" + major + "." + minor + "." + patch
+                + ", adventure=" + adventureSupported
+                + ", paperChat=" + paperChatSupported
+                + ", paperArmorChange=" + paperArmorChangeSupported + "}";
+    }
+
+    /**
+     * Parses the leading {@code major.minor[.patch]} of a Bukkit version string.
+     * Anything unparseable yields {@code 0.0.0}.
+     */
+    static int[] parseVersion(String bukkitVersion) {
+        int[] result = new int[3];
+        if (bukkitVersion == null) {
+            return result;
+        }
+        String[] parts = bukkitVersion.split("-", 2)[0].split("\\.");
+        for (int i = 0; i < result.length && i < parts.length; i++) {
+            int value = leadingInt(parts[i]);
+            if (value < 0) {
+                // A malformed major/minor makes the whole version unknown
+                return i < 2 ? new int[3] : result;
+            }
+            result[i] = value;
+        }
+        return result;
+    }
+
+    private static int leadingInt(String s) {
+        int end = 0;
+        while (end < s.length() && Character.isDigit(s.charAt(end))) {
+            end++;
+        }
+        if (end == 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(s.substring(0, end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isClassPresent(String className) {
+        try {
+            Class.forName(className, false, ServerCapabilities.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
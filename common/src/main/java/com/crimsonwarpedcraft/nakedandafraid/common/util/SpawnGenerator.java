@@ -0,0 +1,372 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lays out spawn points around a center for {@code /nf spawn generate} and
+ * finds safe ground under each one.
+ * <p>
+ * The chunks under the layout are loaded through a {@link ChunkPreloader}
+ * (asynchronously on Paper, a few per tick elsewhere) and copied into
+ * {@link ChunkSnapshot}s as each one arrives. The snapshots are then scanned
+ * for ground on a background thread, so even a large layout never loads or
+ * reads chunks in one go on the main thread. A spot whose column is unsafe
+ * is moved to the nearest safe column within a few blocks in the same chunk,
+ * or dropped.
+ * <p>
+ * One run at a time. Call from the main thread; results complete on it.
+ */
+public final class SpawnGenerator {
+
+    public enum Pattern {
+        /** Evenly spaced on a circle of the given radius. */
+        RING,
+        /** A square grid whose half-width is the radius. */
+        GRID,
+        /** Random points inside the circle, kept at least a minimum distance apart. */
+        POISSON;
+
+        /** Parses a command argument, e.g. {@code ring} or {@code poisson-disc}; {@code null} if unknown. */
+        public static Pattern parse(String name) {
+            String normalized = name.toUpperCase(Locale.ENGLISH).replace('-', '_');
+            if (normalized.equals("POISSON_DISC") || normalized.equals("POISSONDISC")) {
+                return POISSON;
+            }
+            for (Pattern pattern : values()) {
+                if (pattern.name().equals(normalized)) {
+                    return pattern;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Finds where a player can stand in one column of a chunk. Called off the main thread. */
+    public interface GroundScanner {
+        int NO_GROUND = Integer.MIN_VALUE;
+
+        /**
+         * @param x block x within the chunk, 0-15
+         * @param z block z within the chunk, 0-15
+         * @return the y a player's feet go at, or {@link #NO_GROUND} if the surface isn't safe
+         */
+        int findStandingY(ChunkSnapshot chunk, int x, int z);
+    }
+
+    /** An offset from the center, in blocks. */
+    public static final class Point {
+        final double x;
+        final double z;
+
+        Point(double x, double z) {
+            this.x = x;
+            this.z = z;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getZ() {
+            return z;
+        }
+    }
+
+    /** What a run produced. */
+    public static final class Result {
+        private final List<Location> spawns;
+        private final int planned;
+        private final int chunksTouched;
+        private final long elapsedMillis;
+
+        Result(List<Location> spawns, int planned, int chunksTouched, long elapsedMillis) {
+            this.spawns = spawns;
+            this.planned = planned;
+            this.chunksTouched = chunksTouched;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /** Safe spawn locations, in layout order. */
+        public List<Location> getSpawns() {
+            return spawns;
+        }
+
+        /** Points the layout produced; those without safe ground nearby are not in {@link #getSpawns()}. */
+        public int getPlanned() {
+            return planned;
+        }
+
+        public int getChunksTouched() {
+            return chunksTouched;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    /** How far, in blocks, an unsafe spot may move to find ground. */
+    private static final int NUDGE_RADIUS = 3;
+
+    /** Fraction of the circle's area a Poisson-disc layout is expected to cover at its spacing. */
+    private static final double POISSON_PACKING = 0.5;
+
+    /** Candidates tried around each point before Bridson's algorithm gives up on it. */
+    private static final int POISSON_ATTEMPTS = 30;
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final ChunkPreloader preloader;
+    private boolean running;
+
+    public SpawnGenerator(Plugin plugin, PluginLogger logger, ChunkPreloader preloader) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.preloader = preloader;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Generates up to {@code count} spawns around {@code center}.
+     *
+     * @return completes on the main thread; {@code null} if a run is already in progress
+     */
+    public CompletableFuture<Result> generate(Location center, int count, double radius, Pattern pattern,
+                                              Random random, GroundScanner scanner) {
+        if (running) {
+            return null;
+        }
+        running = true;
+        final long start = System.nanoTime();
+        final World world = center.getWorld();
+        final List<Point> points = layout(pattern, count, radius, random);
+
+        // Points grouped by chunk, so every chunk is loaded and copied once
+        final Map<Long, List<int[]>> byChunk = new LinkedHashMap<Long, List<int[]>>();
+        for (int i = 0; i < points.size(); i++) {
+            int blockX = (int) Math.floor(center.getX() + points.get(i).x);
+            int blockZ = (int) Math.floor(center.getZ() + points.get(i).z);
+            Long key = chunkKey(blockX >> 4, blockZ >> 4);
+            List<int[]> inChunk = byChunk.get(key);
+            if (inChunk == null) {
+                inChunk = new ArrayList<int[]>();
+                byChunk.put(key, inChunk);
+            }
+            inChunk.add(new int[]{i, blockX, blockZ});
+        }
+
+        final Map<Long, ChunkSnapshot> snapshots = new LinkedHashMap<Long, ChunkSnapshot>();
+        List<CompletableFuture<Void>> loads = new ArrayList<CompletableFuture<Void>>(byChunk.size());
+        for (final Map.Entry<Long, List<int[]>> entry : byChunk.entrySet()) {
+            final int[] first = entry.getValue().get(0);
+            loads.add(preloader.preload(new Location(world, first[1], 0, first[2])).handle((chunk, error) -> {
+                if (error != null) {
+                    logger.debugLog("[SpawnGenerator] Could not load chunk at {}, {}: {}", first[1], first[2], error.getMessage());
+                } else if (chunk != null) {
+                    // The chunk the preloader handed over, so an unload since then can't force a sync load here
+                    snapshots.put(entry.getKey(), chunk.getChunkSnapshot());
+                }
+                return null;
+            }));
+        }
+        logger.debugLog("[SpawnGenerator] Laid out {} {} points over {} chunks", points.size(), pattern, byChunk.size());
+
+        final CompletableFuture<Result> result = new CompletableFuture<Result>();
+        CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).whenComplete((ignored, error) ->
+                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                    final Location[] found = new Location[points.size()];
+                    for (Map.Entry<Long, List<int[]>> entry : byChunk.entrySet()) {
+                        ChunkSnapshot snapshot = snapshots.get(entry.getKey());
+                        if (snapshot == null) {
+                            continue;
+                        }
+                        for (int[] spot : entry.getValue()) {
+                            try {
+                                found[spot[0]] = findGround(world, snapshot, spot[1], spot[2], scanner);
+                            } catch (RuntimeException e) {
+                                logger.debugLog("[SpawnGenerator] Could not scan {}, {}: {}", spot[1], spot[2], e.getMessage());
+                            }
+                        }
+                    }
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        List<Location> spawns = new ArrayList<Location>(found.length);
+                        for (Location location : found) {
+                            if (location != null) {
+                                spawns.add(location);
+                            }
+                        }
+                        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+                        running = false;
+                        if (logger.isDebugEnabled()) {
+                            logger.debugLog("[SpawnGenerator] Found ground for " + spawns.size() + " of " + points.size() +
+                                    " points in " + elapsedMillis + " ms");
+                        }
+                        result.complete(new Result(spawns, points.size(), byChunk.size(), elapsedMillis));
+                    });
+                }));
+        return result;
+    }
+
+    /** The standing spot nearest {@code blockX, blockZ} within the snapshot's chunk, or {@code null}. */
+    private static Location findGround(World world, ChunkSnapshot snapshot, int blockX, int blockZ, GroundScanner scanner) {
+        int localX = blockX & 15;
+        int localZ = blockZ & 15;
+        for (int ring = 0; ring <= NUDGE_RADIUS; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != ring) {
+                        continue;
+                    }
+                    int x = localX + dx;
+                    int z = localZ + dz;
+                    if (x < 0 || x > 15 || z < 0 || z > 15) {
+                        continue;
+                    }
+                    int y = scanner.findStandingY(snapshot, x, z);
+                    if (y != GroundScanner.NO_GROUND) {
+                        return new Location(world, (blockX - localX) + x + 0.5, y, (blockZ - localZ) + z + 0.5);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Offsets from the center for {@code count} spawns.
+     * <p>
+     * Ring and grid always give {@code count} points. Poisson-disc spaces
+     * points so that about {@code count} fit in the circle and may give fewer.
+     */
+    public static List<Point> layout(Pattern pattern, int count, double radius, Random random) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        switch (pattern) {
+            case GRID:
+                return grid(count, radius);
+            case POISSON:
+                return poissonDisc(count, radius, random);
+            default:
+                return ring(count, radius);
+        }
+    }
+
+    private static List<Point> ring(int count, double radius) {
+        List<Point> points = new ArrayList<Point>(count);
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * i / count;
+            points.add(new Point(radius * Math.cos(angle), radius * Math.sin(angle)));
+        }
+        return points;
+    }
+
+    private static List<Point> grid(int count, double radius) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        double spacing = side > 1 ? 2 * radius / (side - 1) : 0;
+        double origin = side > 1 ? -radius : 0;
+        List<Point> points = new ArrayList<Point>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new Point(origin + (i % side) * spacing, origin + (i / side) * spacing));
+        }
+        return points;
+    }
+
+    /**
+     * Bridson's algorithm inside the circle, with a background grid so each
+     * candidate is checked against a constant number of neighbours. Spacing is
+     * chosen so the circle fits about {@code count} points; any extra are
+     * dropped at random, which keeps the spacing.
+     */
+    private static List<Point> poissonDisc(int count, double radius, Random random) {
+        double minDistance = radius * Math.sqrt(Math.PI * POISSON_PACKING / count);
+        if (minDistance <= 0) {
+            return Collections.singletonList(new Point(0, 0));
+        }
+        double cell = minDistance / Math.sqrt(2);
+        int cells = (int) Math.ceil(2 * radius / cell) + 1;
+        int[] grid = new int[cells * cells];
+        Arrays.fill(grid, -1);
+
+        List<Point> points = new ArrayList<Point>();
+        List<Integer> active = new ArrayList<Integer>();
+        points.add(new Point(0, 0));
+        grid[cellIndex(0, 0, radius, cell, cells)] = 0;
+        active.add(0);
+
+        while (!active.isEmpty()) {
+            int slot = random.nextInt(active.size());
+            Point around = points.get(active.get(slot));
+            boolean placed = false;
+            for (int attempt = 0; attempt < POISSON_ATTEMPTS && !placed; attempt++) {
+                double angle = random.nextDouble() * 2 * Math.PI;
+                double distance = minDistance * (1 + random.nextDouble());
+                double x = around.x + distance * Math.cos(angle);
+                double z = around.z + distance * Math.sin(angle);
+                if (x * x + z * z > radius * radius || !farFromOthers(x, z, points, grid, radius, cell, cells, minDistance)) {
+                    continue;
+                }
+                grid[cellIndex(x, z, radius, cell, cells)] = points.size();
+                active.add(points.size());
+                points.add(new Point(x, z));
+                placed = true;
+            }
+            if (!placed) {
+                active.set(slot, active.get(active.size() - 1));
+                active.remove(active.size() - 1);
+            }
+        }
+
+        if (points.size() > count) {
+            Collections.shuffle(points, random);
+            return new ArrayList<Point>(points.subList(0, count));
+        }
+        return points;
+    }
+
+    private static boolean farFromOthers(double x, double z, List<Point> points, int[] grid,
+                                         double radius, double cell, int cells, double minDistance) {
+        int cx = (int) ((x + radius) / cell);
+        int cz = (int) ((z + radius) / cell);
+        for (int gx = Math.max(0, cx - 2); gx <= Math.min(cells - 1, cx + 2); gx++) {
+            for (int gz = Math.max(0, cz - 2); gz <= Math.min(cells - 1, cz + 2); gz++) {
+                int index = grid[gx * cells + gz];
+                if (index < 0) {
+                    continue;
+                }
+                Point other = points.get(index);
+                double ox = other.x - x;
+                double oz = other.z - z;
+                if (ox * ox + oz * oz < minDistance * minDistance) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int cellIndex(double x, double z, double radius, double cell, int cells) {
+        return (int) ((x + radius) / cell) * cells + (int) ((z + radius) / cell);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,187 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Spawn names grouped by the player they belong to.
+ * <p>
+ * Spawns whose target's UUID is known are keyed by it, so they follow the
+ * player through name changes. Spawns saved before the UUID was recorded, or
+ * for players who have never joined, are keyed by lower-cased name instead.
+ * Each player's spawns keep the order they were added in, which is what
+ * {@code multiple-spawn-priority} FIRST and LAST refer to.
+ * <p>
+ * Spawns added without any target, such as generated ones, are open: they
+ * belong to nobody and are kept apart, in order, for the owner to hand out.
+ * <p>
+ * The owner keeps the index in step with its spawn map. Not thread-safe.
+ */
+public final class SpawnIndex {
+
+    private final Map<UUID, Target> byUuid = new HashMap<UUID, Target>();
+    private final Map<String, Target> byName = new HashMap<String, Target>();
+    /** Every target, in the order its first spawn was added. */
+    private final Set<Target> targets = new LinkedHashSet<Target>();
+    private final Map<String, Target> targetOf = new HashMap<String, Target>();
+    /** Spawns without a target, in the order they were added. */
+    private final List<String> open = new ArrayList<String>();
+
+    /**
+     * @param targetUuid the target's UUID, or {@code null} to match by name only
+     * @param targetName the target's name, or {@code null} with no UUID for an open spawn
+     */
+    public void add(String spawnName, UUID targetUuid, String targetName) {
+        remove(spawnName);
+        if (targetUuid == null && targetName == null) {
+            open.add(spawnName);
+            return;
+        }
+        Target target;
+        if (targetUuid != null) {
+            target = byUuid.get(targetUuid);
+            if (target == null) {
+                target = new Target(targetUuid, targetName);
+                byUuid.put(targetUuid, target);
+            }
+        } else {
+            String key = targetName.toLowerCase(Locale.ROOT);
+            target = byName.get(key);
+            if (target == null) {
+                target = new Target(null, targetName);
+                byName.put(key, target);
+            }
+        }
+        target.spawns.add(spawnName);
+        targets.add(target);
+        targetOf.put(spawnName, target);
+    }
+
+    public void remove(String spawnName) {
+        Target target = targetOf.remove(spawnName);
+        if (target == null) {
+            open.remove(spawnName);
+            return;
+        }
+        target.spawns.remove(spawnName);
+        if (target.spawns.isEmpty()) {
+            targets.remove(target);
+            if (target.uuid != null) {
+                byUuid.remove(target.uuid);
+            } else {
+                byName.remove(target.name.toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    /** Renames a spawn in place, keeping its position among its target's spawns. */
+    public void rename(String oldName, String newName) {
+        Target target = targetOf.remove(oldName);
+        if (target == null) {
+            int position = open.indexOf(oldName);
+            if (position >= 0) {
+                open.set(position, newName);
+            }
+            return;
+        }
+        target.spawns.set(target.spawns.indexOf(oldName), newName);
+        targetOf.put(newName, target);
+    }
+
+    public void clear() {
+        byUuid.clear();
+        byName.clear();
+        targets.clear();
+        targetOf.clear();
+        open.clear();
+    }
+
+    /** Spawns that belong to nobody, in the order they were added. */
+    public List<String> openSpawns() {
+        return Collections.unmodifiableList(open);
+    }
+
+    /** Spawn names for {@code player}: those keyed by UUID first, then those keyed by name. */
+    public List<String> spawnsFor(Player player) {
+        Target byId = byUuid.get(player.getUniqueId());
+        Target named = byName.isEmpty() ? null : byName.get(player.getName().toLowerCase(Locale.ROOT));
+        if (named == null) {
+            return byId == null ? Collections.<String>emptyList() : Collections.unmodifiableList(byId.spawns);
+        }
+        if (byId == null) {
+            return Collections.unmodifiableList(named.spawns);
+        }
+        List<String> both = new ArrayList<String>(byId.spawns.size() + named.spawns.size());
+        both.addAll(byId.spawns);
+        both.addAll(named.spawns);
+        return both;
+    }
+
+    /**
+     * Picks one of {@code player}'s spawns.
+     *
+     * @param priority FIRST, LAST or RANDOM; anything else is treated as FIRST
+     * @return the spawn name, or {@code null} if the player has none
+     */
+    public String choose(Player player, String priority, Random random) {
+        List<String> spawns = spawnsFor(player);
+        if (spawns.isEmpty()) {
+            return null;
+        }
+        if ("LAST".equals(priority)) {
+            return spawns.get(spawns.size() - 1);
+        }
+        if ("RANDOM".equals(priority)) {
+            return spawns.get(random.nextInt(spawns.size()));
+        }
+        return spawns.get(0);
+    }
+
+    /**
+     * Names of targets that none of {@code players} matches, in the order they
+     * were added. Open spawns have no target and are never listed.
+     */
+    public List<String> targetsWithout(Collection<? extends Player> players) {
+        Set<Target> matched = new HashSet<Target>();
+        for (Player player : players) {
+            Target byId = byUuid.get(player.getUniqueId());
+            if (byId != null) {
+                matched.add(byId);
+            }
+            Target named = byName.get(player.getName().toLowerCase(Locale.ROOT));
+            if (named != null) {
+                matched.add(named);
+            }
+        }
+        List<String> names = new ArrayList<String>();
+        for (Target target : targets) {
+            if (!matched.contains(target)) {
+                names.add(target.name);
+            }
+        }
+        return names;
+    }
+
+    private static final class Target {
+        final UUID uuid;
+        final String name;
+        final List<String> spawns = new ArrayList<String>(1);
+
+        Target(UUID uuid, String name) {
+            this.uuid = uuid;
+            this.name = name;
+        }
+    }
+}
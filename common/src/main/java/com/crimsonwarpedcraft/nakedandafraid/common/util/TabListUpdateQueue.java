@@ -0,0 +1,154 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Coalesces tab list updates into at most one flush per tick.
+ * <p>
+ * Callers mark recipients whose whole tab list must be recomputed
+ * ({@link #refresh(Player)}) or whose list must lose particular subjects
+ * ({@link #hide(Player, Player)}). Marks for the same recipient merge: any
+ * number of joins in one tick cost each existing player a single removal
+ * packet, and a pending refresh absorbs pending hides. The flush runs on the
+ * next tick and stops once the per-tick packet budget is spent; whatever is
+ * left goes out on the following ticks, oldest first.
+ * <p>
+ * Main thread only.
+ */
+public final class TabListUpdateQueue {
+
+    /** Sends the coalesced updates for one recipient. */
+    public interface Sink {
+
+        /** Brings {@code recipient}'s whole tab list in line with their world; returns packets sent. */
+        int refresh(Player recipient);
+
+        /** Removes {@code subjects} from {@code recipient}'s tab list in one packet; returns packets sent. */
+        int hide(Player recipient, List<UUID> subjects);
+    }
+
+    private static final class Pending {
+        boolean refresh;
+        Set<UUID> hide;
+    }
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final Sink sink;
+    private final int packetBudget;
+    private final Map<UUID, Pending> pending = new LinkedHashMap<UUID, Pending>();
+    private BukkitTask task;
+
+    /**
+     * @param packetBudget packets to send per tick at most; 0 or less for no limit. One
+     *                     recipient's update is never split, so a flush may overshoot by
+     *                     the size of its last update.
+     */
+    public TabListUpdateQueue(Plugin plugin, PluginLogger logger, Sink sink, int packetBudget) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.sink = sink;
+        this.packetBudget = packetBudget;
+    }
+
+    /** Queues a full recompute of {@code recipient}'s tab list. */
+    public void refresh(Player recipient) {
+        Pending entry = entry(recipient.getUniqueId());
+        entry.refresh = true;
+        entry.hide = null;
+        schedule();
+    }
+
+    /** Queues removing {@code subject} from {@code recipient}'s tab list. */
+    public void hide(Player recipient, Player subject) {
+        Pending entry = entry(recipient.getUniqueId());
+        if (!entry.refresh) {
+            if (entry.hide == null) {
+                entry.hide = new LinkedHashSet<UUID>();
+            }
+            entry.hide.add(subject.getUniqueId());
+        }
+        schedule();
+    }
+
+    /** Drops anything queued for {@code recipient}, e.g. on quit. */
+    public void forget(Player recipient) {
+        pending.remove(recipient.getUniqueId());
+    }
+
+    /** Number of recipients with queued updates. */
+    public int depth() {
+        return pending.size();
+    }
+
+    /** Drops everything queued and cancels the scheduled flush. */
+    public void clear() {
+        pending.clear();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Sends queued updates until the packet budget is spent.
+     *
+     * @return packets sent
+     */
+    public int flush() {
+        int sent = 0;
+        Iterator<Map.Entry<UUID, Pending>> it = pending.entrySet().iterator();
+        while (it.hasNext() && (packetBudget <= 0 || sent < packetBudget)) {
+            Map.Entry<UUID, Pending> next = it.next();
+            it.remove();
+            Player recipient = Bukkit.getPlayer(next.getKey());
+            if (recipient == null || !recipient.isOnline()) {
+                continue;
+            }
+            Pending entry = next.getValue();
+            if (entry.refresh) {
+                sent += sink.refresh(recipient);
+            } else if (entry.hide != null && !entry.hide.isEmpty()) {
+                sent += sink.hide(recipient, new ArrayList<UUID>(entry.hide));
+            }
+        }
+        logger.debugLog("[TabListUpdateQueue] Flushed {} packets, queue depth {}", sent, pending.size());
+        return sent;
+    }
+
+    private Pending entry(UUID recipient) {
+        Pending entry = pending.get(recipient);
+        if (entry == null) {
+            entry = new Pending();
+            pending.put(recipient, entry);
+        }
+        return entry;
+    }
+
+    private void schedule() {
+        if (task != null) {
+            return;
+        }
+        task = Bukkit.getScheduler().runTask(plugin, this::runScheduledFlush);
+    }
+
+    private void runScheduledFlush() {
+        task = null;
+        flush();
+        if (!pending.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Plans how to spread players over existing teams for {@code /nf teams autofill}.
+ * <p>
+ * Works on team names and sizes only, so the caller applies the whole plan in
+ * one go (and saves once). Players are placed in groups: a group is one player,
+ * or a pre-set pair kept together by {@link Strategy#PAIRS}. A group with a
+ * member who is already in a team joins that team; if that team isn't one of
+ * the teams being filled, the rest of the group is placed on its own and the
+ * group is reported as split.
+ * <p>
+ * Each placement is a step of a round-robin cursor or a heap operation over
+ * the teams. A team that grows because a group joined it gets a fresh heap
+ * entry and its old one is skipped when it surfaces, so a plan costs
+ * {@code O(players log teams)} and nothing is searched for in the heap.
+ */
+public final class TeamAutoFill {
+
+    public enum Strategy {
+        /** Deals players to teams in turn, in the order the teams were given. */
+        ROUND_ROBIN,
+        /** Puts each player in whichever team is smallest at that moment. */
+        SMALLEST,
+        /** Keeps pre-set groups together, larger groups first, each into the smallest team. */
+        PAIRS;
+
+        /** Parses a command argument, e.g. {@code round-robin} or {@code smallest}; {@code null} if unknown. */
+        public static Strategy parse(String name) {
+            String normalized = name.toUpperCase(Locale.ENGLISH).replace('-', '_');
+            if (normalized.equals("ROUNDROBIN")) {
+                return ROUND_ROBIN;
+            }
+            for (Strategy strategy : values()) {
+                if (strategy.name().equals(normalized)) {
+                    return strategy;
+                }
+            }
+            return null;
+        }
+    }
+
+    private TeamAutoFill() {
+    }
+
+    /** The result of {@link #plan}. */
+    public static final class Plan {
+        private final Map<UUID, String> assignments = new LinkedHashMap<UUID, String>();
+        private final List<List<UUID>> splitGroups = new ArrayList<List<UUID>>();
+
+        /** The team chosen for every placed player, in placement order. */
+        public Map<UUID, String> getAssignments() {
+            return assignments;
+        }
+
+        /** Groups whose members end up in more than one team. */
+        public List<List<UUID>> getSplitGroups() {
+            return splitGroups;
+        }
+    }
+
+    /**
+     * @param strategy    how to choose a team for each group
+     * @param teamSizes   current member count of every team to fill, in dealing order
+     * @param groups      players to place; only {@link Strategy#PAIRS} keeps multi-player groups together
+     * @param currentTeam the team a player is already in, or {@code null}
+     * @return the placements, which leave out players already in a team, and the groups that had to be split
+     */
+    public static Plan plan(Strategy strategy, Map<String, Integer> teamSizes,
+                            List<List<UUID>> groups, Function<UUID, String> currentTeam) {
+        Plan result = new Plan();
+        Map<UUID, String> plan = result.assignments;
+        if (teamSizes.isEmpty()) {
+            return result;
+        }
+        List<List<UUID>> ordered = strategy == Strategy.PAIRS ? largestFirst(groups) : singles(groups);
+
+        List<String> order = new ArrayList<String>(teamSizes.keySet());
+        Map<String, Slot> slots = new HashMap<String, Slot>();
+        PriorityQueue<Entry> smallest = strategy == Strategy.ROUND_ROBIN ? null : new PriorityQueue<Entry>();
+        for (int i = 0; i < order.size(); i++) {
+            Slot slot = new Slot(order.get(i), teamSizes.get(order.get(i)), i);
+            slots.put(slot.team, slot);
+            if (smallest != null) {
+                smallest.add(new Entry(slot));
+            }
+        }
+        int cursor = 0;
+
+        for (List<UUID> group : ordered) {
+            String joined = null;
+            for (UUID player : group) {
+                String team = currentTeam.apply(player);
+                if (team != null && slots.containsKey(team)) {
+                    joined = team;
+                    break;
+                }
+            }
+            Slot slot;
+            if (joined != null) {
+                slot = slots.get(joined);
+            } else if (smallest == null) {
+                slot = slots.get(order.get(cursor));
+                cursor = (cursor + 1) % order.size();
+            } else {
+                Entry top = smallest.poll();
+                while (top.size != top.slot.size) {
+                    top = smallest.poll();
+                }
+                slot = top.slot;
+            }
+            int before = slot.size;
+            boolean split = false;
+            for (UUID player : group) {
+                String team = currentTeam.apply(player);
+                if (team == null && !plan.containsKey(player)) {
+                    plan.put(player, slot.team);
+                    slot.size++;
+                } else if (team != null && !team.equals(slot.team)) {
+                    split = true;
+                }
+            }
+            if (split) {
+                result.splitGroups.add(group);
+            }
+            if (smallest != null && (joined == null || slot.size != before)) {
+                smallest.add(new Entry(slot));
+            }
+        }
+        return result;
+    }
+
+    /** Splits every group into single players. */
+    private static List<List<UUID>> singles(List<List<UUID>> groups) {
+        List<List<UUID>> singles = new ArrayList<List<UUID>>();
+        for (List<UUID> group : groups) {
+            for (UUID player : group) {
+                singles.add(Collections.singletonList(player));
+            }
+        }
+        return singles;
+    }
+
+    /** Orders groups largest first without a comparison sort; group sizes are small. */
+    private static List<List<UUID>> largestFirst(List<List<UUID>> groups) {
+        List<List<List<UUID>>> bySize = new ArrayList<List<List<UUID>>>();
+        for (List<UUID> group : groups) {
+            while (bySize.size() <= group.size()) {
+                bySize.add(new ArrayList<List<UUID>>());
+            }
+            bySize.get(group.size()).add(group);
+        }
+        List<List<UUID>> ordered = new ArrayList<List<UUID>>(groups.size());
+        for (int size = bySize.size() - 1; size > 0; size--) {
+            ordered.addAll(bySize.get(size));
+        }
+        return ordered;
+    }
+
+    /** A team's running size. */
+    private static final class Slot {
+        final String team;
+        final int order;
+        int size;
+
+        Slot(String team, int size, int order) {
+            this.team = team;
+            this.size = size;
+            this.order = order;
+        }
+    }
+
+    /**
+     * A team's size when it went into the heap; stale once the team has grown.
+     * Ties go to the team given first.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        final Slot slot;
+        final int size;
+
+        Entry(Slot slot) {
+            this.slot = slot;
+            this.size = slot.size;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return size != other.size ? Integer.compare(size, other.size) : Integer.compare(slot.order, other.slot.order);
+        }
+    }
+}
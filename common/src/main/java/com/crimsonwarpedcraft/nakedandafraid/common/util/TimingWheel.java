@@ -0,0 +1,203 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel that replaces one scheduler task per key with a single
+ * driver calling {@link #advance(DueHandler)} once per tick.
+ * <p>
+ * Each key sits in the bucket {@code dueTick & mask}. Scheduling, rescheduling
+ * and cancelling are O(1) (an intrusive doubly-linked list per bucket plus a
+ * key-to-node map); advancing one tick only visits the current bucket. Delays
+ * longer than the wheel size are fine - an entry simply stays in its bucket
+ * until its due tick comes round.
+ * <p>
+ * Not thread-safe; use it from the server thread only.
+ *
+ * @param <K> key type, e.g. a player UUID
+ */
+public final class TimingWheel<K> {
+
+    /** Decides what happens to a key whose due tick has arrived. */
+    public interface DueHandler<K> {
+        /**
+         * @param key the due key
+         * @return ticks until the key is due again, or {@code <= 0} to drop it
+         */
+        long onDue(K key);
+    }
+
+    /** Default bucket count; comfortably above typical damage intervals. */
+    public static final int DEFAULT_SIZE = 256;
+
+    private final Node<K>[] buckets;
+    private final int mask;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private final List<Node<K>> firing = new ArrayList<>();
+    private long currentTick;
+
+    public TimingWheel() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * @param size bucket count, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int size) {
+        int buckets = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+        this.buckets = (Node<K>[]) new Node[buckets];
+        this.mask = buckets - 1;
+    }
+
+    /**
+     * Arms {@code key} to be due {@code delayTicks} from now (minimum one tick),
+     * replacing any existing schedule for it.
+     *
+     * @return {@code true} if the key was not already scheduled
+     */
+    public boolean schedule(K key, long delayTicks) {
+        Node<K> node = nodes.get(key);
+        boolean added = node == null;
+        if (added) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            unlink(node);
+        }
+        node.firing = false;
+        link(node, currentTick + Math.max(1L, delayTicks));
+        return added;
+    }
+
+    /**
+     * Removes {@code key}.
+     *
+     * @return {@code true} if it was scheduled
+     */
+    public boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        node.firing = false;
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /** Drops every key. The tick counter keeps running. */
+    public void clear() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = null;
+        }
+        for (Node<K> node : nodes.values()) {
+            node.prev = null;
+            node.next = null;
+            node.bucket = -1;
+            node.firing = false;
+        }
+        nodes.clear();
+    }
+
+    /**
+     * Moves time forward one tick and hands every key that is now due to
+     * {@code handler}. The handler may schedule or cancel other keys.
+     *
+     * @return number of keys that were due
+     */
+    public int advance(DueHandler<K> handler) {
+        long tick = ++currentTick;
+        int index = (int) (tick & mask);
+
+        // Detach first so the handler can freely touch other entries
+        Node<K> node = buckets[index];
+        while (node != null) {
+            Node<K> next = node.next;
+            if (node.dueTick <= tick) {
+                unlink(node);
+                node.firing = true;
+                firing.add(node);
+            }
+            node = next;
+        }
+
+        int due = firing.size();
+        for (int i = 0; i < due; i++) {
+            Node<K> fired = firing.get(i);
+            if (!fired.firing) {
+                // Cancelled or rescheduled by an earlier handler call this tick
+                continue;
+            }
+            fired.firing = false;
+            long delay = handler.onDue(fired.key);
+            if (fired.bucket >= 0 || nodes.get(fired.key) != fired) {
+                // The handler rescheduled or cancelled this key itself
+                continue;
+            }
+            if (delay > 0) {
+                link(fired, tick + delay);
+            } else {
+                nodes.remove(fired.key);
+            }
+        }
+        firing.clear();
+        return due;
+    }
+
+    private void link(Node<K> node, long dueTick) {
+        int index = (int) (dueTick & mask);
+        node.dueTick = dueTick;
+        node.bucket = index;
+        node.prev = null;
+        node.next = buckets[index];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        buckets[index] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.bucket < 0) {
+            return;
+        }
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            buckets[node.bucket] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.bucket = -1;
+    }
+
+    private static final class Node<K> {
+        final K key;
+        long dueTick;
+        int bucket = -1;
+        boolean firing;
+        Node<K> prev;
+        Node<K> next;
+
+        Node(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background owner of the plugin's update check.
+ * <p>
+ * A single daemon thread runs {@link VersionChecker} once at startup and then
+ * every {@code ttlMillis}. The last result is kept in a volatile field so the
+ * startup banner and OP join notifications only ever read memory; nothing on
+ * the server thread waits on GitHub or Modrinth.
+ * <p>
+ * Concurrent {@link #refresh()} calls share one in-flight future, so at most
+ * one lookup is running at a time.
+ */
+public class UpdateCheckService {
+
+    /** Default time a result stays fresh, and the periodic refresh interval. */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+    private final PluginLogger logger;
+    private final VersionChecker checker;
+    private final String currentVersion;
+    private final long ttlMillis;
+    private final ScheduledExecutorService executor;
+
+    private volatile Result cached;
+    private CompletableFuture<Result> inFlight;
+
+    /**
+     * @param logger         debug sink
+     * @param checker        performs the actual HTTP lookups
+     * @param currentVersion version of the running plugin, e.g. {@code "2.1.0"}
+     * @param ttlMillis      how long a result is served before it is considered stale
+     */
+    public UpdateCheckService(PluginLogger logger, VersionChecker checker, String currentVersion, long ttlMillis) {
+        this.logger = logger;
+        this.checker = checker;
+        this.currentVersion = currentVersion;
+        this.ttlMillis = ttlMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NakedAndAfraid-UpdateCheck");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Kicks off the first lookup and schedules a refresh every {@code ttlMillis}.
+     *
+     * @return the future for the initial lookup
+     */
+    public CompletableFuture<Result> start() {
+        CompletableFuture<Result> first = refresh();
+        if (ttlMillis > 0) {
+            executor.scheduleWithFixedDelay(this::refresh, ttlMillis, ttlMillis, TimeUnit.MILLISECONDS);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debugLog("[UpdateCheckService] Started, refresh interval " + ttlMillis + "ms");
+        }
+        return first;
+    }
+
+    /**
+     * Starts a lookup on the background thread, or returns the one already running.
+     * Never blocks the caller.
+     */
+    public synchronized CompletableFuture<Result> refresh() {
+        if (inFlight != null && !inFlight.isDone()) {
+            return inFlight;
+        }
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        inFlight = future;
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(lookup());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /** Returns the cached result if it is still fresh, otherwise starts a refresh. */
+    public CompletableFuture<Result> getOrRefresh() {
+        Result result = cached;
+        if (result != null && !isStale(result)) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return refresh();
+    }
+
+    /**
+     * Last completed result, or {@code null} if no lookup has finished yet.
+     * May be stale; the periodic refresh replaces it.
+     */
+    public Result getCached() {
+        return cached;
+    }
+
+    /** Stops the background thread. Pending lookups are abandoned. */
+    public void shutdown() {
+        executor.shutdownNow();
+        logger.debugLog("[UpdateCheckService] Shut down");
+    }
+
+    private boolean isStale(Result result) {
+        return System.currentTimeMillis() - result.getCheckedAtMillis() >= ttlMillis;
+    }
+
+    private Result lookup() {
+        logger.debugLog("[UpdateCheckService] Looking up latest version");
+        String latest = checker.getLatestVersion();
+        Result result = new Result(currentVersion, latest,
+                VersionChecker.isOutdated(currentVersion, latest), System.currentTimeMillis());
+        cached = result;
+        logger.debugLog("[UpdateCheckService] Cached result: latest={}, outdated={}", latest, result.isOutdated());
+        return result;
+    }
+
+    /** Immutable outcome of one lookup. */
+    public static final class Result {
+        private final String currentVersion;
+        private final String latestVersion;
+        private final boolean outdated;
+        private final long checkedAtMillis;
+
+        Result(String currentVersion, String latestVersion, boolean outdated, long checkedAtMillis) {
+            this.currentVersion = currentVersion;
+            this.latestVersion = latestVersion;
+            this.outdated = outdated;
+            this.checkedAtMillis = checkedAtMillis;
+        }
+
+        public String getCurrentVersion() {
+            return currentVersion;
+        }
+
+        /** Latest published version, or {@code null} if neither API answered. */
+        public String getLatestVersion() {
+            return latestVersion;
+        }
+
+        public boolean isOutdated() {
+            return outdated;
+        }
+
+        public long getCheckedAtMillis() {
+            return checkedAtMillis;
+        }
+    }
+}
@@ -21,16 +21,30 @@ public class VersionChecker {
 
     private final PluginLogger logger;
     private final String githubToken;
+    private final String githubUrl;
+    private final String modrinthUrl;
 
     /**
      * @param logger      a {@link PluginLogger} – any {@code NakedAndAfraid} subclass satisfies this
      * @param githubToken optional GitHub personal access token; pass {@code null} to skip auth
      */
     public VersionChecker(PluginLogger logger, String githubToken) {
+        this(logger, githubToken, GITHUB_API_LATEST_RELEASE, MODRINTH_API_LATEST_VERSION);
+    }
+
+    /**
+     * Same as {@link #VersionChecker(PluginLogger, String)} but queries the given
+     * endpoints instead of the public APIs (used by tests with a local stub).
+     */
+    public VersionChecker(PluginLogger logger, String githubToken, String githubUrl, String modrinthUrl) {
         this.logger = logger;
         this.githubToken = githubToken;
-        logger.debugLog("[VersionChecker] Initialized VersionChecker" +
-                (githubToken != null ? " with GitHub API token" : ""));
+        this.githubUrl = githubUrl;
+        this.modrinthUrl = modrinthUrl;
+        if (logger.isDebugEnabled()) {
+            logger.debugLog("[VersionChecker] Initialized VersionChecker" +
+                    (githubToken != null ? " with GitHub API token" : ""));
+        }
     }
 
     /** Returns the latest version string, trying GitHub first then Modrinth. */
@@ -43,9 +57,9 @@ public class VersionChecker {
     }
 
     private String getLatestVersionFromGitHub() {
-        logger.debugLog("[VersionChecker] Starting GitHub version check, querying URL: " + GITHUB_API_LATEST_RELEASE);
+        logger.debugLog("[VersionChecker] Starting GitHub version check, querying URL: {}", githubUrl);
         try {
-            java.net.URL url = URI.create(GITHUB_API_LATEST_RELEASE).toURL();
+            java.net.URL url = URI.create(githubUrl).toURL();
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestProperty("Accept", "application/vnd.github+json");
             connection.setRequestProperty("User-Agent", "NakedAndAfraid-Plugin");
@@ -57,28 +71,28 @@ public class VersionChecker {
             connection.setReadTimeout(5000);
 
             int responseCode = connection.getResponseCode();
-            logger.debugLog("[VersionChecker] GitHub HTTP response code: " + responseCode);
+            logger.debugLog("[VersionChecker] GitHub HTTP response code: {}", responseCode);
 
             if (responseCode != 200) {
-                logger.debugLog("[VersionChecker] Failed to fetch GitHub version, non-200 response: " + responseCode);
+                logger.debugLog("[VersionChecker] Failed to fetch GitHub version, non-200 response: {}", responseCode);
                 return null;
             }
 
             com.google.gson.JsonElement json =
                     JsonParser.parseReader(new InputStreamReader(connection.getInputStream()));
             String version = json.getAsJsonObject().get("tag_name").getAsString();
-            logger.debugLog("[VersionChecker] Successfully parsed GitHub latest version: " + version);
+            logger.debugLog("[VersionChecker] Successfully parsed GitHub latest version: {}", version);
             return version;
         } catch (Exception e) {
-            logger.debugLog("[VersionChecker] Error during GitHub version check: " + e.getMessage());
+            logger.debugLog("[VersionChecker] Error during GitHub version check: {}", e.getMessage());
             return null;
         }
     }
 
     private String getLatestVersionFromModrinth() {
-        logger.debugLog("[VersionChecker] Starting Modrinth version check, querying URL: " + MODRINTH_API_LATEST_VERSION);
+        logger.debugLog("[VersionChecker] Starting Modrinth version check, querying URL: {}", modrinthUrl);
         try {
-            java.net.URL url = URI.create(MODRINTH_API_LATEST_VERSION).toURL();
+            java.net.URL url = URI.create(modrinthUrl).toURL();
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestProperty("Accept", "application/json");
             connection.setRequestProperty("User-Agent", "NakedAndAfraid-Plugin");
@@ -86,10 +100,10 @@ public class VersionChecker {
             connection.setReadTimeout(5000);
 
             int responseCode = connection.getResponseCode();
-            logger.debugLog("[VersionChecker] Modrinth HTTP response code: " + responseCode);
+            logger.debugLog("[VersionChecker] Modrinth HTTP response code: {}", responseCode);
 
             if (responseCode != 200) {
-                logger.debugLog("[VersionChecker] Failed to fetch Modrinth version, non-200 response: " + responseCode);
+                logger.debugLog("[VersionChecker] Failed to fetch Modrinth version, non-200 response: {}", responseCode);
                 return null;
             }
 
@@ -97,27 +111,40 @@ public class VersionChecker {
                     JsonParser.parseReader(new InputStreamReader(connection.getInputStream()));
             String version = json.getAsJsonArray().get(0).getAsJsonObject()
                     .get("version_number").getAsString();
-            logger.debugLog("[VersionChecker] Successfully parsed Modrinth latest version: " + version);
+            logger.debugLog("[VersionChecker] Successfully parsed Modrinth latest version: {}", version);
             return version;
         } catch (Exception e) {
-            logger.debugLog("[VersionChecker] Error during Modrinth version check: " + e.getMessage());
+            logger.debugLog("[VersionChecker] Error during Modrinth version check: {}", e.getMessage());
             return null;
         }
     }
 
-    /** Returns {@code true} if the latest known version differs from {@code currentVersion}. */
+    /**
+     * Returns {@code true} if the latest known version differs from {@code currentVersion}.
+     * Performs the network lookup; prefer {@link #isOutdated(String, String)} when the
+     * latest version is already known.
+     */
     public boolean isOutdated(String currentVersion) {
         String latest = getLatestVersion();
-        logger.debugLog("[VersionChecker] Comparing current version " + currentVersion +
-                " with latest version " + (latest != null ? latest : "null"));
-        if (latest == null) {
-            logger.debugLog("[VersionChecker] No latest version available, assuming not outdated");
+        if (logger.isDebugEnabled()) {
+            logger.debugLog("[VersionChecker] Comparing current version " + currentVersion +
+                    " with latest version " + (latest != null ? latest : "null"));
+        }
+        boolean outdated = isOutdated(currentVersion, latest);
+        logger.debugLog("[VersionChecker] Outdated check result: {}", outdated);
+        return outdated;
+    }
+
+    /**
+     * Compares two version strings, ignoring a leading {@code v} and case.
+     * A {@code null} latest version is never considered newer.
+     */
+    public static boolean isOutdated(String currentVersion, String latestVersion) {
+        if (latestVersion == null) {
             return false;
         }
-        String normalizedLatest  = latest.startsWith("v")        ? latest.substring(1)        : latest;
+        String normalizedLatest  = latestVersion.startsWith("v")  ? latestVersion.substring(1)  : latestVersion;
         String normalizedCurrent = currentVersion.startsWith("v") ? currentVersion.substring(1) : currentVersion;
-        boolean outdated = !normalizedLatest.equalsIgnoreCase(normalizedCurrent);
-        logger.debugLog("[VersionChecker] Outdated check result: " + outdated);
-        return outdated;
+        return !normalizedLatest.equalsIgnoreCase(normalizedCurrent);
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Saves a YAML file in the background, a short while after it last changed.
+ * <p>
+ * {@link #markDirty()} only schedules a save; every change within
+ * {@code delayTicks} is covered by the same write. When the delay is up the
+ * owner's snapshot is taken on the main thread, then dumped to YAML and
+ * written on a background thread. The file is written to a temporary sibling
+ * first and renamed over the original, so a crash mid-write leaves the old
+ * file intact rather than a truncated one.
+ * <p>
+ * {@link #flush()} writes synchronously and is meant for plugin disable.
+ * The background thread exits when idle, so nothing needs shutting down.
+ * All methods are main thread only.
+ */
+public final class YamlWriteBehind {
+
+    private final Plugin plugin;
+    private final PluginLogger logger;
+    private final File file;
+    private final long delayTicks;
+    private final Supplier<? extends FileConfiguration> snapshot;
+    private final ThreadPoolExecutor executor;
+    private BukkitTask pending;
+    private Future<?> lastWrite;
+
+    /**
+     * @param delayTicks how long to wait after a change before saving; at least one tick
+     * @param snapshot   copies the current state into a fresh configuration; called on the main thread
+     */
+    public YamlWriteBehind(Plugin plugin, PluginLogger logger, File file, long delayTicks,
+                           Supplier<? extends FileConfiguration> snapshot) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.file = file;
+        this.delayTicks = Math.max(1L, delayTicks);
+        this.snapshot = snapshot;
+        this.executor = new ThreadPoolExecutor(1, 1, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+            Thread thread = new Thread(runnable, "NakedAndAfraid-Save-" + file.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** Schedules a save, unless one is already waiting. */
+    public void markDirty() {
+        if (pending == null) {
+            pending = Bukkit.getScheduler().runTaskLater(plugin, this::writeInBackground, delayTicks);
+        }
+    }
+
+    /** Whether a save is scheduled but hasn't started yet. */
+    public boolean isDirty() {
+        return pending != null;
+    }
+
+    /** Waits for any background write, then writes pending changes on this thread. */
+    public void flush() {
+        boolean dirty = pending != null;
+        if (dirty) {
+            pending.cancel();
+            pending = null;
+        }
+        awaitLastWrite();
+        if (dirty) {
+            write(snapshot.get());
+        }
+    }
+
+    private void writeInBackground() {
+        pending = null;
+        FileConfiguration copy = snapshot.get();
+        lastWrite = executor.submit(() -> write(copy));
+    }
+
+    private void awaitLastWrite() {
+        Future<?> write = lastWrite;
+        lastWrite = null;
+        if (write == null) {
+            return;
+        }
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            plugin.getLogger().severe("Could not save " + file.getName() + ": " + e.getCause());
+        }
+    }
+
+    private void write(FileConfiguration copy) {
+        try {
+            writeAtomically(file, copy.saveToString());
+            logger.debugLog("[YamlWriteBehind] Saved {}", file.getName());
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().severe("Could not save " + file.getName() + ": " + e);
+        }
+    }
+
+    /**
+     * Replaces {@code target} with {@code contents} through a temporary file
+     * and a rename, so readers see either the old or the new file in full.
+     */
+    public static void writeAtomically(File target, String contents) throws IOException {
+        File temp = new File(target.getAbsoluteFile().getParentFile(), target.getName() + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(contents.getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync();
+            }
+            try {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+}
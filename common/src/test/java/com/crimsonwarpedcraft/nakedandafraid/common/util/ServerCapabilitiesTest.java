@@ -0,0 +1,105 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies version parsing and feature flags in {@link ServerCapabilities}.
+ */
+public class ServerCapabilitiesTest {
+
+  @Test
+  public void testModernPaper() {
+    ServerCapabilities caps = ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", name -> true);
+
+    assertFalse(caps.isPre1122());
+    assertFalse(caps.isPre113());
+    assertFalse(caps.isPre114());
+    assertFalse(caps.isPre116());
+    assertFalse(caps.isPre119());
+    assertTrue(caps.isAdventureSupported());
+    assertTrue(caps.isPaperChatSupported());
+    assertTrue(caps.isPaperArmorChangeSupported());
+  }
+
+  @Test
+  public void testVersionsPastOneTwentyOneAreNotOld() {
+    for (String version : new String[]{"1.22-R0.1-SNAPSHOT", "1.30.2", "26.1-R0.1-SNAPSHOT"}) {
+      ServerCapabilities caps = ServerCapabilities.of(version, name -> true);
+      assertFalse(caps.isPre113(), version + " must not be pre-1.13");
+      assertFalse(caps.isPre116(), version + " must not be pre-1.16");
+      assertFalse(caps.isPre119(), version + " must not be pre-1.19");
+      assertTrue(caps.isAdventureSupported(), version + " must support Adventure");
+    }
+  }
+
+  @Test
+  public void testLegacyVersions() {
+    ServerCapabilities v1121 = ServerCapabilities.of("1.12.1-R0.1-SNAPSHOT", name -> true);
+    assertTrue(v1121.isPre1122());
+    assertTrue(v1121.isPre113());
+
+    ServerCapabilities v1122 = ServerCapabilities.of("1.12.2-R0.1-SNAPSHOT", name -> true);
+    assertFalse(v1122.isPre1122());
+    assertTrue(v1122.isPre113());
+
+    ServerCapabilities v1152 = ServerCapabilities.of("1.15.2-R0.1-SNAPSHOT", name -> true);
+    assertFalse(v1152.isPre114());
+    assertTrue(v1152.isPre116());
+    assertFalse(v1152.isPaperArmorChangeSupported());
+  }
+
+  @Test
+  public void testPaperEventsRequireVersionAndClass() {
+    ServerCapabilities v1164 = ServerCapabilities.of("1.16.4-R0.1-SNAPSHOT", name -> true);
+    assertFalse(v1164.isPaperArmorChangeSupported(), "PlayerArmorChangeEvent is 1.16.5+");
+
+    ServerCapabilities v1165 = ServerCapabilities.of("1.16.5-R0.1-SNAPSHOT", name -> true);
+    assertTrue(v1165.isPaperArmorChangeSupported());
+    assertFalse(v1165.isPaperChatSupported(), "AsyncChatEvent is 1.19+");
+
+    ServerCapabilities spigot = ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", name -> false);
+    assertTrue(spigot.isAdventureSupported());
+    assertFalse(spigot.isPaperChatSupported());
+    assertFalse(spigot.isPaperArmorChangeSupported());
+  }
+
+  @Test
+  public void testUnparseableVersionSelectsLegacyPaths() {
+    for (String version : new String[]{null, "", "garbage", "1.x.2"}) {
+      ServerCapabilities caps = ServerCapabilities.of(version, name -> true);
+      assertTrue(caps.isPre1122(), "Unparseable '" + version + "' must fall back to legacy");
+      assertTrue(caps.isPre119());
+      assertFalse(caps.isPaperChatSupported());
+      assertFalse(caps.isAtLeast(1, 8, 0));
+    }
+  }
+
+  @Test
+  public void testMissingPatchCountsAsZero() {
+    ServerCapabilities caps = ServerCapabilities.of("1.21-R0.1-SNAPSHOT", name -> true);
+
+    assertTrue(caps.isAtLeast(1, 21, 0));
+    assertFalse(caps.isAtLeast(1, 21, 1));
+  }
+
+  @Test
+  public void testClassesAreProbedOnlyAtConstruction() {
+    AtomicInteger lookups = new AtomicInteger();
+    ServerCapabilities caps = ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", name -> {
+      lookups.incrementAndGet();
+      return true;
+    });
+    int afterConstruction = lookups.get();
+
+    for (int i = 0; i < 1_000; i++) {
+      caps.isPaperChatSupported();
+      caps.isPaperArmorChangeSupported();
+    }
+
+    assertEquals(afterConstruction, lookups.get(), "Flag reads must not re-probe classes");
+  }
+}
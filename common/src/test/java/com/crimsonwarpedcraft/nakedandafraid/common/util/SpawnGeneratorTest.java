@@ -0,0 +1,83 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.SpawnGenerator.Pattern;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.SpawnGenerator.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks layouts geometrically: ring points on the circle, grid points in the
+ * square, Poisson-disc points in the circle and no closer than the spacing.
+ */
+public class SpawnGeneratorTest {
+
+  private static double distance(Point a, Point b) {
+    return Math.hypot(a.getX() - b.getX(), a.getZ() - b.getZ());
+  }
+
+  private static double smallestGap(List<Point> points) {
+    double smallest = Double.MAX_VALUE;
+    for (int i = 0; i < points.size(); i++) {
+      for (int j = i + 1; j < points.size(); j++) {
+        smallest = Math.min(smallest, distance(points.get(i), points.get(j)));
+      }
+    }
+    return smallest;
+  }
+
+  @Test
+  public void testParseAcceptsCommandSpellings() {
+    assertEquals(Pattern.RING, Pattern.parse("ring"));
+    assertEquals(Pattern.GRID, Pattern.parse("Grid"));
+    assertEquals(Pattern.POISSON, Pattern.parse("poisson-disc"));
+    assertEquals(Pattern.POISSON, Pattern.parse("poisson"));
+    assertNull(Pattern.parse("spiral"));
+  }
+
+  @Test
+  public void testRingPointsAreOnTheCircle() {
+    List<Point> points = SpawnGenerator.layout(Pattern.RING, 12, 100, new Random(1));
+
+    assertEquals(12, points.size());
+    for (Point point : points) {
+      assertEquals(100, Math.hypot(point.getX(), point.getZ()), 1e-9);
+    }
+    assertEquals(2 * 100 * Math.sin(Math.PI / 12), smallestGap(points), 1e-9, "Evenly spaced");
+  }
+
+  @Test
+  public void testGridFillsTheSquare() {
+    List<Point> points = SpawnGenerator.layout(Pattern.GRID, 9, 50, new Random(1));
+
+    assertEquals(9, points.size());
+    assertEquals(-50, points.get(0).getX(), 1e-9);
+    assertEquals(50, points.get(8).getX(), 1e-9);
+    assertEquals(50, points.get(8).getZ(), 1e-9);
+    assertEquals(50, smallestGap(points), 1e-9);
+  }
+
+  @Test
+  public void testPoissonPointsStayInsideAndApart() {
+    List<Point> points = SpawnGenerator.layout(Pattern.POISSON, 100, 200, new Random(42));
+
+    assertEquals(100, points.size());
+    for (Point point : points) {
+      assertTrue(Math.hypot(point.getX(), point.getZ()) <= 200);
+    }
+    assertTrue(smallestGap(points) >= 200 * Math.sqrt(Math.PI * 0.5 / 100) - 1e-9);
+  }
+
+  @Test
+  public void testSingleSpawnIsTheCenter() {
+    for (Pattern pattern : new Pattern[]{Pattern.GRID, Pattern.POISSON}) {
+      List<Point> points = SpawnGenerator.layout(pattern, 1, 30, new Random(1));
+      assertEquals(1, points.size());
+      assertEquals(0, points.get(0).getX(), 1e-9);
+      assertEquals(0, points.get(0).getZ(), 1e-9);
+    }
+  }
+}
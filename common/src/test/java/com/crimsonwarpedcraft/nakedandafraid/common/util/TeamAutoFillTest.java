@@ -0,0 +1,134 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TeamAutoFill.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TeamAutoFillTest {
+
+  private static UUID player(int n) {
+    return new UUID(0, n);
+  }
+
+  private static List<List<UUID>> singles(int count) {
+    List<List<UUID>> groups = new ArrayList<>();
+    for (int i = 1; i <= count; i++) {
+      groups.add(Collections.singletonList(player(i)));
+    }
+    return groups;
+  }
+
+  private static Map<String, Integer> sizes(Object... nameAndSize) {
+    Map<String, Integer> sizes = new LinkedHashMap<>();
+    for (int i = 0; i < nameAndSize.length; i += 2) {
+      sizes.put((String) nameAndSize[i], (Integer) nameAndSize[i + 1]);
+    }
+    return sizes;
+  }
+
+  private static Map<String, Integer> countPerTeam(Map<UUID, String> plan) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (String team : plan.values()) {
+      counts.merge(team, 1, Integer::sum);
+    }
+    return counts;
+  }
+
+  @Test
+  public void testParseAcceptsCommandSpellings() {
+    assertEquals(Strategy.ROUND_ROBIN, Strategy.parse("round-robin"));
+    assertEquals(Strategy.ROUND_ROBIN, Strategy.parse("roundrobin"));
+    assertEquals(Strategy.SMALLEST, Strategy.parse("Smallest"));
+    assertEquals(Strategy.PAIRS, Strategy.parse("pairs"));
+    assertNull(Strategy.parse("alice"));
+  }
+
+  @Test
+  public void testRoundRobinDealsInTurn() {
+    Map<UUID, String> plan = TeamAutoFill.plan(Strategy.ROUND_ROBIN, sizes("blue", 3, "red", 0),
+        singles(4), uuid -> null).getAssignments();
+
+    assertEquals("blue", plan.get(player(1)));
+    assertEquals("red", plan.get(player(2)));
+    assertEquals("blue", plan.get(player(3)));
+    assertEquals("red", plan.get(player(4)));
+  }
+
+  @Test
+  public void testSmallestEvensOutTeams() {
+    Map<UUID, String> plan = TeamAutoFill.plan(Strategy.SMALLEST, sizes("blue", 3, "red", 0, "green", 1),
+        singles(5), uuid -> null).getAssignments();
+
+    assertEquals(sizes("red", 3, "green", 2), countPerTeam(plan));
+  }
+
+  @Test
+  public void testPairsStayTogether() {
+    List<List<UUID>> groups = Arrays.asList(
+        Collections.singletonList(player(1)),
+        Arrays.asList(player(2), player(3)),
+        Arrays.asList(player(4), player(5)));
+    Map<UUID, String> plan = TeamAutoFill.plan(Strategy.PAIRS, sizes("blue", 0, "red", 0), groups, uuid -> null).getAssignments();
+
+    assertEquals(plan.get(player(2)), plan.get(player(3)));
+    assertEquals(plan.get(player(4)), plan.get(player(5)));
+    assertNotEquals(plan.get(player(2)), plan.get(player(4)), "Pairs go to the smaller team first");
+    assertEquals(5, plan.size());
+  }
+
+  @Test
+  public void testPartnerJoinsExistingTeammate() {
+    List<List<UUID>> groups = Collections.singletonList(Arrays.asList(player(1), player(2)));
+    Map<UUID, String> plan = TeamAutoFill.plan(Strategy.PAIRS, sizes("blue", 5, "red", 0), groups,
+        uuid -> uuid.equals(player(1)) ? "blue" : null).getAssignments();
+
+    assertEquals(Collections.singletonMap(player(2), "blue"), plan);
+  }
+
+  @Test
+  public void testPlayersWithTeamAreSkipped() {
+    Map<UUID, String> plan = TeamAutoFill.plan(Strategy.SMALLEST, sizes("blue", 0), singles(3),
+        uuid -> uuid.equals(player(2)) ? "elsewhere" : null).getAssignments();
+
+    assertFalse(plan.containsKey(player(2)));
+    assertEquals(2, plan.size());
+  }
+
+  @Test
+  public void testNoTeamsPlansNothing() {
+    assertTrue(TeamAutoFill.plan(Strategy.SMALLEST, sizes(), singles(3), uuid -> null).getAssignments().isEmpty());
+  }
+
+  @Test
+  public void testPairWithMemberPastTheCutIsReportedSplit() {
+    List<UUID> pair = Arrays.asList(player(1), player(2));
+    TeamAutoFill.Plan plan = TeamAutoFill.plan(Strategy.PAIRS, sizes("blue", 0), Collections.singletonList(pair),
+        uuid -> uuid.equals(player(1)) ? "overflow" : null);
+
+    assertEquals(Collections.singletonMap(player(2), "blue"), plan.getAssignments());
+    assertEquals(Collections.singletonList(pair), plan.getSplitGroups());
+  }
+
+  @Test
+  public void testTeamGrownByJoiningIsNoLongerSmallest() {
+    List<List<UUID>> groups = Arrays.asList(
+        Arrays.asList(player(1), player(2), player(3)),
+        Collections.singletonList(player(4)));
+    Map<UUID, String> plan = TeamAutoFill.plan(Strategy.PAIRS, sizes("blue", 0, "red", 1), groups,
+        uuid -> uuid.equals(player(1)) ? "blue" : null).getAssignments();
+
+    assertEquals("blue", plan.get(player(2)));
+    assertEquals("blue", plan.get(player(3)));
+    assertEquals("red", plan.get(player(4)), "Blue's old size must not win the next pick");
+  }
+}
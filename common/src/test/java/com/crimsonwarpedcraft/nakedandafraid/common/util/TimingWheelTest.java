@@ -0,0 +1,104 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies scheduling semantics of {@link TimingWheel}.
+ */
+public class TimingWheelTest {
+
+  @Test
+  public void testFiresOnNextTickThenEveryInterval() {
+    TimingWheel<String> wheel = new TimingWheel<>(16);
+    List<Long> hits = new ArrayList<>();
+
+    wheel.schedule("a", 1);
+    for (int i = 0; i < 25; i++) {
+      wheel.advance(key -> {
+        hits.add(wheel.getCurrentTick());
+        return 10;
+      });
+    }
+
+    assertEquals(Arrays.asList(1L, 11L, 21L), hits);
+  }
+
+  @Test
+  public void testDelayLongerThanWheelWaitsFullDelay() {
+    TimingWheel<String> wheel = new TimingWheel<>(8);
+    List<Long> hits = new ArrayList<>();
+
+    wheel.schedule("a", 20);
+    for (int i = 0; i < 30; i++) {
+      wheel.advance(key -> {
+        hits.add(wheel.getCurrentTick());
+        return 0;
+      });
+    }
+
+    assertEquals(Collections.singletonList(20L), hits, "Entry must not fire on earlier laps of the wheel");
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testCancelAndRescheduleAreImmediate() {
+    TimingWheel<String> wheel = new TimingWheel<>();
+    Map<String, Integer> hits = new HashMap<>();
+
+    wheel.schedule("a", 1);
+    wheel.schedule("b", 1);
+    assertFalse(wheel.schedule("b", 5), "Rescheduling an existing key replaces it");
+    assertTrue(wheel.cancel("a"));
+    assertFalse(wheel.cancel("a"));
+
+    for (int i = 0; i < 5; i++) {
+      wheel.advance(key -> {
+        hits.merge(key, 1, Integer::sum);
+        return 0;
+      });
+    }
+
+    assertNull(hits.get("a"));
+    assertEquals(1, hits.get("b"));
+  }
+
+  @Test
+  public void testHandlerMayCancelOtherDueKeys() {
+    TimingWheel<String> wheel = new TimingWheel<>();
+    List<String> fired = new ArrayList<>();
+    wheel.schedule("a", 1);
+    wheel.schedule("b", 1);
+
+    wheel.advance(key -> {
+      fired.add(key);
+      wheel.cancel(key.equals("a") ? "b" : "a");
+      return 5;
+    });
+
+    assertEquals(1, fired.size(), "The cancelled key must not fire in the same tick");
+    assertEquals(1, wheel.size());
+  }
+
+  @Test
+  public void testClearDropsEverything() {
+    TimingWheel<Integer> wheel = new TimingWheel<>();
+    for (int i = 0; i < 500; i++) {
+      wheel.schedule(i, 1 + (i % 40));
+    }
+    assertEquals(500, wheel.size());
+
+    wheel.clear();
+
+    assertEquals(0, wheel.size());
+    assertEquals(0, wheel.advance(key -> 1));
+  }
+}
@@ -0,0 +1,183 @@
+package com.crimsonwarpedcraft.nakedandafraid.common.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises {@link UpdateCheckService} against a local HTTP stub standing in
+ * for the GitHub and Modrinth APIs.
+ */
+public class UpdateCheckServiceTest {
+
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private final PluginLogger logger = new PluginLogger() {
+    @Override
+    public boolean isDebugEnabled() {
+      return false;
+    }
+
+    @Override
+    public void debugLog(String message) {
+    }
+  };
+
+  private HttpServer server;
+  private final AtomicInteger githubHits = new AtomicInteger();
+  private final AtomicInteger modrinthHits = new AtomicInteger();
+  private volatile int githubStatus = 200;
+  private volatile int modrinthStatus = 200;
+  private volatile CountDownLatch githubGate;
+  private UpdateCheckService service;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/github", exchange -> {
+      githubHits.incrementAndGet();
+      CountDownLatch gate = githubGate;
+      if (gate != null) {
+        try {
+          gate.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      respond(exchange, githubStatus, "{\"tag_name\":\"v9.9.9\"}");
+    });
+    server.createContext("/modrinth", exchange -> {
+      modrinthHits.incrementAndGet();
+      respond(exchange, modrinthStatus, "[{\"version_number\":\"9.9.8\"}]");
+    });
+    server.start();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (service != null) {
+      service.shutdown();
+    }
+    server.stop(0);
+  }
+
+  @Test
+  public void testStartCachesLatestVersionFromGitHub() throws Exception {
+    service = newService("2.1.0", UpdateCheckService.DEFAULT_TTL_MILLIS);
+    assertNull(service.getCached(), "Nothing must be cached before the first lookup completes");
+
+    UpdateCheckService.Result result = service.start().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertEquals("v9.9.9", result.getLatestVersion());
+    assertTrue(result.isOutdated());
+    assertSame(result, service.getCached());
+    assertEquals(1, githubHits.get());
+    assertEquals(0, modrinthHits.get(), "Modrinth must not be queried when GitHub answers");
+  }
+
+  @Test
+  public void testFreshResultIsServedWithoutNetwork() throws Exception {
+    service = newService("9.9.9", UpdateCheckService.DEFAULT_TTL_MILLIS);
+    UpdateCheckService.Result first = service.start().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    for (int i = 0; i < 10; i++) {
+      assertSame(first, service.getOrRefresh().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    assertFalse(first.isOutdated(), "A leading 'v' must not make the versions differ");
+    assertEquals(1, githubHits.get(), "Cached result must not trigger another request");
+  }
+
+  @Test
+  public void testStaleResultIsRefreshed() throws Exception {
+    service = newService("2.1.0", 0);
+    service.refresh().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    service.getOrRefresh().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertEquals(2, githubHits.get());
+  }
+
+  @Test
+  public void testConcurrentRefreshesShareOneLookup() throws Exception {
+    githubGate = new CountDownLatch(1);
+    service = newService("2.1.0", UpdateCheckService.DEFAULT_TTL_MILLIS);
+
+    CompletableFuture<UpdateCheckService.Result> first = service.refresh();
+    CompletableFuture<UpdateCheckService.Result> second = service.refresh();
+    assertSame(first, second, "A refresh already in flight must be reused");
+
+    githubGate.countDown();
+    first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    assertEquals(1, githubHits.get());
+  }
+
+  @Test
+  public void testRefreshDoesNotBlockCaller() throws Exception {
+    githubGate = new CountDownLatch(1);
+    service = newService("2.1.0", UpdateCheckService.DEFAULT_TTL_MILLIS);
+
+    long start = System.nanoTime();
+    CompletableFuture<UpdateCheckService.Result> future = service.refresh();
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertFalse(future.isDone(), "Lookup must still be waiting on the stub");
+    assertTrue(elapsedMillis < 1000, "refresh() blocked for " + elapsedMillis + "ms");
+    assertNull(service.getCached());
+
+    githubGate.countDown();
+    future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testFallsBackToModrinthWhenGitHubFails() throws Exception {
+    githubStatus = 500;
+    service = newService("2.1.0", UpdateCheckService.DEFAULT_TTL_MILLIS);
+
+    UpdateCheckService.Result result = service.start().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertEquals("9.9.8", result.getLatestVersion());
+    assertEquals(1, modrinthHits.get());
+  }
+
+  @Test
+  public void testBothApisDownCachesNotOutdated() throws Exception {
+    githubStatus = 503;
+    modrinthStatus = 503;
+    service = newService("2.1.0", UpdateCheckService.DEFAULT_TTL_MILLIS);
+
+    UpdateCheckService.Result result = service.start().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertNull(result.getLatestVersion());
+    assertFalse(result.isOutdated());
+    assertSame(result, service.getCached(), "Failures are cached too, so joins never retry inline");
+  }
+
+  private UpdateCheckService newService(String currentVersion, long ttlMillis) {
+    String base = "http://127.0.0.1:" + server.getAddress().getPort();
+    VersionChecker checker = new VersionChecker(logger, null, base + "/github", base + "/modrinth");
+    return new UpdateCheckService(logger, checker, currentVersion, ttlMillis);
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
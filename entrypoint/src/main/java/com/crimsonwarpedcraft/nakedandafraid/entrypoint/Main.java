@@ -1,6 +1,7 @@
 package com.crimsonwarpedcraft.nakedandafraid.entrypoint;
 
 import com.crimsonwarpedcraft.nakedandafraid.common.PluginDelegate;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -28,7 +29,7 @@ public class Main extends JavaPlugin {
         getLogger().info("[NakedAndAfraid] Detected server version: " + version);
 
         try {
-            String className = resolveClassName(version);
+            String className = resolveClassName(ServerCapabilities.probe());
             if (className == null) {
                 getLogger().severe("[NakedAndAfraid] Unsupported server version: " + version);
                 getServer().getPluginManager().disablePlugin(this);
@@ -87,26 +88,26 @@ public class Main extends JavaPlugin {
     // -----------------------------------------------------------------------
 
     /**
-     * Maps a Bukkit version string to the fully-qualified name of the
-     * matching {@code NakedAndAfraid} implementation class.
+     * Maps the server version to the fully-qualified name of the matching
+     * {@code NakedAndAfraid} implementation class. Anything newer than the
+     * last known release is routed to the newest module.
      *
-     * @param version e.g. {@code "1.21.1"}, {@code "1.17"}, {@code "1.8.8"}
+     * @param capabilities the probed server version
      * @return the class name, or {@code null} if the version is unsupported
      */
-    private static String resolveClassName(String version) {
-        if (version.matches("1\\.[89](\\.[0-9])?")
-                || version.matches("1\\.(1[0-6])(\\.[0-9])?")) {
-            return "com.crimsonwarpedcraft.nakedandafraid.v1_8.NakedAndAfraid";
+    private static String resolveClassName(ServerCapabilities capabilities) {
+        if (!capabilities.isAtLeast(1, 8, 0)) {
+            return null;
         }
 
-        if (version.matches("1\\.(1[7-8])(\\.[0-2])?")) {
-            return "com.crimsonwarpedcraft.nakedandafraid.v1_17.NakedAndAfraid";
+        if (!capabilities.isAtLeast(1, 17, 0)) {
+            return "com.crimsonwarpedcraft.nakedandafraid.v1_8.NakedAndAfraid";
         }
 
-        if (version.matches("1\\.(19|[2-9][0-9])(\\.[0-9]{1,2})?")) {
-            return "com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid";
+        if (!capabilities.isAtLeast(1, 19, 0)) {
+            return "com.crimsonwarpedcraft.nakedandafraid.v1_17.NakedAndAfraid";
         }
 
-        return null;
+        return "com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid";
     }
 }
\ No newline at end of file
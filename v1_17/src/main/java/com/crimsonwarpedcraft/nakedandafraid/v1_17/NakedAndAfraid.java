@@ -13,7 +13,6 @@ import com.crimsonwarpedcraft.nakedandafraid.v1_17.spawn.SpawnManager;
 import com.crimsonwarpedcraft.nakedandafraid.v1_17.team.TeamCommands;
 import com.crimsonwarpedcraft.nakedandafraid.v1_17.team.TeamsManager;
 import com.crimsonwarpedcraft.nakedandafraid.v1_17.util.TeleportHelper;
-import com.crimsonwarpedcraft.nakedandafraid.v1_17.util.TeleportHelperExtension;
 import io.papermc.lib.PaperLib;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
@@ -37,7 +36,6 @@ import java.util.*;
  * <ul>
  *   <li>Adventure API guarded by {@link #isAdventureSupported()} (true on 1.19+).</li>
  *   <li>{@code TotemDisablerListener} added as a toggleable listener.</li>
- *   <li>{@code TeleportHelperExtension} always registered (MC is always &gt;= 1.9 here).</li>
  *   <li>{@code setWorldList} uses the same manual file I/O as v1_8.</li>
  *   <li>{@code ArmorDamageListener} takes {@code plugin}, not {@code this}.</li>
  * </ul>
@@ -73,12 +71,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
    * soft-dependency but we keep legacy codes for safety.
    */
   private boolean isAdventureSupported() {
-    try {
-      String minor = Bukkit.getBukkitVersion().split("-")[0].split("\\.")[1];
-      return Integer.parseInt(minor) >= 19;
-    } catch (Exception e) {
-      return false;
-    }
+    return getServerCapabilities().isAdventureSupported();
   }
 
   // -----------------------------------------------------------------------
@@ -89,7 +82,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
   protected void initManagers() {
     PaperLib.suggestPaper(plugin);
 
-    teamsManager = new TeamsManager(plugin);
+    teamsManager = new TeamsManager(this);
     teamCommands = new TeamCommands(teamsManager, this);
     debugLog("[NakedAndAfraid] Initialized TeamsManager and TeamCommands");
 
@@ -109,7 +102,6 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
   @Override
   protected void initTeleportHelper() {
     teleportHelper = new TeleportHelper(plugin, this);
-    new TeleportHelperExtension(plugin, this, teleportHelper);
     debugLog("[NakedAndAfraid] Initialized TeleportHelper");
   }
 
@@ -147,7 +139,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
   @Override
   protected Listener createArmorDamageListener() {
     // v1_17 variant takes Plugin, not NakedAndAfraid
-    return new ArmorDamageListener(plugin);
+    return new ArmorDamageListener(this);
   }
 
   @Override
@@ -233,7 +225,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
 
   @Override
   protected void doReloadVersionListeners() {
-    if (plugin.getConfig().getBoolean("disable-totems", true)) {
+    if (getConfigSnapshot().isDisableTotems()) {
       totemDisablerListener = new TotemDisablerListener(this);
       plugin.getServer().getPluginManager()
               .registerEvents(totemDisablerListener, plugin);
@@ -311,6 +303,19 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
     }
   }
 
+  @Override
+  protected void shutdownManagers() {
+    if (teamsManager != null) {
+      teamsManager.shutdown();
+    }
+    if (teleportHelper != null) {
+      teleportHelper.shutdown();
+    }
+    if (spawnManager != null) {
+      spawnManager.shutdown();
+    }
+  }
+
   public TeleportHelper getTeleportHelper() {
     return teleportHelper;
   }
@@ -377,7 +382,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
       for (org.bukkit.World world : Bukkit.getWorlds()) {
         if (!existingWorlds.containsKey(world.getName())) {
           existingWorlds.put(world.getName(), true);
-          debugLog("[NakedAndAfraid] Added world " + world.getName());
+          debugLog("[NakedAndAfraid] Added world {}", world.getName());
         }
         hasWorlds = true;
       }
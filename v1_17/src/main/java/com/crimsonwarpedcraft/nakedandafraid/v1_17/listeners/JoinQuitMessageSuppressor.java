@@ -2,6 +2,7 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_17.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
 import com.crimsonwarpedcraft.nakedandafraid.v1_17.NakedAndAfraid;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
@@ -14,6 +15,7 @@ import org.bukkit.event.player.PlayerQuitEvent;
  */
 public class JoinQuitMessageSuppressor implements Listener {
     private final NakedAndAfraid plugin;
+    private final ServerCapabilities capabilities;
 
     /**
      * Constructor to initialize with the plugin instance.
@@ -22,24 +24,8 @@ public class JoinQuitMessageSuppressor implements Listener {
      */
     public JoinQuitMessageSuppressor(NakedAndAfraid plugin) {
         this.plugin = plugin;
-        plugin.debugLog("[JoinQuitMessageSuppressor] Initialized JoinQuitMessageSuppressor for Bukkit version " +
-                Bukkit.getBukkitVersion());
-    }
-
-    /**
-     * Checks if the server is pre-1.12.2 (Minecraft 1.12–1.12.1).
-     */
-    private boolean isPre1122() {
-        try {
-            String version = Bukkit.getBukkitVersion().split("-")[0];
-            String[] parts = version.split("\\.");
-            int major = Integer.parseInt(parts[1]);
-            int minor = parts.length > 2 ? Integer.parseInt(parts[2].split("[^0-9]")[0]) : 0;
-            return major == 12 && minor < 2;
-        } catch (Exception e) {
-            plugin.debugLog("[JoinQuitMessageSuppressor] Failed to parse Bukkit version: " + e.getMessage());
-            return true; // Fallback to legacy methods if version parsing fails
-        }
+        this.capabilities = plugin.getServerCapabilities();
+        plugin.debugLog("[JoinQuitMessageSuppressor] Initialized JoinQuitMessageSuppressor for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     /**
@@ -51,20 +37,20 @@ public class JoinQuitMessageSuppressor implements Listener {
     public void onPlayerJoin(final PlayerJoinEvent event) {
         String playerName = event.getPlayer().getName();
         // Check if world is enabled
-        if (!plugin.isWorldEnabled(event.getPlayer().getWorld().getName())) {
-            plugin.debugLog("[JoinQuitMessageSuppressor] Allowed join message for player " + playerName +
-                    " in disabled world " + event.getPlayer().getWorld().getName());
+        if (!plugin.isWorldEnabled(event.getPlayer().getWorld())) {
+            plugin.debugLog("[JoinQuitMessageSuppressor] Allowed join message for player {} in disabled world {}",
+                    playerName, event.getPlayer().getWorld().getName());
             return;
         }
 
-        plugin.debugLog("[JoinQuitMessageSuppressor] Suppressing join message for player " + playerName);
+        plugin.debugLog("[JoinQuitMessageSuppressor] Suppressing join message for player {}", playerName);
 
-        if (isPre1122()) {
+        if (capabilities.isPre1122()) {
             event.setJoinMessage(null);
-            plugin.debugLog("[JoinQuitMessageSuppressor] Used setJoinMessage(null) for " + playerName + " (pre-1.12.2)");
+            plugin.debugLog("[JoinQuitMessageSuppressor] Used setJoinMessage(null) for {} (pre-1.12.2)", playerName);
         } else {
             event.joinMessage(null);
-            plugin.debugLog("[JoinQuitMessageSuppressor] Used joinMessage(null) for " + playerName + " (1.12.2+)");
+            plugin.debugLog("[JoinQuitMessageSuppressor] Used joinMessage(null) for {} (1.12.2+)", playerName);
         }
     }
 
@@ -76,20 +62,20 @@ public class JoinQuitMessageSuppressor implements Listener {
     @EventHandler
     public void onPlayerQuit(final PlayerQuitEvent event) {
         String playerName = event.getPlayer().getName();
-        if (!plugin.isWorldEnabled(event.getPlayer().getWorld().getName())) {
-            plugin.debugLog("[JoinQuitMessageSuppressor] Allowed quit message for player " + playerName +
-                    " in disabled world " + event.getPlayer().getWorld().getName());
+        if (!plugin.isWorldEnabled(event.getPlayer().getWorld())) {
+            plugin.debugLog("[JoinQuitMessageSuppressor] Allowed quit message for player {} in disabled world {}",
+                    playerName, event.getPlayer().getWorld().getName());
             return;
         }
 
-        plugin.debugLog("[JoinQuitMessageSuppressor] Suppressing quit message for player " + playerName);
+        plugin.debugLog("[JoinQuitMessageSuppressor] Suppressing quit message for player {}", playerName);
 
-        if (isPre1122()) {
+        if (capabilities.isPre1122()) {
             event.setQuitMessage(null);
-            plugin.debugLog("[JoinQuitMessageSuppressor] Used setQuitMessage(null) for " + playerName + " (pre-1.12.2)");
+            plugin.debugLog("[JoinQuitMessageSuppressor] Used setQuitMessage(null) for {} (pre-1.12.2)", playerName);
         } else {
             event.quitMessage(null);
-            plugin.debugLog("[JoinQuitMessageSuppressor] Used quitMessage(null) for " + playerName + " (1.12.2+)");
+            plugin.debugLog("[JoinQuitMessageSuppressor] Used quitMessage(null) for {} (1.12.2+)", playerName);
         }
     }
 }
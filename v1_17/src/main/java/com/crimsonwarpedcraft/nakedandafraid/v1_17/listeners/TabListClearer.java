@@ -2,7 +2,9 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_17.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TabListUpdateQueue;
 import com.crimsonwarpedcraft.nakedandafraid.v1_17.NakedAndAfraid;
+import com.crimsonwarpedcraft.nakedandafraid.v1_17.util.TabPacketFactory;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -12,55 +14,42 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
 
-import java.lang.reflect.Array;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 public class TabListClearer implements Listener {
 
     private final NakedAndAfraid nakedAndAfraid;
     private final Plugin plugin;
+    private final TabListUpdateQueue updates;
     private boolean enabled;
 
-    // --- Lazily-resolved NMS reflection state ---
-    private boolean nmsResolved;
-    private boolean nmsAvailable;
-    private Class<?> packetClass;
-    private Class<?> actionClass;
-    private Class<?> playerHandleClass;
-    private String connectionFieldName;
-    private String sendMethodName;
-
-    /**
-     * Candidate (packetClass, actionClass, playerHandleClass) triples, tried in order.
-     * Index 0 matches Paper 1.17.1-1.19.x "legacy mapped" runtimes.
-     * Index 1 matches fully Mojang-mapped runtimes (Paper 1.20.5+).
-     */
-    private static final String[][] NMS_CANDIDATES = {
-            {
-                    "net.minecraft.network.protocol.game.PacketPlayOutPlayerInfo",
-                    "net.minecraft.network.protocol.game.PacketPlayOutPlayerInfo$EnumPlayerInfoAction",
-                    "net.minecraft.server.level.EntityPlayer"
-            },
-            {
-                    "net.minecraft.network.protocol.game.ClientboundPlayerInfoPacket",
-                    "net.minecraft.network.protocol.game.ClientboundPlayerInfoPacket$Action",
-                    "net.minecraft.server.level.ServerPlayer"
-            }
-    };
-
-    private static final String[] CONNECTION_FIELD_CANDIDATES = {"playerConnection", "connection", "b"};
-    private static final String[] SEND_METHOD_CANDIDATES = {"sendPacket", "send"};
+    // Resolved once; null if this server's internals don't match, in which case no packets are sent
+    private final TabPacketFactory packets;
 
     public TabListClearer(NakedAndAfraid plugin, Plugin pluginVar) {
         this.nakedAndAfraid = plugin;
         this.plugin = pluginVar;
-        plugin.debugLog("[TabListClearer] Initializing TabListClearer for Bukkit version " + Bukkit.getBukkitVersion());
+        this.packets = createPacketFactory();
+        this.updates = new TabListUpdateQueue(pluginVar, plugin, new UpdateSink(),
+                plugin.getConfigSnapshot().getTabPacketsPerTick());
+        plugin.debugLog("[TabListClearer] Initializing TabListClearer for Bukkit version {}, packets resolved: {}",
+                Bukkit.getBukkitVersion(), packets != null);
         Bukkit.getPluginManager().registerEvents(this, nakedAndAfraid.getPlugin());
         plugin.debugLog("[TabListClearer] Registered event listeners for TabListClearer");
     }
 
+    private TabPacketFactory createPacketFactory() {
+        try {
+            return TabPacketFactory.create();
+        } catch (Exception | LinkageError e) {
+            plugin.getLogger().severe("[TabListClearer] Could not resolve the player-info packet for this server (Bukkit version: "
+                    + Bukkit.getBukkitVersion() + "). Tab list hiding will be disabled: " + e);
+            return null;
+        }
+    }
+
     /**
      * Enables tab list hiding for all online players in enabled worlds.
      */
@@ -73,19 +62,19 @@ public class TabListClearer implements Listener {
         nakedAndAfraid.debugLog("[TabListClearer] Enabling tab list hiding for all online players");
         int playerCount = 0;
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
-                updateTabListForPlayer(player);
+            if (nakedAndAfraid.isWorldEnabled(player.getWorld())) {
+                updates.refresh(player);
                 playerCount++;
-                nakedAndAfraid.debugLog("[TabListClearer] Hid tab list for player " + player.getName() +
-                        " in world " + player.getWorld().getName());
             } else {
-                nakedAndAfraid.debugLog("[TabListClearer] Skipped hiding tab list for player " + player.getName() +
-                        " in disabled world " + player.getWorld().getName());
+                nakedAndAfraid.debugLog("[TabListClearer] Skipped hiding tab list for player {} in disabled world {}",
+                        player.getName(), player.getWorld().getName());
             }
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Applied tab list hiding to " + playerCount + " players");
+        nakedAndAfraid.debugLog("[TabListClearer] Queued tab list hiding for {} players", playerCount);
 
         enabled = true;
+        // Send this tick's share now; the rest follows within the packet budget
+        updates.flush();
         plugin.getLogger().info("Naked And Afraid - Tab Hider Enabled.");
         nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding enabled successfully");
     }
@@ -100,16 +89,17 @@ public class TabListClearer implements Listener {
         }
 
         nakedAndAfraid.debugLog("[TabListClearer] Disabling tab list hiding for all online players");
+        updates.clear();
         int playerCount = 0;
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
+            if (nakedAndAfraid.isWorldEnabled(player.getWorld())) {
                 restoreTabListForPlayer(player);
                 playerCount++;
-                nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for player " + player.getName() +
-                        " in world " + player.getWorld().getName());
+                nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for player {} in world {}",
+                        player.getName(), player.getWorld().getName());
             }
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for " + playerCount + " players");
+        nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for {} players", playerCount);
 
         enabled = false;
         plugin.getLogger().info("Naked And Afraid - Tab Hider Disabled.");
@@ -127,258 +117,159 @@ public class TabListClearer implements Listener {
             nakedAndAfraid.debugLog("[TabListClearer] Toggling tab list hiding from disabled to enabled");
             enable();
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Toggled tab list hiding, new state: enabled=" + enabled);
+        nakedAndAfraid.debugLog("[TabListClearer] Toggled tab list hiding, new state: enabled={}", enabled);
     }
 
     /**
      * Returns current status.
      */
     public boolean isEnabled() {
-        nakedAndAfraid.debugLog("[TabListClearer] Checked tab list hiding status: enabled=" + enabled);
+        nakedAndAfraid.debugLog("[TabListClearer] Checked tab list hiding status: enabled={}", enabled);
         return enabled;
     }
 
+    /**
+     * Queues applying tab list hiding to a specific player; sent on the next
+     * tick, merged with any other update queued for them.
+     */
     public void applyToPlayer(Player player) {
         if (!enabled) {
-            nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding not enabled, skipping applyToPlayer for " + player.getName());
-            return;
-        }
-        if (!nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
-            nakedAndAfraid.debugLog("[TabListClearer] Skipped applying tab list hiding for player " + player.getName() +
-                    " in disabled world " + player.getWorld().getName());
-            restoreTabListForPlayer(player);
+            nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding not enabled, skipping applyToPlayer for {}", player.getName());
             return;
         }
-
-        nakedAndAfraid.debugLog("[TabListClearer] Applying tab list hiding to player " + player.getName() +
-                " in world " + player.getWorld().getName());
-        updateTabListForPlayer(player);
-        nakedAndAfraid.debugLog("[TabListClearer] Successfully applied tab list hiding to " + player.getName());
+        updates.refresh(player);
+        nakedAndAfraid.debugLog("[TabListClearer] Queued tab list update for {}, queue depth {}",
+                player.getName(), updates.depth());
     }
 
     /**
-     * Resolves the NMS classes/fields/methods needed for player-info packets, once.
-     * Tries each candidate mapping set in {@link #NMS_CANDIDATES} until one works.
+     * Hides others from {@code player}, or restores them if their world is
+     * disabled.
+     *
+     * @return packets sent
      */
-    private synchronized boolean resolveNms(Player sample) {
-        if (nmsResolved) {
-            return nmsAvailable;
+    private int refreshTabListForPlayer(Player player) {
+        if (!nakedAndAfraid.isWorldEnabled(player.getWorld())) {
+            nakedAndAfraid.debugLog("[TabListClearer] Skipped applying tab list hiding for player {} in disabled world {}",
+                    player.getName(), player.getWorld().getName());
+            return restoreTabListForPlayer(player);
         }
-        nmsResolved = true;
-
-        try {
-            Object handle = sample.getClass().getMethod("getHandle").invoke(sample);
-            ClassLoader loader = handle.getClass().getClassLoader();
-
-            for (String[] candidate : NMS_CANDIDATES) {
-                try {
-                    Class<?> pClass = Class.forName(candidate[0], true, loader);
-                    Class<?> aClass = Class.forName(candidate[1], true, loader);
-                    Class<?> plClass = Class.forName(candidate[2], true, loader);
-
-                    // Make sure there's a (action, playerHandle[]) constructor (varargs-style)
-                    Object arr = Array.newInstance(plClass, 0);
-                    pClass.getDeclaredConstructor(aClass, arr.getClass());
-
-                    this.packetClass = pClass;
-                    this.actionClass = aClass;
-                    this.playerHandleClass = plClass;
-                    nakedAndAfraid.debugLog("[TabListClearer] Resolved NMS classes: packet=" + pClass.getName()
-                            + ", action=" + aClass.getName() + ", player=" + plClass.getName());
-                    break;
-                } catch (Exception ignored) {
-                    // Try next candidate
-                }
-            }
-
-            if (packetClass == null) {
-                plugin.getLogger().severe("[TabListClearer] Could not resolve the player-info packet classes for "
-                        + "this server (Bukkit version: " + Bukkit.getBukkitVersion() + "). Tab list hiding will "
-                        + "be disabled. Tried: net.minecraft.network.protocol.game.PacketPlayOutPlayerInfo and "
-                        + "net.minecraft.network.protocol.game.ClientboundPlayerInfoPacket.");
-                return false;
-            }
-
-            // Resolve the player connection field on the player handle
-            for (String fieldName : CONNECTION_FIELD_CANDIDATES) {
-                try {
-                    handle.getClass().getField(fieldName);
-                    connectionFieldName = fieldName;
-                    break;
-                } catch (NoSuchFieldException ignored) {
-                    // try next
-                }
-            }
-
-            if (connectionFieldName == null) {
-                plugin.getLogger().severe("[TabListClearer] Could not resolve the player connection field on "
-                        + handle.getClass().getName() + ". Tab list hiding will be disabled.");
-                packetClass = null;
-                return false;
-            }
-
-            // Resolve the send method on the connection object
-            Object connection = handle.getClass().getField(connectionFieldName).get(handle);
-            outer:
-            for (String methodName : SEND_METHOD_CANDIDATES) {
-                for (Method m : connection.getClass().getMethods()) {
-                    if (m.getName().equals(methodName) && m.getParameterCount() == 1) {
-                        sendMethodName = methodName;
-                        break outer;
-                    }
-                }
-            }
-
-            if (sendMethodName == null) {
-                plugin.getLogger().severe("[TabListClearer] Could not resolve a packet-send method on "
-                        + connection.getClass().getName() + ". Tab list hiding will be disabled.");
-                packetClass = null;
-                return false;
-            }
 
-            nmsAvailable = true;
-            nakedAndAfraid.debugLog("[TabListClearer] NMS reflection resolved: connectionField="
-                    + connectionFieldName + ", sendMethod=" + sendMethodName);
-            return true;
-        } catch (Exception e) {
-            plugin.getLogger().severe("[TabListClearer] Failed to resolve NMS reflection: " + e
-                    + ". Tab list hiding will be disabled.");
-            e.printStackTrace();
-            return false;
-        }
+        nakedAndAfraid.debugLog("[TabListClearer] Applying tab list hiding to player {} in world {}", player.getName(), player.getWorld().getName());
+        return updateTabListForPlayer(player);
     }
 
-    /**
-     * Sends a PacketPlayOutPlayerInfo REMOVE_PLAYER packet for each other player
-     * to the given player, hiding them from the tab list.
-     */
-    private void updateTabListForPlayer(Player player) {
-        nakedAndAfraid.debugLog("[TabListClearer] Hiding other players from tab list for " + player.getName());
-
-        if (!resolveNms(player)) {
-            return;
-        }
-
+    private List<Player> othersInEnabledWorlds(Player player) {
         List<Player> others = new ArrayList<>();
         for (Player p : Bukkit.getOnlinePlayers()) {
-            if (!p.equals(player) && nakedAndAfraid.isWorldEnabled(p.getWorld().getName())) {
+            if (!p.equals(player) && nakedAndAfraid.isWorldEnabled(p.getWorld())) {
                 others.add(p);
             }
         }
-        for (Player other : others) {
-            try {
-                sendPlayerInfoPacket(player, other, "REMOVE_PLAYER");
-            } catch (Exception e) {
-                Throwable cause = e.getCause() != null ? e.getCause() : e;
-                plugin.getLogger().severe("[TabListClearer] Failed to hide " + other.getName()
-                        + " from " + player.getName() + ": " + cause);
-            }
-        }
-        nakedAndAfraid.debugLog("[TabListClearer] Sent REMOVE_PLAYER for " + others.size()
-                + " players to " + player.getName());
+        return others;
     }
 
     /**
-     * Sends a PacketPlayOutPlayerInfo ADD_PLAYER packet for each other player
-     * to the given player, restoring them in the tab list.
+     * Sends one PacketPlayOutPlayerInfo REMOVE_PLAYER packet covering every
+     * other player to the given player, hiding them from the tab list.
+     *
+     * @return packets sent
      */
-    private void restoreTabListForPlayer(Player player) {
-        nakedAndAfraid.debugLog("[TabListClearer] Restoring full tab list for " + player.getName());
-
-        if (!resolveNms(player)) {
-            return;
-        }
-
-        List<Player> others = new ArrayList<>();
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            if (!p.equals(player) && nakedAndAfraid.isWorldEnabled(p.getWorld().getName())) {
-                others.add(p);
-            }
-        }
-        for (Player other : others) {
-            try {
-                sendPlayerInfoPacket(player, other, "ADD_PLAYER");
-            } catch (Exception e) {
-                Throwable cause = e.getCause() != null ? e.getCause() : e;
-                plugin.getLogger().severe("[TabListClearer] Failed to restore " + other.getName()
-                        + " for " + player.getName() + ": " + cause);
-            }
-        }
-        nakedAndAfraid.debugLog("[TabListClearer] Successfully restored tab list for " + player.getName());
+    private int updateTabListForPlayer(Player player) {
+        nakedAndAfraid.debugLog("[TabListClearer] Hiding other players from tab list for {}", player.getName());
+        return sendPlayerInfoPacket(player, othersInEnabledWorlds(player), false);
     }
 
     /**
-     * Sends a PacketPlayOutPlayerInfo packet using the previously resolved NMS classes.
-     * actionName is "REMOVE_PLAYER" or "ADD_PLAYER".
+     * Sends one PacketPlayOutPlayerInfo ADD_PLAYER packet covering every
+     * other player to the given player, restoring them in the tab list.
+     *
+     * @return packets sent
      */
-    private void sendPlayerInfoPacket(Player recipient, Player subject, String actionName) throws Exception {
-        Object entityPlayer = subject.getClass().getMethod("getHandle").invoke(subject);
-
-        Object action = null;
-        for (Object constant : actionClass.getEnumConstants()) {
-            if (((Enum<?>) constant).name().equals(actionName)) {
-                action = constant;
-                break;
-            }
-        }
-        if (action == null) {
-            throw new IllegalStateException("Action not found: " + actionName + " in " + actionClass.getName());
-        }
-
-        Object arr = Array.newInstance(playerHandleClass, 1);
-        Array.set(arr, 0, entityPlayer);
-
-        Object packet = packetClass
-                .getDeclaredConstructor(actionClass, arr.getClass())
-                .newInstance(action, arr);
-
-        sendNmsPacket(recipient, packet);
+    private int restoreTabListForPlayer(Player player) {
+        nakedAndAfraid.debugLog("[TabListClearer] Restoring full tab list for {}", player.getName());
+        return sendPlayerInfoPacket(player, othersInEnabledWorlds(player), true);
     }
 
-    private void sendNmsPacket(Player recipient, Object nmsPacket) throws Exception {
-        Object entityPlayer = recipient.getClass().getMethod("getHandle").invoke(recipient);
-        Object connection = entityPlayer.getClass().getField(connectionFieldName).get(entityPlayer);
-
-        for (Method m : connection.getClass().getMethods()) {
-            if (m.getName().equals(sendMethodName) && m.getParameterCount() == 1
-                    && m.getParameterTypes()[0].isAssignableFrom(nmsPacket.getClass())) {
-                m.invoke(connection, nmsPacket);
-                return;
-            }
+    /**
+     * Sends {@code subjects} to {@code recipient} in a single packet, adding
+     * them if {@code add} and removing them otherwise. Logs rather than
+     * throwing on failure.
+     *
+     * @return packets sent
+     */
+    private int sendPlayerInfoPacket(Player recipient, List<Player> subjects, boolean add) {
+        if (packets == null || subjects.isEmpty()) {
+            return 0;
+        }
+        var actionName = add ? "ADD_PLAYER" : "REMOVE_PLAYER";
+        try {
+            packets.send(recipient, packets.playerInfoPacket(add, subjects));
+            nakedAndAfraid.debugLog("[TabListClearer] Sent {} for {} players to {}", actionName, subjects.size(), recipient.getName());
+            return 1;
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            plugin.getLogger().severe("[TabListClearer] Failed to send " + actionName + " for " + subjects.size()
+                    + " players to " + recipient.getName() + ": " + cause);
+            return 0;
         }
-        throw new NoSuchMethodException("No matching " + sendMethodName + "(Packet) method found on "
-                + connection.getClass().getName());
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerJoinEvent triggered for " + event.getPlayer().getName());
-        Bukkit.getScheduler().runTaskLater(nakedAndAfraid.getPlugin(), () -> {
-            applyToPlayer(event.getPlayer());
+        Player joining = event.getPlayer();
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerJoinEvent triggered for {}", joining.getName());
+        if (!enabled) {
+            return;
+        }
+
+        // Queued for the next tick, so the server's own tab list packets go first. Everyone else
+        // only needs the newcomer removed; joins in the same tick share one packet per recipient.
+        updates.refresh(joining);
+        int notified = 0;
+        if (nakedAndAfraid.isWorldEnabled(joining.getWorld())) {
             for (Player other : Bukkit.getOnlinePlayers()) {
-                if (!other.equals(event.getPlayer()) && nakedAndAfraid.isWorldEnabled(other.getWorld().getName())) {
-                    applyToPlayer(other);
+                if (!other.equals(joining) && nakedAndAfraid.isWorldEnabled(other.getWorld())) {
+                    updates.hide(other, joining);
+                    notified++;
                 }
             }
-            nakedAndAfraid.debugLog("[TabListClearer] Processed PlayerJoinEvent for " + event.getPlayer().getName());
-        }, 1L);
-        nakedAndAfraid.debugLog("[TabListClearer] Scheduled tab list update for " + event.getPlayer().getName());
+        }
+        nakedAndAfraid.debugLog("[TabListClearer] Queued join for {}, hiding them from {} players",
+                joining.getName(), notified);
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerQuitEvent triggered for " + event.getPlayer().getName());
-        nakedAndAfraid.debugLog("[TabListClearer] No tab list cleanup needed for " + event.getPlayer().getName() + " on quit");
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerQuitEvent triggered for {}", event.getPlayer().getName());
+        updates.forget(event.getPlayer());
     }
 
     @EventHandler
     public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerChangedWorldEvent triggered for " + event.getPlayer().getName() +
-                " from world " + event.getFrom().getName() + " to " + event.getPlayer().getWorld().getName());
-        Bukkit.getScheduler().runTaskLater(nakedAndAfraid.getPlugin(), () -> {
-            applyToPlayer(event.getPlayer());
-            nakedAndAfraid.debugLog("[TabListClearer] Processed PlayerChangedWorldEvent for " + event.getPlayer().getName());
-        }, 1L);
-        nakedAndAfraid.debugLog("[TabListClearer] Scheduled tab list update for " + event.getPlayer().getName());
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerChangedWorldEvent triggered for {} from world {} to {}",
+                event.getPlayer().getName(), event.getFrom().getName(), event.getPlayer().getWorld().getName());
+        applyToPlayer(event.getPlayer());
+    }
+
+    /** Sends what {@link #updates} flushes, counting packets against its budget. */
+    private final class UpdateSink implements TabListUpdateQueue.Sink {
+
+        @Override
+        public int refresh(Player recipient) {
+            return refreshTabListForPlayer(recipient);
+        }
+
+        @Override
+        public int hide(Player recipient, List<UUID> subjects) {
+            List<Player> online = new ArrayList<>(subjects.size());
+            for (UUID uuid : subjects) {
+                Player subject = Bukkit.getPlayer(uuid);
+                if (subject != null) {
+                    online.add(subject);
+                }
+            }
+            return sendPlayerInfoPacket(recipient, online, false);
+        }
     }
 }
\ No newline at end of file
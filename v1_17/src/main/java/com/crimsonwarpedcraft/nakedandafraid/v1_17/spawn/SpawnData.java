@@ -4,5 +4,11 @@ package com.crimsonwarpedcraft.nakedandafraid.v1_17.spawn;
 
 import org.bukkit.Location;
 
-public record SpawnData(Location location, String targetPlayerName) {
+import java.util.UUID;
+
+/**
+ * {@code targetPlayerId} is null when only the target's name is known; both are
+ * null for an open spawn that belongs to nobody.
+ */
+public record SpawnData(Location location, String targetPlayerName, UUID targetPlayerId) {
 }
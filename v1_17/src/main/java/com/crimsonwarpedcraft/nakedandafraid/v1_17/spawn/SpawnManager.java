@@ -2,9 +2,16 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_17.spawn;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ChunkPreloader;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.MassTeleportScheduler;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.SpawnGenerator;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.SpawnIndex;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.YamlWriteBehind;
 import com.crimsonwarpedcraft.nakedandafraid.v1_17.NakedAndAfraid;
 import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
+import org.bukkit.Tag;
 import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -17,19 +24,33 @@ import java.io.IOException;
 import java.util.*;
 
 public class SpawnManager {
+    /** Chunks loaded per tick for /nf spawn generate on servers without async chunk loading. */
+    private static final int GENERATE_SYNC_CHUNK_LOADS_PER_TICK = 2;
+
     private final NakedAndAfraid nakedAndAfraid;
     private final Plugin plugin;
     private final File spawnsFile;
     private FileConfiguration spawnsConfig;
 
-    private final Map<String, SpawnData> spawns = new HashMap<>();
+    private final Map<String, SpawnData> spawns = new LinkedHashMap<>();
+    private final SpawnIndex index = new SpawnIndex();
+    private final Random random = new Random();
+    private final MassTeleportScheduler massTeleport;
+    private final YamlWriteBehind writer;
+    private final SpawnGenerator generator;
 
     public SpawnManager(NakedAndAfraid nakedAndAfraid) {
         this.nakedAndAfraid = nakedAndAfraid;
         this.plugin = nakedAndAfraid.getPlugin();
         this.spawnsFile = new File(plugin.getDataFolder(), "spawns.yml");
-        nakedAndAfraid.debugLog("[SpawnManager] Initialized SpawnManager for Bukkit version " + Bukkit.getBukkitVersion() +
-                ", spawns file: " + spawnsFile.getPath());
+        this.massTeleport = new MassTeleportScheduler(plugin, nakedAndAfraid, nakedAndAfraid.getServerCapabilities(),
+                (player, target) -> nakedAndAfraid.getTeleportHelper().preloadAndStartCountdownTeleport(player, target));
+        this.writer = new YamlWriteBehind(plugin, nakedAndAfraid, spawnsFile,
+                nakedAndAfraid.getConfigSnapshot().getSpawnsSaveDelayTicks(), this::snapshotSpawns);
+        this.generator = new SpawnGenerator(plugin, nakedAndAfraid,
+                new ChunkPreloader(plugin, nakedAndAfraid, GENERATE_SYNC_CHUNK_LOADS_PER_TICK));
+        nakedAndAfraid.debugLog("[SpawnManager] Initialized SpawnManager for Bukkit version {}, spawns file: {}",
+                Bukkit.getBukkitVersion(), spawnsFile.getPath());
         loadSpawnsFile();
     }
 
@@ -38,13 +59,16 @@ public class SpawnManager {
      */
     private void sendMessage(CommandSender sender, String message, String legacyColor) {
         sender.sendMessage(legacyColor + message);
-        nakedAndAfraid.debugLog("[SpawnManager] Sent message to " + sender.getName() + ": " + message);
+        nakedAndAfraid.debugLog("[SpawnManager] Sent message to {}: {}", sender.getName(), message);
     }
 
     public void loadSpawns() {
         nakedAndAfraid.debugLog("[SpawnManager] Loading spawns from spawns.yml");
+        // Unsaved edits would otherwise be lost when the file is re-read
+        writer.flush();
         loadSpawnsFile();
         spawns.clear();
+        index.clear();
         nakedAndAfraid.debugLog("[SpawnManager] Cleared existing spawns map");
 
         if (spawnsConfig.isConfigurationSection("spawns")) {
@@ -53,52 +77,68 @@ public class SpawnManager {
                 var y = spawnsConfig.getDouble("spawns." + key + ".y");
                 var z = spawnsConfig.getDouble("spawns." + key + ".z");
                 var worldName = spawnsConfig.getString("spawns." + key + ".world");
-                var target = spawnsConfig.getString("spawns." + key + ".targetPlayer", key);
+                var target = spawnsConfig.getBoolean("spawns." + key + ".open")
+                        ? null : spawnsConfig.getString("spawns." + key + ".targetPlayer", key);
+                var targetId = parseUuid(spawnsConfig.getString("spawns." + key + ".targetUuid"));
 
                 assert worldName != null;
                 var world = Bukkit.getWorld(worldName);
                 if (world != null) {
                     var loc = new Location(world, x, y, z);
-                    spawns.put(key.toLowerCase(), new SpawnData(loc, target));
-                    nakedAndAfraid.debugLog("[SpawnManager] Loaded spawn '" + key + "' at " + formatLocation(loc) +
-                            " for target player " + target);
+                    spawns.put(key.toLowerCase(), new SpawnData(loc, target, targetId));
+                    index.add(key.toLowerCase(), targetId, target);
+                    if (nakedAndAfraid.isDebugEnabled()) {
+                        nakedAndAfraid.debugLog("[SpawnManager] Loaded spawn '" + key + "' at " + formatLocation(loc) +
+                                " for target player " + target);
+                    }
                 } else {
-                    nakedAndAfraid.debugLog("[SpawnManager] Skipped spawn '" + key + "' due to invalid world: " + worldName);
+                    nakedAndAfraid.debugLog("[SpawnManager] Skipped spawn '{}' due to invalid world: {}", key, worldName);
                 }
             }
         } else {
             nakedAndAfraid.debugLog("[SpawnManager] No spawns section found in spawns.yml");
         }
-        nakedAndAfraid.debugLog("[SpawnManager] Loaded config: max-spawns=" + plugin.getConfig().getInt("max-spawns", 10) +
-                ", multiple-spawn-priority=" + nakedAndAfraid.getMultipleSpawnPriority());
+        nakedAndAfraid.debugLog("[SpawnManager] Loaded config: max-spawns={}, multiple-spawn-priority={}",
+                nakedAndAfraid.getConfigSnapshot().getMaxSpawns(), nakedAndAfraid.getMultipleSpawnPriority());
     }
 
+    /** Writes unsaved changes to spawns.yml now, on this thread. Called on disable. */
     public void saveSpawns() {
         nakedAndAfraid.debugLog("[SpawnManager] Saving spawns to spawns.yml");
-        spawnsConfig.set("spawns", null);
+        writer.flush();
+    }
+
+    /** Stops a running /nf spawn tpall and removes its boss bar. Called on disable. */
+    public void shutdown() {
+        massTeleport.shutdown();
+    }
+
+    /** Copies the spawns into a fresh configuration for the background writer. */
+    private YamlConfiguration snapshotSpawns() {
+        var snapshot = new YamlConfiguration();
+        snapshot.createSection("spawns");
 
         for (var entry : spawns.entrySet()) {
             var key = entry.getKey();
             var data = entry.getValue();
             var loc = data.location();
 
-            spawnsConfig.set("spawns." + key + ".x", loc.getX());
-            spawnsConfig.set("spawns." + key + ".y", loc.getY());
-            spawnsConfig.set("spawns." + key + ".z", loc.getZ());
-            spawnsConfig.set("spawns." + key + ".world", loc.getWorld().getName());
-            spawnsConfig.set("spawns." + key + ".targetPlayer", data.targetPlayerName());
-            nakedAndAfraid.debugLog("[SpawnManager] Saved spawn '" + key + "' at " + formatLocation(loc) +
-                    " for target player " + data.targetPlayerName());
+            snapshot.set("spawns." + key + ".x", loc.getX());
+            snapshot.set("spawns." + key + ".y", loc.getY());
+            snapshot.set("spawns." + key + ".z", loc.getZ());
+            snapshot.set("spawns." + key + ".world", loc.getWorld().getName());
+            snapshot.set("spawns." + key + ".targetPlayer", data.targetPlayerName());
+            if (data.targetPlayerName() == null) {
+                snapshot.set("spawns." + key + ".open", true);
+            }
+            snapshot.set("spawns." + key + ".targetUuid", data.targetPlayerId() == null ? null : data.targetPlayerId().toString());
+            if (nakedAndAfraid.isDebugEnabled()) {
+                nakedAndAfraid.debugLog("[SpawnManager] Snapshotted spawn '" + key + "' at " + formatLocation(loc) +
+                        " for target player " + data.targetPlayerName());
+            }
         }
 
-        try {
-            spawnsConfig.save(spawnsFile);
-            nakedAndAfraid.debugLog("[SpawnManager] Successfully saved spawns.yml");
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save spawns.yml");
-            nakedAndAfraid.debugLog("[SpawnManager] Failed to save spawns.yml: " + e.getMessage());
-            e.printStackTrace();
-        }
+        return snapshot;
     }
 
     private void loadSpawnsFile() {
@@ -111,7 +151,7 @@ public class SpawnManager {
                     nakedAndAfraid.debugLog("[SpawnManager] Created new spawns.yml");
                 } catch (IOException e) {
                     plugin.getLogger().severe("Could not create spawns.yml");
-                    nakedAndAfraid.debugLog("[SpawnManager] Failed to create spawns.yml: " + e.getMessage());
+                    nakedAndAfraid.debugLog("[SpawnManager] Failed to create spawns.yml: {}", e.getMessage());
                     e.printStackTrace();
                 }
             }
@@ -129,55 +169,54 @@ public class SpawnManager {
             var worldName = loc.getWorld().getName();
             if (!nakedAndAfraid.isWorldEnabled(worldName)) {
                 toRemove.add(spawnName);
-                nakedAndAfraid.debugLog("[SpawnManager] Marking spawn '" + spawnName + "' for removal due to disabled world: " + worldName);
+                nakedAndAfraid.debugLog("[SpawnManager] Marking spawn '{}' for removal due to disabled world: {}", spawnName, worldName);
             }
         }
         for (var spawnName : toRemove) {
             spawns.remove(spawnName);
-            spawnsConfig.set("spawns." + spawnName, null);
-            nakedAndAfraid.debugLog("[SpawnManager] Removed spawn '" + spawnName + "' from disabled world");
+            index.remove(spawnName);
+            nakedAndAfraid.debugLog("[SpawnManager] Removed spawn '{}' from disabled world", spawnName);
         }
         if (!toRemove.isEmpty()) {
-            try {
-                spawnsConfig.save(spawnsFile);
-                nakedAndAfraid.debugLog("[SpawnManager] Saved spawns.yml after removing spawns from disabled worlds");
-            } catch (IOException e) {
-                plugin.getLogger().severe("Could not save spawns.yml after world refresh");
-                nakedAndAfraid.debugLog("[SpawnManager] Failed to save spawns.yml after world refresh: " + e.getMessage());
-                e.printStackTrace();
-            }
+            writer.markDirty();
+            nakedAndAfraid.debugLog("[SpawnManager] Scheduled save of spawns.yml after removing spawns from disabled worlds");
         }
-        nakedAndAfraid.debugLog("[SpawnManager] World refresh completed, removed " + toRemove.size() + " spawns");
+        nakedAndAfraid.debugLog("[SpawnManager] World refresh completed, removed {} spawns", toRemove.size());
     }
 
     public boolean handleCommand(CommandSender sender, String[] args) {
-        nakedAndAfraid.debugLog("[SpawnManager] Processing command for " + sender.getName() + ": " + String.join(" ", args));
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[SpawnManager] Processing command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 2) {
-            sendMessage(sender, "Usage: /nf spawn <create|rename|remove|list|tp|tpall> ...", "§c");
-            nakedAndAfraid.debugLog("[SpawnManager] Invalid arguments for " + sender.getName() + ", expected at least 2");
+            sendMessage(sender, "Usage: /nf spawn <create|generate|rename|remove|list|tp|tpall [cancel]> ...", "§c");
+            nakedAndAfraid.debugLog("[SpawnManager] Invalid arguments for {}, expected at least 2", sender.getName());
             return true;
         }
 
         var sub = args[1].toLowerCase();
-        nakedAndAfraid.debugLog("[SpawnManager] Subcommand: " + sub);
+        nakedAndAfraid.debugLog("[SpawnManager] Subcommand: {}", sub);
 
         return switch (sub) {
             case "create" -> handleCreate(sender, args);
+            case "generate" -> handleGenerate(sender, args);
             case "rename" -> handleRename(sender, args);
             case "remove" -> handleRemove(sender, args);
             case "list" -> handleList(sender);
             case "tp" -> handleTp(sender, args);
-            case "tpall" -> handleTpAll(sender);
+            case "tpall" -> handleTpAll(sender, args);
             default -> {
                 sendMessage(sender, "Unknown spawn subcommand.", "§c");
-                nakedAndAfraid.debugLog("[SpawnManager] Unknown subcommand for " + sender.getName() + ": " + sub);
+                nakedAndAfraid.debugLog("[SpawnManager] Unknown subcommand for {}: {}", sender.getName(), sub);
                 yield true;
             }
         };
     }
 
     private boolean handleCreate(CommandSender sender, String[] args) {
-        nakedAndAfraid.debugLog("[SpawnManager] Handling create command for " + sender.getName() + ": " + String.join(" ", args));
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[SpawnManager] Handling create command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf spawn create <name> [x y z] [targetPlayer]", "§c");
             nakedAndAfraid.debugLog("[SpawnManager] Invalid arguments for create, expected at least 3");
@@ -185,16 +224,16 @@ public class SpawnManager {
         }
 
         var spawnName = args[2].toLowerCase();
-        nakedAndAfraid.debugLog("[SpawnManager] Spawn name: " + spawnName);
+        nakedAndAfraid.debugLog("[SpawnManager] Spawn name: {}", spawnName);
         if (spawns.containsKey(spawnName)) {
             sendMessage(sender, "Spawn '" + spawnName + "' already exists.", "§c");
-            nakedAndAfraid.debugLog("[SpawnManager] Spawn '" + spawnName + "' already exists for " + sender.getName());
+            nakedAndAfraid.debugLog("[SpawnManager] Spawn '{}' already exists for {}", spawnName, sender.getName());
             return true;
         }
-        var maxSpawns = plugin.getConfig().getInt("max-spawns", 10);
+        var maxSpawns = nakedAndAfraid.getConfigSnapshot().getMaxSpawns();
         if (spawns.size() >= maxSpawns) {
             sendMessage(sender, "You have reached the max number of spawns.", "§c");
-            nakedAndAfraid.debugLog("[SpawnManager] Max spawns reached (" + spawns.size() + "/" + maxSpawns + ") for " + sender.getName());
+            nakedAndAfraid.debugLog("[SpawnManager] Max spawns reached ({}/{}) for {}", spawns.size(), maxSpawns, sender.getName());
             return true;
         }
 
@@ -206,7 +245,7 @@ public class SpawnManager {
         var hasCoords = false;
         if (remaining >= 3) {
             hasCoords = isDouble(args[3]) && isDouble(args[4]) && isDouble(args[5]);
-            nakedAndAfraid.debugLog("[SpawnManager] Checking coordinates: hasCoords=" + hasCoords);
+            nakedAndAfraid.debugLog("[SpawnManager] Checking coordinates: hasCoords={}", hasCoords);
         }
 
         if (hasCoords) {
@@ -220,33 +259,39 @@ public class SpawnManager {
                     world = p.getWorld();
                 } else {
                     world = Bukkit.getWorlds().get(0);
-                    nakedAndAfraid.debugLog("[SpawnManager] Using default world for console: " + world.getName());
+                    nakedAndAfraid.debugLog("[SpawnManager] Using default world for console: {}", world.getName());
                 }
                 loc = new Location(world, x, y, z);
-                nakedAndAfraid.debugLog("[SpawnManager] Parsed coordinates for spawn: " + formatLocation(loc));
+                if (nakedAndAfraid.isDebugEnabled()) {
+                    nakedAndAfraid.debugLog("[SpawnManager] Parsed coordinates for spawn: " + formatLocation(loc));
+                }
 
                 if (args.length >= 7) {
                     targetPlayerName = args[6];
-                    nakedAndAfraid.debugLog("[SpawnManager] Specified target player: " + targetPlayerName);
+                    nakedAndAfraid.debugLog("[SpawnManager] Specified target player: {}", targetPlayerName);
                 }
 
             } catch (NumberFormatException e) {
                 sendMessage(sender, "Invalid coordinates.", "§c");
-                nakedAndAfraid.debugLog("[SpawnManager] Invalid coordinates for " + sender.getName() + ": " + String.join(" ", args));
+                if (nakedAndAfraid.isDebugEnabled()) {
+                    nakedAndAfraid.debugLog("[SpawnManager] Invalid coordinates for " + sender.getName() + ": " + String.join(" ", args));
+                }
                 return true;
             }
         } else {
             if (args.length >= 4) {
                 targetPlayerName = args[3];
-                nakedAndAfraid.debugLog("[SpawnManager] Specified target player: " + targetPlayerName);
+                nakedAndAfraid.debugLog("[SpawnManager] Specified target player: {}", targetPlayerName);
             }
 
             if (sender instanceof Player p) {
                 loc = p.getLocation();
-                nakedAndAfraid.debugLog("[SpawnManager] Using sender's location: " + formatLocation(loc));
+                if (nakedAndAfraid.isDebugEnabled()) {
+                    nakedAndAfraid.debugLog("[SpawnManager] Using sender's location: " + formatLocation(loc));
+                }
             } else {
                 sendMessage(sender, "Coordinates or player must be specified when run from console.", "§c");
-                nakedAndAfraid.debugLog("[SpawnManager] No coordinates or player specified for console sender " + sender.getName());
+                nakedAndAfraid.debugLog("[SpawnManager] No coordinates or player specified for console sender {}", sender.getName());
                 return true;
             }
         }
@@ -254,28 +299,167 @@ public class SpawnManager {
         if (targetPlayerName == null) {
             if (sender instanceof Player p) {
                 targetPlayerName = p.getName();
-                nakedAndAfraid.debugLog("[SpawnManager] Defaulting target player to sender: " + targetPlayerName);
+                nakedAndAfraid.debugLog("[SpawnManager] Defaulting target player to sender: {}", targetPlayerName);
             } else {
                 targetPlayerName = spawnName;
-                nakedAndAfraid.debugLog("[SpawnManager] Defaulting target player to spawn name: " + targetPlayerName);
+                nakedAndAfraid.debugLog("[SpawnManager] Defaulting target player to spawn name: {}", targetPlayerName);
             }
         }
 
-        if (!Bukkit.getOfflinePlayer(targetPlayerName).hasPlayedBefore() && Bukkit.getPlayerExact(targetPlayerName) == null) {
-            sendMessage(sender, "Warning: Player '" + targetPlayerName + "' has never joined the server before (still saved).", "§e");
-            nakedAndAfraid.debugLog("[SpawnManager] Warning: Target player '" + targetPlayerName + "' has never joined");
-        }
+        // Keyed by UUID when the player is known, so the spawn survives a name change.
+        // Unknown names are looked up off the main thread and the spawn is created once that's back.
+        var targetName = targetPlayerName;
+        var spawnLocation = loc;
+        nakedAndAfraid.getPlayerResolver().resolve(targetName, target -> {
+            if (target == null) {
+                sendMessage(sender, "Warning: Player '" + targetName + "' could not be found (still saved).", "§e");
+                nakedAndAfraid.debugLog("[SpawnManager] Warning: Target player '{}' could not be resolved", targetName);
+            } else if (!target.hasJoined()) {
+                sendMessage(sender, "Warning: Player '" + targetName + "' has never joined the server before (still saved).", "§e");
+                nakedAndAfraid.debugLog("[SpawnManager] Warning: Target player '{}' has never joined", targetName);
+            }
+            createSpawn(sender, spawnName, spawnLocation, targetName, target != null ? target.getUniqueId() : null);
+        });
+        return true;
+    }
 
-        spawns.put(spawnName, new SpawnData(loc, targetPlayerName));
-        saveSpawns();
+    private void createSpawn(CommandSender sender, String spawnName, Location loc, String targetPlayerName, UUID targetId) {
+        if (spawns.containsKey(spawnName)) {
+            // Created by someone else while the lookup was running
+            sendMessage(sender, "Spawn '" + spawnName + "' already exists.", "§c");
+            return;
+        }
+        var maxSpawns = nakedAndAfraid.getConfigSnapshot().getMaxSpawns();
+        if (spawns.size() >= maxSpawns) {
+            // Filled up by other commands while the lookup was running
+            sendMessage(sender, "You have reached the max number of spawns.", "§c");
+            nakedAndAfraid.debugLog("[SpawnManager] Max spawns reached ({}/{}) for {}", spawns.size(), maxSpawns, sender.getName());
+            return;
+        }
+        spawns.put(spawnName, new SpawnData(loc, targetPlayerName, targetId));
+        index.add(spawnName, targetId, targetPlayerName);
+        writer.markDirty();
         sendMessage(sender, "Spawn '" + spawnName + "' created at " +
                 loc.getBlockX() + ", " + loc.getBlockY() + ", " + loc.getBlockZ() +
                 " for player " + targetPlayerName, "§a");
-        nakedAndAfraid.debugLog("[SpawnManager] Created spawn '" + spawnName + "' at " + formatLocation(loc) +
-                " for player " + targetPlayerName + " by " + sender.getName());
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[SpawnManager] Created spawn '" + spawnName + "' at " + formatLocation(loc) +
+                    " for player " + targetPlayerName + " by " + sender.getName());
+        }
+    }
+
+    /**
+     * Handles /nf spawn generate <count> <radius> [ring|grid|poisson]
+     * Lays out spawns around the sender (the main world's spawn from console),
+     * looks for safe ground off the main thread and saves them all in one go.
+     */
+    private boolean handleGenerate(CommandSender sender, String[] args) {
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[SpawnManager] Handling generate command for " + sender.getName() + ": " + String.join(" ", args));
+        }
+        if (args.length < 4) {
+            sendMessage(sender, "Usage: /nf spawn generate <count> <radius> [ring|grid|poisson]", "§c");
+            nakedAndAfraid.debugLog("[SpawnManager] Invalid arguments for generate, expected at least 4");
+            return true;
+        }
+
+        int count;
+        double radius;
+        try {
+            count = Integer.parseInt(args[2]);
+            radius = Double.parseDouble(args[3]);
+        } catch (NumberFormatException e) {
+            sendMessage(sender, "Count and radius must be numbers.", "§c");
+            return true;
+        }
+        if (count < 1 || radius <= 0) {
+            sendMessage(sender, "Count must be at least 1 and radius greater than 0.", "§c");
+            return true;
+        }
+        var pattern = args.length >= 5 ? SpawnGenerator.Pattern.parse(args[4]) : SpawnGenerator.Pattern.RING;
+        if (pattern == null) {
+            sendMessage(sender, "Unknown pattern '" + args[4] + "'. Use ring, grid or poisson.", "§c");
+            return true;
+        }
+        if (generator.isRunning()) {
+            sendMessage(sender, "Spawns are already being generated.", "§c");
+            return true;
+        }
+
+        var room = nakedAndAfraid.getConfigSnapshot().getMaxSpawns() - spawns.size();
+        if (room <= 0) {
+            sendMessage(sender, "You have reached the max number of spawns.", "§c");
+            return true;
+        }
+        if (count > room) {
+            sendMessage(sender, "Only " + room + " more spawns fit under max-spawns, generating " + room + ".", "§e");
+            count = room;
+        }
+
+        var center = sender instanceof Player p ? p.getLocation() : Bukkit.getWorlds().get(0).getSpawnLocation();
+        var world = center.getWorld();
+        var minY = world.getMinHeight();
+        var maxY = world.getMaxHeight() - 1;
+        sendMessage(sender, "Generating " + count + " spawns (" + pattern.name().toLowerCase(Locale.ROOT) + ", radius " +
+                radius + ") around " + center.getBlockX() + ", " + center.getBlockZ() + "...", "§e");
+        generator.generate(center, count, radius, pattern, random, (chunk, x, z) -> findStandingY(chunk, x, z, minY, maxY))
+                .thenAccept(result -> commitGenerated(sender, pattern, result));
         return true;
     }
 
+    /** Adds every generated spawn, then schedules one save for all of them. */
+    private void commitGenerated(CommandSender sender, SpawnGenerator.Pattern pattern, SpawnGenerator.Result result) {
+        var prefix = pattern.name().toLowerCase(Locale.ROOT) + "-";
+        var maxSpawns = nakedAndAfraid.getConfigSnapshot().getMaxSpawns();
+        var next = 1;
+        var added = 0;
+        for (var loc : result.getSpawns()) {
+            if (spawns.size() >= maxSpawns) {
+                // Spawns created by hand while the search was running
+                break;
+            }
+            while (spawns.containsKey(prefix + next)) {
+                next++;
+            }
+            var spawnName = prefix + next;
+            // Open spawns: no target, so /nf spawn tpall hands them to players without one
+            spawns.put(spawnName, new SpawnData(loc, null, null));
+            index.add(spawnName, null, null);
+            added++;
+        }
+        if (added > 0) {
+            writer.markDirty();
+        }
+
+        sendMessage(sender, "Generated " + added + " spawns in " + result.getElapsedMillis() + " ms, touching " +
+                result.getChunksTouched() + " chunks.", "§a");
+        var unsafe = result.getPlanned() - result.getSpawns().size();
+        if (unsafe > 0) {
+            sendMessage(sender, unsafe + " spots had no safe ground nearby and were skipped.", "§e");
+        }
+        var total = added;
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[SpawnManager] Generated " + total + " " + pattern + " spawns for " + sender.getName() +
+                    " in " + result.getElapsedMillis() + " ms over " + result.getChunksTouched() + " chunks, " + unsafe + " unsafe");
+        }
+    }
+
+    /**
+     * Where a player can stand in one column of a chunk snapshot: on the top
+     * block, as long as it is solid and not leaves. Lava and water aren't
+     * solid. Runs off the main thread.
+     */
+    private static int findStandingY(ChunkSnapshot chunk, int x, int z, int minY, int maxY) {
+        for (var y = Math.min(chunk.getHighestBlockYAt(x, z), maxY); y >= minY; y--) {
+            var type = chunk.getBlockType(x, y, z);
+            if (type.isAir()) {
+                continue;
+            }
+            return type.isSolid() && !Tag.LEAVES.isTagged(type) ? y + 1 : SpawnGenerator.GroundScanner.NO_GROUND;
+        }
+        return SpawnGenerator.GroundScanner.NO_GROUND;
+    }
+
     private static boolean isDouble(String s) {
         if (s == null) return false;
         try {
@@ -286,8 +470,19 @@ public class SpawnManager {
         }
     }
 
+    private static UUID parseUuid(String s) {
+        if (s == null) return null;
+        try {
+            return UUID.fromString(s);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private boolean handleRename(CommandSender sender, String[] args) {
-        nakedAndAfraid.debugLog("[SpawnManager] Handling rename command for " + sender.getName() + ": " + String.join(" ", args));
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[SpawnManager] Handling rename command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 4) {
             sendMessage(sender, "Usage: /nf spawn rename <oldName> <newName>", "§c");
             nakedAndAfraid.debugLog("[SpawnManager] Invalid arguments for rename, expected 4");
@@ -296,30 +491,33 @@ public class SpawnManager {
 
         var oldName = args[2].toLowerCase();
         var newName = args[3].toLowerCase();
-        nakedAndAfraid.debugLog("[SpawnManager] Renaming spawn from '" + oldName + "' to '" + newName + "'");
+        nakedAndAfraid.debugLog("[SpawnManager] Renaming spawn from '{}' to '{}'", oldName, newName);
 
         if (!spawns.containsKey(oldName)) {
             sendMessage(sender, "Spawn '" + oldName + "' does not exist.", "§c");
-            nakedAndAfraid.debugLog("[SpawnManager] Spawn '" + oldName + "' does not exist for " + sender.getName());
+            nakedAndAfraid.debugLog("[SpawnManager] Spawn '{}' does not exist for {}", oldName, sender.getName());
             return true;
         }
         if (spawns.containsKey(newName)) {
             sendMessage(sender, "Spawn '" + newName + "' already exists.", "§c");
-            nakedAndAfraid.debugLog("[SpawnManager] Spawn '" + newName + "' already exists for " + sender.getName());
+            nakedAndAfraid.debugLog("[SpawnManager] Spawn '{}' already exists for {}", newName, sender.getName());
             return true;
         }
 
         var data = spawns.remove(oldName);
         spawns.put(newName, data);
-        saveSpawns();
+        index.rename(oldName, newName);
+        writer.markDirty();
 
         sendMessage(sender, "Spawn '" + oldName + "' renamed to '" + newName + "'.", "§a");
-        nakedAndAfraid.debugLog("[SpawnManager] Renamed spawn '" + oldName + "' to '" + newName + "' for " + sender.getName());
+        nakedAndAfraid.debugLog("[SpawnManager] Renamed spawn '{}' to '{}' for {}", oldName, newName, sender.getName());
         return true;
     }
 
     private boolean handleRemove(CommandSender sender, String[] args) {
-        nakedAndAfraid.debugLog("[SpawnManager] Handling remove command for " + sender.getName() + ": " + String.join(" ", args));
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[SpawnManager] Handling remove command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf spawn remove <name>", "§c");
             nakedAndAfraid.debugLog("[SpawnManager] Invalid arguments for remove, expected 3");
@@ -327,34 +525,27 @@ public class SpawnManager {
         }
 
         var name = args[2].toLowerCase();
-        nakedAndAfraid.debugLog("[SpawnManager] Removing spawn '" + name + "'");
+        nakedAndAfraid.debugLog("[SpawnManager] Removing spawn '{}'", name);
         if (!spawns.containsKey(name)) {
             sendMessage(sender, "Spawn '" + name + "' does not exist.", "§c");
-            nakedAndAfraid.debugLog("[SpawnManager] Spawn '" + name + "' does not exist for " + sender.getName());
+            nakedAndAfraid.debugLog("[SpawnManager] Spawn '{}' does not exist for {}", name, sender.getName());
             return true;
         }
 
         spawns.remove(name);
-        spawnsConfig.set("spawns." + name, null);
-        try {
-            spawnsConfig.save(spawnsFile);
-            nakedAndAfraid.debugLog("[SpawnManager] Successfully removed spawn '" + name + "' and saved spawns.yml");
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save spawns.yml");
-            nakedAndAfraid.debugLog("[SpawnManager] Failed to save spawns.yml after removing '" + name + "': " + e.getMessage());
-            e.printStackTrace();
-        }
+        index.remove(name);
+        writer.markDirty();
 
         sendMessage(sender, "Spawn '" + name + "' removed.", "§a");
-        nakedAndAfraid.debugLog("[SpawnManager] Removed spawn '" + name + "' for " + sender.getName());
+        nakedAndAfraid.debugLog("[SpawnManager] Removed spawn '{}' for {}", name, sender.getName());
         return true;
     }
 
     private boolean handleList(CommandSender sender) {
-        nakedAndAfraid.debugLog("[SpawnManager] Handling list command for " + sender.getName());
+        nakedAndAfraid.debugLog("[SpawnManager] Handling list command for {}", sender.getName());
         if (spawns.isEmpty()) {
             sendMessage(sender, "No spawns defined.", "§e");
-            nakedAndAfraid.debugLog("[SpawnManager] No spawns defined for " + sender.getName());
+            nakedAndAfraid.debugLog("[SpawnManager] No spawns defined for {}", sender.getName());
             return true;
         }
         sendMessage(sender, "==== Spawns ====", "§6");
@@ -362,8 +553,10 @@ public class SpawnManager {
             var loc = entry.getValue().location();
             sendMessage(sender, entry.getKey() + " - " + loc.getBlockX() + ", " + loc.getBlockY() + ", " + loc.getBlockZ() +
                     " (world: " + loc.getWorld().getName() + ")", "§e");
-            nakedAndAfraid.debugLog("[SpawnManager] Listed spawn '" + entry.getKey() + "' at " + formatLocation(loc) +
-                    " for " + sender.getName());
+            if (nakedAndAfraid.isDebugEnabled()) {
+                nakedAndAfraid.debugLog("[SpawnManager] Listed spawn '" + entry.getKey() + "' at " + formatLocation(loc) +
+                        " for " + sender.getName());
+            }
         }
         return true;
     }
@@ -373,7 +566,9 @@ public class SpawnManager {
      * Now supports multiple-spawn-priority for target player.
      */
     private boolean handleTp(CommandSender sender, String[] args) {
-        nakedAndAfraid.debugLog("[SpawnManager] Handling tp command for " + sender.getName() + ": " + String.join(" ", args));
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[SpawnManager] Handling tp command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf spawn tp <name> [player]", "§c");
             nakedAndAfraid.debugLog("[SpawnManager] Invalid arguments for tp, expected at least 3");
@@ -381,92 +576,118 @@ public class SpawnManager {
         }
 
         var spawnName = args[2].toLowerCase();
-        nakedAndAfraid.debugLog("[SpawnManager] Spawn name: " + spawnName);
+        nakedAndAfraid.debugLog("[SpawnManager] Spawn name: {}", spawnName);
         Player targetPlayer = null;
 
         if (args.length >= 4) {
             targetPlayer = Bukkit.getPlayerExact(args[3]);
             if (targetPlayer == null) {
                 sendMessage(sender, "Player '" + args[3] + "' is not online.", "§c");
-                nakedAndAfraid.debugLog("[SpawnManager] Player '" + args[3] + "' not online for " + sender.getName());
+                nakedAndAfraid.debugLog("[SpawnManager] Player '{}' not online for {}", args[3], sender.getName());
                 return true;
             }
-            nakedAndAfraid.debugLog("[SpawnManager] Target player: " + targetPlayer.getName());
+            nakedAndAfraid.debugLog("[SpawnManager] Target player: {}", targetPlayer.getName());
         } else {
             if (sender instanceof Player p) {
                 targetPlayer = p;
-                nakedAndAfraid.debugLog("[SpawnManager] Defaulting target player to sender: " + targetPlayer.getName());
+                nakedAndAfraid.debugLog("[SpawnManager] Defaulting target player to sender: {}", targetPlayer.getName());
             } else {
                 sendMessage(sender, "You must specify a player when using this command from console.", "§c");
-                nakedAndAfraid.debugLog("[SpawnManager] No player specified for console sender " + sender.getName());
+                nakedAndAfraid.debugLog("[SpawnManager] No player specified for console sender {}", sender.getName());
                 return true;
             }
         }
 
-        var matchingSpawns = new ArrayList<SpawnData>();
-        for (var entry : spawns.entrySet()) {
-            if (entry.getValue().targetPlayerName().equalsIgnoreCase(targetPlayer.getName())) {
-                matchingSpawns.add(entry.getValue());
-                nakedAndAfraid.debugLog("[SpawnManager] Found matching spawn '" + entry.getKey() + "' for " + targetPlayer.getName());
-            }
-        }
-
         if (spawns.containsKey(spawnName)) {
             var spawn = spawns.get(spawnName);
             nakedAndAfraid.getTeleportHelper().startCountdownTeleport(targetPlayer, spawn.location());
             sendMessage(sender, "Teleporting player " + targetPlayer.getName() + " to spawn '" + spawnName + "'...", "§a");
-            nakedAndAfraid.debugLog("[SpawnManager] Teleporting " + targetPlayer.getName() + " to spawn '" + spawnName +
-                    "' at " + formatLocation(spawn.location()));
+            if (nakedAndAfraid.isDebugEnabled()) {
+                nakedAndAfraid.debugLog("[SpawnManager] Teleporting " + targetPlayer.getName() + " to spawn '" + spawnName +
+                        "' at " + formatLocation(spawn.location()));
+            }
             return true;
         }
 
-        if (!matchingSpawns.isEmpty()) {
-            var priority = nakedAndAfraid.getMultipleSpawnPriority();
-            nakedAndAfraid.debugLog("[SpawnManager] Using multiple-spawn-priority: " + priority);
-            var chosen = switch (priority) {
-                case "FIRST" -> matchingSpawns.get(0);
-                case "LAST" -> matchingSpawns.get(matchingSpawns.size() - 1);
-                case "RANDOM" -> matchingSpawns.get(new Random().nextInt(matchingSpawns.size()));
-                default -> matchingSpawns.get(0);
-            };
+        var priority = nakedAndAfraid.getMultipleSpawnPriority();
+        var chosenName = index.choose(targetPlayer, priority, random);
+        if (chosenName != null) {
+            nakedAndAfraid.debugLog("[SpawnManager] Using multiple-spawn-priority: {}", priority);
+            var chosen = spawns.get(chosenName);
             nakedAndAfraid.getTeleportHelper().startCountdownTeleport(targetPlayer, chosen.location());
             sendMessage(sender, "Teleporting player " + targetPlayer.getName() + " to their spawn (" + priority + ")...", "§a");
-            nakedAndAfraid.debugLog("[SpawnManager] Teleporting " + targetPlayer.getName() + " to their spawn (" + priority +
-                    ") at " + formatLocation(chosen.location()));
+            if (nakedAndAfraid.isDebugEnabled()) {
+                nakedAndAfraid.debugLog("[SpawnManager] Teleporting " + targetPlayer.getName() + " to their spawn (" + priority +
+                        ") at " + formatLocation(chosen.location()));
+            }
             return true;
         }
 
         sendMessage(sender, "No spawn found for player " + targetPlayer.getName() + ".", "§c");
-        nakedAndAfraid.debugLog("[SpawnManager] No spawn found for " + targetPlayer.getName());
+        nakedAndAfraid.debugLog("[SpawnManager] No spawn found for {}", targetPlayer.getName());
         return true;
     }
 
-    private boolean handleTpAll(CommandSender sender) {
-        nakedAndAfraid.debugLog("[SpawnManager] Handling tpall command for " + sender.getName());
+    private boolean handleTpAll(CommandSender sender, String[] args) {
+        nakedAndAfraid.debugLog("[SpawnManager] Handling tpall command for {}", sender.getName());
+        if (args.length >= 3 && args[2].equalsIgnoreCase("cancel")) {
+            if (!massTeleport.cancel()) {
+                sendMessage(sender, "No mass teleport is running.", "§e");
+            }
+            return true;
+        }
+        if (massTeleport.isRunning()) {
+            sendMessage(sender, "A mass teleport is already running. Use /nf spawn tpall cancel to stop it.", "§c");
+            return true;
+        }
         if (spawns.isEmpty()) {
             sendMessage(sender, "No spawns defined.", "§e");
-            nakedAndAfraid.debugLog("[SpawnManager] No spawns defined for " + sender.getName());
+            nakedAndAfraid.debugLog("[SpawnManager] No spawns defined for {}", sender.getName());
             return true;
         }
 
-        for (var entry : spawns.entrySet()) {
-            var spawn = entry.getValue();
-            var target = Bukkit.getPlayerExact(spawn.targetPlayerName());
-            if (target == null) {
-                sendMessage(sender, spawn.targetPlayerName() + " is not online!", "§c");
-                nakedAndAfraid.debugLog("[SpawnManager] Skipped teleport for offline player " + spawn.targetPlayerName());
+        // One spawn per online player, picked the same way as /nf spawn tp. Anyone who
+        // leaves before their wave comes round ends up in the scheduler's summary.
+        // Players without a spawn of their own get the open ones, e.g. generated spawns, in order.
+        var priority = nakedAndAfraid.getMultipleSpawnPriority();
+        List<String> open = index.openSpawns();
+        var nextOpen = 0;
+        List<MassTeleportScheduler.Assignment> assignments = new ArrayList<>();
+        List<String> withoutSpawn = new ArrayList<>();
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            var spawnName = index.choose(online, priority, random);
+            if (spawnName == null && nextOpen < open.size()) {
+                spawnName = open.get(nextOpen++);
+            }
+            if (spawnName == null) {
+                withoutSpawn.add(online.getName());
                 continue;
             }
-            nakedAndAfraid.getTeleportHelper().startCountdownTeleport(target, spawn.location());
-            sendMessage(sender, "Teleporting " + target.getName() + " to their spawn...", "§a");
-            nakedAndAfraid.debugLog("[SpawnManager] Teleporting " + target.getName() + " to spawn '" + entry.getKey() +
-                    "' at " + formatLocation(spawn.location()));
+            var location = spawns.get(spawnName).location();
+            assignments.add(new MassTeleportScheduler.Assignment(online.getName(), location));
+            if (nakedAndAfraid.isDebugEnabled()) {
+                nakedAndAfraid.debugLog("[SpawnManager] Queued teleport of " + online.getName() + " to spawn '" + spawnName +
+                        "' at " + formatLocation(location));
+            }
+        }
+        var offline = index.targetsWithout(Bukkit.getOnlinePlayers());
+        if (!offline.isEmpty()) {
+            sendMessage(sender, "Not online: " + String.join(", ", offline), "§c");
+        }
+        if (!assignments.isEmpty() && !withoutSpawn.isEmpty()) {
+            sendMessage(sender, "No spawn left for: " + String.join(", ", withoutSpawn), "§e");
+        }
+        if (assignments.isEmpty()) {
+            sendMessage(sender, "No online players have a spawn.", "§e");
+            return true;
         }
+        var config = nakedAndAfraid.getConfigSnapshot();
+        massTeleport.start(sender, assignments, config.getTpAllPlayersPerTick(), config.getTpAllTickBudgetMillis());
         return true;
     }
 
     public Map<String, SpawnData> getSpawns() {
-        nakedAndAfraid.debugLog("[SpawnManager] Retrieved spawns map with " + spawns.size() + " entries");
+        nakedAndAfraid.debugLog("[SpawnManager] Retrieved spawns map with {} entries", spawns.size());
         return Collections.unmodifiableMap(spawns);
     }
 
@@ -2,45 +2,43 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_17.team;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PlayerResolver;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TeamAutoFill;
 import com.crimsonwarpedcraft.nakedandafraid.v1_17.NakedAndAfraid;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 public class TeamCommands {
 
     private final TeamsManager teamsManager;
+    private final NakedAndAfraid nakedAndAfraid;
     private final Plugin plugin;
+    private final ServerCapabilities capabilities;
+    /** PDC key holding a selector's team name; {@code null} before 1.14, where lore is used instead. */
+    private final NamespacedKey selectorKey;
 
     private static final String TEAM_BLOCK_SELECTOR_NAME = "Team Block Selector";
 
     private final Set<UUID> usedSelectorPlayers = new HashSet<>();
 
     public TeamCommands(TeamsManager teamsManager, NakedAndAfraid plugin) {
+        this.nakedAndAfraid = plugin;
         this.plugin = plugin.getPlugin();
         this.teamsManager = teamsManager;
-        (plugin).debugLog("[TeamCommands] Initialized TeamCommands for Bukkit version " + Bukkit.getBukkitVersion());
-    }
-
-    /**
-     * Checks if the server is pre-1.13 (Minecraft 1.12).
-     */
-    private boolean isPre113() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[3-9]|2[0-1]).*");
-    }
-
-    /**
-     * Checks if the server is pre-1.14 (Minecraft 1.12–1.13.2).
-     */
-    private boolean isPre114() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[4-9]|2[0-1]).*");
+        this.capabilities = plugin.getServerCapabilities();
+        this.selectorKey = capabilities.isPre114() ? null : new NamespacedKey(plugin.getPlugin(), "teamSelector");
+        (plugin).debugLog("[TeamCommands] Initialized TeamCommands for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     /**
@@ -51,12 +49,14 @@ public class TeamCommands {
     }
 
     /**
-     * Handles /nf teams <create|remove|list> - management operations.
+     * Handles /nf teams <create|remove|list|autofill> - management operations.
      */
     public boolean handleTeamsCommand(CommandSender sender, String[] args) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Processing teams command for " + sender.getName() + ": " + String.join(" ", args));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Processing teams command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 2) {
-            sendMessage(sender, "Usage: /nf teams <create|remove|list>", "§c");
+            sendMessage(sender, "Usage: /nf teams <create|remove|list|autofill>", "§c");
             return true;
         }
         var sub = args[1].toLowerCase();
@@ -64,8 +64,9 @@ public class TeamCommands {
             case "create" -> handleTeamCreate(sender, args);
             case "list"   -> handleTeamList(sender);
             case "remove" -> handleTeamRemove(sender, args);
+            case "autofill" -> handleTeamAutofill(sender, args);
             default -> {
-                sendMessage(sender, "Unknown subcommand. Usage: /nf teams <create|remove|list>", "§c");
+                sendMessage(sender, "Unknown subcommand. Usage: /nf teams <create|remove|list|autofill>", "§c");
                 yield true;
             }
         };
@@ -75,7 +76,9 @@ public class TeamCommands {
      * Handles /nf team <team-name> <block|setblock|meta> - per-team operations.
      */
     public boolean handleTeamCommand(CommandSender sender, String[] args) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Processing team command for " + sender.getName() + ": " + String.join(" ", args));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Processing team command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf team <team-name> <block|setblock|meta> ...", "§c");
             return true;
@@ -105,7 +108,9 @@ public class TeamCommands {
     }
 
     public boolean handleUserCommand(CommandSender sender, String[] args) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Processing user command for " + sender.getName() + ": " + String.join(" ", args));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Processing user command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 4) {
             sendMessage(sender, "Usage: /nf user <player> team <add|remove|list> [team]", "§c");
             ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid arguments for user command, expected at least 4");
@@ -113,12 +118,10 @@ public class TeamCommands {
         }
 
         var playerName = args[1];
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Target player: " + playerName);
-        var target = Bukkit.getOfflinePlayerIfCached(playerName);
-        if (target == null) target = Bukkit.getOfflinePlayer(playerName);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Target player: {}", playerName);
 
         var userSub = args[3].toLowerCase();
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] User subcommand: " + userSub);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] User subcommand: {}", userSub);
 
         return switch (userSub) {
             case "add" -> {
@@ -127,7 +130,7 @@ public class TeamCommands {
                     ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid arguments for user add, expected 5");
                     yield true;
                 }
-                yield handleUserTeamAdd(sender, target, args[4]);
+                yield withResolvedPlayer(sender, playerName, target -> handleUserTeamAdd(sender, target, args[4]));
             }
             case "remove" -> {
                 if (args.length < 5) {
@@ -135,19 +138,38 @@ public class TeamCommands {
                     ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid arguments for user remove, expected 5");
                     yield true;
                 }
-                yield handleUserTeamRemove(sender, target, args[4]);
+                yield withResolvedPlayer(sender, playerName, target -> handleUserTeamRemove(sender, target, args[4]));
             }
-            case "list" -> handleUserTeamList(sender, target);
+            case "list" -> withResolvedPlayer(sender, playerName, target -> handleUserTeamList(sender, target));
             default -> {
                 sendMessage(sender, "Unknown user team subcommand.", "§c");
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Unknown user subcommand: " + userSub);
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Unknown user subcommand: {}", userSub);
                 yield true;
             }
         };
     }
 
+    /**
+     * Resolves {@code playerName} without blocking the server thread, then runs
+     * {@code action}; right away if the player is known locally, otherwise once
+     * the profile lookup is back.
+     */
+    private boolean withResolvedPlayer(CommandSender sender, String playerName, Consumer<PlayerResolver.Resolved> action) {
+        nakedAndAfraid.getPlayerResolver().resolve(playerName, target -> {
+            if (target == null) {
+                sendMessage(sender, "Player '" + playerName + "' could not be found.", "§c");
+                nakedAndAfraid.debugLog("[TeamCommands] Could not resolve player '{}'", playerName);
+                return;
+            }
+            action.accept(target);
+        });
+        return true;
+    }
+
     private boolean handleTeamCreate(CommandSender sender, String[] args) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team create command for " + sender.getName() + ": " + String.join(" ", args));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team create command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 4) {
             sendMessage(sender, "Usage: /nf team create <team-name> <team-color>", "§c");
             ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid arguments for create, expected at least 4");
@@ -156,29 +178,29 @@ public class TeamCommands {
 
         var teamName = args[2].toLowerCase();
         var colorName = args[3].toUpperCase();
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: " + teamName + ", color: " + colorName);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: {}, color: {}", teamName, colorName);
 
         if (!isValidColor(colorName)) {
             sendMessage(sender, "Invalid color. Valid colors: RED, BLUE, GREEN, YELLOW, AQUA, DARK_PURPLE, GOLD, LIGHT_PURPLE, WHITE", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid color: " + colorName);
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid color: {}", colorName);
             return true;
         }
 
         if (teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team already exists.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' already exists");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '{}' already exists", teamName);
             return true;
         }
 
         if (!teamsManager.createTeam(teamName, colorName)) {
             sendMessage(sender, "Max teams reached!", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Max teams reached for '" + teamName + "'");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Max teams reached for '{}'", teamName);
             return true;
         }
 
         var message = "Team '" + teamName + "' created with color " + colorName;
         sendMessage(sender, message, getLegacyColor(colorName));
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Created team '" + teamName + "' with color " + colorName);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Created team '{}' with color {}", teamName, colorName);
         return true;
     }
 
@@ -203,44 +225,151 @@ public class TeamCommands {
     }
 
     private boolean handleTeamList(CommandSender sender) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team list command for " + sender.getName());
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team list command for {}", sender.getName());
         var teams = teamsManager.getTeams();
         if (teams.isEmpty()) {
             sendMessage(sender, "No teams available.", "§e");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] No teams available for " + sender.getName());
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] No teams available for {}", sender.getName());
             return true;
         }
         sendMessage(sender, "Teams:", "§6");
         for (var team : teams) {
             var message = "- " + team.getName();
             sendMessage(sender, message, getLegacyColor(team.getColor()));
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Listed team '" + team.getName() + "' with color " + team.getColor());
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Listed team '{}' with color {}", team.getName(), team.getColor());
         }
         return true;
     }
 
     private boolean handleTeamRemove(CommandSender sender, String[] args) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team remove command for " + sender.getName() + ": " + String.join(" ", args));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team remove command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf team remove <team>", "§c");
             ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid arguments for remove, expected 3");
             return true;
         }
         var teamName = args[2].toLowerCase();
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: " + teamName);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         teamsManager.removeTeam(teamName);
         sendMessage(sender, "Team '" + teamName + "' removed.", "§a");
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Removed team '" + teamName + "' for " + sender.getName());
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Removed team '{}' for {}", teamName, sender.getName());
+        return true;
+    }
+
+    /**
+     * Handles /nf teams autofill [strategy] [player|player+player ...] - spreads the
+     * listed players, or every online player without a team in an enabled world,
+     * over the existing teams. Names are resolved in one batch and teams.yml is
+     * saved once.
+     */
+    private boolean handleTeamAutofill(CommandSender sender, String[] args) {
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team autofill for " + sender.getName() + ": " + String.join(" ", args));
+        }
+        if (teamsManager.getTeams().isEmpty()) {
+            sendMessage(sender, "No teams available. Create some with /nf teams create first.", "§c");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] No teams to autofill");
+            return true;
+        }
+        var parsed = args.length > 2 ? TeamAutoFill.Strategy.parse(args[2]) : null;
+        var strategy = parsed != null ? parsed : TeamAutoFill.Strategy.SMALLEST;
+        int first = parsed != null ? 3 : 2;
+
+        if (first == args.length) {
+            List<List<UUID>> groups = new ArrayList<>();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (teamsManager.getTeamOf(player.getUniqueId()) == null
+                        && nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
+                    groups.add(Collections.singletonList(player.getUniqueId()));
+                }
+            }
+            applyAutofill(sender, strategy, groups);
+            return true;
+        }
+
+        var tokens = Arrays.copyOfRange(args, first, args.length);
+        var names = new LinkedHashSet<String>();
+        for (var token : tokens) {
+            names.addAll(Arrays.asList(token.split("\\+")));
+        }
+        names.remove("");
+        nakedAndAfraid.getPlayerResolver().resolveAll(names, resolved -> {
+            List<List<UUID>> groups = new ArrayList<>();
+            for (var token : tokens) {
+                List<UUID> group = new ArrayList<>();
+                for (var name : token.split("\\+")) {
+                    var target = resolved.get(name);
+                    if (target != null) {
+                        group.add(target.getUniqueId());
+                    } else if (!name.isEmpty()) {
+                        sendMessage(sender, "Player '" + name + "' could not be found.", "§c");
+                    }
+                }
+                if (!group.isEmpty()) {
+                    groups.add(group);
+                }
+            }
+            applyAutofill(sender, strategy, groups);
+        });
         return true;
     }
 
+    /**
+     * Plans the placement over the first {@code max-teams} teams by name and
+     * applies it with a single {@link TeamsManager#addMembers} call.
+     */
+    private void applyAutofill(CommandSender sender, TeamAutoFill.Strategy strategy, List<List<UUID>> groups) {
+        var teams = new ArrayList<TeamsManager.Team>(teamsManager.getTeams());
+        teams.sort(Comparator.comparing(TeamsManager.Team::getName));
+        var teamSizes = new LinkedHashMap<String, Integer>();
+        for (var team : teams.subList(0, Math.min(teams.size(), teamsManager.getMaxTeams()))) {
+            teamSizes.put(team.getName(), team.getMembers().size());
+        }
+        var result = TeamAutoFill.plan(strategy, teamSizes, groups, uuid -> {
+            TeamsManager.Team team = teamsManager.getTeamOf(uuid);
+            return team == null ? null : team.getName();
+        });
+        var plan = result.getAssignments();
+        var added = teamsManager.addMembers(plan);
+        for (var uuid : added) {
+            Player online = Bukkit.getPlayer(uuid);
+            if (online != null) {
+                sendMessage(online, "You have been added to team " + plan.get(uuid), "§a");
+            }
+        }
+
+        int requested = 0;
+        for (var group : groups) {
+            requested += group.size();
+        }
+        int skipped = requested - added.size();
+        sendMessage(sender, "Autofilled " + added.size() + " player(s) across " + teamSizes.size() + " team(s)"
+                + (skipped > 0 ? "; " + skipped + " already in a team." : "."), "§a");
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Autofill ({}) placed {} players, skipped {}", strategy, added.size(), skipped);
+        // A member already in a team outside the first max-teams, or pair members in two
+        // different teams, can't be brought together without moving someone
+        for (var group : result.getSplitGroups()) {
+            List<String> names = new ArrayList<>();
+            for (var uuid : group) {
+                var name = Bukkit.getOfflinePlayer(uuid).getName();
+                names.add(name != null ? name : uuid.toString());
+            }
+            sendMessage(sender, "Could not keep " + String.join("+", names)
+                    + " together: one of them is already in another team.", "§e");
+        }
+    }
+
     private boolean handleTeamBlockSelector(CommandSender sender, String[] args) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team block selector command for " + sender.getName() + ": " + String.join(" ", args));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team block selector command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (!(sender instanceof Player)) {
             sendMessage(sender, "Only players can use this command.", "§c");
             ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Non-player sender attempted block selector command");
@@ -252,10 +381,10 @@ public class TeamCommands {
             return true;
         }
         var teamName = args[1].toLowerCase();
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: " + teamName);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team '" + teamName + "' does not exist.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         if (!args[2].equalsIgnoreCase("block") || !args[3].equalsIgnoreCase("selector")) {
@@ -266,35 +395,37 @@ public class TeamCommands {
         var target = Bukkit.getPlayer(args[4]);
         if (target == null) {
             sendMessage(sender, "Player not found or offline.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Player '" + args[4] + "' not found or offline");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Player '{}' not found or offline", args[4]);
             return true;
         }
         var axe = createTeamBlockSelector(teamName);
         target.getInventory().addItem(axe);
         sendMessage(sender, "Given team block selector for team '" + teamName + "' to " + target.getName(), "§a");
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Gave block selector for team '" + teamName + "' to " + target.getName());
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Gave block selector for team '{}' to {}", teamName, target.getName());
         return true;
     }
 
     private ItemStack createTeamBlockSelector(String teamName) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Creating team block selector for team '" + teamName + "'");
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Creating team block selector for team '{}'", teamName);
         var axe = new ItemStack(Material.IRON_AXE);
         var meta = axe.getItemMeta();
         if (meta != null) {
             meta.setDisplayName("§6" + TEAM_BLOCK_SELECTOR_NAME);
-            if (isPre114()) {
+            if (capabilities.isPre114()) {
                 meta.setLore(List.of("Team: " + teamName));
             } else {
-                meta.getPersistentDataContainer().set(new NamespacedKey(plugin, "teamSelector"), PersistentDataType.STRING, teamName);
+                meta.getPersistentDataContainer().set(selectorKey, PersistentDataType.STRING, teamName);
             }
             axe.setItemMeta(meta);
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Set item meta for selector: team=" + teamName);
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Set item meta for selector: team={}", teamName);
         }
         return axe;
     }
 
     private boolean handleTeamSetBlock(CommandSender sender, String[] args) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team setblock command for " + sender.getName() + ": " + String.join(" ", args));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team setblock command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (!(sender instanceof Player player)) {
             sendMessage(sender, "Only players can use this command.", "§c");
             ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Non-player sender attempted setblock command");
@@ -306,10 +437,10 @@ public class TeamCommands {
             return true;
         }
         var teamName = args[1].toLowerCase();
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: " + teamName);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team '" + teamName + "' does not exist.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         int x, y, z;
@@ -317,10 +448,14 @@ public class TeamCommands {
             x = Integer.parseInt(args[3]);
             y = Integer.parseInt(args[4]);
             z = Integer.parseInt(args[5]);
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Parsed coordinates: x=" + x + ", y=" + y + ", z=" + z);
+            if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Parsed coordinates: x=" + x + ", y=" + y + ", z=" + z);
+            }
         } catch (NumberFormatException e) {
             sendMessage(sender, "Coordinates must be numbers.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid coordinates: " + String.join(" ", Arrays.copyOfRange(args, 3, args.length)));
+            if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid coordinates: " + String.join(" ", Arrays.copyOfRange(args, 3, args.length)));
+            }
             return true;
         }
         var world = player.getWorld();
@@ -328,116 +463,132 @@ public class TeamCommands {
         var block = world.getBlockAt(loc);
         if (block.getType() != teamsManager.getTeamBlockMaterial()) {
             sendMessage(sender, "Block at location is not the configured team block (" + teamsManager.getTeamBlockMaterial() + ").", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Block at " + formatLocation(loc) + " is " + block.getType() + ", expected " + teamsManager.getTeamBlockMaterial());
+            if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Block at " + formatLocation(loc) + " is " + block.getType() + ", expected " + teamsManager.getTeamBlockMaterial());
+            }
+            return true;
+        }
+        if (isOtherTeamsLodestone(sender, block, teamName)) {
             return true;
         }
         teamsManager.setLodestone(teamName, loc);
         sendMessage(sender, "Lodestone set for team '" + teamName + "' at " + x + " " + y + " " + z, "§a");
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(loc));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(loc));
+        }
+        return true;
+    }
+
+    private boolean isOtherTeamsLodestone(CommandSender sender, Block block, String teamName) {
+        var owner = teamsManager.getTeamAt(block);
+        if (owner == null || owner.getName().equalsIgnoreCase(teamName)) {
+            return false;
+        }
+        sendMessage(sender, "That block is already the lodestone of team '" + owner.getName() + "'.", "§c");
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Block " + formatLocation(block.getLocation()) + " already belongs to team '" + owner.getName() + "'");
+        }
         return true;
     }
 
     public TeamsManager.Team getTeamForPlayer(Player player) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Getting team for player " + player.getName());
-        var uuid = player.getUniqueId();
-        for (var team : teamsManager.getTeams()) {
-            if (team.getMembers().contains(uuid)) {
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Found team '" + team.getName() + "' for player " + player.getName());
-                return team;
-            }
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Getting team for player {}", player.getName());
+        var team = teamsManager.getTeamOf(player.getUniqueId());
+        if (team != null) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Found team '{}' for player {}", team.getName(), player.getName());
+            return team;
         }
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] No team found for player " + player.getName());
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] No team found for player {}", player.getName());
         return null;
     }
 
-    private boolean handleUserTeamAdd(CommandSender sender, OfflinePlayer target, String teamName) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling user team add for " + sender.getName() + ": player=" + target.getName() + ", team=" + teamName);
+    private boolean handleUserTeamAdd(CommandSender sender, PlayerResolver.Resolved target, String teamName) {
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling user team add for {}: player={}, team={}",
+                sender.getName(), target.getName(), teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         if (teamsManager.addMember(teamName, target.getUniqueId())) {
             sendMessage(sender, "Added " + target.getName() + " to team " + teamName, "§a");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Added " + target.getName() + " to team '" + teamName + "'");
-            if (target.isOnline()) {
-                sendMessage((Player) target, "You have been added to team " + teamName, "§a");
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Notified " + target.getName() + " of team addition");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Added {} to team '{}'", target.getName(), teamName);
+            var online = Bukkit.getPlayer(target.getUniqueId());
+            if (online != null) {
+                sendMessage(online, "You have been added to team " + teamName, "§a");
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Notified {} of team addition", target.getName());
             }
         } else {
-            sendMessage(sender, target.getName() + " is already in the team or error occurred.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Failed to add " + target.getName() + " to team '" + teamName + "', already in team or error");
+            sendMessage(sender, target.getName() + " is already in a team or error occurred.", "§c");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Failed to add {} to team '{}', already in team or error", target.getName(), teamName);
         }
         return true;
     }
 
-    private boolean handleUserTeamRemove(CommandSender sender, OfflinePlayer target, String teamName) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling user team remove for " + sender.getName() + ": player=" + target.getName() + ", team=" + teamName);
+    private boolean handleUserTeamRemove(CommandSender sender, PlayerResolver.Resolved target, String teamName) {
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling user team remove for {}: player={}, team={}",
+                sender.getName(), target.getName(), teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         if (teamsManager.removeMember(teamName, target.getUniqueId())) {
             sendMessage(sender, "Removed " + target.getName() + " from team " + teamName, "§a");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Removed " + target.getName() + " from team '" + teamName + "'");
-            if (target.isOnline()) {
-                sendMessage((Player) target, "You have been removed from team " + teamName, "§c");
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Notified " + target.getName() + " of team removal");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Removed {} from team '{}'", target.getName(), teamName);
+            var online = Bukkit.getPlayer(target.getUniqueId());
+            if (online != null) {
+                sendMessage(online, "You have been removed from team " + teamName, "§c");
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Notified {} of team removal", target.getName());
             }
         } else {
             sendMessage(sender, target.getName() + " is not in the team or error occurred.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Failed to remove " + target.getName() + " from team '" + teamName + "', not in team or error");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Failed to remove {} from team '{}', not in team or error", target.getName(), teamName);
         }
         return true;
     }
 
-    private boolean handleUserTeamList(CommandSender sender, OfflinePlayer target) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling user team list for " + sender.getName() + ": player=" + target.getName());
-        var uuid = target.getUniqueId();
+    private boolean handleUserTeamList(CommandSender sender, PlayerResolver.Resolved target) {
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling user team list for {}: player={}", sender.getName(), target.getName());
         var playerTeams = new ArrayList<String>();
-        for (var team : teamsManager.getTeams()) {
-            if (team.getMembers().contains(uuid)) {
-                playerTeams.add(team.getName());
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Found team '" + team.getName() + "' for " + target.getName());
-            }
+        var team = teamsManager.getTeamOf(target.getUniqueId());
+        if (team != null) {
+            playerTeams.add(team.getName());
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Found team '{}' for {}", team.getName(), target.getName());
         }
 
         if (playerTeams.isEmpty()) {
             sendMessage(sender, target.getName() + " is not in any team.", "§e");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] No teams found for " + target.getName());
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] No teams found for {}", target.getName());
             return true;
         }
 
         sendMessage(sender, target.getName() + "'s teams:", "§6");
         for (var team : playerTeams) {
             sendMessage(sender, "- " + team, "§f");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Listed team '" + team + "' for " + target.getName());
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Listed team '{}' for {}", team, target.getName());
         }
         return true;
     }
 
-    public void onTeamBlockSelectorUse(Player player, Block block) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Player " + player.getName() + " used team block selector on block at " + formatLocation(block.getLocation()));
+    /**
+     * Sets the selector's team lodestone to {@code block}. {@code meta} is the
+     * selector's meta, already read by the listener that recognised it.
+     */
+    public void onTeamBlockSelectorUse(Player player, Block block, ItemMeta meta) {
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Player " + player.getName() + " used team block selector on block at " + formatLocation(block.getLocation()));
+        }
         if (block.getType() != teamsManager.getTeamBlockMaterial()) {
             sendMessage(player, "This block is not the configured team block (" + teamsManager.getTeamBlockMaterial() + ").", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Block at " + formatLocation(block.getLocation()) + " is " + block.getType() + ", expected " + teamsManager.getTeamBlockMaterial());
-            return;
-        }
-
-        var item = player.getInventory().getItemInMainHand();
-        if (item == null || !item.hasItemMeta()) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid item: null or no meta");
-            return;
-        }
-        var meta = item.getItemMeta();
-        if (meta == null) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Item meta is null");
+            if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Block at " + formatLocation(block.getLocation()) + " is " + block.getType() + ", expected " + teamsManager.getTeamBlockMaterial());
+            }
             return;
         }
 
         String teamName;
-        if (isPre114()) {
+        if (capabilities.isPre114()) {
             var lore = meta.getLore();
             if (lore == null || lore.isEmpty() || !lore.get(0).startsWith("Team: ")) {
                 sendMessage(player, "This selector is invalid (missing team info)", "§c");
@@ -446,7 +597,7 @@ public class TeamCommands {
             }
             teamName = lore.get(0).substring(6);
         } else {
-            teamName = meta.getPersistentDataContainer().get(new NamespacedKey(plugin, "teamSelector"), PersistentDataType.STRING);
+            teamName = meta.getPersistentDataContainer().get(selectorKey, PersistentDataType.STRING);
             if (teamName == null) {
                 sendMessage(player, "This selector is invalid (missing team info)", "§c");
                 ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Selector missing team info");
@@ -456,70 +607,33 @@ public class TeamCommands {
 
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(player, "Team '" + teamName + "' no longer exists", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' no longer exists");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '{}' no longer exists", teamName);
             return;
         }
 
+        if (isOtherTeamsLodestone(player, block, teamName)) {
+            return;
+        }
         teamsManager.setLodestone(teamName, block.getLocation());
         sendMessage(player, "Team lodestone for '" + teamName + "' set at " +
                 block.getX() + ", " + block.getY() + ", " + block.getZ(), "§a");
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(block.getLocation()));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(block.getLocation()));
+        }
 
         updatePlayerNametagColor(player, teamName);
     }
 
     private void updatePlayerNametagColor(Player player, String teamName) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Updating nametag color for player " + player.getName() + " in team '" + teamName + "'");
-        var team = teamsManager.getTeam(teamName);
-        if (team == null) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' not found for nametag update");
-            return;
-        }
-
-        var scoreboard = player.getScoreboard();
-        var scoreboardTeam = scoreboard.getTeam(teamName);
-
-        if (scoreboardTeam == null) {
-            scoreboardTeam = scoreboard.registerNewTeam(teamName);
-            scoreboardTeam.setDisplayName(teamName);
-            var chatColor = parseChatColor(team.getColor());
-            if (chatColor != null) {
-                scoreboardTeam.setColor(chatColor);
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Set scoreboard team color to " + chatColor + " for team '" + teamName + "'");
-            }
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Registered new scoreboard team '" + teamName + "' with color " + team.getColor());
-        }
-
-        for (var memberUUID : team.getMembers()) {
-            var member = Bukkit.getPlayer(memberUUID);
-            if (member != null && member.isOnline()) {
-                scoreboardTeam.addEntry(member.getName());
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Added " + member.getName() + " to scoreboard team '" + teamName + "'");
-            }
-        }
-
-        player.setScoreboard(scoreboard);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Updating nametag color for player {} in team '{}'", player.getName(), teamName);
+        teamsManager.showNametags(teamName);
         sendMessage(player, "Nametag color updated for team '" + teamName + "'", "§a");
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Updated nametag color for " + player.getName() + " in team '" + teamName + "'");
-    }
-
-    private ChatColor parseChatColor(String colorName) {
-        return switch (colorName.toUpperCase()) {
-            case "RED" -> ChatColor.RED;
-            case "GOLD" -> ChatColor.GOLD;
-            case "YELLOW" -> ChatColor.YELLOW;
-            case "GREEN" -> ChatColor.GREEN;
-            case "AQUA" -> ChatColor.AQUA;
-            case "BLUE" -> ChatColor.BLUE;
-            case "DARK_PURPLE" -> ChatColor.DARK_PURPLE;
-            case "LIGHT_PURPLE" -> ChatColor.LIGHT_PURPLE;
-            case "WHITE" -> ChatColor.WHITE;
-            default -> null;
-        };
     }
 
     private boolean handleTeamMetaColor(CommandSender sender, String[] args) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team meta color command for " + sender.getName() + ": " + String.join(" ", args));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Handling team meta color command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 5) {
             sendMessage(sender, "Usage: /nf team meta <team-name> color <get|set> [color]", "§c");
             ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid arguments for meta color, expected at least 5");
@@ -527,21 +641,21 @@ public class TeamCommands {
         }
 
         var teamName = args[2].toLowerCase();
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: " + teamName);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team '" + teamName + "' does not exist.", "§c");
-            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
 
         var action = args[4].toLowerCase();
-        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Color action: " + action);
+        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Color action: {}", action);
         var team = teamsManager.getTeam(teamName);
 
         switch (action) {
             case "get" -> {
                 sendMessage(sender, "Team '" + teamName + "' color: " + team.getColor(), getLegacyColor(team.getColor()));
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Retrieved color " + team.getColor() + " for team '" + teamName + "'");
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Retrieved color {} for team '{}'", team.getColor(), teamName);
             }
             case "set" -> {
                 if (args.length < 6) {
@@ -550,27 +664,21 @@ public class TeamCommands {
                     break;
                 }
                 var newColorName = args[5].toUpperCase();
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] New color: " + newColorName);
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] New color: {}", newColorName);
                 if (!isValidColor(newColorName)) {
                     sendMessage(sender, "Invalid color. Valid colors: RED, BLUE, GREEN, YELLOW, AQUA, DARK_PURPLE, GOLD, LIGHT_PURPLE, WHITE", "§c");
-                    ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid color: " + newColorName);
+                    ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Invalid color: {}", newColorName);
                     break;
                 }
                 team.setColor(newColorName);
                 sendMessage(sender, "Team '" + teamName + "' color updated to " + newColorName, getLegacyColor(newColorName));
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Updated color for team '" + teamName + "' to " + newColorName);
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Updated color for team '{}' to {}", teamName, newColorName);
 
-                for (var memberUUID : team.getMembers()) {
-                    var member = Bukkit.getPlayer(memberUUID);
-                    if (member != null && member.isOnline()) {
-                        updatePlayerNametagColor(member, teamName);
-                        ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Updated nametag for " + member.getName() + " in team '" + teamName + "'");
-                    }
-                }
+                teamsManager.showNametags(teamName);
             }
             default -> {
                 sendMessage(sender, "Unknown color action. Use get or set.", "§c");
-                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Unknown color action: " + action);
+                ((NakedAndAfraid) plugin).debugLog("[TeamCommands] Unknown color action: {}", action);
             }
         }
         return true;
@@ -0,0 +1,113 @@
+package com.crimsonwarpedcraft.nakedandafraid.v1_17.util;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PacketSender;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.Collection;
+
+/**
+ * Builds and sends the player-info packet {@code TabListClearer} needs on
+ * 1.17 to 1.19.2, where it still takes an action and an array of players.
+ * <p>
+ * The packet class, its constructor, the action constants and the send path
+ * are resolved once in {@link #create()}, trying each mapping in
+ * {@link #CANDIDATES} in turn; building or sending a packet is a direct
+ * {@link MethodHandle} invocation.
+ */
+public final class TabPacketFactory {
+
+    /**
+     * (packet, action, player handle) class names, tried in order. The first
+     * matches Spigot-mapped runtimes, the second Mojang-mapped ones.
+     */
+    private static final String[][] CANDIDATES = {
+            {
+                    "net.minecraft.network.protocol.game.PacketPlayOutPlayerInfo",
+                    "net.minecraft.network.protocol.game.PacketPlayOutPlayerInfo$EnumPlayerInfoAction",
+                    "net.minecraft.server.level.EntityPlayer"
+            },
+            {
+                    "net.minecraft.network.protocol.game.ClientboundPlayerInfoPacket",
+                    "net.minecraft.network.protocol.game.ClientboundPlayerInfoPacket$Action",
+                    "net.minecraft.server.level.ServerPlayer"
+            }
+    };
+
+    private static final String[] CONNECTION_FIELDS = {"playerConnection", "connection", "b"};
+    private static final String[] SEND_METHODS = {"sendPacket", "send"};
+
+    private final PacketSender sender;
+    private final Class<?> handleClass;
+    private final MethodHandle infoConstructor;
+    private final Object addAction;
+    private final Object removeAction;
+
+    private TabPacketFactory(PacketSender sender, Class<?> handleClass, MethodHandle infoConstructor,
+                             Object addAction, Object removeAction) {
+        this.sender = sender;
+        this.handleClass = handleClass;
+        this.infoConstructor = infoConstructor;
+        this.addAction = addAction;
+        this.removeAction = removeAction;
+    }
+
+    /**
+     * Resolves everything against the running server.
+     *
+     * @throws ReflectiveOperationException if none of the candidate mappings match
+     */
+    public static TabPacketFactory create() throws ReflectiveOperationException {
+        var packetInterface = Class.forName("net.minecraft.network.protocol.Packet");
+        var sender = PacketSender.resolve(PacketSender.craftPlayerClass(), CONNECTION_FIELDS, packetInterface, SEND_METHODS);
+
+        ReflectiveOperationException failure = null;
+        for (var candidate : CANDIDATES) {
+            try {
+                var packetClass = Class.forName(candidate[0]);
+                var actionClass = Class.forName(candidate[1]);
+                var handleClass = Class.forName(candidate[2]);
+                // PacketPlayOutPlayerInfo(EnumPlayerInfoAction, EntityPlayer...)
+                var infoConstructor = MethodHandles.publicLookup()
+                        .findConstructor(packetClass, MethodType.methodType(void.class, actionClass,
+                                handleClass.arrayType()))
+                        .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+                return new TabPacketFactory(sender, handleClass, infoConstructor,
+                        action(actionClass, "ADD_PLAYER"), action(actionClass, "REMOVE_PLAYER"));
+            } catch (ReflectiveOperationException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    /** A packet adding ({@code add}) or removing {@code subjects} on the recipient's tab list. */
+    public Object playerInfoPacket(boolean add, Collection<? extends Player> subjects) {
+        var handles = (Object[]) Array.newInstance(handleClass, subjects.size());
+        var i = 0;
+        for (var subject : subjects) {
+            handles[i++] = sender.handle(subject);
+        }
+        try {
+            return (Object) infoConstructor.invokeExact(add ? addAction : removeAction, handles);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to build player info packet", t);
+        }
+    }
+
+    public void send(Player recipient, Object packet) {
+        sender.send(recipient, packet);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Object action(Class<?> actionClass, String name) throws NoSuchFieldException {
+        try {
+            return Enum.valueOf((Class<? extends Enum>) actionClass.asSubclass(Enum.class), name);
+        } catch (IllegalArgumentException e) {
+            throw new NoSuchFieldException(actionClass.getName() + "." + name);
+        }
+    }
+}
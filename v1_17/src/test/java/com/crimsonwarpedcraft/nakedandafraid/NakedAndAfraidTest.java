@@ -196,6 +196,7 @@ public class NakedAndAfraidTest {
     testDebugLog("Verified debug message was logged when debug-mode is true");
 
     doReturn(false).when(mockConfig).getBoolean("debug-mode", false);
+    pluginClass.reloadConfigSnapshot();
     testDebugLog("Calling debugLog with debug-mode false");
     pluginClass.debugLog("Should not log");
     verify(spyLogger, never()).info("Should not log");
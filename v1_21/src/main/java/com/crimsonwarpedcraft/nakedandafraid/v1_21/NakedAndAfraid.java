@@ -13,7 +13,6 @@ import com.crimsonwarpedcraft.nakedandafraid.v1_21.spawn.SpawnManager;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.team.TeamCommands;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.team.TeamsManager;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.util.TeleportHelper;
-import com.crimsonwarpedcraft.nakedandafraid.v1_21.util.TeleportHelperExtension;
 import io.papermc.lib.PaperLib;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
@@ -75,7 +74,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
   protected void initManagers() {
     PaperLib.suggestPaper(plugin);
 
-    teamsManager = new TeamsManager(plugin);
+    teamsManager = new TeamsManager(this);
     teamCommands = new TeamCommands(teamsManager, this);
     debugLog("[NakedAndAfraid] Initialized TeamsManager and TeamCommands");
 
@@ -95,7 +94,6 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
   @Override
   protected void initTeleportHelper() {
     teleportHelper = new TeleportHelper(plugin, this);
-    new TeleportHelperExtension(plugin, this, teleportHelper);
     debugLog("[NakedAndAfraid] Initialized TeleportHelper");
   }
 
@@ -131,7 +129,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
 
   @Override
   protected Listener createArmorDamageListener() {
-    return new ArmorDamageListener(plugin);
+    return new ArmorDamageListener(this);
   }
 
   @Override
@@ -217,7 +215,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
 
   @Override
   protected void doReloadVersionListeners() {
-    if (plugin.getConfig().getBoolean("disable-totems", true)) {
+    if (getConfigSnapshot().isDisableTotems()) {
       totemDisablerListener = new TotemDisablerListener(this);
       plugin.getServer().getPluginManager()
               .registerEvents(totemDisablerListener, plugin);
@@ -295,6 +293,19 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
     }
   }
 
+  @Override
+  protected void shutdownManagers() {
+    if (teamsManager != null) {
+      teamsManager.shutdown();
+    }
+    if (teleportHelper != null) {
+      teleportHelper.shutdown();
+    }
+    if (spawnManager != null) {
+      spawnManager.shutdown();
+    }
+  }
+
   public TeleportHelper getTeleportHelper() {
     return teleportHelper;
   }
@@ -320,7 +331,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
       if (!enabledWorlds.contains(name)) {
         enabledWorlds.set(name, true);
         changed = true;
-        debugLog("[NakedAndAfraid] Added world " + name);
+        debugLog("[NakedAndAfraid] Added world {}", name);
       }
     }
 
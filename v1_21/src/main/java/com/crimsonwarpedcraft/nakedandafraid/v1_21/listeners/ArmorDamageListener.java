@@ -2,6 +2,11 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_21.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.config.ArmorRules;
+import com.crimsonwarpedcraft.nakedandafraid.common.config.ConfigSnapshot;
+import com.crimsonwarpedcraft.nakedandafraid.common.listeners.ArmorChangeDetector;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TimingWheel;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.util.MaterialCompat;
 import com.destroystokyo.paper.event.player.PlayerArmorChangeEvent;
@@ -13,10 +18,12 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -26,71 +33,90 @@ import java.util.stream.Collectors;
  */
 public class ArmorDamageListener implements Listener {
 
+    private final NakedAndAfraid nakedAndAfraid;
     private final Plugin plugin;
-    private final HashMap<UUID, BukkitRunnable> damageTasks = new HashMap<>();
+    private final ServerCapabilities capabilities;
+    /** Armored players keyed by their next damage tick; advanced by {@link #driverTask}. */
+    private final TimingWheel<UUID> damageWheel = new TimingWheel<>();
+    private final TimingWheel.DueHandler<UUID> damageHandler = this::applyDamage;
+    /** Inventory-event armor tracking, used when Paper's armor change event isn't enough. */
+    private final ArmorChangeDetector changeDetector;
+    private final Consumer<Player> recheckHandler = this::updateDamageTask;
     private double damageAmount;
     private long damageIntervalTicks;
     private boolean armorEnabled;
     private boolean includeOffhand;
+    private long reconcileIntervalTicks;
     private Set<String> validArmorSlots;
     private Set<Material> validArmorMaterials;
-    private BukkitRunnable pollingTask;
-
-    public ArmorDamageListener(Plugin plugin) {
-        this.plugin = plugin;
+    /** {@link #validArmorSlots} and {@link #validArmorMaterials} compiled for the per-player check. */
+    private ArmorRules armorRules;
+    /** The only scheduler task: advances the wheel and re-checks dirty players every tick. */
+    private BukkitRunnable driverTask;
+
+    public ArmorDamageListener(NakedAndAfraid nakedAndAfraid) {
+        this.nakedAndAfraid = nakedAndAfraid;
+        this.plugin = nakedAndAfraid.getPlugin();
+        this.capabilities = nakedAndAfraid.getServerCapabilities();
+        this.changeDetector = new ArmorChangeDetector(plugin, capabilities);
         loadConfigValues();
-        debugLog("[ArmorDamageListener] Initialized ArmorDamageListener for Bukkit version " +
-                Bukkit.getBukkitVersion() + ", PaperArmorChangeSupported: " + isPaperArmorChangeSupported());
-        if (shouldPoll()) {
-            startPollingTask();
-        }
+        debugLog("[ArmorDamageListener] Initialized ArmorDamageListener for Bukkit version {}, PaperArmorChangeSupported: {}",
+                Bukkit.getBukkitVersion(), capabilities.isPaperArmorChangeSupported());
+        updateChangeTracking();
+        startDriverTask();
     }
 
     private void debugLog(String message) {
-        if (plugin.getConfig().getBoolean("debug-mode", false)) {
-            plugin.getLogger().info(message);
-        }
+        nakedAndAfraid.debugLog(message);
     }
 
-    /**
-     * Checks if the server supports Paper's PlayerArmorChangeEvent (Paper 1.16.5+).
-     */
-    private boolean isPaperArmorChangeSupported() {
-        try {
-            String version = Bukkit.getBukkitVersion().split("-")[0];
-            String[] parts = version.split("\\.");
-            int major = Integer.parseInt(parts[1]);
-            int minor = parts.length > 2 ? Integer.parseInt(parts[2].split("[^0-9]")[0]) : 0;
-            return major > 16 || (major == 16 && minor >= 5) &&
-                    Class.forName("com.destroystokyo.paper.event.player.PlayerArmorChangeEvent") != null;
-        } catch (Exception e) {
-            debugLog("[ArmorDamageListener] Failed to detect PaperArmorChangeEvent support: " + e.getMessage());
-            return false;
-        }
+    private void debugLog(String pattern, Object arg) {
+        nakedAndAfraid.debugLog(pattern, arg);
     }
 
-    /**
-     * Determines if polling should be enabled (for pre-Paper or when offhand is included).
-     */
-    private boolean shouldPoll() {
-        return !isPaperArmorChangeSupported() || includeOffhand;
+    private void debugLog(String pattern, Object arg1, Object arg2) {
+        nakedAndAfraid.debugLog(pattern, arg1, arg2);
+    }
+
+    private void debugLog(String pattern, Object arg1, Object arg2, Object arg3) {
+        nakedAndAfraid.debugLog(pattern, arg1, arg2, arg3);
     }
 
     /**
-     * Checks if the server is pre-1.16 (Minecraft 1.12–1.15.2).
+     * Determines if inventory events must be tracked (pre-Paper, or offhand
+     * included since PlayerArmorChangeEvent doesn't cover the offhand).
      */
-    private boolean isPre116() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[6-9]|2[0-1]).*");
+    private boolean shouldTrackChanges() {
+        return !capabilities.isPaperArmorChangeSupported() || includeOffhand;
+    }
+
+    /** Starts or stops the change detector to match the current config. */
+    private void updateChangeTracking() {
+        boolean track = shouldTrackChanges();
+        if (track == changeDetector.isStarted()) {
+            return;
+        }
+        if (track) {
+            changeDetector.start();
+        } else {
+            changeDetector.stop();
+        }
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("[ArmorDamageListener] Armor change tracking " + (track ? "started" : "stopped") +
+                    ", reconcile interval: " + reconcileIntervalTicks);
+        }
     }
 
     /** Load configuration values from plugin config */
     private void loadConfigValues() {
-        this.armorEnabled = plugin.getConfig().getBoolean("armor-damage.enabled", true);
-        this.damageAmount = plugin.getConfig().getDouble("armor-damage.damage-amount", 1.0);
-        this.damageIntervalTicks = plugin.getConfig().getLong("armor-damage.damage-interval-ticks", 20L);
-        this.includeOffhand = plugin.getConfig().getBoolean("armor-damage.include-offhand", false);
-
-        List<String> configSlots = plugin.getConfig().getStringList("armor-damage.armor-slot");
+        ConfigSnapshot config = nakedAndAfraid.getConfigSnapshot();
+        this.armorEnabled = config.isArmorDamageEnabled();
+        this.damageAmount = config.getArmorDamageAmount();
+        this.damageIntervalTicks = config.getArmorDamageIntervalTicks();
+        this.includeOffhand = config.isArmorIncludeOffhand();
+        this.reconcileIntervalTicks = config.getArmorReconcileIntervalTicks();
+
+        List<String> configSlots = config.getArmorSlots();
         Set<String> validSlots = new HashSet<>(Arrays.asList("HELMET", "CHESTPLATE", "LEGGINGS", "BOOTS"));
         this.validArmorSlots = configSlots.isEmpty() ? validSlots : new HashSet<>();
         for (String slot : configSlots) {
@@ -102,15 +128,15 @@ public class ArmorDamageListener implements Listener {
             if (validSlots.contains(upperSlot)) {
                 this.validArmorSlots.add(upperSlot);
             } else {
-                debugLog("[ArmorDamageListener] Invalid armor slot in config: " + slot);
+                debugLog("[ArmorDamageListener] Invalid armor slot in config: {}", slot);
             }
         }
         if (this.validArmorSlots.isEmpty()) {
             this.validArmorSlots = validSlots;
-            debugLog("[ArmorDamageListener] No valid armor slots in config, using all: " + validSlots);
+            debugLog("[ArmorDamageListener] No valid armor slots in config, using all: {}", validSlots);
         }
 
-        List<String> configMaterials = plugin.getConfig().getStringList("armor-damage.armor-material");
+        List<String> configMaterials = config.getArmorMaterials();
         this.validArmorMaterials = new HashSet<>();
         for (String material : configMaterials) {
             if (material == null) {
@@ -118,10 +144,10 @@ public class ArmorDamageListener implements Listener {
                 continue;
             }
             Material mat = MaterialCompat.getMaterial(material.toUpperCase());
-            if (mat != null && isArmorMaterial(mat)) {
+            if (ArmorRules.slotOf(mat) >= 0) {
                 this.validArmorMaterials.add(mat);
             } else {
-                debugLog("[ArmorDamageListener] Invalid or non-armor material in config: " + material);
+                debugLog("[ArmorDamageListener] Invalid or non-armor material in config: {}", material);
             }
         }
         if (this.validArmorMaterials.isEmpty()) {
@@ -146,104 +172,102 @@ public class ArmorDamageListener implements Listener {
                     MaterialCompat.getMaterial("GOLD_CHESTPLATE", "GOLDEN_CHESTPLATE"),
                     MaterialCompat.getMaterial("GOLD_LEGGINGS", "GOLDEN_LEGGINGS"),
                     MaterialCompat.getMaterial("GOLD_BOOTS", "GOLDEN_BOOTS"),
-                    isPre116() ? null : MaterialCompat.getMaterial("NETHERITE_HELMET"),
-                    isPre116() ? null : MaterialCompat.getMaterial("NETHERITE_CHESTPLATE"),
-                    isPre116() ? null : MaterialCompat.getMaterial("NETHERITE_LEGGINGS"),
-                    isPre116() ? null : MaterialCompat.getMaterial("NETHERITE_BOOTS")
+                    capabilities.isPre116() ? null : MaterialCompat.getMaterial("NETHERITE_HELMET"),
+                    capabilities.isPre116() ? null : MaterialCompat.getMaterial("NETHERITE_CHESTPLATE"),
+                    capabilities.isPre116() ? null : MaterialCompat.getMaterial("NETHERITE_LEGGINGS"),
+                    capabilities.isPre116() ? null : MaterialCompat.getMaterial("NETHERITE_BOOTS")
             );
             this.validArmorMaterials = defaultMaterials.stream()
                     .filter(Objects::nonNull)
                     .collect(Collectors.toCollection(HashSet::new));
-            debugLog("[ArmorDamageListener] No valid armor materials in config, using defaults: " +
-                    validArmorMaterials.stream()
-                            .filter(Objects::nonNull)
-                            .map(mat -> mat.name().toLowerCase())
-                            .collect(Collectors.toList()));
+            if (nakedAndAfraid.isDebugEnabled()) {
+                debugLog("[ArmorDamageListener] No valid armor materials in config, using defaults: " +
+                        validArmorMaterials.stream()
+                                .filter(Objects::nonNull)
+                                .map(mat -> mat.name().toLowerCase())
+                                .collect(Collectors.toList()));
+            }
         }
 
-        debugLog("[ArmorDamageListener] Loaded config: armorEnabled=" + armorEnabled +
-                ", damageAmount=" + damageAmount + ", damageIntervalTicks=" + damageIntervalTicks +
-                ", includeOffhand=" + includeOffhand + ", validArmorSlots=" + validArmorSlots +
-                ", validArmorMaterials=" + validArmorMaterials.stream()
-                .filter(Objects::nonNull)
-                .map(mat -> mat.name().toLowerCase())
-                .collect(Collectors.toList()));
-    }
+        this.armorRules = ArmorRules.of(validArmorSlots, validArmorMaterials);
 
-    /** Check if a material is an armor material */
-    private boolean isArmorMaterial(Material material) {
-        if (material == null) return false;
-        String name = material.name().toUpperCase();
-        return name.endsWith("_HELMET") || name.endsWith("_CHESTPLATE") || name.endsWith("_LEGGINGS") || name.endsWith("_BOOTS");
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("[ArmorDamageListener] Loaded config: armorEnabled=" + armorEnabled +
+                    ", damageAmount=" + damageAmount + ", damageIntervalTicks=" + damageIntervalTicks +
+                    ", includeOffhand=" + includeOffhand + ", validArmorSlots=" + validArmorSlots +
+                    ", validArmorMaterials=" + validArmorMaterials.stream()
+                    .filter(Objects::nonNull)
+                    .map(mat -> mat.name().toLowerCase())
+                    .collect(Collectors.toList()));
+        }
     }
 
     /** Refresh tasks for all online players according to current config */
     public void refreshArmorTasks() {
         loadConfigValues();
-        debugLog("[ArmorDamageListener] Refreshing armor tasks, armorEnabled: " + armorEnabled);
+        debugLog("[ArmorDamageListener] Refreshing armor tasks, armorEnabled: {}", armorEnabled);
 
         for (Player player : Bukkit.getOnlinePlayers()) {
-            UUID uuid = player.getUniqueId();
-            boolean hasArmorOrOffhand = hasAnyArmorOrOffhand(player);
-            debugLog("[ArmorDamageListener] Checking player " + player.getName() + ", hasArmorOrOffhand: " + hasArmorOrOffhand);
+            updateDamageTask(player);
+        }
 
-            if (!armorEnabled || !hasArmorOrOffhand) {
-                if (damageTasks.containsKey(uuid)) {
-                    cancelDamageTask(player);
-                }
-            } else if (hasArmorOrOffhand && armorEnabled && !damageTasks.containsKey(uuid)) {
-                debugLog("[ArmorDamageListener] Starting armor/offhand damage task for player " + player.getName());
-                startDamageTask(player);
-            }
+        updateChangeTracking();
+        if (driverTask == null) {
+            startDriverTask();
         }
+    }
 
-        if (shouldPoll()) {
-            if (pollingTask == null) {
-                startPollingTask();
-            }
-        } else {
-            if (pollingTask != null) {
-                pollingTask.cancel();
-                pollingTask = null;
-                debugLog("[ArmorDamageListener] Stopped polling task after refresh");
+    /** Arms or disarms a player's damage according to their current armor/offhand */
+    private void updateDamageTask(Player player) {
+        UUID uuid = player.getUniqueId();
+        boolean hasArmorOrOffhand = hasAnyArmorOrOffhand(player);
+        debugLog("[ArmorDamageListener] Checking player {}, hasArmorOrOffhand: {}", player.getName(), hasArmorOrOffhand);
+
+        if (!armorEnabled || !hasArmorOrOffhand) {
+            if (damageWheel.contains(uuid)) {
+                cancelDamageTask(player);
             }
+        } else if (!damageWheel.contains(uuid)) {
+            debugLog("[ArmorDamageListener] Starting armor/offhand damage task for player {}", player.getName());
+            startDamageTask(player);
         }
     }
 
-    /** Start a polling task to check armor for all online players (pre-Paper or when offhand is included) */
-    private void startPollingTask() {
-        if (pollingTask != null) {
-            pollingTask.cancel();
-            debugLog("[ArmorDamageListener] Cancelled existing polling task");
+    /**
+     * Starts the single repeating task that drives every player's damage and,
+     * while armor changes are tracked, re-checks the players marked dirty since
+     * the last tick plus everyone once per reconcile interval.
+     */
+    private void startDriverTask() {
+        if (driverTask != null) {
+            driverTask.cancel();
+            debugLog("[ArmorDamageListener] Cancelled existing driver task");
         }
-        pollingTask = new BukkitRunnable() {
+        driverTask = new BukkitRunnable() {
             @Override
             public void run() {
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    UUID uuid = player.getUniqueId();
-                    boolean hasArmorOrOffhand = hasAnyArmorOrOffhand(player);
-                    debugLog("[ArmorDamageListener] Polling player " + player.getName() + ", hasArmorOrOffhand: " + hasArmorOrOffhand);
-                    if (!armorEnabled || !hasArmorOrOffhand) {
-                        if (damageTasks.containsKey(uuid)) {
-                            cancelDamageTask(player);
-                        }
-                    } else if (hasArmorOrOffhand && armorEnabled && !damageTasks.containsKey(uuid)) {
-                        debugLog("[ArmorDamageListener] Starting armor/offhand damage task for player " + player.getName());
-                        startDamageTask(player);
+                damageWheel.advance(damageHandler);
+                if (!changeDetector.isStarted()) {
+                    return;
+                }
+                changeDetector.drain(recheckHandler);
+                if (reconcileIntervalTicks > 0 && damageWheel.getCurrentTick() % reconcileIntervalTicks == 0) {
+                    for (Player player : Bukkit.getOnlinePlayers()) {
+                        updateDamageTask(player);
                     }
                 }
             }
         };
-        pollingTask.runTaskTimer(plugin, 0L, 20L);
-        debugLog("[ArmorDamageListener] Started polling task for armor/offhand checks");
+        driverTask.runTaskTimer(plugin, 0L, 1L);
+        debugLog("[ArmorDamageListener] Started armor damage driver, tracking changes: {}", changeDetector.isStarted());
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        debugLog("[ArmorDamageListener] Player " + player.getName() + " joined, checking armor/offhand");
+        debugLog("[ArmorDamageListener] Player {} joined, checking armor/offhand", player.getName());
         if (armorEnabled && hasAnyArmorOrOffhand(player)) {
-            debugLog("[ArmorDamageListener] Starting armor/offhand damage task for joining player " + player.getName());
+            debugLog("[ArmorDamageListener] Starting armor/offhand damage task for joining player {}", player.getName());
             startDamageTask(player);
         }
     }
@@ -251,124 +275,109 @@ public class ArmorDamageListener implements Listener {
     @EventHandler
     public void onPlayerArmorChange(PlayerArmorChangeEvent event) {
         if (!armorEnabled) {
-            debugLog("[ArmorDamageListener] Armor damage disabled, ignoring armor change for " +
-                    event.getPlayer().getName());
+            debugLog("[ArmorDamageListener] Armor damage disabled, ignoring armor change for {}", event.getPlayer().getName());
             return;
         }
 
         Player player = event.getPlayer();
-        debugLog("[ArmorDamageListener] Armor change event fired for player " + player.getName() +
-                ", Slot: " + event.getSlotType() + ", New item: " + event.getNewItem().getType() +
-                ", Old item: " + event.getOldItem().getType());
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("[ArmorDamageListener] Armor change event fired for player " + player.getName() +
+                    ", Slot: " + event.getSlotType() + ", New item: " + event.getNewItem().getType() +
+                    ", Old item: " + event.getOldItem().getType());
+        }
 
         UUID uuid = player.getUniqueId();
         if (hasAnyArmorOrOffhand(player)) {
-            if (!damageTasks.containsKey(uuid)) {
-                debugLog("[ArmorDamageListener] Starting armor/offhand damage task for player " + player.getName());
+            if (!damageWheel.contains(uuid)) {
+                debugLog("[ArmorDamageListener] Starting armor/offhand damage task for player {}", player.getName());
                 startDamageTask(player);
             }
         } else {
-            if (damageTasks.containsKey(uuid)) {
-                debugLog("[ArmorDamageListener] Cancelling armor/offhand damage task for player " + player.getName());
+            if (damageWheel.contains(uuid)) {
+                debugLog("[ArmorDamageListener] Cancelling armor/offhand damage task for player {}", player.getName());
                 cancelDamageTask(player);
             }
         }
     }
 
-    /** Returns true if player has armor in specified slots/materials or an offhand item (if enabled) */
+    /**
+     * Returns true if player has armor in specified slots/materials or an offhand item (if enabled).
+     * Runs for every dirty player, so it doesn't allocate while debug-mode is off.
+     */
     private boolean hasAnyArmorOrOffhand(Player player) {
-        ItemStack[] armorContents = player.getInventory().getArmorContents();
-        if (armorContents == null) {
-            debugLog("[ArmorDamageListener] Armor contents null for player " + player.getName());
-            return false;
-        }
-
-        int slotIndex = 0;
-        String[] slotNames = {"BOOTS", "LEGGINGS", "CHESTPLATE", "HELMET"};
-        for (ItemStack armor : armorContents) {
-            String slotName = slotNames[slotIndex];
-            if (armor != null && armor.getType() != Material.AIR && validArmorSlots.contains(slotName) &&
-                    validArmorMaterials.contains(armor.getType())) {
-                debugLog("[ArmorDamageListener] Found armor: " + armor.getType() + " in slot " + slotName +
-                        " for player " + player.getName());
-                return true;
-            }
-            slotIndex++;
+        PlayerInventory inventory = player.getInventory();
+        int slot = armorRules.firstMatch(inventory);
+        if (slot >= 0) {
+            nakedAndAfraid.debugLog("[ArmorDamageListener] Found armor in slot {} for player {}",
+                    ArmorRules.slotName(slot), player.getName());
+            return true;
         }
 
         if (includeOffhand) {
-            ItemStack offhand = isPre116() ? player.getInventory().getItemInHand() : player.getInventory().getItemInOffHand();
+            ItemStack offhand = capabilities.isPre116() ? inventory.getItemInHand() : inventory.getItemInOffHand();
             if (offhand != null && offhand.getType() != Material.AIR) {
-                debugLog("[ArmorDamageListener] Found offhand item: " + offhand.getType() + " for player " + player.getName());
+                nakedAndAfraid.debugLog("[ArmorDamageListener] Found offhand item {} for player {}",
+                        offhand.getType(), player.getName());
                 return true;
             }
         }
 
-        debugLog("[ArmorDamageListener] No armor or offhand item found for player " + player.getName());
+        nakedAndAfraid.debugLog("[ArmorDamageListener] No armor or offhand item found for player {}", player.getName());
         return false;
     }
 
-    /** Start repeating task to damage player */
+    /** Arm a player's damage; the first hit lands on the next tick, then every damageIntervalTicks */
     private void startDamageTask(Player player) {
         UUID uuid = player.getUniqueId();
-        if (damageTasks.containsKey(uuid)) {
-            debugLog("[ArmorDamageListener] Task already exists for player " + player.getName() + ", cancelling old task");
-            cancelDamageTask(player);
+        if (!damageWheel.schedule(uuid, 1L)) {
+            debugLog("[ArmorDamageListener] Task already exists for player {}, restarting it", player.getName());
         }
+        debugLog("[ArmorDamageListener] Started new armor/offhand damage task for player {}", player.getName());
+    }
 
-        BukkitRunnable task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline() || player.isDead() || player.getGameMode() == GameMode.CREATIVE || !armorEnabled) {
-                    cancel();
-                    damageTasks.remove(player.getUniqueId());
-                    debugLog("[ArmorDamageListener] Task auto-cancelled for player " + player.getName() +
-                            ", reason: offline/dead/creative/disabled");
-                    return;
-                }
-                if (!hasAnyArmorOrOffhand(player)) {
-                    cancel();
-                    damageTasks.remove(player.getUniqueId());
-                    debugLog("[ArmorDamageListener] Task auto-cancelled for player " + player.getName() +
-                            ", reason: no armor or offhand item");
-                    return;
-                }
+    /**
+     * Called by the wheel when a player's damage is due.
+     *
+     * @return ticks until the next hit, or 0 to disarm the player
+     */
+    private long applyDamage(UUID uuid) {
+        Player player = Bukkit.getPlayer(uuid);
+        if (player == null || !player.isOnline() || player.isDead() || player.getGameMode() == GameMode.CREATIVE || !armorEnabled) {
+            nakedAndAfraid.debugLog("[ArmorDamageListener] Task auto-cancelled for player {}, reason: offline/dead/creative/disabled", uuid);
+            return 0L;
+        }
+        if (!hasAnyArmorOrOffhand(player)) {
+            debugLog("[ArmorDamageListener] Task auto-cancelled for player {}, reason: no armor or offhand item", player.getName());
+            return 0L;
+        }
 
-                double damageInHP = damageAmount * 2;
-                player.damage(damageInHP);
-                debugLog("[ArmorDamageListener] Applied armor/offhand damage to player " + player.getName() +
-                        ", damage: " + damageInHP);
-            }
-        };
-        task.runTaskTimer(plugin, 0L, damageIntervalTicks);
-        damageTasks.put(uuid, task);
-        debugLog("[ArmorDamageListener] Started new armor/offhand damage task for player " + player.getName());
+        double damageInHP = damageAmount * 2;
+        player.damage(damageInHP);
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("[ArmorDamageListener] Applied armor/offhand damage to player " + player.getName() +
+                    ", damage: " + damageInHP);
+        }
+        return Math.max(1L, damageIntervalTicks);
     }
 
     /** Cancel a player's damage task if it exists */
     private void cancelDamageTask(Player player) {
-        UUID uuid = player.getUniqueId();
-        BukkitRunnable task = damageTasks.remove(uuid);
-        if (task != null) {
-            task.cancel();
-            debugLog("[ArmorDamageListener] Cancelled armor/offhand damage task for player " + player.getName());
+        if (damageWheel.cancel(player.getUniqueId())) {
+            debugLog("[ArmorDamageListener] Cancelled armor/offhand damage task for player {}", player.getName());
         } else {
-            debugLog("[ArmorDamageListener] No active damage task found for player " + player.getName());
+            debugLog("[ArmorDamageListener] No active damage task found for player {}", player.getName());
         }
     }
 
     /** Cancel all running tasks (plugin disable, etc) */
     public void disableAllTasks() {
-        for (BukkitRunnable task : damageTasks.values()) {
-            task.cancel();
-            debugLog("[ArmorDamageListener] Cancelled armor/offhand damage task during disableAllTasks");
-        }
-        damageTasks.clear();
-        if (pollingTask != null) {
-            pollingTask.cancel();
-            pollingTask = null;
-            debugLog("[ArmorDamageListener] Cancelled polling task during disableAllTasks");
+        int armed = damageWheel.size();
+        damageWheel.clear();
+        changeDetector.stop();
+        if (driverTask != null) {
+            driverTask.cancel();
+            driverTask = null;
         }
-        debugLog("[ArmorDamageListener] All armor/offhand damage tasks and polling task cancelled");
+        nakedAndAfraid.debugLog("[ArmorDamageListener] Cleared {} armored players and cancelled the damage driver", armed);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_21.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
 import io.papermc.paper.event.player.AsyncChatEvent;
 import org.bukkit.Bukkit;
@@ -17,6 +18,7 @@ import org.bukkit.event.player.AsyncPlayerChatEvent;
 public class ChatRestrictionListener implements Listener {
 
     private final NakedAndAfraid plugin;
+    private final ServerCapabilities capabilities;
 
     /**
      * Constructs a new ChatRestrictionListener with the given plugin instance for debug logging and world checks.
@@ -25,31 +27,9 @@ public class ChatRestrictionListener implements Listener {
      */
     public ChatRestrictionListener(NakedAndAfraid plugin) {
         this.plugin = plugin;
-        plugin.debugLog("[ChatRestrictionListener] Initialized ChatRestrictionListener for Bukkit version " +
-                Bukkit.getBukkitVersion() + ", PaperChatSupported: " + isPaperChatSupported());
-    }
-
-    /**
-     * Checks if the server supports Paper's AsyncChatEvent (Paper 1.19+).
-     */
-    private boolean isPaperChatSupported() {
-        try {
-            String version = Bukkit.getBukkitVersion().split("-")[0];
-            String[] parts = version.split("\\.");
-            int major = Integer.parseInt(parts[1]);
-            return major >= 19 &&
-                    Class.forName("io.papermc.paper.event.player.AsyncChatEvent") != null;
-        } catch (Exception e) {
-            plugin.debugLog("[ChatRestrictionListener] Failed to detect AsyncChatEvent support: " + e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Checks if the server is pre-1.19 (Minecraft 1.12–1.18.2).
-     */
-    private boolean isPre119() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[9]|2[0-1]).*");
+        this.capabilities = plugin.getServerCapabilities();
+        plugin.debugLog("[ChatRestrictionListener] Initialized ChatRestrictionListener for Bukkit version {}, PaperChatSupported: {}",
+                Bukkit.getBukkitVersion(), capabilities.isPaperChatSupported());
     }
 
     /**
@@ -59,23 +39,23 @@ public class ChatRestrictionListener implements Listener {
      */
     @EventHandler
     public void onPlayerChat(AsyncChatEvent event) {
-        if (!isPaperChatSupported()) {
+        if (!capabilities.isPaperChatSupported()) {
             return; // Ignore if not Paper 1.19+
         }
         Player player = event.getPlayer();
         // Check if world is enabled
-        if (!plugin.isWorldEnabled(player.getWorld().getName())) {
-            plugin.debugLog("[ChatRestrictionListener] Skipped AsyncChatEvent for player " + player.getName() +
-                    " in disabled world " + player.getWorld().getName());
+        if (!plugin.isWorldEnabled(player.getWorld())) {
+            plugin.debugLog("[ChatRestrictionListener] Skipped AsyncChatEvent for player {} in disabled world {}",
+                    player.getName(), player.getWorld().getName());
             return;
         }
-        plugin.debugLog("[ChatRestrictionListener] Processing AsyncChatEvent for " + player.getName());
+        plugin.debugLog("[ChatRestrictionListener] Processing AsyncChatEvent for {}", player.getName());
 
         if (!player.isOp()) {
             event.setCancelled(true);
-            plugin.debugLog("[ChatRestrictionListener] Cancelled AsyncChatEvent for non-op player " + player.getName());
+            plugin.debugLog("[ChatRestrictionListener] Cancelled AsyncChatEvent for non-op player {}", player.getName());
         } else {
-            plugin.debugLog("[ChatRestrictionListener] Allowed AsyncChatEvent for op player " + player.getName());
+            plugin.debugLog("[ChatRestrictionListener] Allowed AsyncChatEvent for op player {}", player.getName());
         }
     }
 
@@ -86,22 +66,22 @@ public class ChatRestrictionListener implements Listener {
      */
     @EventHandler
     public void onPlayerChatLegacy(AsyncPlayerChatEvent event) {
-        if (isPaperChatSupported()) {
+        if (capabilities.isPaperChatSupported()) {
             return;
         }
         Player player = event.getPlayer();
-        if (!plugin.isWorldEnabled(player.getWorld().getName())) {
-            plugin.debugLog("[ChatRestrictionListener] Skipped AsyncPlayerChatEvent for player " + player.getName() +
-                    " in disabled world " + player.getWorld().getName());
+        if (!plugin.isWorldEnabled(player.getWorld())) {
+            plugin.debugLog("[ChatRestrictionListener] Skipped AsyncPlayerChatEvent for player {} in disabled world {}",
+                    player.getName(), player.getWorld().getName());
             return;
         }
-        plugin.debugLog("[ChatRestrictionListener] Processing AsyncPlayerChatEvent for " + player.getName());
+        plugin.debugLog("[ChatRestrictionListener] Processing AsyncPlayerChatEvent for {}", player.getName());
 
         if (!player.isOp()) {
             event.setCancelled(true);
-            plugin.debugLog("[ChatRestrictionListener] Cancelled AsyncPlayerChatEvent for non-op player " + player.getName());
+            plugin.debugLog("[ChatRestrictionListener] Cancelled AsyncPlayerChatEvent for non-op player {}", player.getName());
         } else {
-            plugin.debugLog("[ChatRestrictionListener] Allowed AsyncPlayerChatEvent for op player " + player.getName());
+            plugin.debugLog("[ChatRestrictionListener] Allowed AsyncPlayerChatEvent for op player {}", player.getName());
         }
     }
 }
\ No newline at end of file
@@ -16,33 +16,30 @@ public class GlobalDeathSoundListener implements Listener {
 
     public GlobalDeathSoundListener(NakedAndAfraid plugin) {
         this.plugin = plugin;
-        plugin.debugLog("[GlobalDeathSoundListener] Initialized GlobalDeathSoundListener for Bukkit version " +
-                Bukkit.getBukkitVersion());
+        plugin.debugLog("[GlobalDeathSoundListener] Initialized GlobalDeathSoundListener for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     @EventHandler
     public void onPlayerDeath(PlayerDeathEvent event) {
         Player deceased = event.getEntity();
-        plugin.debugLog("[GlobalDeathSoundListener] Player " + deceased.getName() + " died");
+        plugin.debugLog("[GlobalDeathSoundListener] Player {} died", deceased.getName());
 
-        if (!plugin.isWorldEnabled(deceased.getWorld().getName())) {
-            plugin.debugLog("[GlobalDeathSoundListener] Skipped death sound for " + deceased.getName() +
-                    " in disabled world " + deceased.getWorld().getName());
+        if (!plugin.isWorldEnabled(deceased.getWorld())) {
+            plugin.debugLog("[GlobalDeathSoundListener] Skipped death sound for {} in disabled world {}",
+                    deceased.getName(), deceased.getWorld().getName());
             return;
         }
 
-        if (!plugin.getConfig().getBoolean("death-sound", true)) {
-            plugin.debugLog("[GlobalDeathSoundListener] Death sound disabled in config, skipping sound for " +
-                    deceased.getName());
+        if (!plugin.getConfigSnapshot().isDeathSound()) {
+            plugin.debugLog("[GlobalDeathSoundListener] Death sound disabled in config, skipping sound for {}", deceased.getName());
             return;
         }
 
-        plugin.debugLog("[GlobalDeathSoundListener] Playing death sound for all online players due to " +
-                deceased.getName() + "'s death");
+        plugin.debugLog("[GlobalDeathSoundListener] Playing death sound for all online players due to {}'s death", deceased.getName());
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (!plugin.isWorldEnabled(player.getWorld().getName())) {
-                plugin.debugLog("[GlobalDeathSoundListener] Skipped playing sound for " + player.getName() +
-                        " in disabled world " + player.getWorld().getName());
+            if (!plugin.isWorldEnabled(player.getWorld())) {
+                plugin.debugLog("[GlobalDeathSoundListener] Skipped playing sound for {} in disabled world {}",
+                        player.getName(), player.getWorld().getName());
                 continue;
             }
 
@@ -53,12 +50,13 @@ public class GlobalDeathSoundListener implements Listener {
                         100.0f,
                         0.1f
                 );
-                plugin.debugLog("[GlobalDeathSoundListener] Played sound ENTITY_IRON_GOLEM_DEATH for " +
-                        player.getName() + " at " + formatLocation(player.getLocation()) +
-                        " (volume=100.0, pitch=0.1)");
+                if (plugin.isDebugEnabled()) {
+                    plugin.debugLog("[GlobalDeathSoundListener] Played sound ENTITY_IRON_GOLEM_DEATH for " +
+                            player.getName() + " at " + formatLocation(player.getLocation()) +
+                            " (volume=100.0, pitch=0.1)");
+                }
             } catch (Exception e) {
-                plugin.debugLog("[GlobalDeathSoundListener] Failed to play sound for " + player.getName() +
-                        ": " + e.getMessage());
+                plugin.debugLog("[GlobalDeathSoundListener] Failed to play sound for {}: {}", player.getName(), e.getMessage());
                 // Fallback to alternative sound
                 try {
                     player.playSound(
@@ -67,12 +65,13 @@ public class GlobalDeathSoundListener implements Listener {
                             100.0f,
                             0.1f
                     );
-                    plugin.debugLog("[GlobalDeathSoundListener] Played fallback sound BLOCK_ANVIL_DESTROY for " +
-                            player.getName() + " at " + formatLocation(player.getLocation()) +
-                            " (volume=100.0, pitch=0.1)");
+                    if (plugin.isDebugEnabled()) {
+                        plugin.debugLog("[GlobalDeathSoundListener] Played fallback sound BLOCK_ANVIL_DESTROY for " +
+                                player.getName() + " at " + formatLocation(player.getLocation()) +
+                                " (volume=100.0, pitch=0.1)");
+                    }
                 } catch (Exception fallbackEx) {
-                    plugin.debugLog("[GlobalDeathSoundListener] Failed to play fallback sound for " +
-                            player.getName() + ": " + fallbackEx.getMessage());
+                    plugin.debugLog("[GlobalDeathSoundListener] Failed to play fallback sound for {}: {}", player.getName(), fallbackEx.getMessage());
                 }
             }
         }
@@ -1,6 +1,9 @@
 package com.crimsonwarpedcraft.nakedandafraid.v1_21.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TabListUpdateQueue;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
+import com.crimsonwarpedcraft.nakedandafraid.v1_21.util.TabPacketFactory;
+import com.crimsonwarpedcraft.nakedandafraid.v1_21.util.TabPacketInterceptor;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -16,17 +19,50 @@ public class TabListClearer implements Listener {
 
     private final NakedAndAfraid nakedAndAfraid;
     private final Plugin plugin;
+    /** Resolved once; null if this server's internals don't match, in which case no packets are sent. */
+    private final TabPacketFactory packets;
+    /** Set in FILTER mode; keeps hidden entries out of the server's own player info packets. */
+    private final TabPacketInterceptor interceptor;
+    private final TabListUpdateQueue updates;
 
     private boolean enabled;
 
     public TabListClearer(NakedAndAfraid plugin, Plugin pluginVar) {
         this.nakedAndAfraid = plugin;
         this.plugin = pluginVar;
-        plugin.debugLog("[TabListClearer] Initializing TabListClearer for Bukkit version " + Bukkit.getBukkitVersion());
+        plugin.debugLog("[TabListClearer] Initializing TabListClearer for Bukkit version {}", Bukkit.getBukkitVersion());
+        this.packets = createPacketFactory();
+        this.interceptor = "FILTER".equals(plugin.getConfigSnapshot().getTabHideMode()) ? createInterceptor() : null;
+        this.updates = new TabListUpdateQueue(pluginVar, plugin, new UpdateSink(),
+                plugin.getConfigSnapshot().getTabPacketsPerTick());
         Bukkit.getPluginManager().registerEvents(this, nakedAndAfraid.getPlugin());
         plugin.debugLog("[TabListClearer] Registered event listeners for TabListClearer");
     }
 
+    private TabPacketFactory createPacketFactory() {
+        try {
+            TabPacketFactory factory = TabPacketFactory.create();
+            nakedAndAfraid.debugLog("[TabListClearer] Resolved player info packet internals");
+            return factory;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            plugin.getLogger().warning("[TabListClearer] Unsupported server internals, tab list hiding will have no effect: "
+                    + e);
+            return null;
+        }
+    }
+
+    private TabPacketInterceptor createInterceptor() {
+        try {
+            TabPacketInterceptor created = TabPacketInterceptor.create(plugin);
+            nakedAndAfraid.debugLog("[TabListClearer] Using {} packet filter for tab list hiding", created.getName());
+            return created;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            plugin.getLogger().warning("[TabListClearer] Packet filter unavailable, falling back to tab-hide-mode REMOVE: "
+                    + e);
+            return null;
+        }
+    }
+
     /**
      * Enables tab list hiding by removing other players from the tab list.
      */
@@ -37,21 +73,30 @@ public class TabListClearer implements Listener {
         }
 
         nakedAndAfraid.debugLog("[TabListClearer] Enabling tab list hiding for all online players");
+        if (interceptor != null) {
+            interceptor.start();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                interceptor.track(player, nakedAndAfraid.isWorldEnabled(player.getWorld()));
+                interceptor.inject(player);
+            }
+            interceptor.setActive(true);
+        }
+        // Entries already on clients still need removing; the filter only covers packets sent from now on
         int playerCount = 0;
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
-                updateTabListForPlayer(player);
+            if (nakedAndAfraid.isWorldEnabled(player.getWorld())) {
+                updates.refresh(player);
                 playerCount++;
-                nakedAndAfraid.debugLog("[TabListClearer] Hid tab list for player " + player.getName() +
-                        " in world " + player.getWorld().getName());
             } else {
-                nakedAndAfraid.debugLog("[TabListClearer] Skipped hiding tab list for player " + player.getName() +
-                        " in disabled world " + player.getWorld().getName());
+                nakedAndAfraid.debugLog("[TabListClearer] Skipped hiding tab list for player {} in disabled world {}",
+                        player.getName(), player.getWorld().getName());
             }
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Applied tab list hiding to " + playerCount + " players");
+        nakedAndAfraid.debugLog("[TabListClearer] Queued tab list hiding for {} players", playerCount);
 
         enabled = true;
+        // Send this tick's share now; the rest follows within the packet budget
+        updates.flush();
         plugin.getLogger().info("Naked And Afraid - Tab Hider Enabled.");
         nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding enabled successfully");
     }
@@ -66,16 +111,24 @@ public class TabListClearer implements Listener {
         }
 
         nakedAndAfraid.debugLog("[TabListClearer] Disabling tab list hiding for all online players");
+        updates.clear();
+        if (interceptor != null) {
+            // Let the restoring add packets through
+            interceptor.setActive(false);
+        }
         int playerCount = 0;
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
+            if (nakedAndAfraid.isWorldEnabled(player.getWorld())) {
                 restoreTabListForPlayer(player);
                 playerCount++;
-                nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for player " + player.getName() +
-                        " in world " + player.getWorld().getName());
+                nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for player {} in world {}",
+                        player.getName(), player.getWorld().getName());
             }
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for " + playerCount + " players");
+        nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for {} players", playerCount);
+        if (interceptor != null) {
+            interceptor.stop();
+        }
 
         enabled = false;
         plugin.getLogger().info("Naked And Afraid - Tab Hider Disabled.");
@@ -93,243 +146,214 @@ public class TabListClearer implements Listener {
             nakedAndAfraid.debugLog("[TabListClearer] Toggling tab list hiding from disabled to enabled");
             enable();
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Toggled tab list hiding, new state: enabled=" + enabled);
+        nakedAndAfraid.debugLog("[TabListClearer] Toggled tab list hiding, new state: enabled={}", enabled);
     }
 
     /**
      * Returns current status.
      */
     public boolean isEnabled() {
-        nakedAndAfraid.debugLog("[TabListClearer] Checked tab list hiding status: enabled=" + enabled);
+        nakedAndAfraid.debugLog("[TabListClearer] Checked tab list hiding status: enabled={}", enabled);
         return enabled;
     }
 
     /**
-     * Applies tab list hiding to a specific player.
+     * Queues applying tab list hiding to a specific player; sent on the next
+     * tick, merged with any other update queued for them.
      */
     public void applyToPlayer(Player player) {
         if (!enabled) {
-            nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding not enabled, skipping applyToPlayer for " + player.getName());
+            nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding not enabled, skipping applyToPlayer for {}", player.getName());
             return;
         }
-        if (!nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
-            nakedAndAfraid.debugLog("[TabListClearer] Skipped applying tab list hiding for player " + player.getName() +
-                    " in disabled world " + player.getWorld().getName());
-            restoreTabListForPlayer(player);
-            return;
-        }
-
-        nakedAndAfraid.debugLog("[TabListClearer] Applying tab list hiding to player " + player.getName() +
-                " in world " + player.getWorld().getName());
-        updateTabListForPlayer(player);
-        nakedAndAfraid.debugLog("[TabListClearer] Successfully applied tab list hiding to " + player.getName());
+        updates.refresh(player);
+        nakedAndAfraid.debugLog("[TabListClearer] Queued tab list update for {}, queue depth {}",
+                player.getName(), updates.depth());
     }
 
-    private Object createListedEntry(Player subject, boolean listed) throws Exception {
-        Object entityPlayer = subject.getClass().getMethod("getHandle").invoke(subject);
-        Object gameProfile = entityPlayer.getClass().getMethod("getGameProfile").invoke(entityPlayer);
-
-        Class<?> entryClass = Class.forName("net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket$Entry");
-        Class<?> gameTypeClass = Class.forName("net.minecraft.world.level.GameType");
-        Object placeholderGameType = gameTypeClass.getEnumConstants()[0]; // not applied, action not included
-
-        java.lang.reflect.RecordComponent[] components = entryClass.getRecordComponents();
-        Class<?>[] paramTypes = new Class<?>[components.length];
-        Object[] args = new Object[components.length];
-
-        for (int i = 0; i < components.length; i++) {
-            paramTypes[i] = components[i].getType();
-            switch (components[i].getName()) {
-                case "profileId" -> args[i] = subject.getUniqueId();
-                case "profile" -> args[i] = gameProfile;
-                case "listed" -> args[i] = listed;
-                case "latency" -> args[i] = subject.getPing();
-                case "gameMode" -> args[i] = placeholderGameType;
-                case "showHat" -> args[i] = true;
-                case "listOrder" -> args[i] = 0;
-                default -> args[i] = null; // displayName, chatSession, etc.
-            }
+    /**
+     * Hides others from {@code player}, or restores them if their world is
+     * disabled.
+     *
+     * @return packets sent
+     */
+    private int refreshTabListForPlayer(Player player) {
+        boolean worldEnabled = nakedAndAfraid.isWorldEnabled(player.getWorld());
+        if (interceptor != null) {
+            // Before any packets below, so restoring add packets aren't filtered out
+            interceptor.track(player, worldEnabled);
+        }
+        if (!worldEnabled) {
+            nakedAndAfraid.debugLog("[TabListClearer] Skipped applying tab list hiding for player {} in disabled world {}",
+                    player.getName(), player.getWorld().getName());
+            return restoreTabListForPlayer(player);
         }
 
-        return entryClass.getDeclaredConstructor(paramTypes).newInstance(args);
-    }
-
-    private void sendListedUpdate(Player recipient, Player subject, boolean listed) throws Exception {
-        Class<?> packetClass = Class.forName("net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket");
-        Class<?> actionClass = Class.forName("net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket$Action");
-
-        @SuppressWarnings({"rawtypes", "unchecked"})
-        EnumSet actions = EnumSet.of(
-                (Enum) Arrays.stream(actionClass.getEnumConstants())
-                        .filter(a -> a.toString().equals("UPDATE_LISTED"))
-                        .findFirst()
-                        .orElseThrow(() -> new IllegalStateException("UPDATE_LISTED action not found"))
-        );
-
-        Object entry = createListedEntry(subject, listed);
-        Object packet = packetClass.getDeclaredConstructor(EnumSet.class, List.class)
-                .newInstance(actions, List.of(entry));
-
-        sendNmsPacket(recipient, packet);
+        nakedAndAfraid.debugLog("[TabListClearer] Applying tab list hiding to player {} in world {}", player.getName(), player.getWorld().getName());
+        return updateTabListForPlayer(player);
     }
 
     /**
      * Updates the tab list for a player to show only their own name.
+     *
+     * @return packets sent
      */
-    private void updateTabListForPlayer(Player player) {
-        nakedAndAfraid.debugLog("[TabListClearer] Hiding other players from tab list for " + player.getName());
+    private int updateTabListForPlayer(Player player) {
+        nakedAndAfraid.debugLog("[TabListClearer] Hiding other players from tab list for {}", player.getName());
+        int sent = 0;
         try {
             List<java.util.UUID> othersToRemove = Bukkit.getOnlinePlayers().stream()
                     .filter(p -> !p.equals(player)
-                            && nakedAndAfraid.isWorldEnabled(p.getWorld().getName()))
+                            && nakedAndAfraid.isWorldEnabled(p.getWorld()))
                     .map(Player::getUniqueId)
                     .collect(java.util.stream.Collectors.toList());
 
             if (!othersToRemove.isEmpty()) {
                 sendRemovePacket(player, othersToRemove);
-                nakedAndAfraid.debugLog("[TabListClearer] Sent remove packet for "
-                        + othersToRemove.size() + " players to " + player.getName());
+                sent++;
+                nakedAndAfraid.debugLog("[TabListClearer] Sent remove packet for {} players to {}", othersToRemove.size(), player.getName());
             }
 
             // Add the player themselves back so they can see their own entry
             sendAddPacket(player, player, true);
-            nakedAndAfraid.debugLog("[TabListClearer] Sent add-back packet for "
-                    + player.getName() + " to themselves");
+            sent++;
+            nakedAndAfraid.debugLog("[TabListClearer] Sent add-back packet for {} to themselves", player.getName());
 
         } catch (Exception e) {
             plugin.getLogger().severe("[TabListClearer] Failed to update tab list for "
                     + player.getName() + ": " + e.getMessage());
             e.printStackTrace();
         }
+        return sent;
     }
 
     /**
      * Restores the full tab list for a player.
+     *
+     * @return packets sent
      */
-    private void restoreTabListForPlayer(Player player) {
-        nakedAndAfraid.debugLog("[TabListClearer] Restoring full tab list for " + player.getName());
+    private int restoreTabListForPlayer(Player player) {
+        nakedAndAfraid.debugLog("[TabListClearer] Restoring full tab list for {}", player.getName());
+        int sent = 0;
         try {
             for (Player other : Bukkit.getOnlinePlayers()) {
                 if (!other.equals(player)
-                        && nakedAndAfraid.isWorldEnabled(other.getWorld().getName())) {
+                        && nakedAndAfraid.isWorldEnabled(other.getWorld())) {
                     sendAddPacket(player, other, false);
+                    sent++;
                 }
             }
-            nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for " + player.getName());
+            nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for {}", player.getName());
         } catch (Exception e) {
             plugin.getLogger().severe("[TabListClearer] Failed to restore tab list for "
                     + player.getName() + ": " + e.getMessage());
             e.printStackTrace();
         }
+        return sent;
     }
 
     /**
-     * Sends a ClientboundPlayerInfoUpdatePacket for a single entry using NMS reflection.
+     * Sends a ClientboundPlayerInfoUpdatePacket for a single entry.
      * @param recipient  the player who receives the packet
      * @param subject    the player whose info is being sent
      * @param addOnly    if true, uses only ADD_PLAYER action; if false, uses ADD_PLAYER | UPDATE_LISTED
      */
-    private void sendPlayerInfoUpdate(Player recipient, Player subject, boolean addOnly) throws Exception {
-        Class<?> craftPlayerClass = subject.getClass();
-        Object entityPlayer = craftPlayerClass.getMethod("getHandle").invoke(subject);
-
-        Class<?> packetClass = Class.forName(
-                "net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket");
-        Class<?> actionClass = Class.forName(
-                "net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket$Action");
-
-        // Build EnumSet of actions
-        @SuppressWarnings({"rawtypes", "unchecked"})
-        EnumSet actions = EnumSet.of(
-                (Enum) Arrays.stream(actionClass.getEnumConstants())
-                        .filter(a -> a.toString().equals("ADD_PLAYER"))
-                        .findFirst()
-                        .orElseThrow(() -> new IllegalStateException("ADD_PLAYER action not found"))
-        );
-
-        if (!addOnly) {
-            Arrays.stream(actionClass.getEnumConstants())
-                    .filter(a -> a.toString().equals("UPDATE_LISTED"))
-                    .findFirst()
-                    .ifPresent(actions::add);
-        }
-
-        // ClientboundPlayerInfoUpdatePacket(EnumSet<Action>, Collection<ServerPlayer>)
-        Object packet = packetClass
-                .getDeclaredConstructor(java.util.EnumSet.class, java.util.Collection.class)
-                .newInstance(actions, List.of(entityPlayer));
-
-        sendNmsPacket(recipient, packet);
+    private void sendPlayerInfoUpdate(Player recipient, Player subject, boolean addOnly) {
+        sendNmsPacket(recipient, packets.addPacket(List.of(subject), addOnly));
     }
 
     /**
-     * Sends a raw NMS packet to a player via their connection using reflection.
+     * Sends a raw NMS packet to a player via their connection.
      */
-    private void sendNmsPacket(Player recipient, Object nmsPacket) throws Exception {
-        nakedAndAfraid.debugLog("[TabListClearer] Sending NMS packet " + nmsPacket.getClass().getSimpleName()
-                + " to " + recipient.getName());
-        Object entityPlayer = recipient.getClass().getMethod("getHandle").invoke(recipient);
-        Object connection = entityPlayer.getClass().getField("connection").get(entityPlayer);
-        // Paper 1.21 uses 'send', older builds use 'sendPacket'
-        try {
-            connection.getClass().getMethod("send", Class.forName("net.minecraft.network.protocol.Packet"))
-                    .invoke(connection, nmsPacket);
-        } catch (NoSuchMethodException e) {
-            connection.getClass().getMethod("sendPacket", Class.forName("net.minecraft.network.protocol.Packet"))
-                    .invoke(connection, nmsPacket);
-        }
-        nakedAndAfraid.debugLog("[TabListClearer] NMS packet sent successfully to " + recipient.getName());
+    private void sendNmsPacket(Player recipient, Object nmsPacket) {
+        nakedAndAfraid.debugLog("[TabListClearer] Sending NMS packet {} to {}", nmsPacket.getClass().getSimpleName(), recipient.getName());
+        packets.send(recipient, nmsPacket);
     }
 
     /**
      * Hook for testing: called instead of real NMS send. Override in tests.
      */
     protected void sendRemovePacket(Player recipient, List<java.util.UUID> uuids) throws Exception {
-        Object removePacket = Class.forName("net.minecraft.network.protocol.game.ClientboundPlayerInfoRemovePacket")
-                .getDeclaredConstructor(List.class)
-                .newInstance(uuids);
-        sendNmsPacket(recipient, removePacket);
+        if (packets != null) {
+            sendNmsPacket(recipient, packets.removePacket(uuids));
+        }
     }
 
     /**
      * Hook for testing: called instead of real NMS send. Override in tests.
      */
     protected void sendAddPacket(Player recipient, Player subject, boolean addOnly) throws Exception {
-        sendPlayerInfoUpdate(recipient, subject, addOnly);
+        if (packets != null) {
+            sendPlayerInfoUpdate(recipient, subject, addOnly);
+        }
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerJoinEvent triggered for " + event.getPlayer().getName());
-        // Delay by 1 tick so server's own tab list packets are sent first
-        Bukkit.getScheduler().runTaskLater(nakedAndAfraid.getPlugin(), () -> {
-            // Update the joining player's own tab list
-            applyToPlayer(event.getPlayer());
-            // Also update all other online players to remove the new joiner from their tab lists
+        Player joining = event.getPlayer();
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerJoinEvent triggered for {}", joining.getName());
+        if (!enabled) {
+            return;
+        }
+        if (interceptor != null) {
+            // The server sends the join's player info packets after this event, so they're filtered
+            // on the way out and there's nothing to remove afterwards
+            interceptor.track(joining, nakedAndAfraid.isWorldEnabled(joining.getWorld()));
+            interceptor.inject(joining);
+            return;
+        }
+
+        // Queued for the next tick, so the server's own tab list packets go first. Everyone else
+        // only needs the newcomer removed; joins in the same tick share one packet per recipient.
+        updates.refresh(joining);
+        int notified = 0;
+        if (nakedAndAfraid.isWorldEnabled(joining.getWorld())) {
             for (Player other : Bukkit.getOnlinePlayers()) {
-                if (!other.equals(event.getPlayer()) && nakedAndAfraid.isWorldEnabled(other.getWorld().getName())) {
-                    applyToPlayer(other);
+                if (!other.equals(joining) && nakedAndAfraid.isWorldEnabled(other.getWorld())) {
+                    updates.hide(other, joining);
+                    notified++;
                 }
             }
-            nakedAndAfraid.debugLog("[TabListClearer] Processed PlayerJoinEvent for " + event.getPlayer().getName());
-        }, 1L);
-        nakedAndAfraid.debugLog("[TabListClearer] Scheduled tab list update for " + event.getPlayer().getName());
+        }
+        nakedAndAfraid.debugLog("[TabListClearer] Queued join for {}, hiding them from {} players",
+                joining.getName(), notified);
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerQuitEvent triggered for " + event.getPlayer().getName());
-        nakedAndAfraid.debugLog("[TabListClearer] No tab list cleanup needed for " + event.getPlayer().getName() + " on quit");
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerQuitEvent triggered for {}", event.getPlayer().getName());
+        updates.forget(event.getPlayer());
+        if (interceptor != null) {
+            interceptor.untrack(event.getPlayer());
+            interceptor.uninject(event.getPlayer());
+        }
     }
 
     @EventHandler
     public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerChangedWorldEvent triggered for " + event.getPlayer().getName() +
-                " from world " + event.getFrom().getName() + " to " + event.getPlayer().getWorld().getName());
-        Bukkit.getScheduler().runTaskLater(nakedAndAfraid.getPlugin(), () -> {
-            applyToPlayer(event.getPlayer());
-            nakedAndAfraid.debugLog("[TabListClearer] Processed PlayerChangedWorldEvent for " + event.getPlayer().getName());
-        }, 1L);
-        nakedAndAfraid.debugLog("[TabListClearer] Scheduled tab list update for " + event.getPlayer().getName());
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerChangedWorldEvent triggered for {} from world {} to {}",
+                event.getPlayer().getName(), event.getFrom().getName(), event.getPlayer().getWorld().getName());
+        applyToPlayer(event.getPlayer());
+    }
+
+    /** Sends what {@link #updates} flushes, counting packets against its budget. */
+    private final class UpdateSink implements TabListUpdateQueue.Sink {
+
+        @Override
+        public int refresh(Player recipient) {
+            return refreshTabListForPlayer(recipient);
+        }
+
+        @Override
+        public int hide(Player recipient, List<UUID> subjects) {
+            try {
+                sendRemovePacket(recipient, subjects);
+                return 1;
+            } catch (Exception e) {
+                plugin.getLogger().severe("[TabListClearer] Failed to hide " + subjects.size()
+                        + " players from " + recipient.getName() + ": " + e.getMessage());
+                return 0;
+            }
+        }
     }
 }
\ No newline at end of file
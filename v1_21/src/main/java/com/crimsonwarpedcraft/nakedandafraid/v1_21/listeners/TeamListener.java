@@ -2,48 +2,49 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_21.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.team.TeamCommands;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.team.TeamsManager;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.CompassMeta;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 public class TeamListener implements Listener {
 
     private final NakedAndAfraid plugin;
     private final TeamsManager teamsManager;
     private final TeamCommands teamCommands;
+    private final ServerCapabilities capabilities;
 
     private static final String TEAM_BLOCK_SELECTOR_NAME = "Team Block Selector";
+    private static final String SELECTOR_DISPLAY_NAME = "§6" + TEAM_BLOCK_SELECTOR_NAME;
+
+    /** Right-click handlers keyed by the item type they handle. */
+    private final Map<Material, ItemUseHandler> itemHandlers = new EnumMap<>(Material.class);
 
     public TeamListener(NakedAndAfraid plugin, TeamsManager teamsManager, TeamCommands teamCommands) {
         this.plugin = plugin;
         this.teamsManager = teamsManager;
         this.teamCommands = teamCommands;
-        plugin.debugLog("[TeamListener] Initialized TeamListener for Bukkit version " + Bukkit.getBukkitVersion());
-    }
-
-    /**
-     * Checks if the server is pre-1.13 (Minecraft 1.12).
-     */
-    private boolean isPre113() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[3-9]|2[0-1]).*");
-    }
-
-    /**
-     * Checks if the server is pre-1.16 (Minecraft 1.12–1.15.2).
-     */
-    private boolean isPre116() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[6-9]|2[0-1]).*");
+        this.capabilities = plugin.getServerCapabilities();
+        itemHandlers.put(Material.IRON_AXE, this::onSelectorUse);
+        itemHandlers.put(Material.COMPASS, this::onLocatorCompassUse);
+        plugin.debugLog("[TeamListener] Initialized TeamListener for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     /**
@@ -51,131 +52,89 @@ public class TeamListener implements Listener {
      */
     private void sendMessage(Player player, String message, String legacyColor) {
         player.sendMessage(legacyColor + message);
-        plugin.debugLog("[TeamListener] Sent message to " + player.getName() + ": " + message);
+        plugin.debugLog("[TeamListener] Sent message to {}: {}", player.getName(), message);
     }
 
     /**
-     * Parses a string color to ChatColor for scoreboard team colors.
+     * Single entry point for right-clicks with a plugin item. The held item's type
+     * picks the handler, so clicks with anything else cost one map probe and never
+     * touch item meta.
      */
-    private ChatColor parseChatColor(String colorName) {
-        return switch (colorName.toUpperCase()) {
-            case "RED" -> ChatColor.RED;
-            case "GOLD" -> ChatColor.GOLD;
-            case "YELLOW" -> ChatColor.YELLOW;
-            case "GREEN" -> ChatColor.GREEN;
-            case "AQUA" -> ChatColor.AQUA;
-            case "BLUE" -> ChatColor.BLUE;
-            case "DARK_PURPLE" -> ChatColor.DARK_PURPLE;
-            case "LIGHT_PURPLE" -> ChatColor.LIGHT_PURPLE;
-            case "WHITE" -> ChatColor.WHITE;
-            default -> null;
-        };
-    }
-
     @EventHandler
-    public void onPlayerUseSelector(PlayerInteractEvent event) {
-        if (event.getHand() != EquipmentSlot.HAND) {
-            plugin.debugLog("[TeamListener] Ignoring PlayerInteractEvent for " + event.getPlayer().getName() +
-                    ", not main hand: " + event.getHand());
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        var action = event.getAction();
+        if (action != Action.RIGHT_CLICK_AIR && action != Action.RIGHT_CLICK_BLOCK) {
             return;
         }
-        if (event.getAction() != org.bukkit.event.block.Action.RIGHT_CLICK_BLOCK) {
-            plugin.debugLog("[TeamListener] Ignoring PlayerInteractEvent for " + event.getPlayer().getName() +
-                    ", action not RIGHT_CLICK_BLOCK: " + event.getAction());
+        var item = event.getItem();
+        if (item == null) {
             return;
         }
-
-        var player = event.getPlayer();
-        plugin.debugLog("[TeamListener] Processing selector use for " + player.getName());
-
-        var item = player.getInventory().getItemInMainHand();
-        if (item == null || !item.hasItemMeta()) {
-            plugin.debugLog("[TeamListener] No item or no metadata for " + player.getName());
-            return;
-        }
-        if (item.getType() != Material.IRON_AXE) {
-            plugin.debugLog("[TeamListener] Item is not IRON_AXE for " + player.getName() +
-                    ", found: " + item.getType());
+        var handler = itemHandlers.get(item.getType());
+        if (handler == null || event.getHand() != EquipmentSlot.HAND) {
             return;
         }
+        handler.onUse(event, event.getPlayer(), item);
+    }
 
-        var meta = item.getItemMeta();
-        if (meta == null) {
-            plugin.debugLog("[TeamListener] No item meta for " + player.getName());
+    private void onSelectorUse(PlayerInteractEvent event, Player player, ItemStack item) {
+        if (event.getAction() != Action.RIGHT_CLICK_BLOCK || !item.hasItemMeta()) {
             return;
         }
-
-        var displayName = meta.getDisplayName();
-        var isValidSelector = displayName != null && displayName.equals("§6" + TEAM_BLOCK_SELECTOR_NAME);
-
-        if (!isValidSelector) {
-            plugin.debugLog("[TeamListener] Item display name does not match Team Block Selector for " +
-                    player.getName() + ", found: " + displayName);
+        var meta = item.getItemMeta();
+        if (meta == null || !SELECTOR_DISPLAY_NAME.equals(meta.getDisplayName())) {
             return;
         }
+        plugin.debugLog("[TeamListener] Processing selector use for {}", player.getName());
 
         var clickedBlock = event.getClickedBlock();
         if (clickedBlock == null) {
-            plugin.debugLog("[TeamListener] No block clicked by " + player.getName());
+            plugin.debugLog("[TeamListener] No block clicked by {}", player.getName());
             return;
         }
 
         event.setCancelled(true);
-        plugin.debugLog("[TeamListener] Cancelled PlayerInteractEvent for " + player.getName() +
-                ", clicked block: " + formatBlockLocation(clickedBlock));
-        teamCommands.onTeamBlockSelectorUse(player, clickedBlock);
-        plugin.debugLog("[TeamListener] Called onTeamBlockSelectorUse for " + player.getName() +
-                " on block: " + formatBlockLocation(clickedBlock));
-    }
-
-    @EventHandler
-    public void onPlayerUseLocatorCompass(PlayerInteractEvent event) {
-        if (event.getHand() != EquipmentSlot.HAND) {
-            plugin.debugLog("[TeamListener] Ignoring compass use for " + event.getPlayer().getName() +
-                    ", not main hand: " + event.getHand());
-            return;
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamListener] Cancelled PlayerInteractEvent for " + player.getName() +
+                    ", clicked block: " + formatBlockLocation(clickedBlock));
         }
-        if (event.getAction() != org.bukkit.event.block.Action.RIGHT_CLICK_AIR &&
-                event.getAction() != org.bukkit.event.block.Action.RIGHT_CLICK_BLOCK) {
-            plugin.debugLog("[TeamListener] Ignoring compass use for " + event.getPlayer().getName() +
-                    ", action not RIGHT_CLICK_AIR or RIGHT_CLICK_BLOCK: " + event.getAction());
-            return;
+        teamCommands.onTeamBlockSelectorUse(player, clickedBlock, meta);
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamListener] Called onTeamBlockSelectorUse for " + player.getName() +
+                    " on block: " + formatBlockLocation(clickedBlock));
         }
+    }
 
-        var player = event.getPlayer();
-        plugin.debugLog("[TeamListener] Processing compass use for " + player.getName());
-
-        var item = player.getInventory().getItemInMainHand();
-        if (item == null || !item.hasItemMeta()) {
-            plugin.debugLog("[TeamListener] No item or no metadata for compass use by " + player.getName());
-            return;
-        }
-        if (item.getType() != Material.COMPASS) {
-            plugin.debugLog("[TeamListener] Item is not COMPASS for " + player.getName() +
-                    ", found: " + item.getType());
+    private void onLocatorCompassUse(PlayerInteractEvent event, Player player, ItemStack item) {
+        if (!item.hasItemMeta()) {
             return;
         }
+        plugin.debugLog("[TeamListener] Processing compass use for {}", player.getName());
 
-        if (isPre116()) {
-            plugin.debugLog("[TeamListener] CompassMeta not supported in pre-1.16, checking team lodestone for " + player.getName());
+        if (capabilities.isPre116()) {
+            plugin.debugLog("[TeamListener] CompassMeta not supported in pre-1.16, checking team lodestone for {}", player.getName());
             var team = teamCommands.getTeamForPlayer(player);
             if (team == null) {
-                plugin.debugLog("[TeamListener] No team found for " + player.getName());
+                plugin.debugLog("[TeamListener] No team found for {}", player.getName());
                 sendMessage(player, "You are not in a team.", "§c");
                 return;
             }
             var lodestone = teamsManager.getLodestone(team.getName());
             if (lodestone == null) {
-                plugin.debugLog("[TeamListener] No lodestone set for team " + team.getName());
+                plugin.debugLog("[TeamListener] No lodestone set for team {}", team.getName());
                 sendMessage(player, "Your team does not have a lodestone set.", "§c");
                 return;
             }
             var distance = player.getLocation().distance(lodestone);
-            plugin.debugLog("[TeamListener] Distance from " + player.getName() +
-                    " to lodestone: " + String.format("%.2f", distance));
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("[TeamListener] Distance from " + player.getName() +
+                        " to lodestone: " + String.format("%.2f", distance));
+            }
             if (distance > 20) {
-                plugin.debugLog("[TeamListener] " + player.getName() +
-                        " is too far from lodestone (" + String.format("%.2f", distance) + " > 20)");
+                if (plugin.isDebugEnabled()) {
+                    plugin.debugLog("[TeamListener] " + player.getName() +
+                            " is too far from lodestone (" + String.format("%.2f", distance) + " > 20)");
+                }
                 sendMessage(player, "You are too far from your team's lodestone.", "§c");
                 return;
             }
@@ -185,38 +144,44 @@ public class TeamListener implements Listener {
 
         var meta = item.getItemMeta();
         if (!(meta instanceof CompassMeta compassMeta)) {
-            plugin.debugLog("[TeamListener] Item meta is not CompassMeta for " + player.getName());
+            plugin.debugLog("[TeamListener] Item meta is not CompassMeta for {}", player.getName());
             return;
         }
 
         if (compassMeta.getLodestone() == null) {
-            plugin.debugLog("[TeamListener] No lodestone set for compass used by " + player.getName());
+            plugin.debugLog("[TeamListener] No lodestone set for compass used by {}", player.getName());
             return;
         }
 
         var team = teamCommands.getTeamForPlayer(player);
         if (team == null) {
-            plugin.debugLog("[TeamListener] No team found for " + player.getName());
+            plugin.debugLog("[TeamListener] No team found for {}", player.getName());
             sendMessage(player, "You are not in a team.", "§c");
             return;
         }
-        plugin.debugLog("[TeamListener] Found team " + team.getName() + " for " + player.getName());
+        plugin.debugLog("[TeamListener] Found team {} for {}", team.getName(), player.getName());
 
         var lodestone = teamsManager.getLodestone(team.getName());
         if (lodestone == null) {
-            plugin.debugLog("[TeamListener] No lodestone set for team " + team.getName());
+            plugin.debugLog("[TeamListener] No lodestone set for team {}", team.getName());
             sendMessage(player, "Your team does not have a lodestone set.", "§c");
             return;
         }
-        plugin.debugLog("[TeamListener] Lodestone found for team " + team.getName() +
-                " at " + formatLocation(lodestone));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamListener] Lodestone found for team " + team.getName() +
+                    " at " + formatLocation(lodestone));
+        }
 
         var distance = player.getLocation().distance(lodestone);
-        plugin.debugLog("[TeamListener] Distance from " + player.getName() +
-                " to lodestone: " + String.format("%.2f", distance));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamListener] Distance from " + player.getName() +
+                    " to lodestone: " + String.format("%.2f", distance));
+        }
         if (distance > 20) {
-            plugin.debugLog("[TeamListener] " + player.getName() +
-                    " is too far from lodestone (" + String.format("%.2f", distance) + " > 20)");
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("[TeamListener] " + player.getName() +
+                        " is too far from lodestone (" + String.format("%.2f", distance) + " > 20)");
+            }
             sendMessage(player, "You are too far from your team's lodestone.", "§c");
             return;
         }
@@ -224,48 +189,30 @@ public class TeamListener implements Listener {
         updateTeamScoreboard(player, team);
     }
 
-    private void updateTeamScoreboard(Player player, TeamsManager.Team team) {
-        var scoreboard = player.getScoreboard();
-        var scoreboardTeam = scoreboard.getTeam(team.getName());
-        if (scoreboardTeam == null) {
-            scoreboardTeam = scoreboard.registerNewTeam(team.getName());
-            var chatColor = parseChatColor(team.getColor());
-            if (chatColor != null) {
-                scoreboardTeam.setColor(chatColor);
-                plugin.debugLog("[TeamListener] Set scoreboard team color to " + chatColor + " for team " + team.getName());
-            }
-            scoreboardTeam.setDisplayName(team.getName());
-            plugin.debugLog("[TeamListener] Created new scoreboard team " + team.getName());
-        } else {
-            plugin.debugLog("[TeamListener] Found existing scoreboard team " + team.getName());
-        }
-
-        for (var memberUUID : team.getMembers()) {
-            var member = Bukkit.getPlayer(memberUUID);
-            if (member != null && member.isOnline()) {
-                scoreboardTeam.addEntry(member.getName());
-                plugin.debugLog("[TeamListener] Added " + member.getName() +
-                        " to scoreboard team " + team.getName());
-            } else {
-                plugin.debugLog("[TeamListener] Skipped adding offline/invalid member UUID " +
-                        memberUUID + " to team " + team.getName());
-            }
-        }
-
-        for (var memberUUID : team.getMembers()) {
-            var member = Bukkit.getPlayer(memberUUID);
-            if (member != null && member.isOnline()) {
-                member.setScoreboard(scoreboard);
-                plugin.debugLog("[TeamListener] Set scoreboard for " + member.getName() +
-                        " to team " + team.getName());
-            } else {
-                plugin.debugLog("[TeamListener] Skipped setting scoreboard for offline/invalid member UUID " +
-                        memberUUID);
-            }
+    /**
+     * Clears a team's lodestone once its block is broken; a direct block lookup, so
+     * ordinary block breaks cost one hash probe.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeamBlockBreak(BlockBreakEvent event) {
+        var team = teamsManager.getTeamAt(event.getBlock());
+        if (team == null) {
+            return;
         }
+        teamsManager.setLodestone(team.getName(), null);
+        sendMessage(event.getPlayer(), "You broke the lodestone of team " + team.getName() + ".", "§e");
+        plugin.debugLog("[TeamListener] {} broke the lodestone of team {}", event.getPlayer().getName(), team.getName());
+    }
 
+    private void updateTeamScoreboard(Player player, TeamsManager.Team team) {
+        teamsManager.showNametags(team.getName());
         sendMessage(player, "Your nametag has been colored for your team's color", "§a");
-        plugin.debugLog("[TeamListener] Sent nametag color confirmation to " + player.getName());
+        plugin.debugLog("[TeamListener] Sent nametag color confirmation to {}", player.getName());
+    }
+
+    @FunctionalInterface
+    private interface ItemUseHandler {
+        void onUse(PlayerInteractEvent event, Player player, ItemStack item);
     }
 
     /**
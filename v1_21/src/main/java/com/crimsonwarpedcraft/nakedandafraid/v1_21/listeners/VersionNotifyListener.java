@@ -2,9 +2,9 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_21.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.UpdateCheckService;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.util.MessageSender;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
-import com.crimsonwarpedcraft.nakedandafraid.v1_21.util.VersionChecker;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -20,19 +20,7 @@ public class VersionNotifyListener implements Listener {
     public VersionNotifyListener(NakedAndAfraid nakedAndAfraid) {
         this.nakedAndAfraid = nakedAndAfraid;
         this.plugin = nakedAndAfraid.getPlugin();
-        nakedAndAfraid.debugLog("[VersionNotifyListener] Initialized VersionNotifyListener for Bukkit version " + Bukkit.getBukkitVersion());
-    }
-
-    private boolean isAdventureSupported() {
-        String version = Bukkit.getBukkitVersion().split("-")[0];
-        try {
-            String[] parts = version.split("\\.");
-            int major = Integer.parseInt(parts[1]);
-            return major >= 19;
-        } catch (Exception e) {
-            nakedAndAfraid.debugLog("[VersionNotifyListener] Failed to parse Bukkit version: " + version);
-            return false;
-        }
+        nakedAndAfraid.debugLog("[VersionNotifyListener] Initialized VersionNotifyListener for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     private void sendOutdatedMessage(Player player, String currentVersion, String latestVersion) {
@@ -42,24 +30,29 @@ public class VersionNotifyListener implements Listener {
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        nakedAndAfraid.debugLog("[VersionNotifyListener] Player " + player.getName() + " joined, checking if OP");
+        nakedAndAfraid.debugLog("[VersionNotifyListener] Player {} joined, checking if OP", player.getName());
 
         if (!player.isOp()) {
-            nakedAndAfraid.debugLog("[VersionNotifyListener] Player " + player.getName() + " is not an OP, skipping version check");
+            nakedAndAfraid.debugLog("[VersionNotifyListener] Player {} is not an OP, skipping version check", player.getName());
             return;
         }
 
-        String currentVersion = plugin.getDescription().getVersion();
-        VersionChecker versionChecker = new VersionChecker(nakedAndAfraid);
-        String latestVersion = versionChecker.getLatestVersion();
-        nakedAndAfraid.debugLog("[VersionNotifyListener] Current version: " + currentVersion + ", latest version: " + (latestVersion != null ? latestVersion : "null"));
+        UpdateCheckService updateCheck = nakedAndAfraid.getUpdateCheckService();
+        UpdateCheckService.Result result = updateCheck != null ? updateCheck.getCached() : null;
+        if (result == null) {
+            nakedAndAfraid.debugLog("[VersionNotifyListener] No update check result cached yet, skipping notification for {}", player.getName());
+            return;
+        }
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[VersionNotifyListener] Current version: " + result.getCurrentVersion() + ", latest version: " + (result.getLatestVersion() != null ? result.getLatestVersion() : "null"));
+        }
 
-        if (versionChecker.isOutdated(currentVersion)) {
-            nakedAndAfraid.debugLog("[VersionNotifyListener] Notifying " + player.getName() + " of outdated version");
-            sendOutdatedMessage(player, currentVersion, latestVersion);
-            nakedAndAfraid.debugLog("[VersionNotifyListener] Sent update notification to " + player.getName());
+        if (result.isOutdated()) {
+            nakedAndAfraid.debugLog("[VersionNotifyListener] Notifying {} of outdated version", player.getName());
+            sendOutdatedMessage(player, result.getCurrentVersion(), result.getLatestVersion());
+            nakedAndAfraid.debugLog("[VersionNotifyListener] Sent update notification to {}", player.getName());
         } else {
-            nakedAndAfraid.debugLog("[VersionNotifyListener] Version is up to date or no latest version available for " + player.getName());
+            nakedAndAfraid.debugLog("[VersionNotifyListener] Version is up to date or no latest version available for {}", player.getName());
         }
     }
 }
\ No newline at end of file
@@ -2,20 +2,28 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_21.team;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PlayerResolver;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TeamAutoFill;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 public class TeamCommands {
 
     private final TeamsManager teamsManager;
     private final NakedAndAfraid plugin;
+    private final ServerCapabilities capabilities;
+    /** PDC key holding a selector's team name; {@code null} before 1.14, where lore is used instead. */
+    private final NamespacedKey selectorKey;
 
     private static final String TEAM_BLOCK_SELECTOR_NAME = "Team Block Selector";
 
@@ -24,15 +32,9 @@ public class TeamCommands {
     public TeamCommands(TeamsManager teamsManager, NakedAndAfraid plugin) {
         this.plugin = plugin;
         this.teamsManager = teamsManager;
-        plugin.debugLog("[TeamCommands] Initialized TeamCommands for Bukkit version " + Bukkit.getBukkitVersion());
-    }
-
-    private boolean isPre113() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[3-9]|2[0-1]).*");
-    }
-
-    private boolean isPre114() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[4-9]|2[0-1]).*");
+        this.capabilities = plugin.getServerCapabilities();
+        this.selectorKey = capabilities.isPre114() ? null : new NamespacedKey(plugin.getPlugin(), "teamSelector");
+        plugin.debugLog("[TeamCommands] Initialized TeamCommands for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     private void sendMessage(CommandSender sender, String message, String legacyColor) {
@@ -40,25 +42,28 @@ public class TeamCommands {
     }
 
     /**
-     * Handles /nf teams <create|remove|list> - management operations.
+     * Handles /nf teams <create|remove|list|autofill> - management operations.
      */
     public boolean handleTeamsCommand(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Processing teams command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Processing teams command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 2) {
-            sendMessage(sender, "Usage: /nf teams <create|remove|list>", "§c");
-            plugin.debugLog("[TeamCommands] Invalid arguments for " + sender.getName() + ", expected at least 2");
+            sendMessage(sender, "Usage: /nf teams <create|remove|list|autofill>", "§c");
+            plugin.debugLog("[TeamCommands] Invalid arguments for {}, expected at least 2", sender.getName());
             return true;
         }
 
         var sub = args[1].toLowerCase();
-        plugin.debugLog("[TeamCommands] Teams subcommand: " + sub);
+        plugin.debugLog("[TeamCommands] Teams subcommand: {}", sub);
         return switch (sub) {
             case "create" -> handleTeamCreate(sender, args);
             case "list" -> handleTeamList(sender);
             case "remove" -> handleTeamRemove(sender, args);
+            case "autofill" -> handleTeamAutofill(sender, args);
             default -> {
-                sendMessage(sender, "Unknown subcommand. Usage: /nf teams <create|remove|list>", "§c");
-                plugin.debugLog("[TeamCommands] Unknown teams subcommand: " + sub);
+                sendMessage(sender, "Unknown subcommand. Usage: /nf teams <create|remove|list|autofill>", "§c");
+                plugin.debugLog("[TeamCommands] Unknown teams subcommand: {}", sub);
                 yield true;
             }
         };
@@ -68,19 +73,21 @@ public class TeamCommands {
      * Handles /nf team <team-name> <block|setblock|meta> - per-team operations.
      */
     public boolean handleTeamCommand(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Processing team command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Processing team command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf team <team-name> <block|setblock|meta> ...", "§c");
-            plugin.debugLog("[TeamCommands] Invalid arguments for " + sender.getName() + ", expected at least 3");
+            plugin.debugLog("[TeamCommands] Invalid arguments for {}, expected at least 3", sender.getName());
             return true;
         }
 
         var teamName = args[1].toLowerCase();
-        plugin.debugLog("[TeamCommands] Team name: " + teamName);
+        plugin.debugLog("[TeamCommands] Team name: {}", teamName);
 
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team '" + teamName + "' does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
 
@@ -90,14 +97,16 @@ public class TeamCommands {
             case "meta" -> handleTeamMeta(sender, args, teamName);
             default -> {
                 sendMessage(sender, "Unknown subcommand. Usage: /nf team <team-name> <block|setblock|meta>", "§c");
-                plugin.debugLog("[TeamCommands] Unknown team subcommand: " + args[2]);
+                plugin.debugLog("[TeamCommands] Unknown team subcommand: {}", args[2]);
                 yield true;
             }
         };
     }
 
     public boolean handleUserCommand(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Processing user command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Processing user command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 4) {
             sendMessage(sender, "Usage: /nf user <player> team <add|remove|list> [team]", "§c");
             plugin.debugLog("[TeamCommands] Invalid arguments for user command, expected at least 4");
@@ -105,12 +114,10 @@ public class TeamCommands {
         }
 
         var playerName = args[1];
-        plugin.debugLog("[TeamCommands] Target player: " + playerName);
-        var target = Bukkit.getOfflinePlayerIfCached(playerName);
-        if (target == null) target = Bukkit.getOfflinePlayer(playerName);
+        plugin.debugLog("[TeamCommands] Target player: {}", playerName);
 
         var userSub = args[3].toLowerCase();
-        plugin.debugLog("[TeamCommands] User subcommand: " + userSub);
+        plugin.debugLog("[TeamCommands] User subcommand: {}", userSub);
 
         return switch (userSub) {
             case "add" -> {
@@ -119,7 +126,7 @@ public class TeamCommands {
                     plugin.debugLog("[TeamCommands] Invalid arguments for user add, expected 5");
                     yield true;
                 }
-                yield handleUserTeamAdd(sender, target, args[4]);
+                yield withResolvedPlayer(sender, playerName, target -> handleUserTeamAdd(sender, target, args[4]));
             }
             case "remove" -> {
                 if (args.length < 5) {
@@ -127,19 +134,38 @@ public class TeamCommands {
                     plugin.debugLog("[TeamCommands] Invalid arguments for user remove, expected 5");
                     yield true;
                 }
-                yield handleUserTeamRemove(sender, target, args[4]);
+                yield withResolvedPlayer(sender, playerName, target -> handleUserTeamRemove(sender, target, args[4]));
             }
-            case "list" -> handleUserTeamList(sender, target);
+            case "list" -> withResolvedPlayer(sender, playerName, target -> handleUserTeamList(sender, target));
             default -> {
                 sendMessage(sender, "Unknown user team subcommand.", "§c");
-                plugin.debugLog("[TeamCommands] Unknown user subcommand: " + userSub);
+                plugin.debugLog("[TeamCommands] Unknown user subcommand: {}", userSub);
                 yield true;
             }
         };
     }
 
+    /**
+     * Resolves {@code playerName} without blocking the server thread, then runs
+     * {@code action}; right away if the player is known locally, otherwise once
+     * the profile lookup is back.
+     */
+    private boolean withResolvedPlayer(CommandSender sender, String playerName, Consumer<PlayerResolver.Resolved> action) {
+        plugin.getPlayerResolver().resolve(playerName, target -> {
+            if (target == null) {
+                sendMessage(sender, "Player '" + playerName + "' could not be found.", "§c");
+                plugin.debugLog("[TeamCommands] Could not resolve player '{}'", playerName);
+                return;
+            }
+            action.accept(target);
+        });
+        return true;
+    }
+
     private boolean handleTeamCreate(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Handling team create for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team create for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 4) {
             sendMessage(sender, "Usage: /nf team create <team-name> <team-color>", "§c");
             plugin.debugLog("[TeamCommands] Invalid arguments for create, expected at least 4");
@@ -148,33 +174,33 @@ public class TeamCommands {
 
         var teamName = args[2].toLowerCase();
         var colorName = args[3].toUpperCase();
-        plugin.debugLog("[TeamCommands] Team name: " + teamName + ", color: " + colorName);
+        plugin.debugLog("[TeamCommands] Team name: {}, color: {}", teamName, colorName);
 
         if (isValidColor(colorName)) {
             sendMessage(sender, "Invalid color. Valid colors: RED, BLUE, GREEN, YELLOW, AQUA, DARK_PURPLE, GOLD, LIGHT_PURPLE, WHITE", "§c");
-            plugin.debugLog("[TeamCommands] Invalid color: " + colorName);
+            plugin.debugLog("[TeamCommands] Invalid color: {}", colorName);
             return true;
         }
 
         if (teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team already exists.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' already exists");
+            plugin.debugLog("[TeamCommands] Team '{}' already exists", teamName);
             return true;
         }
 
         if (!teamsManager.createTeam(teamName, colorName)) {
             sendMessage(sender, "Max teams reached!", "§c");
-            plugin.debugLog("[TeamCommands] Max teams reached for '" + teamName + "'");
+            plugin.debugLog("[TeamCommands] Max teams reached for '{}'", teamName);
             return true;
         }
 
         sendMessage(sender, "Team '" + teamName + "' created with color " + colorName, getLegacyColor(colorName));
-        plugin.debugLog("[TeamCommands] Created team '" + teamName + "' with color " + colorName);
+        plugin.debugLog("[TeamCommands] Created team '{}' with color {}", teamName, colorName);
         return true;
     }
 
     private boolean handleTeamList(CommandSender sender) {
-        plugin.debugLog("[TeamCommands] Handling team list for " + sender.getName());
+        plugin.debugLog("[TeamCommands] Handling team list for {}", sender.getName());
         var teams = teamsManager.getTeams();
         if (teams.isEmpty()) {
             sendMessage(sender, "No teams available.", "§e");
@@ -184,34 +210,141 @@ public class TeamCommands {
         sendMessage(sender, "Teams:", "§6");
         for (var team : teams) {
             sendMessage(sender, "- " + team.getName(), getLegacyColor(team.getColor()));
-            plugin.debugLog("[TeamCommands] Listed team '" + team.getName() + "'");
+            plugin.debugLog("[TeamCommands] Listed team '{}'", team.getName());
         }
         return true;
     }
 
     private boolean handleTeamRemove(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Handling team remove for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team remove for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf team remove <team>", "§c");
             plugin.debugLog("[TeamCommands] Invalid arguments for remove, expected 3");
             return true;
         }
         var teamName = args[2].toLowerCase();
-        plugin.debugLog("[TeamCommands] Team name: " + teamName);
+        plugin.debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         teamsManager.removeTeam(teamName);
         sendMessage(sender, "Team '" + teamName + "' removed.", "§a");
-        plugin.debugLog("[TeamCommands] Removed team '" + teamName + "'");
+        plugin.debugLog("[TeamCommands] Removed team '{}'", teamName);
+        return true;
+    }
+
+    /**
+     * Handles /nf teams autofill [strategy] [player|player+player ...] - spreads the
+     * listed players, or every online player without a team in an enabled world,
+     * over the existing teams. Names are resolved in one batch and teams.yml is
+     * saved once.
+     */
+    private boolean handleTeamAutofill(CommandSender sender, String[] args) {
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team autofill for " + sender.getName() + ": " + String.join(" ", args));
+        }
+        if (teamsManager.getTeams().isEmpty()) {
+            sendMessage(sender, "No teams available. Create some with /nf teams create first.", "§c");
+            plugin.debugLog("[TeamCommands] No teams to autofill");
+            return true;
+        }
+        var parsed = args.length > 2 ? TeamAutoFill.Strategy.parse(args[2]) : null;
+        var strategy = parsed != null ? parsed : TeamAutoFill.Strategy.SMALLEST;
+        int first = parsed != null ? 3 : 2;
+
+        if (first == args.length) {
+            List<List<UUID>> groups = new ArrayList<>();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (teamsManager.getTeamOf(player.getUniqueId()) == null
+                        && plugin.isWorldEnabled(player.getWorld().getName())) {
+                    groups.add(Collections.singletonList(player.getUniqueId()));
+                }
+            }
+            applyAutofill(sender, strategy, groups);
+            return true;
+        }
+
+        var tokens = Arrays.copyOfRange(args, first, args.length);
+        var names = new LinkedHashSet<String>();
+        for (var token : tokens) {
+            names.addAll(Arrays.asList(token.split("\\+")));
+        }
+        names.remove("");
+        plugin.getPlayerResolver().resolveAll(names, resolved -> {
+            List<List<UUID>> groups = new ArrayList<>();
+            for (var token : tokens) {
+                List<UUID> group = new ArrayList<>();
+                for (var name : token.split("\\+")) {
+                    var target = resolved.get(name);
+                    if (target != null) {
+                        group.add(target.getUniqueId());
+                    } else if (!name.isEmpty()) {
+                        sendMessage(sender, "Player '" + name + "' could not be found.", "§c");
+                    }
+                }
+                if (!group.isEmpty()) {
+                    groups.add(group);
+                }
+            }
+            applyAutofill(sender, strategy, groups);
+        });
         return true;
     }
 
+    /**
+     * Plans the placement over the first {@code max-teams} teams by name and
+     * applies it with a single {@link TeamsManager#addMembers} call.
+     */
+    private void applyAutofill(CommandSender sender, TeamAutoFill.Strategy strategy, List<List<UUID>> groups) {
+        var teams = new ArrayList<TeamsManager.Team>(teamsManager.getTeams());
+        teams.sort(Comparator.comparing(TeamsManager.Team::getName));
+        var teamSizes = new LinkedHashMap<String, Integer>();
+        for (var team : teams.subList(0, Math.min(teams.size(), teamsManager.getMaxTeams()))) {
+            teamSizes.put(team.getName(), team.getMembers().size());
+        }
+        var result = TeamAutoFill.plan(strategy, teamSizes, groups, uuid -> {
+            TeamsManager.Team team = teamsManager.getTeamOf(uuid);
+            return team == null ? null : team.getName();
+        });
+        var plan = result.getAssignments();
+        var added = teamsManager.addMembers(plan);
+        for (var uuid : added) {
+            Player online = Bukkit.getPlayer(uuid);
+            if (online != null) {
+                sendMessage(online, "You have been added to team " + plan.get(uuid), "§a");
+            }
+        }
+
+        int requested = 0;
+        for (var group : groups) {
+            requested += group.size();
+        }
+        int skipped = requested - added.size();
+        sendMessage(sender, "Autofilled " + added.size() + " player(s) across " + teamSizes.size() + " team(s)"
+                + (skipped > 0 ? "; " + skipped + " already in a team." : "."), "§a");
+        plugin.debugLog("[TeamCommands] Autofill ({}) placed {} players, skipped {}", strategy, added.size(), skipped);
+        // A member already in a team outside the first max-teams, or pair members in two
+        // different teams, can't be brought together without moving someone
+        for (var group : result.getSplitGroups()) {
+            List<String> names = new ArrayList<>();
+            for (var uuid : group) {
+                var name = Bukkit.getOfflinePlayer(uuid).getName();
+                names.add(name != null ? name : uuid.toString());
+            }
+            sendMessage(sender, "Could not keep " + String.join("+", names)
+                    + " together: one of them is already in another team.", "§e");
+        }
+    }
+
     // /nf team <team-name> block selector <player>
     private boolean handleTeamBlockSelector(CommandSender sender, String[] args, String teamName) {
-        plugin.debugLog("[TeamCommands] Handling block selector for team '" + teamName + "': " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling block selector for team '" + teamName + "': " + String.join(" ", args));
+        }
         if (!(sender instanceof Player)) {
             sendMessage(sender, "Only players can use this command.", "§c");
             plugin.debugLog("[TeamCommands] Non-player sender attempted block selector command");
@@ -226,38 +359,38 @@ public class TeamCommands {
         var target = Bukkit.getPlayer(args[4]);
         if (target == null) {
             sendMessage(sender, "Player not found or offline.", "§c");
-            plugin.debugLog("[TeamCommands] Player '" + args[4] + "' not found or offline");
+            plugin.debugLog("[TeamCommands] Player '{}' not found or offline", args[4]);
             return true;
         }
         var axe = createTeamBlockSelector(teamName);
         target.getInventory().addItem(axe);
         sendMessage(sender, "Given team block selector for team '" + teamName + "' to " + target.getName(), "§a");
-        plugin.debugLog("[TeamCommands] Gave block selector for team '" + teamName + "' to " + target.getName());
+        plugin.debugLog("[TeamCommands] Gave block selector for team '{}' to {}", teamName, target.getName());
         return true;
     }
 
     private ItemStack createTeamBlockSelector(String teamName) {
-        plugin.debugLog("[TeamCommands] Creating team block selector for team '" + teamName + "'");
+        plugin.debugLog("[TeamCommands] Creating team block selector for team '{}'", teamName);
         var axe = new ItemStack(Material.IRON_AXE);
         var meta = axe.getItemMeta();
         if (meta != null) {
             meta.setDisplayName("§6" + TEAM_BLOCK_SELECTOR_NAME);
-            if (isPre114()) {
+            if (capabilities.isPre114()) {
                 meta.setLore(List.of("Team: " + teamName));
             } else {
-                meta.getPersistentDataContainer().set(
-                        new NamespacedKey(plugin.getPlugin(), "teamSelector"),
-                        PersistentDataType.STRING, teamName);
+                meta.getPersistentDataContainer().set(selectorKey, PersistentDataType.STRING, teamName);
             }
             axe.setItemMeta(meta);
-            plugin.debugLog("[TeamCommands] Set item meta for selector: team=" + teamName);
+            plugin.debugLog("[TeamCommands] Set item meta for selector: team={}", teamName);
         }
         return axe;
     }
 
     // /nf team <team-name> setblock <x> <y> <z>
     private boolean handleTeamSetBlock(CommandSender sender, String[] args, String teamName) {
-        plugin.debugLog("[TeamCommands] Handling setblock for team '" + teamName + "': " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling setblock for team '" + teamName + "': " + String.join(" ", args));
+        }
         if (!(sender instanceof Player player)) {
             sendMessage(sender, "Only players can use this command.", "§c");
             plugin.debugLog("[TeamCommands] Non-player sender attempted setblock command");
@@ -274,7 +407,9 @@ public class TeamCommands {
             x = Integer.parseInt(args[3]);
             y = Integer.parseInt(args[4]);
             z = Integer.parseInt(args[5]);
-            plugin.debugLog("[TeamCommands] Parsed coordinates: x=" + x + ", y=" + y + ", z=" + z);
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("[TeamCommands] Parsed coordinates: x=" + x + ", y=" + y + ", z=" + z);
+            }
         } catch (NumberFormatException e) {
             sendMessage(sender, "Coordinates must be numbers.", "§c");
             plugin.debugLog("[TeamCommands] Invalid coordinates");
@@ -285,18 +420,27 @@ public class TeamCommands {
         var block = world.getBlockAt(loc);
         if (block.getType() != teamsManager.getTeamBlockMaterial()) {
             sendMessage(sender, "Block at location is not the configured team block (" + teamsManager.getTeamBlockMaterial() + ").", "§c");
-            plugin.debugLog("[TeamCommands] Wrong block type at " + formatLocation(loc));
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("[TeamCommands] Wrong block type at " + formatLocation(loc));
+            }
+            return true;
+        }
+        if (isOtherTeamsLodestone(sender, block, teamName)) {
             return true;
         }
         teamsManager.setLodestone(teamName, loc);
         sendMessage(sender, "Lodestone set for team '" + teamName + "' at " + x + " " + y + " " + z, "§a");
-        plugin.debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(loc));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(loc));
+        }
         return true;
     }
 
     // /nf team <team-name> meta color <get|set> [color]
     private boolean handleTeamMeta(CommandSender sender, String[] args, String teamName) {
-        plugin.debugLog("[TeamCommands] Handling meta for team '" + teamName + "': " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling meta for team '" + teamName + "': " + String.join(" ", args));
+        }
         // args: [0]=team [1]=<team-name> [2]=meta [3]=color [4]=get|set [5]=<color>
         if (args.length < 5 || !args[3].equalsIgnoreCase("color")) {
             sendMessage(sender, "Usage: /nf team <team-name> meta color <get|set> [color]", "§c");
@@ -310,7 +454,7 @@ public class TeamCommands {
         switch (action) {
             case "get" -> {
                 sendMessage(sender, "Team '" + teamName + "' color: " + team.getColor(), getLegacyColor(team.getColor()));
-                plugin.debugLog("[TeamCommands] Retrieved color " + team.getColor() + " for team '" + teamName + "'");
+                plugin.debugLog("[TeamCommands] Retrieved color {} for team '{}'", team.getColor(), teamName);
             }
             case "set" -> {
                 if (args.length < 6) {
@@ -321,120 +465,128 @@ public class TeamCommands {
                 var newColorName = args[5].toUpperCase();
                 if (isValidColor(newColorName)) {
                     sendMessage(sender, "Invalid color. Valid colors: RED, BLUE, GREEN, YELLOW, AQUA, DARK_PURPLE, GOLD, LIGHT_PURPLE, WHITE", "§c");
-                    plugin.debugLog("[TeamCommands] Invalid color: " + newColorName);
+                    plugin.debugLog("[TeamCommands] Invalid color: {}", newColorName);
                     break;
                 }
                 team.setColor(newColorName);
                 sendMessage(sender, "Team '" + teamName + "' color updated to " + newColorName, getLegacyColor(newColorName));
-                plugin.debugLog("[TeamCommands] Updated color for team '" + teamName + "' to " + newColorName);
-                for (var memberUUID : team.getMembers()) {
-                    var member = Bukkit.getPlayer(memberUUID);
-                    if (member != null && member.isOnline()) {
-                        updatePlayerNametagColor(member, teamName);
-                    }
-                }
+                plugin.debugLog("[TeamCommands] Updated color for team '{}' to {}", teamName, newColorName);
+                teamsManager.showNametags(teamName);
             }
             default -> {
                 sendMessage(sender, "Unknown color action. Use get or set.", "§c");
-                plugin.debugLog("[TeamCommands] Unknown color action: " + action);
+                plugin.debugLog("[TeamCommands] Unknown color action: {}", action);
             }
         }
         return true;
     }
 
+    private boolean isOtherTeamsLodestone(CommandSender sender, Block block, String teamName) {
+        var owner = teamsManager.getTeamAt(block);
+        if (owner == null || owner.getName().equalsIgnoreCase(teamName)) {
+            return false;
+        }
+        sendMessage(sender, "That block is already the lodestone of team '" + owner.getName() + "'.", "§c");
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Block " + formatLocation(block.getLocation()) + " already belongs to team '" + owner.getName() + "'");
+        }
+        return true;
+    }
+
     public TeamsManager.Team getTeamForPlayer(Player player) {
-        plugin.debugLog("[TeamCommands] Getting team for player " + player.getName());
-        var uuid = player.getUniqueId();
-        for (var team : teamsManager.getTeams()) {
-            if (team.getMembers().contains(uuid)) {
-                plugin.debugLog("[TeamCommands] Found team '" + team.getName() + "' for player " + player.getName());
-                return team;
-            }
+        plugin.debugLog("[TeamCommands] Getting team for player {}", player.getName());
+        var team = teamsManager.getTeamOf(player.getUniqueId());
+        if (team != null) {
+            plugin.debugLog("[TeamCommands] Found team '{}' for player {}", team.getName(), player.getName());
+            return team;
         }
-        plugin.debugLog("[TeamCommands] No team found for player " + player.getName());
+        plugin.debugLog("[TeamCommands] No team found for player {}", player.getName());
         return null;
     }
 
-    private boolean handleUserTeamAdd(CommandSender sender, OfflinePlayer target, String teamName) {
-        plugin.debugLog("[TeamCommands] User team add: player=" + target.getName() + ", team=" + teamName);
+    private boolean handleUserTeamAdd(CommandSender sender, PlayerResolver.Resolved target, String teamName) {
+        plugin.debugLog("[TeamCommands] User team add: player={}, team={}", target.getName(), teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         if (teamsManager.addMember(teamName, target.getUniqueId())) {
             sendMessage(sender, "Added " + target.getName() + " to team " + teamName, "§a");
-            plugin.debugLog("[TeamCommands] Added " + target.getName() + " to team '" + teamName + "'");
-            if (target.isOnline()) {
-                sendMessage((Player) target, "You have been added to team " + teamName, "§a");
-                plugin.debugLog("[TeamCommands] Notified " + target.getName() + " of team addition");
+            plugin.debugLog("[TeamCommands] Added {} to team '{}'", target.getName(), teamName);
+            var online = Bukkit.getPlayer(target.getUniqueId());
+            if (online != null) {
+                sendMessage(online, "You have been added to team " + teamName, "§a");
+                plugin.debugLog("[TeamCommands] Notified {} of team addition", target.getName());
             }
         } else {
-            sendMessage(sender, target.getName() + " is already in the team or error occurred.", "§c");
-            plugin.debugLog("[TeamCommands] Failed to add " + target.getName() + " to team '" + teamName + "', already in team or error");
+            sendMessage(sender, target.getName() + " is already in a team or error occurred.", "§c");
+            plugin.debugLog("[TeamCommands] Failed to add {} to team '{}', already in team or error", target.getName(), teamName);
         }
         return true;
     }
 
-    private boolean handleUserTeamRemove(CommandSender sender, OfflinePlayer target, String teamName) {
-        plugin.debugLog("[TeamCommands] User team remove: player=" + target.getName() + ", team=" + teamName);
+    private boolean handleUserTeamRemove(CommandSender sender, PlayerResolver.Resolved target, String teamName) {
+        plugin.debugLog("[TeamCommands] User team remove: player={}, team={}", target.getName(), teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         if (teamsManager.removeMember(teamName, target.getUniqueId())) {
             sendMessage(sender, "Removed " + target.getName() + " from team " + teamName, "§a");
-            plugin.debugLog("[TeamCommands] Removed " + target.getName() + " from team '" + teamName + "'");
-            if (target.isOnline()) {
-                sendMessage((Player) target, "You have been removed from team " + teamName, "§c");
-                plugin.debugLog("[TeamCommands] Notified " + target.getName() + " of team removal");
+            plugin.debugLog("[TeamCommands] Removed {} from team '{}'", target.getName(), teamName);
+            var online = Bukkit.getPlayer(target.getUniqueId());
+            if (online != null) {
+                sendMessage(online, "You have been removed from team " + teamName, "§c");
+                plugin.debugLog("[TeamCommands] Notified {} of team removal", target.getName());
             }
         } else {
             sendMessage(sender, target.getName() + " is not in the team or error occurred.", "§c");
-            plugin.debugLog("[TeamCommands] Failed to remove " + target.getName() + " from team '" + teamName + "', not in team or error");
+            plugin.debugLog("[TeamCommands] Failed to remove {} from team '{}', not in team or error", target.getName(), teamName);
         }
         return true;
     }
 
-    private boolean handleUserTeamList(CommandSender sender, OfflinePlayer target) {
-        plugin.debugLog("[TeamCommands] User team list: player=" + target.getName());
-        var uuid = target.getUniqueId();
+    private boolean handleUserTeamList(CommandSender sender, PlayerResolver.Resolved target) {
+        plugin.debugLog("[TeamCommands] User team list: player={}", target.getName());
         var playerTeams = new ArrayList<String>();
-        for (var team : teamsManager.getTeams()) {
-            if (team.getMembers().contains(uuid)) {
-                playerTeams.add(team.getName());
-                plugin.debugLog("[TeamCommands] Found team '" + team.getName() + "' for " + target.getName());
-            }
+        var team = teamsManager.getTeamOf(target.getUniqueId());
+        if (team != null) {
+            playerTeams.add(team.getName());
+            plugin.debugLog("[TeamCommands] Found team '{}' for {}", team.getName(), target.getName());
         }
         if (playerTeams.isEmpty()) {
             sendMessage(sender, target.getName() + " is not in any team.", "§e");
-            plugin.debugLog("[TeamCommands] No teams found for " + target.getName());
+            plugin.debugLog("[TeamCommands] No teams found for {}", target.getName());
             return true;
         }
         sendMessage(sender, target.getName() + "'s teams:", "§6");
         for (var team : playerTeams) {
             sendMessage(sender, "- " + team, "§f");
-            plugin.debugLog("[TeamCommands] Listed team '" + team + "' for " + target.getName());
+            plugin.debugLog("[TeamCommands] Listed team '{}' for {}", team, target.getName());
         }
         return true;
     }
 
-    public void onTeamBlockSelectorUse(Player player, Block block) {
-        plugin.debugLog("[TeamCommands] Player " + player.getName() + " used team block selector on " + formatLocation(block.getLocation()));
+    /**
+     * Sets the selector's team lodestone to {@code block}. {@code meta} is the
+     * selector's meta, already read by the listener that recognised it.
+     */
+    public void onTeamBlockSelectorUse(Player player, Block block, ItemMeta meta) {
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Player " + player.getName() + " used team block selector on " + formatLocation(block.getLocation()));
+        }
         if (block.getType() != teamsManager.getTeamBlockMaterial()) {
             sendMessage(player, "This block is not the configured team block (" + teamsManager.getTeamBlockMaterial() + ").", "§c");
-            plugin.debugLog("[TeamCommands] Block at " + formatLocation(block.getLocation()) + " is " + block.getType() + ", expected " + teamsManager.getTeamBlockMaterial());
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("[TeamCommands] Block at " + formatLocation(block.getLocation()) + " is " + block.getType() + ", expected " + teamsManager.getTeamBlockMaterial());
+            }
             return;
         }
 
-        var item = player.getInventory().getItemInMainHand();
-        if (item == null || !item.hasItemMeta()) return;
-        var meta = item.getItemMeta();
-        if (meta == null) return;
-
         String teamName;
-        if (isPre114()) {
+        if (capabilities.isPre114()) {
             var lore = meta.getLore();
             if (lore == null || lore.isEmpty() || !lore.get(0).startsWith("Team: ")) {
                 sendMessage(player, "This selector is invalid (missing team info)", "§c");
@@ -443,9 +595,7 @@ public class TeamCommands {
             }
             teamName = lore.getFirst().substring(6);
         } else {
-            teamName = meta.getPersistentDataContainer().get(
-                    new NamespacedKey(plugin.getPlugin(), "teamSelector"),
-                    PersistentDataType.STRING);
+            teamName = meta.getPersistentDataContainer().get(selectorKey, PersistentDataType.STRING);
             if (teamName == null) {
                 sendMessage(player, "This selector is invalid (missing team info)", "§c");
                 plugin.debugLog("[TeamCommands] Selector missing team info");
@@ -455,42 +605,25 @@ public class TeamCommands {
 
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(player, "Team '" + teamName + "' no longer exists", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' no longer exists");
+            plugin.debugLog("[TeamCommands] Team '{}' no longer exists", teamName);
             return;
         }
 
+        if (isOtherTeamsLodestone(player, block, teamName)) {
+            return;
+        }
         teamsManager.setLodestone(teamName, block.getLocation());
         sendMessage(player, "Team lodestone for '" + teamName + "' set at " +
                 block.getX() + ", " + block.getY() + ", " + block.getZ(), "§a");
-        plugin.debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(block.getLocation()));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(block.getLocation()));
+        }
         updatePlayerNametagColor(player, teamName);
     }
 
     private void updatePlayerNametagColor(Player player, String teamName) {
-        plugin.debugLog("[TeamCommands] Updating nametag color for " + player.getName() + " in team '" + teamName + "'");
-        var team = teamsManager.getTeam(teamName);
-        if (team == null) return;
-
-        var scoreboard = player.getScoreboard();
-        var scoreboardTeam = scoreboard.getTeam(teamName);
-        if (scoreboardTeam == null) {
-            scoreboardTeam = scoreboard.registerNewTeam(teamName);
-            scoreboardTeam.setDisplayName(teamName);
-            var chatColor = parseChatColor(team.getColor());
-            if (chatColor != null) {
-                scoreboardTeam.setColor(chatColor);
-                plugin.debugLog("[TeamCommands] Set scoreboard team color to " + chatColor + " for team '" + teamName + "'");
-            }
-            plugin.debugLog("[TeamCommands] Registered new scoreboard team '" + teamName + "' with color " + team.getColor());
-        }
-        for (var memberUUID : team.getMembers()) {
-            var member = Bukkit.getPlayer(memberUUID);
-            if (member != null && member.isOnline()) {
-                scoreboardTeam.addEntry(member.getName());
-                plugin.debugLog("[TeamCommands] Added " + member.getName() + " to scoreboard team '" + teamName + "'");
-            }
-        }
-        player.setScoreboard(scoreboard);
+        plugin.debugLog("[TeamCommands] Updating nametag color for {} in team '{}'", player.getName(), teamName);
+        teamsManager.showNametags(teamName);
         sendMessage(player, "Nametag color updated for team '" + teamName + "'", "§a");
     }
 
@@ -514,21 +647,6 @@ public class TeamCommands {
         };
     }
 
-    private ChatColor parseChatColor(String colorName) {
-        return switch (colorName.toUpperCase()) {
-            case "RED" -> ChatColor.RED;
-            case "GOLD" -> ChatColor.GOLD;
-            case "YELLOW" -> ChatColor.YELLOW;
-            case "GREEN" -> ChatColor.GREEN;
-            case "AQUA" -> ChatColor.AQUA;
-            case "BLUE" -> ChatColor.BLUE;
-            case "DARK_PURPLE" -> ChatColor.DARK_PURPLE;
-            case "LIGHT_PURPLE" -> ChatColor.LIGHT_PURPLE;
-            case "WHITE" -> ChatColor.WHITE;
-            default -> null;
-        };
-    }
-
     /**
      * Helper method to format a Location for debug logging.
      */
@@ -2,11 +2,14 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_21.team;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.listeners.NametagSyncEngine;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.BlockIndex;
+import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
 import com.crimsonwarpedcraft.nakedandafraid.v1_21.util.MaterialCompat;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.Plugin;
@@ -16,37 +19,60 @@ import java.io.IOException;
 import java.util.*;
 
 public class TeamsManager {
+    private final NakedAndAfraid nakedAndAfraid;
     private final Plugin plugin;
     private final File teamsFile;
     private FileConfiguration teamsConfig;
     private int maxTeams;
     private Material teamBlockMaterial;
     private final Map<String, Team> teams = new HashMap<>();
+    /** Which team each player belongs to; kept in step with every team's member set. */
+    private final Map<UUID, Team> teamByMember = new HashMap<>();
+    /** Team lodestones by block; ones in worlds that aren't loaded yet bind when the world loads. */
+    private final BlockIndex<Team> lodestones;
+    /** Mirrors every team's color and members onto the main scoreboard, one diff at a time. */
+    private final NametagSyncEngine nametags;
 
     private static final List<String> VALID_COLORS = List.of(
             "RED", "BLUE", "GREEN", "YELLOW", "AQUA",
             "DARK_PURPLE", "GOLD", "LIGHT_PURPLE", "WHITE"
     );
 
-    public TeamsManager(Plugin plugin) {
-        this.plugin = plugin;
+    public TeamsManager(NakedAndAfraid nakedAndAfraid) {
+        this.nakedAndAfraid = nakedAndAfraid;
+        this.plugin = nakedAndAfraid.getPlugin();
         this.teamsFile = new File(plugin.getDataFolder(), "teams.yml");
-        debugLog("Initialized TeamsManager for Bukkit version " + Bukkit.getBukkitVersion() +
-                ", teams file: " + teamsFile.getPath());
+        this.lodestones = new BlockIndex<>(nakedAndAfraid);
+        Bukkit.getPluginManager().registerEvents(lodestones, plugin);
+        this.nametags = new NametagSyncEngine(plugin, nakedAndAfraid, nakedAndAfraid.getServerCapabilities());
+        Bukkit.getPluginManager().registerEvents(nametags, plugin);
+        debugLog("Initialized TeamsManager for Bukkit version {}, teams file: {}", Bukkit.getBukkitVersion(), teamsFile.getPath());
         loadConfig();
     }
 
     private void debugLog(String message) {
-        if (plugin.getConfig().getBoolean("debug-mode", false)) {
-            plugin.getLogger().info("[TeamsManager] " + message);
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[TeamsManager] " + message);
         }
     }
 
-    /**
-     * Checks if the server is pre-1.16 (Minecraft 1.12–1.15.2).
-     */
-    private boolean isPre116() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[6-9]|2[0-1]).*");
+    // The prefix is only added once the gate has passed, so disabled calls build nothing
+    private void debugLog(String pattern, Object arg) {
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[TeamsManager] " + pattern, arg);
+        }
+    }
+
+    private void debugLog(String pattern, Object arg1, Object arg2) {
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[TeamsManager] " + pattern, arg1, arg2);
+        }
+    }
+
+    private void debugLog(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[TeamsManager] " + pattern, arg1, arg2, arg3);
+        }
     }
 
     public void loadConfig() {
@@ -58,32 +84,31 @@ public class TeamsManager {
         teamsConfig = YamlConfiguration.loadConfiguration(teamsFile);
         debugLog("Loaded teams.yml configuration");
 
-        maxTeams = plugin.getConfig().getInt("max-teams", 10);
-        debugLog("Loaded max-teams: " + maxTeams);
+        maxTeams = nakedAndAfraid.getConfigSnapshot().getMaxTeams();
+        debugLog("Loaded max-teams: {}", maxTeams);
 
-        String blockName = plugin.getConfig().getString("team-block", "LODESTONE");
-        if (blockName != null) {
-            blockName = blockName.toUpperCase();
-        } else {
-            debugLog("team-block is null in config.yml, defaulting to LODESTONE");
-            blockName = "LODESTONE";
-        }
+        String blockName = nakedAndAfraid.getConfigSnapshot().getTeamBlock();
         teamBlockMaterial = MaterialCompat.getMaterial(blockName);
         if (teamBlockMaterial == null) {
-            teamBlockMaterial = MaterialCompat.getMaterial(isPre116() ? "OBSIDIAN" : "LODESTONE");
+            teamBlockMaterial = MaterialCompat.getMaterial(nakedAndAfraid.getServerCapabilities().isPre116() ? "OBSIDIAN" : "LODESTONE");
             if (teamBlockMaterial == null) {
                 teamBlockMaterial = Material.STONE; // Ultimate fallback to ensure non-null
                 plugin.getLogger().warning("Failed to resolve team-block material '" + blockName + "' or fallback, defaulting to STONE");
-                debugLog("Failed to resolve team-block '" + blockName + "' or fallback, defaulting to STONE");
+                debugLog("Failed to resolve team-block '{}' or fallback, defaulting to STONE", blockName);
             } else {
                 plugin.getLogger().warning("Invalid team-block material '" + blockName + "' in config.yml, defaulting to " + teamBlockMaterial.name());
-                debugLog("Invalid team-block '" + blockName + "', defaulting to " + teamBlockMaterial.name());
+                debugLog("Invalid team-block '{}', defaulting to {}", blockName, teamBlockMaterial.name());
             }
         } else {
-            debugLog("Loaded team-block: " + teamBlockMaterial.name());
+            debugLog("Loaded team-block: {}", teamBlockMaterial.name());
         }
 
+        for (Team team : teams.values()) {
+            nametags.remove(team.name);
+        }
         teams.clear();
+        teamByMember.clear();
+        lodestones.clear();
         debugLog("Cleared existing teams map");
 
         if (teamsConfig.contains("teams")) {
@@ -93,7 +118,7 @@ public class TeamsManager {
                 String colorName = teamsConfig.getString(path + ".color", "WHITE").toUpperCase();
                 String color = VALID_COLORS.contains(colorName) ? colorName : "WHITE";
                 if (!colorName.equals(color)) {
-                    debugLog("Invalid color '" + colorName + "' for team '" + teamName + "', defaulting to WHITE");
+                    debugLog("Invalid color '{}' for team '{}', defaulting to WHITE", colorName, teamName);
                 }
 
                 List<String> memberUUIDs = teamsConfig.getStringList(path + ".members");
@@ -102,27 +127,28 @@ public class TeamsManager {
                     try {
                         members.add(UUID.fromString(s));
                     } catch (IllegalArgumentException ignored) {
-                        debugLog("Invalid UUID '" + s + "' for team '" + teamName + "', skipping");
+                        debugLog("Invalid UUID '{}' for team '{}', skipping", s, teamName);
                     }
                 }
 
-                Location lodestone = null;
-                if (teamsConfig.contains(path + ".lodestone.world")) {
-                    World world = Bukkit.getWorld(Objects.requireNonNull(teamsConfig.getString(path + ".lodestone.world")));
-                    if (world != null) {
-                        double x = teamsConfig.getDouble(path + ".lodestone.x");
-                        double y = teamsConfig.getDouble(path + ".lodestone.y");
-                        double z = teamsConfig.getDouble(path + ".lodestone.z");
-                        lodestone = new Location(world, x, y, z);
-                        debugLog("Loaded lodestone for team '" + teamName + "' at " + formatLocation(lodestone));
-                    } else {
-                        debugLog("Invalid world for lodestone of team '" + teamName + "', skipping");
+                Team team = new Team(teamName, color, members);
+                indexMembers(team);
+                nametags.define(team.name, team.color, team.members);
+                teams.put(teamName.toLowerCase(), team);
+
+                String worldName = teamsConfig.getString(path + ".lodestone.world");
+                if (worldName != null) {
+                    lodestones.put(team, worldName,
+                            (int) Math.floor(teamsConfig.getDouble(path + ".lodestone.x")),
+                            (int) Math.floor(teamsConfig.getDouble(path + ".lodestone.y")),
+                            (int) Math.floor(teamsConfig.getDouble(path + ".lodestone.z")));
+                    BlockIndex.Position lodestone = lodestones.positionOf(team);
+                    if (nakedAndAfraid.isDebugEnabled()) {
+                        debugLog("Loaded lodestone for team '" + teamName + "' at " + formatPosition(lodestone) +
+                                (lodestone.isBound() ? "" : ", waiting for its world to load"));
                     }
                 }
-
-                Team team = new Team(teamName, color, members, lodestone);
-                teams.put(teamName.toLowerCase(), team);
-                debugLog("Loaded team '" + teamName + "' with color " + color + ", " + members.size() + " members");
+                debugLog("Loaded team '{}' with color {}, {} members", teamName, color, members.size());
             }
         } else {
             debugLog("No teams section found in teams.yml");
@@ -145,19 +171,21 @@ public class TeamsManager {
             }
             teamsConfig.set(path + ".members", memberUUIDs);
 
-            Location lodestone = team.getLodestone();
+            BlockIndex.Position lodestone = lodestones.positionOf(team);
             if (lodestone != null) {
-                teamsConfig.set(path + ".lodestone.world", lodestone.getWorld().getName());
+                teamsConfig.set(path + ".lodestone.world", lodestone.getWorldName());
                 teamsConfig.set(path + ".lodestone.x", lodestone.getX());
                 teamsConfig.set(path + ".lodestone.y", lodestone.getY());
                 teamsConfig.set(path + ".lodestone.z", lodestone.getZ());
-                debugLog("Saved lodestone for team '" + team.getName() + "' at " + formatLocation(lodestone));
+                if (nakedAndAfraid.isDebugEnabled()) {
+                    debugLog("Saved lodestone for team '" + team.getName() + "' at " + formatPosition(lodestone));
+                }
             } else {
                 teamsConfig.set(path + ".lodestone", null);
-                debugLog("Cleared lodestone for team '" + team.getName() + "'");
+                debugLog("Cleared lodestone for team '{}'", team.getName());
             }
 
-            debugLog("Saved team '" + team.getName() + "' with color " + team.getColor() + ", " + memberUUIDs.size() + " members");
+            debugLog("Saved team '{}' with color {}, {} members", team.getName(), team.getColor(), memberUUIDs.size());
         }
 
         try {
@@ -165,28 +193,35 @@ public class TeamsManager {
             debugLog("Successfully saved teams.yml");
         } catch (IOException e) {
             plugin.getLogger().severe("Could not save teams.yml");
-            debugLog("Failed to save teams.yml: " + e.getMessage());
+            debugLog("Failed to save teams.yml: {}", e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /** Takes the team nametags off the main scoreboard. */
+    public void shutdown() {
+        nametags.shutdown();
+        debugLog("Shut down nametags");
+    }
+
     public void refreshWorlds() {
         debugLog("Refreshing worlds for teams");
         List<String> toRemove = new ArrayList<>();
         for (Team team : teams.values()) {
-            Location lodestone = team.getLodestone();
+            // The stored position, so teams in disabled worlds that aren't loaded are found too
+            BlockIndex.Position lodestone = lodestones.positionOf(team);
             if (lodestone != null) {
-                String worldName = lodestone.getWorld().getName();
-                if (!plugin.getConfig().getBoolean("enabled-worlds." + worldName, true)) {
+                String worldName = lodestone.getWorldName();
+                if (!nakedAndAfraid.isWorldEnabled(worldName)) {
                     toRemove.add(team.getName().toLowerCase());
-                    debugLog("Marking team '" + team.getName() + "' for removal due to disabled world: " + worldName);
+                    debugLog("Marking team '{}' for removal due to disabled world: {}", team.getName(), worldName);
                 }
             }
         }
         for (String teamName : toRemove) {
-            teams.remove(teamName);
+            forget(teams.remove(teamName));
             teamsConfig.set("teams." + teamName, null);
-            debugLog("Removed team '" + teamName + "' from disabled world");
+            debugLog("Removed team '{}' from disabled world", teamName);
         }
         if (!toRemove.isEmpty()) {
             try {
@@ -194,123 +229,216 @@ public class TeamsManager {
                 debugLog("Saved teams.yml after removing teams from disabled worlds");
             } catch (IOException e) {
                 plugin.getLogger().severe("Could not save teams.yml after world refresh");
-                debugLog("Failed to save teams.yml after world refresh: " + e.getMessage());
+                debugLog("Failed to save teams.yml after world refresh: {}", e.getMessage());
                 e.printStackTrace();
             }
         }
-        debugLog("World refresh completed, removed " + toRemove.size() + " teams");
+        debugLog("World refresh completed, removed {} teams", toRemove.size());
     }
 
     public boolean removeTeam(String teamName) {
-        debugLog("Attempting to remove team '" + teamName + "'");
+        debugLog("Attempting to remove team '{}'", teamName);
         String teamKey = teamName.toLowerCase();
         if (!teams.containsKey(teamKey)) {
-            debugLog("Team '" + teamName + "' does not exist, cannot remove");
+            debugLog("Team '{}' does not exist, cannot remove", teamName);
             return false;
         }
-        teams.remove(teamKey);
+        forget(teams.remove(teamKey));
         teamsConfig.set("teams." + teamName, null);
         saveConfig();
-        debugLog("Removed team '" + teamName + "'");
+        debugLog("Removed team '{}'", teamName);
         return true;
     }
 
     public int getMaxTeams() {
-        debugLog("Retrieved max-teams: " + maxTeams);
+        debugLog("Retrieved max-teams: {}", maxTeams);
         return maxTeams;
     }
 
     public Material getTeamBlockMaterial() {
-        debugLog("Retrieved team-block material: " + teamBlockMaterial.name());
+        debugLog("Retrieved team-block material: {}", teamBlockMaterial.name());
         return teamBlockMaterial;
     }
 
     public boolean teamExists(String teamName) {
         boolean exists = teams.containsKey(teamName.toLowerCase());
-        debugLog("Checked team existence for '" + teamName + "': " + exists);
+        debugLog("Checked team existence for '{}': {}", teamName, exists);
         return exists;
     }
 
     public Team getTeam(String teamName) {
         Team team = teams.get(teamName.toLowerCase());
-        debugLog("Retrieved team '" + teamName + "': " + (team != null ? team.getName() : "null"));
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("Retrieved team '" + teamName + "': " + (team != null ? team.getName() : "null"));
+        }
         return team;
     }
 
     public boolean createTeam(String teamName, String color) {
-        debugLog("Attempting to create team '" + teamName + "' with color " + color);
+        debugLog("Attempting to create team '{}' with color {}", teamName, color);
         if (teams.size() >= maxTeams) {
-            debugLog("Cannot create team '" + teamName + "', max teams reached (" + teams.size() + "/" + maxTeams + ")");
+            debugLog("Cannot create team '{}', max teams reached ({}/{})", teamName, teams.size(), maxTeams);
             return false;
         }
         if (teamExists(teamName)) {
-            debugLog("Cannot create team '" + teamName + "', already exists");
+            debugLog("Cannot create team '{}', already exists", teamName);
             return false;
         }
         String validatedColor = VALID_COLORS.contains(color.toUpperCase()) ? color.toUpperCase() : "WHITE";
         if (!color.toUpperCase().equals(validatedColor)) {
-            debugLog("Invalid color '" + color + "' for team '" + teamName + "', defaulting to WHITE");
+            debugLog("Invalid color '{}' for team '{}', defaulting to WHITE", color, teamName);
         }
-        teams.put(teamName.toLowerCase(), new Team(teamName, validatedColor, new HashSet<>(), null));
+        Team team = new Team(teamName, validatedColor, new HashSet<>());
+        teams.put(teamName.toLowerCase(), team);
+        nametags.define(team.name, team.color, team.members);
         saveConfig();
-        debugLog("Created team '" + teamName + "' with color " + validatedColor);
+        debugLog("Created team '{}' with color {}", teamName, validatedColor);
         return true;
     }
 
     public boolean addMember(String teamName, UUID playerUUID) {
-        debugLog("Attempting to add player " + playerUUID + " to team '" + teamName + "'");
+        debugLog("Attempting to add player {} to team '{}'", playerUUID, teamName);
         Team team = getTeam(teamName);
         if (team == null) {
-            debugLog("Team '" + teamName + "' does not exist, cannot add member");
+            debugLog("Team '{}' does not exist, cannot add member", teamName);
+            return false;
+        }
+        if (team.members.contains(playerUUID)) {
+            debugLog("Player {} already in team '{}'", playerUUID, teamName);
             return false;
         }
-        if (team.getMembers().contains(playerUUID)) {
-            debugLog("Player " + playerUUID + " already in team '" + teamName + "'");
+        Team current = teamByMember.get(playerUUID);
+        if (current != null) {
+            debugLog("Player {} already in team '{}', cannot add to '{}'", playerUUID, current.name, teamName);
             return false;
         }
-        team.getMembers().add(playerUUID);
+        team.members.add(playerUUID);
+        teamByMember.put(playerUUID, team);
+        nametags.addMember(team.name, playerUUID);
         saveConfig();
-        debugLog("Added player " + playerUUID + " to team '" + teamName + "'");
+        debugLog("Added player {} to team '{}'", playerUUID, teamName);
         return true;
     }
 
+    /**
+     * Adds many players at once, e.g. for {@code /nf teams autofill}, saving
+     * teams.yml once at the end instead of per player. Entries whose team doesn't
+     * exist or whose player is already in a team are skipped.
+     *
+     * @param assignments team name per player
+     * @return the players that were added
+     */
+    public List<UUID> addMembers(Map<UUID, String> assignments) {
+        List<UUID> added = new ArrayList<>();
+        for (Map.Entry<UUID, String> entry : assignments.entrySet()) {
+            UUID playerUUID = entry.getKey();
+            Team team = teams.get(entry.getValue().toLowerCase());
+            if (team == null || teamByMember.containsKey(playerUUID)) {
+                continue;
+            }
+            team.members.add(playerUUID);
+            teamByMember.put(playerUUID, team);
+            nametags.addMember(team.name, playerUUID);
+            added.add(playerUUID);
+        }
+        if (!added.isEmpty()) {
+            saveConfig();
+        }
+        debugLog("Bulk added {} of {} players", added.size(), assignments.size());
+        return added;
+    }
+
     public boolean removeMember(String teamName, UUID playerUUID) {
-        debugLog("Attempting to remove player " + playerUUID + " from team '" + teamName + "'");
+        debugLog("Attempting to remove player {} from team '{}'", playerUUID, teamName);
         Team team = getTeam(teamName);
         if (team == null) {
-            debugLog("Team '" + teamName + "' does not exist, cannot remove member");
+            debugLog("Team '{}' does not exist, cannot remove member", teamName);
             return false;
         }
-        if (!team.getMembers().contains(playerUUID)) {
-            debugLog("Player " + playerUUID + " not in team '" + teamName + "'");
+        if (!team.members.remove(playerUUID)) {
+            debugLog("Player {} not in team '{}'", playerUUID, teamName);
             return false;
         }
-        team.getMembers().remove(playerUUID);
+        teamByMember.remove(playerUUID);
+        nametags.removeMember(team.name, playerUUID);
         saveConfig();
-        debugLog("Removed player " + playerUUID + " from team '" + teamName + "'");
+        debugLog("Removed player {} from team '{}'", playerUUID, teamName);
         return true;
     }
 
     public Set<UUID> getTeamMembers(String teamName) {
         Team team = getTeam(teamName);
         if (team == null) {
-            debugLog("Team '" + teamName + "' does not exist, returning empty members set");
+            debugLog("Team '{}' does not exist, returning empty members set", teamName);
             return Collections.emptySet();
         }
-        debugLog("Retrieved " + team.getMembers().size() + " members for team '" + teamName + "'");
-        return Collections.unmodifiableSet(team.getMembers());
+        debugLog("Retrieved {} members for team '{}'", team.getMembers().size(), teamName);
+        return team.getMembers();
+    }
+
+    /** The team {@code playerUUID} belongs to, or {@code null} if none. */
+    public Team getTeamOf(UUID playerUUID) {
+        Team team = teamByMember.get(playerUUID);
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("Retrieved team for player " + playerUUID + ": " + (team != null ? team.name : "null"));
+        }
+        return team;
+    }
+
+    /** Adds a freshly loaded team's members to the index; a player listed under an earlier team stays there. */
+    private void indexMembers(Team team) {
+        Iterator<UUID> it = team.members.iterator();
+        while (it.hasNext()) {
+            UUID uuid = it.next();
+            Team other = teamByMember.get(uuid);
+            if (other == null) {
+                teamByMember.put(uuid, team);
+            } else {
+                it.remove();
+                debugLog("Player {} already in team '{}', dropping from '{}'", uuid, other.name, team.name);
+            }
+        }
+    }
+
+    /** Drops a removed team from the member and lodestone indexes. */
+    private void forget(Team team) {
+        if (team == null) {
+            return;
+        }
+        lodestones.remove(team);
+        nametags.remove(team.name);
+        for (UUID uuid : team.members) {
+            teamByMember.remove(uuid);
+        }
+    }
+
+    /**
+     * Starts showing a team's color on its members' nametags. Later membership
+     * and color changes follow automatically.
+     *
+     * @return {@code false} if the team doesn't exist or was already shown
+     */
+    public boolean showNametags(String teamName) {
+        Team team = teams.get(teamName.toLowerCase());
+        boolean activated = team != null && nametags.activate(team.name);
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("Show nametags for team '" + teamName + "': " + (activated ? "activated" : "no change"));
+        }
+        return activated;
     }
 
     public Collection<Team> getTeams() {
-        debugLog("Retrieved " + teams.size() + " teams");
+        debugLog("Retrieved {} teams", teams.size());
         return Collections.unmodifiableCollection(teams.values());
     }
 
     public void setLodestone(String teamName, Location lodestone) {
-        debugLog("Setting lodestone for team '" + teamName + "' to " + (lodestone != null ? formatLocation(lodestone) : "null"));
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("Setting lodestone for team '" + teamName + "' to " + (lodestone != null ? formatLocation(lodestone) : "null"));
+        }
         Team team = getTeam(teamName);
         if (team == null) {
-            debugLog("Team '" + teamName + "' does not exist, skipping lodestone set");
+            debugLog("Team '{}' does not exist, skipping lodestone set", teamName);
             return;
         }
         team.setLodestone(lodestone);
@@ -320,29 +448,32 @@ public class TeamsManager {
     public Location getLodestone(String teamName) {
         Team team = getTeam(teamName);
         if (team == null) {
-            debugLog("Team '" + teamName + "' does not exist, returning null lodestone");
+            debugLog("Team '{}' does not exist, returning null lodestone", teamName);
             return null;
         }
         Location lodestone = team.getLodestone();
-        debugLog("Retrieved lodestone for team '" + teamName + "': " + (lodestone != null ? formatLocation(lodestone) : "null"));
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("Retrieved lodestone for team '" + teamName + "': " + (lodestone != null ? formatLocation(lodestone) : "null"));
+        }
         return lodestone;
     }
 
     public Optional<Team> getTeamByLodestone(Location location) {
-        debugLog("Looking for team with lodestone at " + formatLocation(location));
-        for (Team team : teams.values()) {
-            Location l = team.getLodestone();
-            if (l != null && l.getWorld().equals(location.getWorld())) {
-                if (l.getBlockX() == location.getBlockX() &&
-                        l.getBlockY() == location.getBlockY() &&
-                        l.getBlockZ() == location.getBlockZ()) {
-                    debugLog("Found team '" + team.getName() + "' for lodestone at " + formatLocation(location));
-                    return Optional.of(team);
-                }
-            }
+        Team team = lodestones.get(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        if (nakedAndAfraid.isDebugEnabled()) {
+            debugLog("Lodestone at " + formatLocation(location) + " belongs to " + (team != null ? "team '" + team.name + "'" : "no team"));
         }
-        debugLog("No team found for lodestone at " + formatLocation(location));
-        return Optional.empty();
+        return Optional.ofNullable(team);
+    }
+
+    /** The team whose lodestone is {@code block}, or {@code null}; for block events. */
+    public Team getTeamAt(Block block) {
+        return lodestones.get(block);
+    }
+
+    private String formatPosition(BlockIndex.Position position) {
+        return String.format("(world=%s, x=%d, y=%d, z=%d)",
+                position.getWorldName(), position.getX(), position.getY(), position.getZ());
     }
 
     private String formatLocation(Location location) {
@@ -356,55 +487,66 @@ public class TeamsManager {
         private final String name;
         private String color;
         private final Set<UUID> members;
-        private Location lodestone;
+        private final Set<UUID> memberView;
 
-        public Team(String name, String color, Set<UUID> members, Location lodestone) {
+        public Team(String name, String color, Set<UUID> members) {
             this.name = name;
             this.color = color;
             this.members = members;
-            this.lodestone = lodestone;
-            debugLog("Created team '" + name + "' with color " + color +
-                    (lodestone != null ? ", lodestone at " + formatLocation(lodestone) : ""));
+            this.memberView = Collections.unmodifiableSet(members);
+            debugLog("Created team '{}' with color {}", name, color);
         }
 
         public String getName() {
-            debugLog("Retrieved name for team '" + name + "'");
+            debugLog("Retrieved name for team '{}'", name);
             return name;
         }
 
         public String getColor() {
-            debugLog("Retrieved color " + color + " for team '" + name + "'");
+            debugLog("Retrieved color {} for team '{}'", color, name);
             return color;
         }
 
         public Object getNamedTextColor() {
-            debugLog("Adventure API not supported, returning null for NamedTextColor for team '" + name + "'");
+            debugLog("Adventure API not supported, returning null for NamedTextColor for team '{}'", name);
             return null;
         }
 
         public void setColor(String color) {
-            debugLog("Setting color for team '" + name + "' to " + color);
+            debugLog("Setting color for team '{}' to {}", name, color);
             this.color = VALID_COLORS.contains(color.toUpperCase()) ? color.toUpperCase() : "WHITE";
+            nametags.setColor(name, this.color);
             if (!color.toUpperCase().equals(this.color)) {
-                debugLog("Invalid color '" + color + "' for team '" + name + "', defaulting to WHITE");
+                debugLog("Invalid color '{}' for team '{}', defaulting to WHITE", color, name);
             }
         }
 
+        /** Read-only view; membership changes go through {@link TeamsManager#addMember} and {@link TeamsManager#removeMember}. */
         public Set<UUID> getMembers() {
-            debugLog("Retrieved " + members.size() + " members for team '" + name + "'");
-            return members;
+            debugLog("Retrieved {} members for team '{}'", members.size(), name);
+            return memberView;
         }
 
+        /** The lodestone block, or {@code null} if unset or its world isn't loaded. */
         public Location getLodestone() {
-            debugLog("Retrieved lodestone for team '" + name + "': " +
-                    (lodestone != null ? formatLocation(lodestone) : "null"));
+            Location lodestone = lodestones.locationOf(this);
+            if (nakedAndAfraid.isDebugEnabled()) {
+                debugLog("Retrieved lodestone for team '" + name + "': " +
+                        (lodestone != null ? formatLocation(lodestone) : "null"));
+            }
             return lodestone;
         }
 
         public void setLodestone(Location lodestone) {
-            debugLog("Setting lodestone for team '" + name + "' to " +
-                    (lodestone != null ? formatLocation(lodestone) : "null"));
-            this.lodestone = lodestone;
+            if (nakedAndAfraid.isDebugEnabled()) {
+                debugLog("Setting lodestone for team '" + name + "' to " +
+                        (lodestone != null ? formatLocation(lodestone) : "null"));
+            }
+            if (lodestone == null) {
+                lodestones.remove(this);
+            } else {
+                lodestones.put(this, lodestone);
+            }
         }
     }
 }
\ No newline at end of file
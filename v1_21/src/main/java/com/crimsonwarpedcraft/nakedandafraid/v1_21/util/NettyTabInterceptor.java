@@ -0,0 +1,166 @@
+package com.crimsonwarpedcraft.nakedandafraid.v1_21.util;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PacketSender;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link TabPacketInterceptor} that adds an outbound handler to each player's
+ * Netty pipeline, ahead of the server's {@code packet_handler}. Used when
+ * ProtocolLib isn't installed.
+ * <p>
+ * The path {@code CraftPlayer#getHandle()} → {@code ServerPlayer.connection}
+ * → {@code .connection} → {@code Connection.channel} is resolved once in the
+ * constructor.
+ */
+final class NettyTabInterceptor extends TabPacketInterceptor {
+
+    private static final String HANDLER_NAME = "nakedandafraid_tab_filter";
+    private static final String SERVER_HANDLER = "packet_handler";
+    private static final MethodType OBJECT_TO_OBJECT = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> craftPlayerClass;
+    private final MethodHandle getHandle;
+    private final MethodHandle getListener;
+    private final MethodHandle getConnection;
+    private final MethodHandle getChannel;
+    private final Map<UUID, Channel> injected = new ConcurrentHashMap<>();
+    private final AtomicBoolean failureLogged = new AtomicBoolean();
+
+    NettyTabInterceptor(Plugin plugin, PlayerInfoFilter filter) throws ReflectiveOperationException {
+        super(plugin, filter);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        this.craftPlayerClass = PacketSender.craftPlayerClass();
+        Method handleMethod = craftPlayerClass.getMethod("getHandle");
+        this.getHandle = lookup.unreflect(handleMethod).asType(OBJECT_TO_OBJECT);
+
+        Field listenerField = findField(handleMethod.getReturnType(), "connection");
+        this.getListener = lookup.unreflectGetter(listenerField).asType(OBJECT_TO_OBJECT);
+
+        Field connectionField = findField(listenerField.getType(), "connection");
+        this.getConnection = lookup.unreflectGetter(connectionField).asType(OBJECT_TO_OBJECT);
+
+        Field channelField = findField(connectionField.getType(), "channel");
+        if (!Channel.class.isAssignableFrom(channelField.getType())) {
+            throw new NoSuchFieldException(connectionField.getType().getName() + ".channel is not a Netty channel");
+        }
+        this.getChannel = lookup.unreflectGetter(channelField).asType(OBJECT_TO_OBJECT);
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        for (Channel channel : injected.values()) {
+            remove(channel);
+        }
+        injected.clear();
+        clear();
+    }
+
+    @Override
+    public void inject(Player player) {
+        Channel channel;
+        try {
+            Object handle = (Object) getHandle.invokeExact((Object) craftPlayerClass.cast(player));
+            Object listener = (Object) getListener.invokeExact(handle);
+            Object connection = (Object) getConnection.invokeExact(listener);
+            channel = (Channel) (Object) getChannel.invokeExact(connection);
+        } catch (Throwable t) {
+            plugin.getLogger().warning("[TabListClearer] Failed to reach the network channel of "
+                    + player.getName() + ": " + t);
+            return;
+        }
+
+        ChannelPipeline pipeline = channel.pipeline();
+        if (pipeline.get(HANDLER_NAME) == null && pipeline.get(SERVER_HANDLER) != null) {
+            pipeline.addBefore(SERVER_HANDLER, HANDLER_NAME, new FilterHandler(player.getUniqueId()));
+        }
+        injected.put(player.getUniqueId(), channel);
+    }
+
+    @Override
+    public void uninject(Player player) {
+        Channel channel = injected.remove(player.getUniqueId());
+        if (channel != null) {
+            remove(channel);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Netty";
+    }
+
+    private static void remove(Channel channel) {
+        if (!channel.isOpen()) {
+            return;
+        }
+        channel.eventLoop().execute(() -> {
+            if (channel.pipeline().get(HANDLER_NAME) != null) {
+                channel.pipeline().remove(HANDLER_NAME);
+            }
+        });
+    }
+
+    /** Finds a field by name on {@code owner} or its superclasses, including non-public ones. */
+    private static Field findField(Class<?> owner, String name) throws NoSuchFieldException {
+        for (Class<?> type = owner; type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ignored) {
+                // try the superclass
+            }
+        }
+        throw new NoSuchFieldException(owner.getName() + "." + name);
+    }
+
+    /** Rewrites player-info packets for one recipient. Runs on the channel's event loop. */
+    private final class FilterHandler extends ChannelDuplexHandler {
+        private final UUID recipient;
+
+        FilterHandler(UUID recipient) {
+            this.recipient = recipient;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            Object rewritten;
+            try {
+                rewritten = rewrite(recipient, msg);
+            } catch (RuntimeException e) {
+                if (failureLogged.compareAndSet(false, true)) {
+                    plugin.getLogger().warning("[TabListClearer] Failed to filter a player info packet, "
+                            + "passing it through unchanged: " + e);
+                }
+                rewritten = msg;
+            }
+
+            if (rewritten == null) {
+                promise.setSuccess();
+                return;
+            }
+            super.write(ctx, rewritten, promise);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.crimsonwarpedcraft.nakedandafraid.v1_21.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Strips entries from outbound {@code ClientboundPlayerInfoUpdatePacket}s.
+ * <p>
+ * The packet class, its {@code actions()} / {@code entries()} accessors,
+ * {@code Entry#profileId()} and the private {@code (EnumSet, List)}
+ * constructor are resolved once in {@link #create()}. {@link #filter} runs on
+ * Netty threads, so it only touches the packet and the given predicate.
+ */
+public final class PlayerInfoFilter {
+
+    private final Class<?> packetClass;
+    private final MethodHandle actions;
+    private final MethodHandle entries;
+    private final MethodHandle profileId;
+    private final MethodHandle constructor;
+
+    private PlayerInfoFilter(Class<?> packetClass, MethodHandle actions, MethodHandle entries,
+                             MethodHandle profileId, MethodHandle constructor) {
+        this.packetClass = packetClass;
+        this.actions = actions;
+        this.entries = entries;
+        this.profileId = profileId;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Resolves everything against the running server.
+     *
+     * @throws ReflectiveOperationException if the server's internals don't match
+     */
+    public static PlayerInfoFilter create() throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Class<?> packetClass = Class.forName("net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket");
+        Class<?> entryClass = Class.forName("net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket$Entry");
+
+        MethodHandle actions = lookup.findVirtual(packetClass, "actions", MethodType.methodType(EnumSet.class))
+                .asType(MethodType.methodType(EnumSet.class, Object.class));
+        MethodHandle entries = lookup.findVirtual(packetClass, "entries", MethodType.methodType(List.class))
+                .asType(MethodType.methodType(List.class, Object.class));
+        MethodHandle profileId = lookup.findVirtual(entryClass, "profileId", MethodType.methodType(UUID.class))
+                .asType(MethodType.methodType(UUID.class, Object.class));
+
+        Constructor<?> entriesConstructor = packetClass.getDeclaredConstructor(EnumSet.class, List.class);
+        entriesConstructor.setAccessible(true);
+        MethodHandle constructor = MethodHandles.lookup().unreflectConstructor(entriesConstructor)
+                .asType(MethodType.methodType(Object.class, EnumSet.class, List.class));
+
+        return new PlayerInfoFilter(packetClass, actions, entries, profileId, constructor);
+    }
+
+    /** Whether {@code packet} is a player-info update this filter understands. */
+    public boolean handles(Object packet) {
+        return packetClass.isInstance(packet);
+    }
+
+    /**
+     * Removes every entry whose profile id matches {@code hidden}.
+     *
+     * @return {@code packet} itself if nothing was hidden, {@code null} if
+     *         every entry was hidden, otherwise a copy with the remaining entries
+     */
+    @SuppressWarnings("rawtypes")
+    public Object filter(Object packet, Predicate<UUID> hidden) {
+        try {
+            List<?> all = (List<?>) entries.invokeExact(packet);
+            int size = all.size();
+            int first = 0;
+            while (first < size && !hidden.test((UUID) profileId.invokeExact((Object) all.get(first)))) {
+                first++;
+            }
+            if (first == size) {
+                return packet;
+            }
+
+            List<Object> kept = new ArrayList<>(size - 1);
+            kept.addAll(all.subList(0, first));
+            for (int i = first + 1; i < size; i++) {
+                Object entry = all.get(i);
+                if (!hidden.test((UUID) profileId.invokeExact(entry))) {
+                    kept.add(entry);
+                }
+            }
+            if (kept.isEmpty()) {
+                return null;
+            }
+            EnumSet<?> packetActions = (EnumSet<?>) actions.invokeExact(packet);
+            return (Object) constructor.invokeExact((EnumSet) packetActions, (List) kept);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to filter ClientboundPlayerInfoUpdatePacket", t);
+        }
+    }
+}
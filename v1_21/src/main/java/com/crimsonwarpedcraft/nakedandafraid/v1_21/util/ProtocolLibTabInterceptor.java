@@ -0,0 +1,62 @@
+package com.crimsonwarpedcraft.nakedandafraid.v1_21.util;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.events.ListenerPriority;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * {@link TabPacketInterceptor} backed by a ProtocolLib packet listener. Only
+ * loaded when ProtocolLib is enabled.
+ */
+final class ProtocolLibTabInterceptor extends TabPacketInterceptor {
+
+    private final PacketAdapter adapter;
+
+    ProtocolLibTabInterceptor(Plugin plugin, PlayerInfoFilter filter) {
+        super(plugin, filter);
+        this.adapter = new PacketAdapter(plugin, ListenerPriority.NORMAL, PacketType.Play.Server.PLAYER_INFO) {
+            @Override
+            public void onPacketSending(PacketEvent event) {
+                if (event.isPlayerTemporary()) return;
+
+                Object handle = event.getPacket().getHandle();
+                Object rewritten = rewrite(event.getPlayer().getUniqueId(), handle);
+                if (rewritten == null) {
+                    event.setCancelled(true);
+                } else if (rewritten != handle) {
+                    event.setPacket(new PacketContainer(PacketType.Play.Server.PLAYER_INFO, rewritten));
+                }
+            }
+        };
+    }
+
+    @Override
+    public void start() {
+        ProtocolLibrary.getProtocolManager().addPacketListener(adapter);
+    }
+
+    @Override
+    public void stop() {
+        ProtocolLibrary.getProtocolManager().removePacketListener(adapter);
+        clear();
+    }
+
+    @Override
+    public void inject(Player player) {
+        // ProtocolLib already sees every connection.
+    }
+
+    @Override
+    public void uninject(Player player) {
+    }
+
+    @Override
+    public String getName() {
+        return "ProtocolLib";
+    }
+}
@@ -0,0 +1,120 @@
+package com.crimsonwarpedcraft.nakedandafraid.v1_21.util;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PacketSender;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds and sends the player-info packets {@code TabListClearer} needs on
+ * Paper 1.19.3+ ({@code ClientboundPlayerInfoUpdatePacket} /
+ * {@code ClientboundPlayerInfoRemovePacket}).
+ * <p>
+ * Every class, constructor, field and action constant is resolved once in
+ * {@link #create()}; building or sending a packet is a direct
+ * {@link MethodHandle} invocation.
+ */
+public final class TabPacketFactory {
+
+    private static final String PACKAGE = "net.minecraft.network.protocol.game.";
+
+    private final PacketSender sender;
+    private final MethodHandle removeConstructor;
+    private final MethodHandle updateConstructor;
+    /** {@code ADD_PLAYER} */
+    private final EnumSet<?> addActions;
+    /** {@code ADD_PLAYER, UPDATE_LISTED} */
+    private final EnumSet<?> addListedActions;
+
+    private TabPacketFactory(PacketSender sender, MethodHandle removeConstructor, MethodHandle updateConstructor,
+                             EnumSet<?> addActions, EnumSet<?> addListedActions) {
+        this.sender = sender;
+        this.removeConstructor = removeConstructor;
+        this.updateConstructor = updateConstructor;
+        this.addActions = addActions;
+        this.addListedActions = addListedActions;
+    }
+
+    /**
+     * Resolves everything against the running server.
+     *
+     * @throws ReflectiveOperationException if the server's internals don't match
+     */
+    public static TabPacketFactory create() throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        Class<?> packetInterface = Class.forName("net.minecraft.network.protocol.Packet");
+        PacketSender sender = PacketSender.resolve(PacketSender.craftPlayerClass(),
+                new String[]{"connection"}, packetInterface, new String[]{"send", "sendPacket"});
+
+        Class<?> removeClass = Class.forName(PACKAGE + "ClientboundPlayerInfoRemovePacket");
+        MethodHandle removeConstructor = lookup
+                .findConstructor(removeClass, MethodType.methodType(void.class, List.class))
+                .asType(MethodType.methodType(Object.class, List.class));
+
+        Class<?> updateClass = Class.forName(PACKAGE + "ClientboundPlayerInfoUpdatePacket");
+        MethodHandle updateConstructor = lookup
+                .findConstructor(updateClass, MethodType.methodType(void.class, EnumSet.class, Collection.class))
+                .asType(MethodType.methodType(Object.class, EnumSet.class, Collection.class));
+
+        Class<?> actionClass = Class.forName(PACKAGE + "ClientboundPlayerInfoUpdatePacket$Action");
+        EnumSet<?> addActions = actions(actionClass, "ADD_PLAYER");
+        EnumSet<?> addListedActions = actions(actionClass, "ADD_PLAYER", "UPDATE_LISTED");
+
+        return new TabPacketFactory(sender, removeConstructor, updateConstructor, addActions, addListedActions);
+    }
+
+    /** A packet removing {@code uuids} from the recipient's tab list. */
+    public Object removePacket(List<UUID> uuids) {
+        try {
+            return (Object) removeConstructor.invokeExact(uuids);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to build ClientboundPlayerInfoRemovePacket", t);
+        }
+    }
+
+    /**
+     * A packet adding {@code subjects} to the recipient's tab list.
+     *
+     * @param addOnly if true, only {@code ADD_PLAYER}; otherwise also {@code UPDATE_LISTED}
+     */
+    @SuppressWarnings("rawtypes")
+    public Object addPacket(Collection<? extends Player> subjects, boolean addOnly) {
+        Object[] handles = new Object[subjects.size()];
+        int i = 0;
+        for (Player subject : subjects) {
+            handles[i++] = sender.handle(subject);
+        }
+        // The packet keeps the set, so hand each one its own copy
+        EnumSet<?> actions = (addOnly ? addActions : addListedActions).clone();
+        try {
+            return (Object) updateConstructor.invokeExact((EnumSet) actions, (Collection) List.of(handles));
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to build ClientboundPlayerInfoUpdatePacket", t);
+        }
+    }
+
+    public void send(Player recipient, Object packet) {
+        sender.send(recipient, packet);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static EnumSet<?> actions(Class<?> actionClass, String... names) throws NoSuchFieldException {
+        Class<? extends Enum> enumClass = actionClass.asSubclass(Enum.class);
+        EnumSet set = EnumSet.noneOf(enumClass);
+        for (String name : names) {
+            try {
+                set.add(Enum.valueOf(enumClass, name));
+            } catch (IllegalArgumentException e) {
+                throw new NoSuchFieldException(actionClass.getName() + "." + name);
+            }
+        }
+        return set;
+    }
+}
@@ -0,0 +1,98 @@
+package com.crimsonwarpedcraft.nakedandafraid.v1_21.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hides tab list entries by rewriting outbound player-info packets per
+ * recipient, so hidden entries never reach the wire.
+ * <p>
+ * The main thread records which players are in enabled worlds with
+ * {@link #track(Player, boolean)}; packets are rewritten on Netty threads
+ * from that concurrent set alone. A player in an enabled world sees only
+ * themselves and players from disabled worlds, matching the removal-packet
+ * mode.
+ * <p>
+ * Uses ProtocolLib when it is enabled, otherwise a handler in each player's
+ * Netty pipeline.
+ */
+public abstract class TabPacketInterceptor {
+
+    protected final Plugin plugin;
+    protected final PlayerInfoFilter filter;
+    private final Set<UUID> enabledWorldPlayers = ConcurrentHashMap.newKeySet();
+    private volatile boolean active;
+
+    protected TabPacketInterceptor(Plugin plugin, PlayerInfoFilter filter) {
+        this.plugin = plugin;
+        this.filter = filter;
+    }
+
+    /**
+     * Picks ProtocolLib when available, otherwise Netty.
+     *
+     * @throws ReflectiveOperationException if the server's internals don't match
+     */
+    public static TabPacketInterceptor create(Plugin plugin) throws ReflectiveOperationException {
+        PlayerInfoFilter filter = PlayerInfoFilter.create();
+        Plugin protocolLib = Bukkit.getPluginManager().getPlugin("ProtocolLib");
+        if (protocolLib != null && protocolLib.isEnabled()) {
+            return new ProtocolLibTabInterceptor(plugin, filter);
+        }
+        return new NettyTabInterceptor(plugin, filter);
+    }
+
+    /** Starts intercepting; {@link #inject(Player)} each online player afterwards. */
+    public abstract void start();
+
+    /** Stops intercepting and detaches from every player. */
+    public abstract void stop();
+
+    /** Attaches to {@code player}'s connection, if the implementation works per player. */
+    public abstract void inject(Player player);
+
+    /** Detaches from {@code player}'s connection. */
+    public abstract void uninject(Player player);
+
+    /** Short name for logs. */
+    public abstract String getName();
+
+    /** While inactive every packet passes through untouched. */
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    /** Records whether {@code player} is in an enabled world. Main thread. */
+    public void track(Player player, boolean inEnabledWorld) {
+        if (inEnabledWorld) {
+            enabledWorldPlayers.add(player.getUniqueId());
+        } else {
+            enabledWorldPlayers.remove(player.getUniqueId());
+        }
+    }
+
+    public void untrack(Player player) {
+        enabledWorldPlayers.remove(player.getUniqueId());
+    }
+
+    public void clear() {
+        enabledWorldPlayers.clear();
+    }
+
+    /**
+     * Returns the packet to send to {@code recipient} in place of
+     * {@code packet}: the packet itself, a filtered copy, or {@code null} to
+     * drop it. Safe to call from any thread.
+     */
+    protected Object rewrite(UUID recipient, Object packet) {
+        if (!active || !filter.handles(packet) || !enabledWorldPlayers.contains(recipient)) {
+            return packet;
+        }
+        return filter.filter(packet, subject -> !subject.equals(recipient) && enabledWorldPlayers.contains(subject));
+    }
+}
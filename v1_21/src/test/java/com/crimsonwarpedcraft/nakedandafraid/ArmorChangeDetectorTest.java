@@ -0,0 +1,108 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.listeners.ArmorChangeDetector;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Only players whose equipment may have changed get re-checked, and each of
+ * them at most once per drain.
+ */
+public class ArmorChangeDetectorTest {
+
+  private ServerMock server;
+  private ArmorChangeDetector detector;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    Plugin plugin = MockBukkit.createMockPlugin();
+    detector = new ArmorChangeDetector(plugin, ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", name -> false));
+    detector.start();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testOnlyChangedPlayersAreRechecked() {
+    PlayerMock changed = server.addPlayer();
+    server.addPlayer();
+    server.addPlayer();
+
+    breakItem(changed);
+    server.getPluginManager().callEvent(new PlayerItemHeldEvent(changed, 0, 1));
+    server.getPluginManager().callEvent(new PlayerSwapHandItemsEvent(changed,
+        new ItemStack(Material.STICK), new ItemStack(Material.AIR)));
+
+    List<Player> rechecked = new ArrayList<>();
+    assertEquals(1, detector.drain(rechecked::add));
+    assertEquals(List.of(changed), rechecked, "Several events in one tick collapse into one re-check");
+    assertEquals(0, detector.dirtyCount());
+    assertEquals(0, detector.drain(rechecked::add));
+  }
+
+  @Test
+  public void testPlayersMarkedDuringDrainWaitForNextDrain() {
+    PlayerMock first = server.addPlayer();
+    PlayerMock second = server.addPlayer();
+    detector.markDirty(first);
+
+    List<Player> rechecked = new ArrayList<>();
+    detector.drain(player -> {
+      rechecked.add(player);
+      detector.markDirty(second);
+    });
+
+    assertEquals(List.of(first), rechecked);
+    assertEquals(1, detector.dirtyCount());
+    assertEquals(1, detector.drain(rechecked::add));
+    assertEquals(List.of(first, second), rechecked);
+  }
+
+  @Test
+  public void testOfflinePlayersAreSkipped() {
+    PlayerMock player = server.addPlayer();
+    breakItem(player);
+    player.disconnect();
+
+    assertEquals(0, detector.drain(p -> fail("Offline player must not be re-checked")));
+    assertEquals(0, detector.dirtyCount());
+  }
+
+  @Test
+  public void testStopUnregistersAndClears() {
+    PlayerMock player = server.addPlayer();
+    breakItem(player);
+
+    detector.stop();
+    assertFalse(detector.isStarted());
+    assertEquals(0, detector.dirtyCount());
+
+    breakItem(player);
+    assertEquals(0, detector.dirtyCount(), "Events after stop() must be ignored");
+  }
+
+  private void breakItem(Player player) {
+    server.getPluginManager().callEvent(new PlayerItemBreakEvent(player, new ItemStack(Material.IRON_HELMET)));
+  }
+}
@@ -0,0 +1,187 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TimingWheel;
+import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
+import com.crimsonwarpedcraft.nakedandafraid.v1_21.listeners.ArmorDamageListener;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares the single timing-wheel driver in {@link ArmorDamageListener}
+ * against the previous one-BukkitRunnable-per-player approach at 500 armored
+ * players. The assertions cover task counts and damage cadence; the timed
+ * comparison is tagged {@code benchmark} and only runs, printing its numbers,
+ * under {@code ./gradlew :v1_21:benchmark}.
+ */
+public class ArmorDamageSchedulerBenchmarkTest {
+
+  private static final int PLAYERS = 500;
+  private static final int CHURN_ROUNDS = 20;
+
+  private ServerMock server;
+  private Plugin plugin;
+  private NakedAndAfraid nakedAndAfraid;
+  private List<PlayerMock> players;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    plugin = spy(MockBukkit.createMockPlugin());
+
+    YamlConfiguration config = new YamlConfiguration();
+    config.set("armor-damage.enabled", true);
+    config.set("armor-damage.damage-amount", 0.5);
+    config.set("armor-damage.damage-interval-ticks", 20L);
+    config.set("armor-damage.include-offhand", false);
+    doReturn(config).when(plugin).getConfig();
+
+    nakedAndAfraid = new NakedAndAfraid(plugin);
+    nakedAndAfraid.reloadConfigSnapshot();
+
+    players = new ArrayList<>(PLAYERS);
+    for (int i = 0; i < PLAYERS; i++) {
+      PlayerMock player = server.addPlayer();
+      player.getInventory().setHelmet(new ItemStack(Material.IRON_HELMET));
+      players.add(player);
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testSingleDriverTaskForAllPlayers() {
+    int before = server.getScheduler().getPendingTasks().size();
+
+    ArmorDamageListener listener = new ArmorDamageListener(nakedAndAfraid);
+    listener.refreshArmorTasks();
+
+    assertEquals(before + 1, server.getScheduler().getPendingTasks().size(),
+        "All armored players must share one scheduler task");
+
+    listener.disableAllTasks();
+    server.getScheduler().performOneTick();
+    assertEquals(before, server.getScheduler().getPendingTasks().size());
+  }
+
+  @Test
+  public void testDamageIntervalIsPreserved() {
+    ArmorDamageListener listener = new ArmorDamageListener(nakedAndAfraid);
+    listener.refreshArmorTasks();
+
+    server.getScheduler().performTicks(5);
+    double afterFirstHit = players.get(0).getHealth();
+    assertTrue(afterFirstHit < 20.0, "First hit should land on the first driver tick");
+    for (PlayerMock player : players) {
+      assertEquals(afterFirstHit, player.getHealth(), 1e-9);
+    }
+
+    server.getScheduler().performTicks(60);
+
+    for (PlayerMock player : players) {
+      assertEquals(afterFirstHit - 3.0, player.getHealth(), 1e-9,
+          "Expected exactly three 1 HP hits in 60 ticks at a 20 tick interval");
+    }
+    listener.disableAllTasks();
+  }
+
+  @Test
+  @Tag("benchmark")
+  public void testCompareSchedulerOverhead() {
+    // Legacy: one repeating task per armored player
+    long legacyStart = System.nanoTime();
+    List<BukkitTask> legacyTasks = new ArrayList<>(PLAYERS);
+    for (int round = 0; round < CHURN_ROUNDS; round++) {
+      for (PlayerMock player : players) {
+        legacyTasks.add(new BukkitRunnable() {
+          @Override
+          public void run() {
+            player.getUniqueId();
+          }
+        }.runTaskTimer(plugin, 0L, 20L));
+      }
+      for (BukkitTask task : legacyTasks) {
+        task.cancel();
+      }
+      legacyTasks.clear();
+    }
+    long legacyChurn = System.nanoTime() - legacyStart;
+
+    int legacyBaseline = server.getScheduler().getPendingTasks().size();
+    for (PlayerMock player : players) {
+      legacyTasks.add(new BukkitRunnable() {
+        @Override
+        public void run() {
+          player.getUniqueId();
+        }
+      }.runTaskTimer(plugin, 0L, 20L));
+    }
+    int legacyPending = server.getScheduler().getPendingTasks().size() - legacyBaseline;
+    long legacyTickStart = System.nanoTime();
+    server.getScheduler().performTicks(100);
+    long legacyTicks = System.nanoTime() - legacyTickStart;
+    for (BukkitTask task : legacyTasks) {
+      task.cancel();
+    }
+
+    // Wheel: O(1) arm/disarm, one driver
+    TimingWheel<UUID> wheel = new TimingWheel<>();
+    long wheelStart = System.nanoTime();
+    for (int round = 0; round < CHURN_ROUNDS; round++) {
+      for (PlayerMock player : players) {
+        wheel.schedule(player.getUniqueId(), 1L);
+      }
+      for (PlayerMock player : players) {
+        wheel.cancel(player.getUniqueId());
+      }
+    }
+    long wheelChurn = System.nanoTime() - wheelStart;
+
+    for (PlayerMock player : players) {
+      wheel.schedule(player.getUniqueId(), 1L);
+    }
+    int wheelBaseline = server.getScheduler().getPendingTasks().size();
+    BukkitTask driver = new BukkitRunnable() {
+      @Override
+      public void run() {
+        wheel.advance(key -> 20L);
+      }
+    }.runTaskTimer(plugin, 0L, 1L);
+    int wheelPending = server.getScheduler().getPendingTasks().size() - wheelBaseline;
+    long wheelTickStart = System.nanoTime();
+    server.getScheduler().performTicks(100);
+    long wheelTicks = System.nanoTime() - wheelTickStart;
+    driver.cancel();
+
+    System.out.printf("[ArmorDamageSchedulerBenchmarkTest] %d players, %d arm/disarm rounds%n",
+        PLAYERS, CHURN_ROUNDS);
+    System.out.printf("  legacy: %d pending tasks, churn %.2f ms, 100 ticks %.2f ms%n",
+        legacyPending, legacyChurn / 1e6, legacyTicks / 1e6);
+    System.out.printf("  wheel:  %d pending tasks, churn %.2f ms, 100 ticks %.2f ms%n",
+        wheelPending, wheelChurn / 1e6, wheelTicks / 1e6);
+
+    assertEquals(PLAYERS, legacyPending);
+    assertEquals(1, wheelPending);
+    assertEquals(PLAYERS, wheel.size());
+  }
+}
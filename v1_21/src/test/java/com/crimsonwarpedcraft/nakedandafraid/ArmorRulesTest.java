@@ -0,0 +1,194 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.config.ArmorRules;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks {@link ArmorRules} against the set-based check it replaced over
+ * randomized inventories. Timing the two is a {@code benchmark}-tagged test,
+ * run with {@code ./gradlew :v1_21:benchmark}.
+ */
+public class ArmorRulesTest {
+
+  private static final int INVENTORIES = 10_000;
+  private static final int ROUNDS = 50;
+  private static final List<Material> POOL = Arrays.asList(
+      Material.AIR, Material.STONE, Material.STICK, Material.ELYTRA,
+      Material.LEATHER_HELMET, Material.IRON_CHESTPLATE, Material.DIAMOND_LEGGINGS,
+      Material.GOLDEN_BOOTS, Material.NETHERITE_HELMET, Material.CHAINMAIL_BOOTS);
+
+  private static Set<String> slots() {
+    return new HashSet<>(Arrays.asList("HELMET", "LEGGINGS", "BOOTS"));
+  }
+
+  private static Set<Material> materials() {
+    return new HashSet<>(Arrays.asList(
+        Material.LEATHER_HELMET, Material.DIAMOND_LEGGINGS, Material.GOLDEN_BOOTS,
+        Material.NETHERITE_HELMET, Material.IRON_CHESTPLATE));
+  }
+
+  @BeforeEach
+  public void setUp() {
+    MockBukkit.mock();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testSlotOfUsesMaterialName() {
+    assertEquals(ArmorRules.HELMET, ArmorRules.slotOf(Material.IRON_HELMET));
+    assertEquals(ArmorRules.CHESTPLATE, ArmorRules.slotOf(Material.NETHERITE_CHESTPLATE));
+    assertEquals(ArmorRules.LEGGINGS, ArmorRules.slotOf(Material.LEATHER_LEGGINGS));
+    assertEquals(ArmorRules.BOOTS, ArmorRules.slotOf(Material.GOLDEN_BOOTS));
+    assertEquals(-1, ArmorRules.slotOf(Material.ELYTRA));
+    assertEquals(-1, ArmorRules.slotOf(null));
+  }
+
+  @Test
+  public void testSlotsAndMaterialsBothRequired() {
+    ArmorRules rules = ArmorRules.of(Arrays.asList("helmet", "bogus"),
+        EnumSet.of(Material.IRON_HELMET, Material.IRON_BOOTS));
+
+    assertEquals(1 << ArmorRules.HELMET, rules.getSlotMask());
+    assertTrue(rules.matches(ArmorRules.HELMET, new ItemStack(Material.IRON_HELMET)));
+    assertFalse(rules.matches(ArmorRules.BOOTS, new ItemStack(Material.IRON_BOOTS)), "Boots slot is not enabled");
+    assertFalse(rules.matches(ArmorRules.HELMET, new ItemStack(Material.DIAMOND_HELMET)));
+    assertFalse(rules.matches(ArmorRules.HELMET, null));
+    assertFalse(rules.matches(ArmorRules.HELMET, new ItemStack(Material.AIR)));
+  }
+
+  @Test
+  public void testInventoryCheckReadsArmorSlots() {
+    PlayerMock player = MockBukkit.getMock().addPlayer();
+    ArmorRules rules = ArmorRules.of(Arrays.asList("BOOTS", "HELMET"), EnumSet.of(Material.IRON_BOOTS));
+
+    assertEquals(-1, rules.firstMatch(player.getInventory()));
+    player.getInventory().setBoots(new ItemStack(Material.IRON_BOOTS));
+    assertEquals(ArmorRules.BOOTS, rules.firstMatch(player.getInventory()));
+  }
+
+  @Test
+  public void testMatchesOldCheckOnRandomInventories() {
+    Set<String> slots = slots();
+    Set<Material> materials = materials();
+    ArmorRules rules = ArmorRules.of(slots, materials);
+    ItemStack[][] inventories = randomInventories(new Random(42));
+
+    int matches = 0;
+    for (ItemStack[] contents : inventories) {
+      boolean expected = oldCheck(contents, slots, materials);
+      assertEquals(expected, rules.firstMatch(contents) >= 0, () -> Arrays.toString(contents));
+      if (expected) {
+        matches++;
+      }
+    }
+    assertTrue(matches > 0 && matches < INVENTORIES, "Randomized inventories should cover both outcomes");
+  }
+
+  @Test
+  @Tag("benchmark")
+  public void testCompareWithOldCheck() {
+    Set<String> slots = slots();
+    Set<Material> materials = materials();
+    ArmorRules rules = ArmorRules.of(slots, materials);
+    ItemStack[][] inventories = randomInventories(new Random(42));
+
+    // Warm up both paths before timing
+    int sink = 0;
+    for (int i = 0; i < 5; i++) {
+      sink += runOld(inventories, slots, materials) + runNew(inventories, rules);
+    }
+    long oldStart = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      sink += runOld(inventories, slots, materials);
+    }
+    long oldTime = System.nanoTime() - oldStart;
+    long newStart = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      sink += runNew(inventories, rules);
+    }
+    long newTime = System.nanoTime() - newStart;
+
+    System.out.printf("[ArmorRulesTest] %d checks: HashSet %.2f ms, ArmorRules %.2f ms (sink %d)%n",
+        INVENTORIES * ROUNDS, oldTime / 1e6, newTime / 1e6, sink);
+  }
+
+  @Test
+  public void testEmptyRulesMatchNothing() {
+    ArmorRules rules = ArmorRules.of(Collections.emptyList(), Collections.emptyList());
+    ItemStack[] contents = {new ItemStack(Material.IRON_BOOTS), null, null, new ItemStack(Material.IRON_HELMET)};
+
+    assertEquals(-1, rules.firstMatch(contents));
+  }
+
+  /** The check from before ArmorRules, kept verbatim as the reference. */
+  private static boolean oldCheck(ItemStack[] armorContents, Set<String> validArmorSlots,
+      Set<Material> validArmorMaterials) {
+    int slotIndex = 0;
+    String[] slotNames = {"BOOTS", "LEGGINGS", "CHESTPLATE", "HELMET"};
+    for (ItemStack armor : armorContents) {
+      String slotName = slotNames[slotIndex];
+      if (armor != null && armor.getType() != Material.AIR && validArmorSlots.contains(slotName)
+          && validArmorMaterials.contains(armor.getType())) {
+        return true;
+      }
+      slotIndex++;
+    }
+    return false;
+  }
+
+  private static int runOld(ItemStack[][] inventories, Set<String> slots, Set<Material> materials) {
+    int hits = 0;
+    for (ItemStack[] contents : inventories) {
+      if (oldCheck(contents, slots, materials)) {
+        hits++;
+      }
+    }
+    return hits;
+  }
+
+  private static int runNew(ItemStack[][] inventories, ArmorRules rules) {
+    int hits = 0;
+    for (ItemStack[] contents : inventories) {
+      if (rules.firstMatch(contents) >= 0) {
+        hits++;
+      }
+    }
+    return hits;
+  }
+
+  private static ItemStack[][] randomInventories(Random random) {
+    ItemStack[][] inventories = new ItemStack[INVENTORIES][];
+    for (int i = 0; i < INVENTORIES; i++) {
+      ItemStack[] contents = new ItemStack[4];
+      for (int slot = 0; slot < contents.length; slot++) {
+        // Mostly empty slots, as on a naked-and-afraid server
+        if (random.nextInt(4) == 0) {
+          contents[slot] = new ItemStack(POOL.get(random.nextInt(POOL.size())));
+        }
+      }
+      inventories[i] = contents;
+    }
+    return inventories;
+  }
+}
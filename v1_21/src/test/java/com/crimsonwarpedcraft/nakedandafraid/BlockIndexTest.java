@@ -0,0 +1,84 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.BlockIndex;
+import org.bukkit.World;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import static com.crimsonwarpedcraft.nakedandafraid.TestLoggers.QUIET;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockIndexTest {
+
+  private ServerMock server;
+  private BlockIndex<String> index;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    index = new BlockIndex<>(QUIET);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testPackRoundTripsNegativeAndExtremeCoordinates() {
+    int[][] cases = {{0, 0, 0}, {-1, -64, -1}, {29_999_999, 319, -29_999_999}, {-30_000_000, -2048, 12345}};
+    for (int[] c : cases) {
+      long key = BlockIndex.pack(c[0], c[1], c[2]);
+      assertEquals(c[0], BlockIndex.unpackX(key));
+      assertEquals(c[1], BlockIndex.unpackY(key));
+      assertEquals(c[2], BlockIndex.unpackZ(key));
+    }
+  }
+
+  @Test
+  public void testLookupByBlockAndMove() {
+    World world = server.addSimpleWorld("arena");
+    index.put("red", "arena", 10, 64, -5);
+
+    assertEquals("red", index.get(world.getBlockAt(10, 64, -5)));
+    assertNull(index.get(world.getBlockAt(10, 65, -5)));
+
+    index.put("red", "arena", 0, 70, 0);
+    assertNull(index.get(world, 10, 64, -5));
+    assertEquals("red", index.get(world, 0, 70, 0));
+    assertEquals(70, index.locationOf("red").getBlockY());
+  }
+
+  @Test
+  public void testClaimingATakenBlockEvictsThePreviousOwner() {
+    World world = server.addSimpleWorld("arena");
+    index.put("red", "arena", 1, 2, 3);
+    index.put("blue", "arena", 1, 2, 3);
+
+    assertEquals("blue", index.get(world, 1, 2, 3));
+    assertNull(index.positionOf("red"));
+  }
+
+  @Test
+  public void testPositionInUnloadedWorldBindsOnLoad() {
+    index.put("green", "later", 4, 5, 6);
+    assertFalse(index.positionOf("green").isBound());
+    assertNull(index.locationOf("green"));
+
+    World later = server.addSimpleWorld("later");
+    index.onWorldLoad(new WorldLoadEvent(later));
+
+    assertTrue(index.positionOf("green").isBound());
+    assertEquals("green", index.get(later, 4, 5, 6));
+
+    index.onWorldUnload(new WorldUnloadEvent(later));
+    assertFalse(index.positionOf("green").isBound());
+    assertEquals("later", index.positionOf("green").getWorldName());
+    assertEquals(6, index.positionOf("green").getZ());
+  }
+}
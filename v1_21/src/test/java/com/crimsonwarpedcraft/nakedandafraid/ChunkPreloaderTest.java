@@ -0,0 +1,83 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ChunkPreloader;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.crimsonwarpedcraft.nakedandafraid.TestLoggers.QUIET;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MockBukkit isn't Paper, so {@link ChunkPreloader} takes its Spigot fallback
+ * here: synchronous loads spread over ticks, one load per chunk however many
+ * ask for it.
+ */
+public class ChunkPreloaderTest {
+
+  private ServerMock server;
+  private World world;
+  private ChunkPreloader preloader;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    Plugin plugin = MockBukkit.createMockPlugin();
+    world = server.addSimpleWorld("arena");
+    preloader = new ChunkPreloader(plugin, QUIET, 2);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testLoadsAFewChunksPerTick() {
+    List<CompletableFuture<Chunk>> loads = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      loads.add(preloader.preload(new Location(world, 10_000 + i * 64, 64, 10_000)));
+    }
+    assertEquals(5, preloader.pendingLoads());
+    assertTrue(loads.stream().noneMatch(CompletableFuture::isDone), "Nothing loads in the requesting tick");
+
+    server.getScheduler().performOneTick();
+    assertEquals(2, loads.stream().filter(CompletableFuture::isDone).count());
+
+    server.getScheduler().performTicks(2);
+    assertTrue(loads.stream().allMatch(CompletableFuture::isDone));
+    assertEquals(0, preloader.pendingLoads());
+    assertTrue(world.isChunkLoaded((10_000 + 4 * 64) >> 4, 10_000 >> 4));
+    Chunk last = loads.get(4).join();
+    assertEquals((10_000 + 4 * 64) >> 4, last.getX());
+    assertEquals(10_000 >> 4, last.getZ());
+  }
+
+  @Test
+  public void testSameChunkSharesOneLoad() {
+    CompletableFuture<Chunk> first = preloader.preload(new Location(world, -20_000, 64, -20_000));
+    CompletableFuture<Chunk> second = preloader.preload(new Location(world, -19_995, 70, -19_990));
+
+    assertSame(first, second);
+    assertEquals(1, preloader.pendingLoads());
+  }
+
+  @Test
+  public void testLoadedChunkCompletesImmediately() {
+    Location spawn = new Location(world, 0, 64, 0);
+    world.getChunkAt(spawn);
+
+    assertTrue(preloader.preload(spawn).isDone());
+    assertEquals(0, preloader.pendingLoads());
+  }
+}
@@ -0,0 +1,124 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.CountdownTicker;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.crimsonwarpedcraft.nakedandafraid.TestLoggers.QUIET;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CountdownTickerTest {
+
+  private ServerMock server;
+  private CountdownTicker ticker;
+  private final List<String> events = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    ticker = new CountdownTicker(MockBukkit.createMockPlugin(), QUIET,
+        ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", c -> false),
+        Sound.BLOCK_NOTE_BLOCK_BELL, Sound.BLOCK_NOTE_BLOCK_PLING);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  private void start(Player player, int seconds) {
+    ticker.start(new CountdownTicker.Participant() {
+      @Override
+      public Player getPlayer() {
+        return player;
+      }
+
+      @Override
+      public void onStart() {
+        events.add("start " + player.getName());
+      }
+
+      @Override
+      public void onFinish() {
+        events.add("finish " + player.getName());
+      }
+
+      @Override
+      public void onLeave() {
+        events.add("leave " + player.getName());
+      }
+    }, seconds, "Game starts in {time}", "GREEN");
+  }
+
+  @Test
+  public void testSameTickCountdownsFinishTogether() {
+    PlayerMock alice = server.addPlayer("alice");
+    PlayerMock bob = server.addPlayer("bob");
+    start(alice, 2);
+    start(bob, 2);
+    assertTrue(ticker.isCountingDown(alice));
+
+    server.getScheduler().performOneTick();
+    assertEquals(List.of("start alice", "start bob"), events);
+
+    server.getScheduler().performTicks(40);
+    assertEquals(List.of("start alice", "start bob", "finish alice", "finish bob"), events);
+    assertFalse(ticker.isCountingDown(alice));
+    assertFalse(ticker.isCountingDown(bob));
+  }
+
+  @Test
+  public void testLaterCountdownKeepsItsOwnSchedule() {
+    PlayerMock alice = server.addPlayer("alice");
+    PlayerMock bob = server.addPlayer("bob");
+    start(alice, 1);
+    server.getScheduler().performOneTick();
+    start(bob, 1);
+
+    server.getScheduler().performTicks(20);
+    assertTrue(events.contains("finish alice"));
+    assertFalse(events.contains("finish bob"));
+    assertTrue(ticker.isCountingDown(bob));
+
+    server.getScheduler().performOneTick();
+    assertTrue(events.contains("finish bob"));
+  }
+
+  @Test
+  public void testPlayerWhoLeavesIsDropped() {
+    PlayerMock alice = server.addPlayer("alice");
+    PlayerMock bob = server.addPlayer("bob");
+    start(alice, 2);
+    start(bob, 2);
+    server.getScheduler().performOneTick();
+
+    bob.disconnect();
+    server.getScheduler().performTicks(40);
+
+    assertEquals(List.of("start alice", "start bob", "leave bob", "finish alice"), events);
+    assertFalse(ticker.isCountingDown(bob));
+  }
+
+  @Test
+  public void testShutdownEndsRunningCountdowns() {
+    PlayerMock alice = server.addPlayer("alice");
+    start(alice, 5);
+    server.getScheduler().performOneTick();
+
+    ticker.shutdown();
+    server.getScheduler().performTicks(200);
+
+    assertEquals(List.of("start alice", "leave alice"), events);
+    assertFalse(ticker.isCountingDown(alice));
+  }
+}
@@ -0,0 +1,115 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * With debug-mode off a debugLog call should cost the gate read and nothing
+ * else. Allocation is measured with the HotSpot per-thread counter and the
+ * test is skipped on JVMs without one.
+ */
+public class DebugLogAllocationTest {
+
+  private static final int ITERATIONS = 100_000;
+  private static final Supplier<String> SUPPLIER = () -> "[DebugLogAllocationTest] " + System.nanoTime();
+
+  private Plugin mockPlugin;
+  private FileConfiguration mockConfig;
+  private Logger spyLogger;
+  private NakedAndAfraid pluginClass;
+
+  @BeforeEach
+  public void setUp() {
+    mockPlugin = mock(Plugin.class);
+    mockConfig = mock(FileConfiguration.class);
+    spyLogger = spy(Logger.getLogger("DebugLogAllocationTest"));
+    doReturn(mockConfig).when(mockPlugin).getConfig();
+    doReturn(spyLogger).when(mockPlugin).getLogger();
+    doReturn(false).when(mockConfig).getBoolean("debug-mode", false);
+
+    pluginClass = new NakedAndAfraid(mockPlugin);
+    pluginClass.reloadConfigSnapshot();
+  }
+
+  @Test
+  public void testDisabledDebugLogDoesNotBuildMessage() {
+    @SuppressWarnings("unchecked")
+    Supplier<String> supplier = mock(Supplier.class);
+
+    pluginClass.debugLog(supplier);
+    pluginClass.debugLog("[DebugLogAllocationTest] {}", new Object());
+
+    verify(supplier, never()).get();
+    verifyNoInteractions(spyLogger);
+  }
+
+  @Test
+  public void testDisabledDebugLogDoesNotAllocate() {
+    com.sun.management.ThreadMXBean threads = threadMXBean();
+    assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported(),
+        "Per-thread allocation counters not available on this JVM");
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    long threadId = Thread.currentThread().getId();
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+
+    // Warm up so the measured loop runs compiled code and the counter itself is initialised
+    for (int i = 0; i < 5; i++) {
+      runDisabledCalls(first, second);
+    }
+    threads.getThreadAllocatedBytes(threadId);
+
+    long before = threads.getThreadAllocatedBytes(threadId);
+    runDisabledCalls(first, second);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    // Any per-call allocation would show up as at least ITERATIONS * 16 bytes
+    assertTrue(allocated < 1024,
+        "Disabled debugLog allocated " + allocated + " bytes over " + ITERATIONS + " iterations");
+    verifyNoInteractions(spyLogger);
+  }
+
+  @Test
+  public void testEnabledDebugLogFormatsPlaceholders() {
+    doReturn(true).when(mockConfig).getBoolean("debug-mode", false);
+    pluginClass.reloadConfigSnapshot();
+
+    pluginClass.debugLog("[DebugLogAllocationTest] {} of {}", 3, 10);
+    pluginClass.debugLog(() -> "[DebugLogAllocationTest] supplied");
+
+    verify(spyLogger).info("[DebugLogAllocationTest] 3 of 10");
+    verify(spyLogger).info("[DebugLogAllocationTest] supplied");
+  }
+
+  private void runDisabledCalls(UUID first, UUID second) {
+    for (int i = 0; i < ITERATIONS; i++) {
+      pluginClass.debugLog("[DebugLogAllocationTest] constant message");
+      pluginClass.debugLog(SUPPLIER);
+      pluginClass.debugLog("[DebugLogAllocationTest] player {}", first);
+      pluginClass.debugLog("[DebugLogAllocationTest] {} -> {}", first, second);
+      pluginClass.debugLog("[DebugLogAllocationTest] {} -> {} -> {}", first, second, first);
+      // A message built from locals must sit behind the gate: a capturing lambda allocates per call
+      if (pluginClass.isDebugEnabled()) {
+        pluginClass.debugLog("[DebugLogAllocationTest] " + first + " swapped with " + second);
+      }
+    }
+  }
+
+  private static com.sun.management.ThreadMXBean threadMXBean() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+  }
+}
@@ -0,0 +1,89 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.config.ConfigSnapshot;
+import com.crimsonwarpedcraft.nakedandafraid.common.config.EnabledWorldIndex;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnabledWorldIndexTest {
+
+  private ServerMock server;
+  private ConfigSnapshot snapshot;
+  private EnabledWorldIndex index;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    snapshot = snapshotWith("lobby", false);
+    index = new EnabledWorldIndex(() -> snapshot);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testRebuildResolvesConfiguredWorlds() {
+    World arena = server.addSimpleWorld("arena");
+    World lobby = server.addSimpleWorld("lobby");
+
+    index.rebuild(snapshot, Arrays.asList(arena, lobby));
+
+    assertEquals(2, index.size());
+    assertTrue(index.isEnabled(arena), "Worlds missing from enabled-worlds default to enabled");
+    assertFalse(index.isEnabled(lobby));
+  }
+
+  @Test
+  public void testUnindexedWorldFallsBackToConfig() {
+    World lobby = server.addSimpleWorld("lobby");
+
+    index.rebuild(snapshot, Collections.emptyList());
+
+    assertFalse(index.isEnabled(lobby));
+  }
+
+  @Test
+  public void testWorldLoadAndUnloadUpdateIndex() {
+    World lobby = server.addSimpleWorld("lobby");
+    index.rebuild(snapshot, Collections.emptyList());
+
+    index.onWorldLoad(new WorldLoadEvent(lobby));
+    assertEquals(1, index.size());
+    assertFalse(index.isEnabled(lobby));
+
+    index.onWorldUnload(new WorldUnloadEvent(lobby));
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  public void testRebuildPicksUpConfigChange() {
+    World lobby = server.addSimpleWorld("lobby");
+    index.rebuild(snapshot, Collections.singletonList(lobby));
+    assertFalse(index.isEnabled(lobby));
+
+    snapshot = snapshotWith("lobby", true);
+    index.rebuild(snapshot, Collections.singletonList(lobby));
+
+    assertTrue(index.isEnabled(lobby));
+  }
+
+  private static ConfigSnapshot snapshotWith(String worldName, boolean enabled) {
+    YamlConfiguration config = new YamlConfiguration();
+    config.set("enabled-worlds." + worldName, enabled);
+    return ConfigSnapshot.of(config);
+  }
+}
@@ -0,0 +1,83 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.listeners.FreezeEngine;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import static com.crimsonwarpedcraft.nakedandafraid.TestLoggers.QUIET;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Frozen players can look around but not walk; nobody frozen means no listener. */
+public class FreezeEngineTest {
+
+  private ServerMock server;
+  private World world;
+  private FreezeEngine freezes;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    world = server.addSimpleWorld("arena");
+    freezes = new FreezeEngine(MockBukkit.createMockPlugin(), QUIET,
+        ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", c -> false));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  private int moveListeners() {
+    return PlayerMoveEvent.getHandlerList().getRegisteredListeners().length;
+  }
+
+  @Test
+  public void testListensOnlyWhileSomeoneIsFrozen() {
+    PlayerMock player = server.addPlayer("alice");
+    int before = moveListeners();
+
+    freezes.freeze(player);
+    assertEquals(before + 1, moveListeners());
+
+    freezes.unfreeze(player);
+    assertEquals(before, moveListeners());
+    assertFalse(freezes.isFrozen(player));
+  }
+
+  @Test
+  public void testFrozenPlayerCanLookButNotMove() {
+    PlayerMock player = server.addPlayer("alice");
+    freezes.freeze(player);
+    Location from = new Location(world, 0, 64, 0, 0, 0);
+
+    PlayerMoveEvent look = new PlayerMoveEvent(player, from, new Location(world, 0, 64, 0, 90, 10));
+    Location lookTarget = look.getTo();
+    freezes.onPlayerMove(look);
+    assertSame(lookTarget, look.getTo(), "Turning the head is left alone");
+
+    PlayerMoveEvent walk = new PlayerMoveEvent(player, from, new Location(world, 1, 64, 0, 45, 5));
+    freezes.onPlayerMove(walk);
+    assertEquals(0, walk.getTo().getX());
+    assertEquals(45, walk.getTo().getYaw());
+  }
+
+  @Test
+  public void testQuitUnfreezes() {
+    PlayerMock player = server.addPlayer("alice");
+    int before = moveListeners();
+    freezes.freeze(player);
+
+    player.disconnect();
+
+    assertEquals(0, freezes.frozenCount());
+    assertEquals(before, moveListeners());
+  }
+}
@@ -0,0 +1,122 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.MassTeleportScheduler;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.crimsonwarpedcraft.nakedandafraid.TestLoggers.QUIET;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MassTeleportSchedulerTest {
+
+  private ServerMock server;
+  private World world;
+  private PlayerMock admin;
+  private final List<String> teleported = new ArrayList<>();
+  private MassTeleportScheduler scheduler;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    world = server.addSimpleWorld("arena");
+    admin = server.addPlayer("admin");
+    for (String name : Arrays.asList("alice", "bob", "carol")) {
+      server.addPlayer(name);
+    }
+    MassTeleportScheduler.Teleporter teleporter = (Player player, Location target) -> {
+      teleported.add(player.getName());
+      return CompletableFuture.completedFuture(true);
+    };
+    scheduler = new MassTeleportScheduler(MockBukkit.createMockPlugin(), QUIET,
+        ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", c -> false), teleporter);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  private List<MassTeleportScheduler.Assignment> assignments(String... names) {
+    List<MassTeleportScheduler.Assignment> list = new ArrayList<>();
+    for (String name : names) {
+      list.add(new MassTeleportScheduler.Assignment(name, new Location(world, 0, 64, 0)));
+    }
+    return list;
+  }
+
+  private List<String> messages() {
+    List<String> messages = new ArrayList<>();
+    String message;
+    while ((message = admin.nextMessage()) != null) {
+      messages.add(message);
+    }
+    return messages;
+  }
+
+  @Test
+  public void testStartsAtMostPlayersPerTick() {
+    assertTrue(scheduler.start(admin, assignments("alice", "bob", "carol", "ghost"), 2, 0));
+    assertTrue(teleported.isEmpty(), "Nothing teleports in the command's tick");
+
+    server.getScheduler().performOneTick();
+    assertEquals(Arrays.asList("alice", "bob"), teleported);
+    assertTrue(scheduler.isRunning());
+
+    server.getScheduler().performOneTick();
+    assertEquals(Arrays.asList("alice", "bob", "carol"), teleported);
+    assertFalse(scheduler.isRunning());
+
+    List<String> messages = messages();
+    assertTrue(messages.stream().anyMatch(m -> m.contains("Teleported 3/4 players.")), messages.toString());
+    assertTrue(messages.stream().anyMatch(m -> m.contains("Offline: ghost")), messages.toString());
+  }
+
+  @Test
+  public void testOnlyOneRunAtATime() {
+    assertTrue(scheduler.start(admin, assignments("alice"), 1, 0));
+    assertFalse(scheduler.start(admin, assignments("bob"), 1, 0));
+  }
+
+  @Test
+  public void testCancelStopsFurtherWaves() {
+    scheduler.start(admin, assignments("alice", "bob", "carol"), 1, 0);
+    server.getScheduler().performOneTick();
+
+    assertTrue(scheduler.cancel());
+    assertFalse(scheduler.isRunning());
+    server.getScheduler().performTicks(5);
+
+    assertEquals(Arrays.asList("alice"), teleported);
+    List<String> messages = messages();
+    assertTrue(messages.stream().anyMatch(m -> m.contains("Teleport cancelled")), messages.toString());
+    assertTrue(messages.stream().anyMatch(m -> m.contains("Not started: 2")), messages.toString());
+    assertFalse(scheduler.cancel(), "Nothing left to cancel");
+  }
+
+  @Test
+  public void testShutdownStopsWithoutSummary() {
+    scheduler.start(admin, assignments("alice", "bob", "carol"), 1, 0);
+    server.getScheduler().performOneTick();
+    messages();
+
+    scheduler.shutdown();
+    server.getScheduler().performTicks(5);
+
+    assertFalse(scheduler.isRunning());
+    assertEquals(Arrays.asList("alice"), teleported);
+    assertTrue(messages().isEmpty(), "The sender isn't messaged while the plugin goes down");
+  }
+}
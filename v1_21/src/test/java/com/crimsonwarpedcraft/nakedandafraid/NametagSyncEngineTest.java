@@ -0,0 +1,151 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.listeners.NametagSyncEngine;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import org.bukkit.ChatColor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.crimsonwarpedcraft.nakedandafraid.TestLoggers.QUIET;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against MockBukkit's main scoreboard, where the engine's teams show up
+ * as {@code naf_<team>}. Changes land one tick after they are made.
+ */
+public class NametagSyncEngineTest {
+
+  private ServerMock server;
+  private NametagSyncEngine nametags;
+  private Scoreboard scoreboard;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    Plugin plugin = MockBukkit.createMockPlugin();
+    nametags = new NametagSyncEngine(plugin, QUIET, ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", c -> false));
+    server.getPluginManager().registerEvents(nametags, plugin);
+    scoreboard = server.getScoreboardManager().getMainScoreboard();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testNothingShowsUntilActivated() {
+    PlayerMock alice = server.addPlayer("alice");
+    nametags.define("Red", "RED", List.of(alice.getUniqueId()));
+    server.getScheduler().performOneTick();
+    assertNull(scoreboard.getTeam("naf_Red"));
+
+    assertTrue(nametags.activate("red"));
+    assertFalse(nametags.activate("Red"));
+    assertNull(scoreboard.getTeam("naf_Red"), "Changes wait for the next tick");
+
+    server.getScheduler().performOneTick();
+    Team red = scoreboard.getTeam("naf_Red");
+    assertNotNull(red);
+    assertEquals(ChatColor.RED, red.getColor());
+    assertEquals(Set.of("alice"), red.getEntries());
+  }
+
+  @Test
+  public void testMembershipAndColorDiffs() {
+    PlayerMock alice = server.addPlayer("alice");
+    PlayerMock bob = server.addPlayer("bob");
+    nametags.define("Red", "RED", List.of(alice.getUniqueId(), bob.getUniqueId()));
+    nametags.define("Blue", "BLUE", List.of());
+    nametags.activate("Red");
+    nametags.activate("Blue");
+    server.getScheduler().performOneTick();
+
+    nametags.removeMember("Red", bob.getUniqueId());
+    nametags.addMember("Blue", bob.getUniqueId());
+    nametags.setColor("Red", "GOLD");
+    server.getScheduler().performOneTick();
+
+    assertEquals(Set.of("alice"), scoreboard.getTeam("naf_Red").getEntries());
+    assertEquals(ChatColor.GOLD, scoreboard.getTeam("naf_Red").getColor());
+    assertEquals(Set.of("bob"), scoreboard.getTeam("naf_Blue").getEntries());
+  }
+
+  @Test
+  public void testEntriesFollowOnlineState() {
+    PlayerMock alice = server.addPlayer("alice");
+    nametags.define("Red", "RED", List.of(alice.getUniqueId()));
+    nametags.activate("Red");
+    server.getScheduler().performOneTick();
+
+    alice.disconnect();
+    server.getScheduler().performOneTick();
+    assertTrue(scoreboard.getTeam("naf_Red").getEntries().isEmpty());
+
+    alice.reconnect();
+    server.getScheduler().performOneTick();
+    assertEquals(Set.of("alice"), scoreboard.getTeam("naf_Red").getEntries());
+  }
+
+  @Test
+  public void testRemovedTeamIsUnregistered() {
+    PlayerMock alice = server.addPlayer("alice");
+    nametags.define("Red", "RED", List.of(alice.getUniqueId()));
+    nametags.activate("Red");
+    server.getScheduler().performOneTick();
+
+    nametags.remove("Red");
+    server.getScheduler().performOneTick();
+    assertNull(scoreboard.getTeam("naf_Red"));
+  }
+
+  @Test
+  public void testShortenedNamesStayApart() {
+    nametags = new NametagSyncEngine(MockBukkit.createMockPlugin(), QUIET,
+        ServerCapabilities.of("1.17.1-R0.1-SNAPSHOT", c -> false));
+    PlayerMock alice = server.addPlayer("alice");
+    PlayerMock bob = server.addPlayer("bob");
+    nametags.define("Mountaineers_A", "RED", List.of(alice.getUniqueId()));
+    nametags.define("Mountaineers_B", "BLUE", List.of(bob.getUniqueId()));
+    nametags.activate("Mountaineers_A");
+    nametags.activate("Mountaineers_B");
+    server.getScheduler().performOneTick();
+
+    Team first = scoreboard.getEntryTeam("alice");
+    Team second = scoreboard.getEntryTeam("bob");
+    assertNotEquals(first.getName(), second.getName());
+    assertTrue(first.getName().length() <= 16 && second.getName().length() <= 16);
+    assertTrue(first.getName().startsWith("naf_Mountain"));
+    assertEquals(ChatColor.RED, first.getColor());
+    assertEquals(ChatColor.BLUE, second.getColor());
+  }
+
+  @Test
+  public void testOnlyOwnTeamsAreTouched() {
+    scoreboard.registerNewTeam("Red").addEntry("alice");
+    scoreboard.registerNewTeam("naf_Leftover");
+    nametags = new NametagSyncEngine(MockBukkit.createMockPlugin(), QUIET,
+        ServerCapabilities.of("1.21.4-R0.1-SNAPSHOT", c -> false));
+    assertNull(scoreboard.getTeam("naf_Leftover"), "Leftovers from a crash are swept");
+
+    PlayerMock alice = server.addPlayer("alice");
+    nametags.define("Red", "RED", List.of(alice.getUniqueId()));
+    nametags.activate("Red");
+    server.getScheduler().performOneTick();
+    assertNotNull(scoreboard.getTeam("naf_Red"));
+
+    nametags.shutdown();
+    assertNull(scoreboard.getTeam("naf_Red"));
+    assertNotNull(scoreboard.getTeam("Red"), "Teams made by others stay");
+  }
+}
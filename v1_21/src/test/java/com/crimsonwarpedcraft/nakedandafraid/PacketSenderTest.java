@@ -0,0 +1,104 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PacketSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link PacketSender} against stand-ins for the CraftBukkit player, its NMS
+ * handle and the connection, declared at the bottom of this file.
+ */
+public class PacketSenderTest {
+
+  private ServerMock server;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testSendsThroughResolvedHandles() throws Exception {
+    FakeCraftPlayer player = new FakeCraftPlayer(server, "Alice");
+    server.addPlayer(player);
+    PacketSender sender = PacketSender.resolve(FakeCraftPlayer.class,
+        new String[]{"connection"}, FakePacket.class, new String[]{"send", "sendPacket"});
+
+    FakePacket packet = new FakePacket() {};
+    sender.send(player, packet);
+    sender.send(player, packet);
+
+    assertSame(player.getHandle(), sender.handle(player));
+    assertEquals(List.of(packet, packet), player.getHandle().connection.sent);
+  }
+
+  @Test
+  public void testFallsBackToLaterCandidateNames() throws Exception {
+    FakeCraftPlayer player = new FakeCraftPlayer(server, "Bob");
+    server.addPlayer(player);
+    PacketSender sender = PacketSender.resolve(FakeCraftPlayer.class,
+        new String[]{"playerConnection", "connection"}, FakePacket.class, new String[]{"sendPacket", "send"});
+
+    sender.send(player, new FakePacket() {});
+
+    assertEquals(1, player.getHandle().connection.sent.size());
+  }
+
+  @Test
+  public void testMissingMembersFailAtResolve() {
+    NoSuchFieldException field = assertThrows(NoSuchFieldException.class, () -> PacketSender.resolve(
+        FakeCraftPlayer.class, new String[]{"playerConnection"}, FakePacket.class, new String[]{"send"}));
+    assertTrue(field.getMessage().contains("playerConnection"));
+
+    assertThrows(NoSuchMethodException.class, () -> PacketSender.resolve(
+        FakeCraftPlayer.class, new String[]{"connection"}, FakePacket.class, new String[]{"sendPacket"}));
+    assertThrows(NoSuchMethodException.class, () -> PacketSender.resolve(
+        PlayerMock.class, new String[]{"connection"}, FakePacket.class, new String[]{"send"}));
+  }
+
+  /** Stand-in for the NMS {@code Packet} interface. */
+  public interface FakePacket {
+  }
+
+  /** Stand-in for the connection, recording what it's sent. */
+  public static class FakeConnection {
+    public final List<Object> sent = new ArrayList<>();
+
+    public void send(FakePacket packet) {
+      sent.add(packet);
+    }
+  }
+
+  /** Stand-in for {@code ServerPlayer}. */
+  public static class FakeHandle {
+    public final FakeConnection connection = new FakeConnection();
+  }
+
+  /** Stand-in for {@code CraftPlayer}. */
+  public static class FakeCraftPlayer extends PlayerMock {
+    private final FakeHandle handle = new FakeHandle();
+
+    public FakeCraftPlayer(ServerMock server, String name) {
+      super(server, name, UUID.randomUUID());
+    }
+
+    public FakeHandle getHandle() {
+      return handle;
+    }
+  }
+}
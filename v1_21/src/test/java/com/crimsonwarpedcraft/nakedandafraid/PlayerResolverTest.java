@@ -0,0 +1,191 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PlayerResolver;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.crimsonwarpedcraft.nakedandafraid.TestLoggers.QUIET;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The profile lookup is a stub that records every batch it is given, run on
+ * the calling thread so the scheduler decides when lookups happen.
+ */
+public class PlayerResolverTest {
+
+  private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000b0b0");
+  private static final UUID CAROL = UUID.fromString("00000000-0000-0000-0000-0000000ca201");
+
+  @TempDir
+  File dir;
+
+  private ServerMock server;
+  private Plugin plugin;
+  private final List<List<String>> lookups = new ArrayList<>();
+
+  /** Stands in for Mojang: knows Bob and Carol, spelled the way the API would. */
+  private final PlayerResolver.ProfileLookup stub = names -> {
+    lookups.add(new ArrayList<>(names));
+    Map<String, UUID> found = new HashMap<>();
+    for (String name : names) {
+      if (name.equalsIgnoreCase("bob")) {
+        found.put("Bob", BOB);
+      } else if (name.equalsIgnoreCase("carol")) {
+        found.put("Carol", CAROL);
+      }
+    }
+    return found;
+  };
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    plugin = MockBukkit.createMockPlugin();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  private PlayerResolver resolver(PlayerResolver.ProfileLookup lookup, boolean onlineMode) {
+    // Runs the lookup on the calling thread so the test controls when it happens
+    return new PlayerResolver(plugin, QUIET, new File(dir, "usercache.json"), new File(dir, "players.yml"),
+        lookup, Runnable::run, onlineMode);
+  }
+
+  @Test
+  public void testOnlinePlayerNeedsNoLookup() {
+    PlayerMock alice = server.addPlayer("alice");
+    AtomicReference<PlayerResolver.Resolved> result = new AtomicReference<>();
+
+    resolver(stub, true).resolve("alice", result::set);
+
+    assertEquals(alice.getUniqueId(), result.get().getUniqueId(), "Answered on the calling thread");
+    assertTrue(result.get().hasJoined());
+    server.getScheduler().performTicks(2);
+    assertTrue(lookups.isEmpty());
+  }
+
+  @Test
+  public void testServerUsercacheNeedsNoLookup() throws IOException {
+    Files.write(new File(dir, "usercache.json").toPath(),
+        "[{\"name\":\"Dave\",\"uuid\":\"00000000-0000-0000-0000-00000000da7e\",\"expiresOn\":\"2030-01-01 00:00:00 +0000\"}]"
+            .getBytes(StandardCharsets.UTF_8));
+    AtomicReference<PlayerResolver.Resolved> result = new AtomicReference<>();
+
+    resolver(stub, true).resolve("dave", result::set);
+
+    assertEquals("Dave", result.get().getName());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-00000000da7e"), result.get().getUniqueId());
+    assertTrue(lookups.isEmpty());
+  }
+
+  @Test
+  public void testUnknownNamesShareOneLookup() {
+    AtomicReference<Map<String, PlayerResolver.Resolved>> result = new AtomicReference<>();
+
+    resolver(stub, true).resolveAll(List.of("Bob", "carol", "nobody"), result::set);
+    assertNull(result.get(), "Unknown names wait for the lookup");
+
+    server.getScheduler().performTicks(2);
+    assertEquals(1, lookups.size());
+    assertEquals(3, lookups.get(0).size());
+    assertEquals(BOB, result.get().get("Bob").getUniqueId());
+    assertEquals("Carol", result.get().get("carol").getName());
+    assertFalse(result.get().get("carol").hasJoined());
+    assertFalse(result.get().containsKey("nobody"));
+  }
+
+  @Test
+  public void testRepeatedNameWhileLookingUpSharesTheCall() {
+    PlayerResolver resolver = resolver(stub, true);
+    AtomicReference<PlayerResolver.Resolved> first = new AtomicReference<>();
+    AtomicReference<PlayerResolver.Resolved> second = new AtomicReference<>();
+
+    resolver.resolve("bob", first::set);
+    resolver.resolve("BOB", second::set);
+    server.getScheduler().performTicks(2);
+
+    assertEquals(List.of(List.of("bob")), lookups);
+    assertEquals(BOB, first.get().getUniqueId());
+    assertSame(first.get(), second.get());
+  }
+
+  @Test
+  public void testLookedUpNamesAreRememberedAcrossRestarts() {
+    PlayerResolver resolver = resolver(stub, true);
+    resolver.resolve("bob", resolved -> { });
+    server.getScheduler().performTicks(2);
+    resolver.shutdown();
+
+    PlayerResolver.ProfileLookup unreachable = names -> {
+      throw new AssertionError("Should have been answered from players.yml");
+    };
+    AtomicReference<PlayerResolver.Resolved> result = new AtomicReference<>();
+    resolver(unreachable, true).resolve("Bob", result::set);
+
+    assertEquals(BOB, result.get().getUniqueId());
+  }
+
+  @Test
+  public void testFailedLookupReportsNotFound() {
+    PlayerResolver.ProfileLookup failing = names -> {
+      throw new IOException("simulated HTTP 429");
+    };
+    AtomicBoolean called = new AtomicBoolean();
+    AtomicReference<PlayerResolver.Resolved> result = new AtomicReference<>();
+
+    resolver(failing, true).resolve("bob", resolved -> {
+      called.set(true);
+      result.set(resolved);
+    });
+    server.getScheduler().performTicks(2);
+
+    assertTrue(called.get());
+    assertNull(result.get());
+  }
+
+  @Test
+  public void testOfflineModeDerivesUuidWithoutLookup() {
+    AtomicReference<PlayerResolver.Resolved> result = new AtomicReference<>();
+
+    resolver(stub, false).resolve("Eve", result::set);
+
+    assertEquals(UUID.nameUUIDFromBytes("OfflinePlayer:Eve".getBytes(StandardCharsets.UTF_8)),
+        result.get().getUniqueId());
+    assertTrue(lookups.isEmpty());
+  }
+
+  @Test
+  public void testInvalidNameIsNotLookedUp() {
+    AtomicBoolean called = new AtomicBoolean();
+
+    resolver(stub, true).resolve("not a name!", resolved -> {
+      called.set(true);
+      assertNull(resolved);
+    });
+    server.getScheduler().performTicks(2);
+
+    assertTrue(called.get());
+    assertTrue(lookups.isEmpty());
+  }
+}
@@ -0,0 +1,80 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.SpawnIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpawnIndexTest {
+
+  private ServerMock server;
+  private SpawnIndex index;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    index = new SpawnIndex();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testUuidAndNameSpawnsResolveToTheSamePlayer() {
+    PlayerMock alice = server.addPlayer("alice");
+    index.add("north", alice.getUniqueId(), "OldAliceName");
+    index.add("south", null, "Alice");
+
+    assertEquals(List.of("north", "south"), index.spawnsFor(alice));
+    assertEquals("north", index.choose(alice, "FIRST", new Random()));
+    assertEquals("south", index.choose(alice, "LAST", new Random()));
+  }
+
+  @Test
+  public void testRenameKeepsOrderAndRemoveDropsTarget() {
+    PlayerMock bob = server.addPlayer("bob");
+    index.add("a", bob.getUniqueId(), "bob");
+    index.add("b", bob.getUniqueId(), "bob");
+
+    index.rename("a", "z");
+    assertEquals(List.of("z", "b"), index.spawnsFor(bob));
+
+    index.remove("z");
+    index.remove("b");
+    assertTrue(index.spawnsFor(bob).isEmpty());
+    assertNull(index.choose(bob, "RANDOM", new Random()));
+  }
+
+  @Test
+  public void testTargetsWithoutOnlinePlayers() {
+    PlayerMock carol = server.addPlayer("carol");
+    index.add("one", carol.getUniqueId(), "carol");
+    index.add("two", null, "dave");
+
+    assertEquals(List.of("dave"), index.targetsWithout(server.getOnlinePlayers()));
+  }
+
+  @Test
+  public void testOpenSpawnsBelongToNobody() {
+    PlayerMock erin = server.addPlayer("erin");
+    index.add("ring-1", null, null);
+    index.add("ring-2", null, null);
+
+    assertTrue(index.spawnsFor(erin).isEmpty());
+    assertTrue(index.targetsWithout(List.of()).isEmpty(), "Open spawns aren't offline targets");
+
+    index.rename("ring-1", "ring-9");
+    index.remove("ring-2");
+    assertEquals(List.of("ring-9"), index.openSpawns());
+  }
+}
@@ -0,0 +1,196 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.v1_21.NakedAndAfraid;
+import com.crimsonwarpedcraft.nakedandafraid.v1_21.listeners.TabListClearer;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Counts the tab-list packets {@link TabListClearer} sends when a player
+ * joins a populated server: one batched removal to the newcomer, one
+ * single-entry removal to everyone else. Also covers per-tick coalescing and
+ * the packet budget of its update queue.
+ */
+public class TabListJoinPacketTest {
+
+  private static final int ONLINE = 200;
+
+  private ServerMock server;
+  private CountingTabListClearer clearer;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    Plugin plugin = spy(MockBukkit.createMockPlugin());
+    doReturn(new YamlConfiguration()).when(plugin).getConfig();
+
+    NakedAndAfraid nakedAndAfraid = new NakedAndAfraid(plugin);
+    nakedAndAfraid.reloadConfigSnapshot();
+
+    for (int i = 0; i < ONLINE - 1; i++) {
+      server.addPlayer();
+    }
+    clearer = new CountingTabListClearer(nakedAndAfraid, plugin);
+    clearer.enable();
+    server.getScheduler().performTicks(2);
+    clearer.reset();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  @Test
+  public void testJoinSendsLinearPackets() {
+    PlayerMock joining = server.addPlayer();
+    server.getScheduler().performTicks(2);
+
+    int others = ONLINE - 1;
+    assertEquals(others + 1, clearer.removePackets, "One removal packet per online player");
+    assertEquals(others * 2, clearer.removeEntries,
+        "Newcomer gets everyone else; everyone else gets only the newcomer");
+    assertEquals(1, clearer.addPackets, "Only the newcomer gets their own entry added back");
+    assertEquals(others, clearer.entriesSentTo.get(joining.getUniqueId()));
+
+    for (Player other : server.getOnlinePlayers()) {
+      if (!other.equals(joining)) {
+        assertEquals(1, clearer.entriesSentTo.get(other.getUniqueId()), "Existing players only lose the newcomer");
+      }
+    }
+  }
+
+  @Test
+  public void testQuitSendsNothing() {
+    PlayerMock leaving = (PlayerMock) server.getOnlinePlayers().iterator().next();
+
+    leaving.disconnect();
+    server.getScheduler().performTicks(2);
+
+    assertEquals(0, clearer.removePackets + clearer.addPackets);
+  }
+
+  @Test
+  public void testNothingSentWhileDisabled() {
+    clearer.disable();
+    clearer.reset();
+
+    server.addPlayer();
+    server.getScheduler().performTicks(2);
+
+    assertEquals(0, clearer.removePackets + clearer.addPackets);
+  }
+
+  @Test
+  public void testFilterModeFallsBackToRemoveWithoutInternals() {
+    clearer.disable();
+    Plugin plugin = spy(MockBukkit.createMockPlugin());
+    YamlConfiguration config = new YamlConfiguration();
+    config.set("tab-hide-mode", "FILTER");
+    doReturn(config).when(plugin).getConfig();
+    NakedAndAfraid nakedAndAfraid = new NakedAndAfraid(plugin);
+    nakedAndAfraid.reloadConfigSnapshot();
+    assertEquals("FILTER", nakedAndAfraid.getConfigSnapshot().getTabHideMode());
+
+    // MockBukkit has no player info packet class, so the filter can't be built
+    CountingTabListClearer filtering = new CountingTabListClearer(nakedAndAfraid, plugin);
+    filtering.enable();
+    server.getScheduler().performTicks(2);
+    filtering.reset();
+
+    server.addPlayer();
+    server.getScheduler().performTicks(2);
+
+    assertEquals(ONLINE, filtering.removePackets, "Removal packets are still sent after falling back");
+  }
+
+  @Test
+  public void testSameTickJoinsShareOnePacketPerRecipient() {
+    List<Player> existing = List.copyOf(server.getOnlinePlayers());
+    int joins = 20;
+    for (int i = 0; i < joins; i++) {
+      server.addPlayer();
+    }
+    server.getScheduler().performTicks(3);
+
+    for (Player other : existing) {
+      assertEquals(1, clearer.packetsTo.get(other.getUniqueId()), "One removal packet for all of this tick's joins");
+      assertEquals(joins, clearer.entriesSentTo.get(other.getUniqueId()));
+    }
+  }
+
+  @Test
+  public void testPacketBudgetSpreadsUpdatesAcrossTicks() {
+    clearer.disable();
+    Plugin plugin = spy(MockBukkit.createMockPlugin());
+    YamlConfiguration config = new YamlConfiguration();
+    config.set("tab-packets-per-tick", 50);
+    doReturn(config).when(plugin).getConfig();
+    NakedAndAfraid nakedAndAfraid = new NakedAndAfraid(plugin);
+    nakedAndAfraid.reloadConfigSnapshot();
+
+    CountingTabListClearer budgeted = new CountingTabListClearer(nakedAndAfraid, plugin);
+    budgeted.enable();
+    // Each recipient costs a removal and an add-back; a flush never splits a recipient
+    assertTrue(budgeted.removePackets + budgeted.addPackets <= 51, "First flush stays within the budget");
+    assertTrue(budgeted.removePackets < ONLINE - 1, "Some recipients wait for later ticks");
+
+    int previous = budgeted.removePackets + budgeted.addPackets;
+    for (int tick = 0; tick < 10; tick++) {
+      server.getScheduler().performOneTick();
+      int total = budgeted.removePackets + budgeted.addPackets;
+      assertTrue(total - previous <= 51, "Each tick stays within the budget");
+      previous = total;
+    }
+    assertEquals(ONLINE - 1, budgeted.removePackets, "Every recipient is eventually updated");
+  }
+
+  /** Records packets through the test hooks instead of sending them. */
+  private static final class CountingTabListClearer extends TabListClearer {
+    int removePackets;
+    int removeEntries;
+    int addPackets;
+    final Map<UUID, Integer> entriesSentTo = new HashMap<>();
+    final Map<UUID, Integer> packetsTo = new HashMap<>();
+
+    CountingTabListClearer(NakedAndAfraid nakedAndAfraid, Plugin plugin) {
+      super(nakedAndAfraid, plugin);
+    }
+
+    @Override
+    protected void sendRemovePacket(Player recipient, List<UUID> uuids) {
+      removePackets++;
+      removeEntries += uuids.size();
+      entriesSentTo.merge(recipient.getUniqueId(), uuids.size(), Integer::sum);
+      packetsTo.merge(recipient.getUniqueId(), 1, Integer::sum);
+    }
+
+    @Override
+    protected void sendAddPacket(Player recipient, Player subject, boolean addOnly) {
+      addPackets++;
+    }
+
+    void reset() {
+      removePackets = 0;
+      removeEntries = 0;
+      addPackets = 0;
+      entriesSentTo.clear();
+      packetsTo.clear();
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PluginLogger;
+
+/** Loggers for tests that construct common components directly. */
+final class TestLoggers {
+
+  /** Debug logging off; discards everything. */
+  static final PluginLogger QUIET = new PluginLogger() {
+    @Override
+    public boolean isDebugEnabled() {
+      return false;
+    }
+
+    @Override
+    public void debugLog(String message) {
+    }
+  };
+
+  private TestLoggers() {
+  }
+}
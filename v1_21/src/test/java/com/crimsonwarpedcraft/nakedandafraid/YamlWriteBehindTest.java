@@ -0,0 +1,151 @@
+package com.crimsonwarpedcraft.nakedandafraid;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.YamlWriteBehind;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.crimsonwarpedcraft.nakedandafraid.TestLoggers.QUIET;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Coalescing, and the guarantee that spawns.yml on disk is always the old or
+ * the new file in full.
+ */
+public class YamlWriteBehindTest {
+
+  @TempDir
+  File dir;
+
+  private ServerMock server;
+  private File file;
+
+  @BeforeEach
+  public void setUp() {
+    server = MockBukkit.mock();
+    file = new File(dir, "spawns.yml");
+  }
+
+  @AfterEach
+  public void tearDown() {
+    MockBukkit.unmock();
+  }
+
+  private static YamlConfiguration spawns(int count) {
+    YamlConfiguration config = new YamlConfiguration();
+    for (int i = 0; i < count; i++) {
+      config.set("spawns.s" + i + ".world", "world");
+      config.set("spawns.s" + i + ".x", (double) i);
+      config.set("spawns.s" + i + ".targetPlayer", "player" + i);
+    }
+    config.set("complete", true);
+    return config;
+  }
+
+  @Test
+  public void testChangesWithinDelayShareOneWrite() {
+    AtomicInteger snapshots = new AtomicInteger();
+    YamlWriteBehind writer = new YamlWriteBehind(MockBukkit.createMockPlugin(), QUIET, file, 20,
+        () -> spawns(snapshots.incrementAndGet()));
+
+    for (int i = 0; i < 50; i++) {
+      writer.markDirty();
+    }
+    assertTrue(writer.isDirty());
+    server.getScheduler().performTicks(19);
+    assertEquals(0, snapshots.get(), "Nothing is written before the delay is up");
+
+    server.getScheduler().performOneTick();
+    writer.flush();
+    assertEquals(1, snapshots.get());
+    assertTrue(YamlConfiguration.loadConfiguration(file).getBoolean("complete"));
+  }
+
+  @Test
+  public void testFlushWritesPendingChangesImmediately() {
+    YamlWriteBehind writer = new YamlWriteBehind(MockBukkit.createMockPlugin(), QUIET, file, 200, () -> spawns(3));
+
+    writer.markDirty();
+    writer.flush();
+
+    assertFalse(writer.isDirty());
+    assertEquals("player2", YamlConfiguration.loadConfiguration(file).getString("spawns.s2.targetPlayer"));
+  }
+
+  @Test
+  public void testFailedWriteLeavesOldFileIntact() throws Exception {
+    YamlWriteBehind.writeAtomically(file, spawns(2).saveToString());
+    YamlConfiguration broken = new YamlConfiguration() {
+      @Override
+      public String saveToString() {
+        throw new IllegalStateException("simulated crash while serializing");
+      }
+    };
+    YamlWriteBehind writer = new YamlWriteBehind(MockBukkit.createMockPlugin(), QUIET, file, 1, () -> broken);
+
+    writer.markDirty();
+    writer.flush();
+
+    YamlConfiguration onDisk = YamlConfiguration.loadConfiguration(file);
+    assertTrue(onDisk.getBoolean("complete"));
+    assertEquals("player1", onDisk.getString("spawns.s1.targetPlayer"));
+    assertFalse(new File(dir, "spawns.yml.tmp").exists());
+  }
+
+  @Test
+  public void testLeftoverTempFileFromCrashIsIgnored() throws Exception {
+    YamlWriteBehind.writeAtomically(file, spawns(2).saveToString());
+    String full = spawns(100).saveToString();
+    // What a crash halfway through the old in-place save would have left behind
+    Files.write(new File(dir, "spawns.yml.tmp").toPath(),
+        full.substring(0, full.length() / 2).getBytes(StandardCharsets.UTF_8));
+
+    assertTrue(YamlConfiguration.loadConfiguration(file).getBoolean("complete"));
+    YamlWriteBehind.writeAtomically(file, full);
+
+    assertEquals("player99", YamlConfiguration.loadConfiguration(file).getString("spawns.s99.targetPlayer"));
+    assertFalse(new File(dir, "spawns.yml.tmp").exists());
+  }
+
+  @Test
+  public void testReadersNeverSeeAHalfWrittenFile() throws Exception {
+    String small = spawns(5).saveToString();
+    String large = spawns(2_000).saveToString();
+    YamlWriteBehind.writeAtomically(file, small);
+
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<Throwable> writerError = new AtomicReference<>();
+    Thread writerThread = new Thread(() -> {
+      try {
+        for (int i = 0; running.get(); i++) {
+          YamlWriteBehind.writeAtomically(file, i % 2 == 0 ? large : small);
+        }
+      } catch (Throwable t) {
+        writerError.set(t);
+      }
+    });
+    writerThread.start();
+    try {
+      for (int i = 0; i < 300; i++) {
+        String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertTrue(contents.equals(small) || contents.equals(large),
+            "Read a file that is neither the old nor the new version (" + contents.length() + " chars)");
+      }
+    } finally {
+      running.set(false);
+      writerThread.join();
+    }
+    assertNull(writerError.get());
+  }
+}
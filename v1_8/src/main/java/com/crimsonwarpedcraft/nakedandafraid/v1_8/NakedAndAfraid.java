@@ -12,7 +12,6 @@ import com.crimsonwarpedcraft.nakedandafraid.v1_8.spawn.SpawnManager;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.team.TeamCommands;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.team.TeamsManager;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.util.TeleportHelper;
-import com.crimsonwarpedcraft.nakedandafraid.v1_8.util.TeleportHelperExtension;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -30,9 +29,7 @@ import java.util.*;
  * <ul>
  *   <li>No Adventure API - all messages use §-colour codes.</li>
  *   <li>No {@code TotemDisablerListener} (event doesn't exist pre-1.11).</li>
- *   <li>{@code TeleportHelperExtension} only registered on MC 1.9+.</li>
  *   <li>{@code setWorldList} uses manual file I/O (Bukkit API is too limited here).</li>
- *   <li>{@code ArmorDamageListener} takes {@code this} (NakedAndAfraid), not {@code plugin}.</li>
  * </ul>
  */
 public class NakedAndAfraid extends AbstractNakedAndAfraid {
@@ -81,11 +78,6 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
   @Override
   protected void initTeleportHelper() {
     teleportHelper = new TeleportHelper(plugin, this);
-    // TeleportHelperExtension requires the 1.9+ elytra/off-hand API
-    String mcMinor = Bukkit.getBukkitVersion().split("-")[0].split("\\.")[1];
-    if (Integer.parseInt(mcMinor) >= 9) {
-      new TeleportHelperExtension(plugin, this, teleportHelper);
-    }
     debugLog("[NakedAndAfraid] Initialized TeleportHelper");
   }
 
@@ -270,6 +262,19 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
     }
   }
 
+  @Override
+  protected void shutdownManagers() {
+    if (teamsManager != null) {
+      teamsManager.shutdown();
+    }
+    if (teleportHelper != null) {
+      teleportHelper.shutdown();
+    }
+    if (spawnManager != null) {
+      spawnManager.shutdown();
+    }
+  }
+
   public TeleportHelper getTeleportHelper() {
     return teleportHelper;
   }
@@ -344,7 +349,7 @@ public class NakedAndAfraid extends AbstractNakedAndAfraid {
       for (org.bukkit.World world : Bukkit.getWorlds()) {
         if (!existingWorlds.containsKey(world.getName())) {
           existingWorlds.put(world.getName(), true);
-          debugLog("[NakedAndAfraid] Added world " + world.getName());
+          debugLog("[NakedAndAfraid] Added world {}", world.getName());
         }
         hasWorlds = true;
       }
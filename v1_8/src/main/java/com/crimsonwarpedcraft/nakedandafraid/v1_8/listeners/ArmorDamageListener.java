@@ -1,5 +1,10 @@
 package com.crimsonwarpedcraft.nakedandafraid.v1_8.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.config.ArmorRules;
+import com.crimsonwarpedcraft.nakedandafraid.common.config.ConfigSnapshot;
+import com.crimsonwarpedcraft.nakedandafraid.common.listeners.ArmorChangeDetector;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TimingWheel;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.NakedAndAfraid;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
@@ -9,15 +14,16 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -29,37 +35,46 @@ public class ArmorDamageListener implements Listener {
 
     private final NakedAndAfraid nakedAndAfraid;
     private final Plugin plugin;
-    private final HashMap<UUID, BukkitRunnable> damageTasks = new HashMap<>();
+    private final ServerCapabilities capabilities;
+    /** Armored players keyed by their next damage tick; advanced by {@link #driverTask}. */
+    private final TimingWheel<UUID> damageWheel = new TimingWheel<>();
+    private final TimingWheel.DueHandler<UUID> damageHandler = this::applyDamage;
+    /** No PlayerArmorChangeEvent on Spigot, so armor changes come from inventory events. */
+    private final ArmorChangeDetector changeDetector;
+    private final Consumer<Player> recheckHandler = this::updateDamageTask;
     private double damageAmount;
     private long damageIntervalTicks;
     private boolean armorEnabled;
     private boolean includeOffhand;
+    private long reconcileIntervalTicks;
     private Set<String> validArmorSlots;
     private Set<Material> validArmorMaterials;
-    private BukkitRunnable pollingTask;
+    private ArmorRules armorRules;
+    /** The only scheduler task: advances the wheel and re-checks dirty players every tick. */
+    private BukkitRunnable driverTask;
 
     public ArmorDamageListener(NakedAndAfraid nakedAndAfraid) {
         this.nakedAndAfraid = nakedAndAfraid;
         this.plugin = nakedAndAfraid.getPlugin();
+        this.capabilities = nakedAndAfraid.getServerCapabilities();
+        this.changeDetector = new ArmorChangeDetector(plugin, capabilities);
         loadConfigValues();
-        nakedAndAfraid.debugLog("[ArmorDamageListener] Initialized ArmorDamageListener for Bukkit version " +
-                Bukkit.getBukkitVersion() + ", PaperArmorChangeSupported: false (legacy Spigot)");
-        startPollingTask();
-    }
-
-    /** Checks if the server is pre-1.16 (Minecraft 1.12–1.15.2). */
-    private boolean isPre116() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[6-9]|2[0-1]).*");
+        nakedAndAfraid.debugLog("[ArmorDamageListener] Initialized ArmorDamageListener for Bukkit version {}, PaperArmorChangeSupported: false (legacy Spigot)",
+                Bukkit.getBukkitVersion());
+        changeDetector.start();
+        startDriverTask();
     }
 
     /** Load configuration values from plugin config */
     private void loadConfigValues() {
-        this.armorEnabled = plugin.getConfig().getBoolean("armor-damage.enabled", true);
-        this.damageAmount = plugin.getConfig().getDouble("armor-damage.damage-amount", 1.0);
-        this.damageIntervalTicks = plugin.getConfig().getLong("armor-damage.damage-interval-ticks", 20L);
-        this.includeOffhand = plugin.getConfig().getBoolean("armor-damage.include-offhand", false);
-
-        List<String> configSlots = plugin.getConfig().getStringList("armor-damage.armor-slot");
+        ConfigSnapshot config = nakedAndAfraid.getConfigSnapshot();
+        this.armorEnabled = config.isArmorDamageEnabled();
+        this.damageAmount = config.getArmorDamageAmount();
+        this.damageIntervalTicks = config.getArmorDamageIntervalTicks();
+        this.includeOffhand = config.isArmorIncludeOffhand();
+        this.reconcileIntervalTicks = config.getArmorReconcileIntervalTicks();
+
+        List<String> configSlots = config.getArmorSlots();
         Set<String> validSlots = new HashSet<>(Arrays.asList("HELMET", "CHESTPLATE", "LEGGINGS", "BOOTS"));
         this.validArmorSlots = configSlots.isEmpty() ? validSlots : new HashSet<>();
         for (String slot : configSlots) {
@@ -67,26 +82,26 @@ public class ArmorDamageListener implements Listener {
             if (validSlots.contains(upperSlot)) {
                 this.validArmorSlots.add(upperSlot);
             } else {
-                nakedAndAfraid.debugLog("[ArmorDamageListener] Invalid armor slot in config: " + slot);
+                nakedAndAfraid.debugLog("[ArmorDamageListener] Invalid armor slot in config: {}", slot);
             }
         }
         if (this.validArmorSlots.isEmpty()) {
             this.validArmorSlots = validSlots;
-            nakedAndAfraid.debugLog("[ArmorDamageListener] No valid armor slots in config, using all: " + validSlots);
+            nakedAndAfraid.debugLog("[ArmorDamageListener] No valid armor slots in config, using all: {}", validSlots);
         }
 
-        List<String> configMaterials = plugin.getConfig().getStringList("armor-damage.armor-material");
+        List<String> configMaterials = config.getArmorMaterials();
         this.validArmorMaterials = new HashSet<>();
         for (String material : configMaterials) {
             try {
                 Material mat = Material.valueOf(material.toUpperCase());
-                if (isArmorMaterial(mat)) {
+                if (ArmorRules.slotOf(mat) >= 0) {
                     this.validArmorMaterials.add(mat);
                 } else {
-                    nakedAndAfraid.debugLog("[ArmorDamageListener] Material is not armor: " + material);
+                    nakedAndAfraid.debugLog("[ArmorDamageListener] Material is not armor: {}", material);
                 }
             } catch (IllegalArgumentException e) {
-                nakedAndAfraid.debugLog("[ArmorDamageListener] Invalid armor material in config: " + material);
+                nakedAndAfraid.debugLog("[ArmorDamageListener] Invalid armor material in config: {}", material);
             }
         }
         if (this.validArmorMaterials.isEmpty()) {
@@ -97,59 +112,66 @@ public class ArmorDamageListener implements Listener {
                     Material.DIAMOND_HELMET, Material.DIAMOND_CHESTPLATE, Material.DIAMOND_LEGGINGS, Material.DIAMOND_BOOTS,
                     Material.GOLD_HELMET, Material.GOLD_CHESTPLATE, Material.GOLD_LEGGINGS, Material.GOLD_BOOTS // Use legacy names
             ));
-            nakedAndAfraid.debugLog("[ArmorDamageListener] No valid armor materials in config, using defaults: " +
-                    this.validArmorMaterials.stream().map(Material::name).collect(Collectors.toList()));
+            if (nakedAndAfraid.isDebugEnabled()) {
+                nakedAndAfraid.debugLog("[ArmorDamageListener] No valid armor materials in config, using defaults: " +
+                        this.validArmorMaterials.stream().map(Material::name).collect(Collectors.toList()));
+            }
         }
 
-        nakedAndAfraid.debugLog("[ArmorDamageListener] Loaded config: armorEnabled=" + armorEnabled +
-                ", damageAmount=" + damageAmount + ", damageIntervalTicks=" + damageIntervalTicks +
-                ", includeOffhand=" + includeOffhand + ", validArmorSlots=" + validArmorSlots +
-                ", validArmorMaterials=" + validArmorMaterials.stream().map(Material::name).collect(Collectors.toList()));
-    }
+        this.armorRules = ArmorRules.of(validArmorSlots, validArmorMaterials);
 
-    /** Check if a material is an armor material */
-    private boolean isArmorMaterial(Material material) {
-        String name = material.name().toUpperCase();
-        return name.endsWith("_HELMET") || name.endsWith("_CHESTPLATE") || name.endsWith("_LEGGINGS") || name.endsWith("_BOOTS");
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[ArmorDamageListener] Loaded config: armorEnabled=" + armorEnabled +
+                    ", damageAmount=" + damageAmount + ", damageIntervalTicks=" + damageIntervalTicks +
+                    ", includeOffhand=" + includeOffhand + ", validArmorSlots=" + validArmorSlots +
+                    ", validArmorMaterials=" + validArmorMaterials.stream().map(Material::name).collect(Collectors.toList()));
+        }
     }
 
     /** Refresh tasks for all online players according to current config */
     public void refreshArmorTasks() {
         loadConfigValues();
-        nakedAndAfraid.debugLog("[ArmorDamageListener] Refreshing armor tasks, armorEnabled: " + armorEnabled);
+        nakedAndAfraid.debugLog("[ArmorDamageListener] Refreshing armor tasks, armorEnabled: {}", armorEnabled);
 
         for (Player player : Bukkit.getOnlinePlayers()) {
-            UUID uuid = player.getUniqueId();
-            boolean hasArmorOrOffhand = hasAnyArmorOrOffhand(player);
-            nakedAndAfraid.debugLog("[ArmorDamageListener] Checking player " + player.getName() + ", hasArmorOrOffhand: " + hasArmorOrOffhand);
-
-            if (!armorEnabled || !hasArmorOrOffhand) {
-                if (damageTasks.containsKey(uuid)) cancelDamageTask(player);
-            } else if (!damageTasks.containsKey(uuid)) {
-                startDamageTask(player);
-            }
+            updateDamageTask(player);
+        }
+        changeDetector.start();
+        if (driverTask == null) startDriverTask();
+    }
+
+    /** Arms or disarms a player's damage according to their current armor/offhand */
+    private void updateDamageTask(Player player) {
+        UUID uuid = player.getUniqueId();
+        boolean hasArmorOrOffhand = hasAnyArmorOrOffhand(player);
+        if (!armorEnabled || !hasArmorOrOffhand) {
+            if (damageWheel.contains(uuid)) cancelDamageTask(player);
+        } else if (!damageWheel.contains(uuid)) {
+            startDamageTask(player);
         }
     }
 
-    /** Start a polling task to check armor for all online players (pre-1.16.5 Spigot) */
-    private void startPollingTask() {
-        if (pollingTask != null) pollingTask.cancel();
-        pollingTask = new BukkitRunnable() {
+    /**
+     * Start the single repeating task that drives every player's damage,
+     * re-checks players whose inventory changed last tick and sweeps all
+     * online players once per reconcile interval.
+     */
+    private void startDriverTask() {
+        if (driverTask != null) driverTask.cancel();
+        driverTask = new BukkitRunnable() {
             @Override
             public void run() {
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    boolean hasArmorOrOffhand = hasAnyArmorOrOffhand(player);
-                    UUID uuid = player.getUniqueId();
-                    if (!armorEnabled || !hasArmorOrOffhand) {
-                        if (damageTasks.containsKey(uuid)) cancelDamageTask(player);
-                    } else if (!damageTasks.containsKey(uuid)) {
-                        startDamageTask(player);
+                damageWheel.advance(damageHandler);
+                changeDetector.drain(recheckHandler);
+                if (reconcileIntervalTicks > 0 && damageWheel.getCurrentTick() % reconcileIntervalTicks == 0) {
+                    for (Player player : Bukkit.getOnlinePlayers()) {
+                        updateDamageTask(player);
                     }
                 }
             }
         };
-        pollingTask.runTaskTimer(plugin, 0L, 20L);
-        nakedAndAfraid.debugLog("[ArmorDamageListener] Started polling task for armor/offhand checks");
+        driverTask.runTaskTimer(plugin, 0L, 1L);
+        nakedAndAfraid.debugLog("[ArmorDamageListener] Started armor damage driver with event-driven armor checks");
     }
 
     @EventHandler
@@ -160,57 +182,41 @@ public class ArmorDamageListener implements Listener {
 
     /** Returns true if player has armor in specified slots/materials or an offhand item (if enabled) */
     private boolean hasAnyArmorOrOffhand(Player player) {
-        ItemStack[] armorContents = player.getInventory().getArmorContents();
-        if (armorContents != null) {
-            String[] slotNames = {"BOOTS", "LEGGINGS", "CHESTPLATE", "HELMET"};
-            for (int i = 0; i < armorContents.length; i++) {
-                ItemStack armor = armorContents[i];
-                if (armor != null && armor.getType() != Material.AIR &&
-                        validArmorSlots.contains(slotNames[i]) &&
-                        validArmorMaterials.contains(armor.getType())) {
-                    return true;
-                }
-            }
-        }
+        PlayerInventory inventory = player.getInventory();
+        if (armorRules.firstMatch(inventory) >= 0) return true;
 
         if (includeOffhand) {
-            ItemStack offhand = isPre116() ? player.getInventory().getItemInHand() : player.getInventory().getItemInOffHand();
+            ItemStack offhand = capabilities.isPre116() ? inventory.getItemInHand() : inventory.getItemInOffHand();
             if (offhand != null && offhand.getType() != Material.AIR) return true;
         }
         return false;
     }
 
-    /** Start repeating task to damage player */
+    /** Arm a player's damage; the first hit lands on the next tick, then every damageIntervalTicks */
     private void startDamageTask(Player player) {
-        UUID uuid = player.getUniqueId();
-        if (damageTasks.containsKey(uuid)) cancelDamageTask(player);
+        damageWheel.schedule(player.getUniqueId(), 1L);
+    }
 
-        BukkitRunnable task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline() || player.isDead() || player.getGameMode() == GameMode.CREATIVE || !armorEnabled || !hasAnyArmorOrOffhand(player)) {
-                    cancel();
-                    damageTasks.remove(player.getUniqueId());
-                    return;
-                }
-                player.damage(damageAmount * 2);
-            }
-        };
-        task.runTaskTimer(plugin, 0L, damageIntervalTicks);
-        damageTasks.put(uuid, task);
+    /** Called by the wheel when a player's damage is due; returns ticks until the next hit, or 0 to disarm */
+    private long applyDamage(UUID uuid) {
+        Player player = Bukkit.getPlayer(uuid);
+        if (player == null || !player.isOnline() || player.isDead() || player.getGameMode() == GameMode.CREATIVE || !armorEnabled || !hasAnyArmorOrOffhand(player)) {
+            return 0L;
+        }
+        player.damage(damageAmount * 2);
+        return Math.max(1L, damageIntervalTicks);
     }
 
     /** Cancel a player's damage task if it exists */
     private void cancelDamageTask(Player player) {
-        UUID uuid = player.getUniqueId();
-        BukkitRunnable task = damageTasks.remove(uuid);
-        if (task != null) task.cancel();
+        damageWheel.cancel(player.getUniqueId());
     }
 
     /** Cancel all running tasks (plugin disable, etc) */
     public void disableAllTasks() {
-        for (BukkitRunnable task : damageTasks.values()) task.cancel();
-        damageTasks.clear();
-        if (pollingTask != null) pollingTask.cancel();
+        damageWheel.clear();
+        changeDetector.stop();
+        if (driverTask != null) driverTask.cancel();
+        driverTask = null;
     }
-}
\ No newline at end of file
+}
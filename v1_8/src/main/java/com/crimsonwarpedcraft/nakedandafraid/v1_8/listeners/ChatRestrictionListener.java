@@ -24,8 +24,8 @@ public class ChatRestrictionListener implements Listener {
      */
     public ChatRestrictionListener(NakedAndAfraid plugin) {
         this.plugin = plugin;
-        plugin.debugLog("[ChatRestrictionListener] Initialized ChatRestrictionListener for Bukkit version " +
-                Bukkit.getBukkitVersion() + ", PaperChatSupported: false (legacy Spigot/1.16.5)");
+        plugin.debugLog("[ChatRestrictionListener] Initialized ChatRestrictionListener for Bukkit version {}, PaperChatSupported: false (legacy Spigot/1.16.5)",
+                Bukkit.getBukkitVersion());
     }
 
     /**
@@ -36,18 +36,18 @@ public class ChatRestrictionListener implements Listener {
     @EventHandler
     public void onPlayerChatLegacy(AsyncPlayerChatEvent event) {
         Player player = event.getPlayer();
-        if (!plugin.isWorldEnabled(player.getWorld().getName())) {
-            plugin.debugLog("[ChatRestrictionListener] Skipped AsyncPlayerChatEvent for player " + player.getName() +
-                    " in disabled world " + player.getWorld().getName());
+        if (!plugin.isWorldEnabled(player.getWorld())) {
+            plugin.debugLog("[ChatRestrictionListener] Skipped AsyncPlayerChatEvent for player {} in disabled world {}",
+                    player.getName(), player.getWorld().getName());
             return;
         }
-        plugin.debugLog("[ChatRestrictionListener] Processing AsyncPlayerChatEvent for " + player.getName());
+        plugin.debugLog("[ChatRestrictionListener] Processing AsyncPlayerChatEvent for {}", player.getName());
 
         if (!player.isOp()) {
             event.setCancelled(true);
-            plugin.debugLog("[ChatRestrictionListener] Cancelled AsyncPlayerChatEvent for non-op player " + player.getName());
+            plugin.debugLog("[ChatRestrictionListener] Cancelled AsyncPlayerChatEvent for non-op player {}", player.getName());
         } else {
-            plugin.debugLog("[ChatRestrictionListener] Allowed AsyncPlayerChatEvent for op player " + player.getName());
+            plugin.debugLog("[ChatRestrictionListener] Allowed AsyncPlayerChatEvent for op player {}", player.getName());
         }
     }
 }
@@ -22,24 +22,7 @@ public class JoinQuitMessageSuppressor implements Listener {
      */
     public JoinQuitMessageSuppressor(NakedAndAfraid plugin) {
         this.plugin = plugin;
-        plugin.debugLog("[JoinQuitMessageSuppressor] Initialized JoinQuitMessageSuppressor for Bukkit version " +
-                Bukkit.getBukkitVersion());
-    }
-
-    /**
-     * Checks if the server is pre-1.12.2 (Minecraft 1.12–1.12.1).
-     */
-    private boolean isPre1122() {
-        try {
-            String version = Bukkit.getBukkitVersion().split("-")[0];
-            String[] parts = version.split("\\.");
-            int major = Integer.parseInt(parts[1]);
-            int minor = parts.length > 2 ? Integer.parseInt(parts[2].split("[^0-9]")[0]) : 0;
-            return major == 12 && minor < 2;
-        } catch (Exception e) {
-            plugin.debugLog("[JoinQuitMessageSuppressor] Failed to parse Bukkit version: " + e.getMessage());
-            return true; // Fallback to legacy methods if version parsing fails
-        }
+        plugin.debugLog("[JoinQuitMessageSuppressor] Initialized JoinQuitMessageSuppressor for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     /**
@@ -51,13 +34,13 @@ public class JoinQuitMessageSuppressor implements Listener {
     public void onPlayerJoin(final PlayerJoinEvent event) {
         String playerName = event.getPlayer().getName();
 
-        if (!plugin.isWorldEnabled(event.getPlayer().getWorld().getName())) {
-            plugin.debugLog("[JoinQuitMessageSuppressor] Allowed join message for player " + playerName +
-                    " in disabled world " + event.getPlayer().getWorld().getName());
+        if (!plugin.isWorldEnabled(event.getPlayer().getWorld())) {
+            plugin.debugLog("[JoinQuitMessageSuppressor] Allowed join message for player {} in disabled world {}",
+                    playerName, event.getPlayer().getWorld().getName());
             return;
         }
 
-        plugin.debugLog("[JoinQuitMessageSuppressor] Suppressing join message for player " + playerName);
+        plugin.debugLog("[JoinQuitMessageSuppressor] Suppressing join message for player {}", playerName);
 
         event.setJoinMessage(null);
     }
@@ -71,13 +54,13 @@ public class JoinQuitMessageSuppressor implements Listener {
     public void onPlayerQuit(final PlayerQuitEvent event) {
         String playerName = event.getPlayer().getName();
 
-        if (!plugin.isWorldEnabled(event.getPlayer().getWorld().getName())) {
-            plugin.debugLog("[JoinQuitMessageSuppressor] Allowed quit message for player " + playerName +
-                    " in disabled world " + event.getPlayer().getWorld().getName());
+        if (!plugin.isWorldEnabled(event.getPlayer().getWorld())) {
+            plugin.debugLog("[JoinQuitMessageSuppressor] Allowed quit message for player {} in disabled world {}",
+                    playerName, event.getPlayer().getWorld().getName());
             return;
         }
 
-        plugin.debugLog("[JoinQuitMessageSuppressor] Suppressing quit message for player " + playerName);
+        plugin.debugLog("[JoinQuitMessageSuppressor] Suppressing quit message for player {}", playerName);
 
         event.setQuitMessage(null);
     }
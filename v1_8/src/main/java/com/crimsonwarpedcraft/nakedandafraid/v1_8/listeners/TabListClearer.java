@@ -2,7 +2,9 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_8.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TabListUpdateQueue;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.NakedAndAfraid;
+import com.crimsonwarpedcraft.nakedandafraid.v1_8.util.TabPacketFactory;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -12,11 +14,9 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 public class TabListClearer implements Listener {
 
@@ -24,20 +24,33 @@ public class TabListClearer implements Listener {
     private final Plugin plugin;
     private boolean enabled;
 
-    // Cached NMS version string (e.g. "v1_8_R3")
-    private final String nmsVersion;
+    // Resolved once; null if this server's internals don't match, in which case no packets are sent
+    private final TabPacketFactory packets;
+    private final TabListUpdateQueue updates;
 
     public TabListClearer(NakedAndAfraid plugin, Plugin pluginVar) {
         this.nakedAndAfraid = plugin;
         this.plugin = pluginVar;
-        // Derive NMS version from the CraftPlayer class package
-        this.nmsVersion = Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3];
-        plugin.debugLog("[TabListClearer] Initializing TabListClearer for Bukkit version "
-                + Bukkit.getBukkitVersion() + ", NMS version: " + nmsVersion);
+        this.packets = createPacketFactory();
+        this.updates = new TabListUpdateQueue(pluginVar, plugin, new UpdateSink(),
+                plugin.getConfigSnapshot().getTabPacketsPerTick());
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TabListClearer] Initializing TabListClearer for Bukkit version "
+                    + Bukkit.getBukkitVersion() + ", packets resolved: " + (packets != null));
+        }
         Bukkit.getPluginManager().registerEvents(this, nakedAndAfraid.getPlugin());
         plugin.debugLog("[TabListClearer] Registered event listeners for TabListClearer");
     }
 
+    private TabPacketFactory createPacketFactory() {
+        try {
+            return TabPacketFactory.create();
+        } catch (Exception | LinkageError e) {
+            plugin.getLogger().warning("[TabListClearer] Unsupported server internals, tab list hiding will have no effect: " + e);
+            return null;
+        }
+    }
+
     public void enable() {
         if (enabled) {
             nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding already enabled, skipping enable");
@@ -47,19 +60,19 @@ public class TabListClearer implements Listener {
         nakedAndAfraid.debugLog("[TabListClearer] Enabling tab list hiding for all online players");
         int playerCount = 0;
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
-                updateTabListForPlayer(player);
+            if (nakedAndAfraid.isWorldEnabled(player.getWorld())) {
+                updates.refresh(player);
                 playerCount++;
-                nakedAndAfraid.debugLog("[TabListClearer] Hid tab list for player " + player.getName()
-                        + " in world " + player.getWorld().getName());
             } else {
-                nakedAndAfraid.debugLog("[TabListClearer] Skipped hiding tab list for player " + player.getName()
-                        + " in disabled world " + player.getWorld().getName());
+                nakedAndAfraid.debugLog("[TabListClearer] Skipped hiding tab list for player {} in disabled world {}",
+                        player.getName(), player.getWorld().getName());
             }
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Applied tab list hiding to " + playerCount + " players");
+        nakedAndAfraid.debugLog("[TabListClearer] Queued tab list hiding for {} players", playerCount);
 
         enabled = true;
+        // Send this tick's share now; the rest follows within the packet budget
+        updates.flush();
         plugin.getLogger().info("Naked And Afraid - Tab Hider Enabled.");
         nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding enabled successfully");
     }
@@ -71,16 +84,17 @@ public class TabListClearer implements Listener {
         }
 
         nakedAndAfraid.debugLog("[TabListClearer] Disabling tab list hiding for all online players");
+        updates.clear();
         int playerCount = 0;
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
+            if (nakedAndAfraid.isWorldEnabled(player.getWorld())) {
                 restoreTabListForPlayer(player);
                 playerCount++;
-                nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for player " + player.getName()
-                        + " in world " + player.getWorld().getName());
+                nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for player {} in world {}",
+                        player.getName(), player.getWorld().getName());
             }
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for " + playerCount + " players");
+        nakedAndAfraid.debugLog("[TabListClearer] Restored tab list for {} players", playerCount);
 
         enabled = false;
         plugin.getLogger().info("Naked And Afraid - Tab Hider Disabled.");
@@ -95,151 +109,140 @@ public class TabListClearer implements Listener {
             nakedAndAfraid.debugLog("[TabListClearer] Toggling tab list hiding from disabled to enabled");
             enable();
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Toggled tab list hiding, new state: enabled=" + enabled);
+        nakedAndAfraid.debugLog("[TabListClearer] Toggled tab list hiding, new state: enabled={}", enabled);
     }
 
     public boolean isEnabled() {
-        nakedAndAfraid.debugLog("[TabListClearer] Checked tab list hiding status: enabled=" + enabled);
+        nakedAndAfraid.debugLog("[TabListClearer] Checked tab list hiding status: enabled={}", enabled);
         return enabled;
     }
 
+    /** Queued; sent on the next tick, merged with any other update queued for the player. */
     public void applyToPlayer(Player player) {
         if (!enabled) {
-            nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding not enabled, skipping applyToPlayer for "
-                    + player.getName());
+            nakedAndAfraid.debugLog("[TabListClearer] Tab list hiding not enabled, skipping applyToPlayer for {}", player.getName());
             return;
         }
-        if (!nakedAndAfraid.isWorldEnabled(player.getWorld().getName())) {
-            nakedAndAfraid.debugLog("[TabListClearer] Skipped applying tab list hiding for player "
-                    + player.getName() + " in disabled world " + player.getWorld().getName());
-            restoreTabListForPlayer(player);
-            return;
+        updates.refresh(player);
+        nakedAndAfraid.debugLog("[TabListClearer] Queued tab list update for {}, queue depth {}",
+                player.getName(), updates.depth());
+    }
+
+    /** Hides others from player, or restores them in a disabled world. Returns packets sent. */
+    private int refreshTabListForPlayer(Player player) {
+        if (!nakedAndAfraid.isWorldEnabled(player.getWorld())) {
+            nakedAndAfraid.debugLog("[TabListClearer] Skipped applying tab list hiding for player {} in disabled world {}",
+                    player.getName(), player.getWorld().getName());
+            return restoreTabListForPlayer(player);
         }
 
-        nakedAndAfraid.debugLog("[TabListClearer] Applying tab list hiding to player " + player.getName()
-                + " in world " + player.getWorld().getName());
-        updateTabListForPlayer(player);
-        nakedAndAfraid.debugLog("[TabListClearer] Successfully applied tab list hiding to " + player.getName());
+        nakedAndAfraid.debugLog("[TabListClearer] Applying tab list hiding to player {} in world {}", player.getName(), player.getWorld().getName());
+        return updateTabListForPlayer(player);
     }
 
     /**
-     * Sends a PacketPlayOutPlayerInfo packet to recipient about subject.
-     * action must be a field name on EnumPlayerInfoAction: "ADD_PLAYER" or "REMOVE_PLAYER".
+     * Sends one PacketPlayOutPlayerInfo packet to recipient covering all subjects.
+     * add selects ADD_PLAYER, otherwise REMOVE_PLAYER. Returns packets sent.
      */
-    private void sendPlayerInfoPacket(Player recipient, Player subject, String actionName) throws Exception {
-        String nmsBase = "net.minecraft.server." + nmsVersion + ".";
-
-        Class<?> packetClass = Class.forName(nmsBase + "PacketPlayOutPlayerInfo");
-        Class<?> actionClass = Class.forName(nmsBase + "PacketPlayOutPlayerInfo$EnumPlayerInfoAction");
-        Class<?> entityPlayerClass = Class.forName(nmsBase + "EntityPlayer");
-
-        Object action = actionClass.getField(actionName).get(null);
-        Object entityPlayer = subject.getClass().getMethod("getHandle").invoke(subject);
-
-        // PacketPlayOutPlayerInfo(EnumPlayerInfoAction, EntityPlayer...)
-        // In 1.8 the varargs constructor takes the action and an Iterable or varargs of EntityPlayer
-        Constructor<?> constructor = packetClass.getDeclaredConstructor(actionClass, Iterable.class);
-        List<Object> players = new ArrayList<Object>();
-        players.add(entityPlayer);
-        Object packet = constructor.newInstance(action, players);
-
-        sendNmsPacket(recipient, packet);
-    }
-
-    private void sendNmsPacket(Player recipient, Object nmsPacket) throws Exception {
-        nakedAndAfraid.debugLog("[TabListClearer] Sending NMS packet "
-                + nmsPacket.getClass().getSimpleName() + " to " + recipient.getName());
-
-        String nmsBase = "net.minecraft.server." + nmsVersion + ".";
-        Object entityPlayer = recipient.getClass().getMethod("getHandle").invoke(recipient);
-        Field connectionField = entityPlayer.getClass().getField("playerConnection");
-        Object playerConnection = connectionField.get(entityPlayer);
-
-        Class<?> packetInterface = Class.forName(nmsBase + "Packet");
-        Method sendPacket = playerConnection.getClass().getMethod("sendPacket", packetInterface);
-        sendPacket.invoke(playerConnection, nmsPacket);
-
-        nakedAndAfraid.debugLog("[TabListClearer] NMS packet sent successfully to " + recipient.getName());
+    private int sendPlayerInfoPacket(Player recipient, List<Player> subjects, boolean add) {
+        if (packets == null || subjects.isEmpty()) return 0;
+        Object packet = packets.playerInfoPacket(add, subjects);
+        nakedAndAfraid.debugLog("[TabListClearer] Sending {} to {}", add ? "ADD_PLAYER" : "REMOVE_PLAYER", recipient.getName());
+        packets.send(recipient, packet);
+        return 1;
     }
 
-    private void updateTabListForPlayer(Player player) {
-        nakedAndAfraid.debugLog("[TabListClearer] Hiding other players from tab list for " + player.getName());
+    private List<Player> othersInEnabledWorlds(Player player) {
         List<Player> others = new ArrayList<Player>();
         for (Player p : Bukkit.getOnlinePlayers()) {
-            if (!p.equals(player) && nakedAndAfraid.isWorldEnabled(p.getWorld().getName())) {
+            if (!p.equals(player) && nakedAndAfraid.isWorldEnabled(p.getWorld())) {
                 others.add(p);
             }
         }
-        for (Player other : others) {
-            try {
-                sendPlayerInfoPacket(player, other, "REMOVE_PLAYER");
-            } catch (Exception e) {
-                plugin.getLogger().severe("[TabListClearer] Failed to hide " + other.getName()
-                        + " from " + player.getName() + ": " + e.getMessage());
-            }
-        }
-        nakedAndAfraid.debugLog("[TabListClearer] Sent REMOVE_PLAYER for " + others.size()
-                + " players to " + player.getName());
+        return others;
     }
 
-    private void restoreTabListForPlayer(Player player) {
-        nakedAndAfraid.debugLog("[TabListClearer] Restoring full tab list for " + player.getName());
-        List<Player> others = new ArrayList<Player>();
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            if (!p.equals(player) && nakedAndAfraid.isWorldEnabled(p.getWorld().getName())) {
-                others.add(p);
-            }
+    private int updateTabListForPlayer(Player player) {
+        nakedAndAfraid.debugLog("[TabListClearer] Hiding other players from tab list for {}", player.getName());
+        return hideFrom(player, othersInEnabledWorlds(player));
+    }
+
+    private int hideFrom(Player player, List<Player> others) {
+        int sent = 0;
+        try {
+            sent = sendPlayerInfoPacket(player, others, false);
+        } catch (Exception e) {
+            plugin.getLogger().severe("[TabListClearer] Failed to hide " + others.size()
+                    + " players from " + player.getName() + ": " + e.getMessage());
         }
-        for (Player other : others) {
-            try {
-                sendPlayerInfoPacket(player, other, "ADD_PLAYER");
-            } catch (Exception e) {
-                plugin.getLogger().severe("[TabListClearer] Failed to restore " + other.getName()
-                        + " for " + player.getName() + ": " + e.getMessage());
-            }
+        nakedAndAfraid.debugLog("[TabListClearer] Sent REMOVE_PLAYER for {} players to {}", others.size(), player.getName());
+        return sent;
+    }
+
+    private int restoreTabListForPlayer(Player player) {
+        nakedAndAfraid.debugLog("[TabListClearer] Restoring full tab list for {}", player.getName());
+        List<Player> others = othersInEnabledWorlds(player);
+        int sent = 0;
+        try {
+            sent = sendPlayerInfoPacket(player, others, true);
+        } catch (Exception e) {
+            plugin.getLogger().severe("[TabListClearer] Failed to restore " + others.size()
+                    + " players for " + player.getName() + ": " + e.getMessage());
         }
-        nakedAndAfraid.debugLog("[TabListClearer] Successfully restored tab list for " + player.getName());
+        nakedAndAfraid.debugLog("[TabListClearer] Successfully restored tab list for {}", player.getName());
+        return sent;
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        final Player joining = event.getPlayer();
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerJoinEvent triggered for " + joining.getName());
-        Bukkit.getScheduler().runTaskLater(nakedAndAfraid.getPlugin(), new Runnable() {
-            @Override
-            public void run() {
-                applyToPlayer(joining);
-                for (Player other : Bukkit.getOnlinePlayers()) {
-                    if (!other.equals(joining) && nakedAndAfraid.isWorldEnabled(other.getWorld().getName())) {
-                        applyToPlayer(other);
-                    }
-                }
-                nakedAndAfraid.debugLog("[TabListClearer] Processed PlayerJoinEvent for " + joining.getName());
+        Player joining = event.getPlayer();
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerJoinEvent triggered for {}", joining.getName());
+        if (!enabled) return;
+
+        // Queued for the next tick, after the server's own tab list packets. Everyone else only
+        // needs the newcomer removed; joins in the same tick share one packet per recipient.
+        updates.refresh(joining);
+        int notified = 0;
+        if (nakedAndAfraid.isWorldEnabled(joining.getWorld())) {
+            for (Player other : Bukkit.getOnlinePlayers()) {
+                if (other.equals(joining) || !nakedAndAfraid.isWorldEnabled(other.getWorld())) continue;
+                updates.hide(other, joining);
+                notified++;
             }
-        }, 1L);
-        nakedAndAfraid.debugLog("[TabListClearer] Scheduled tab list update for " + joining.getName());
+        }
+        nakedAndAfraid.debugLog("[TabListClearer] Queued join for {}, hiding them from {} players", joining.getName(), notified);
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerQuitEvent triggered for " + event.getPlayer().getName());
-        nakedAndAfraid.debugLog("[TabListClearer] No tab list cleanup needed for "
-                + event.getPlayer().getName() + " on quit");
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerQuitEvent triggered for {}", event.getPlayer().getName());
+        updates.forget(event.getPlayer());
     }
 
     @EventHandler
     public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
-        final Player player = event.getPlayer();
-        nakedAndAfraid.debugLog("[TabListClearer] PlayerChangedWorldEvent triggered for " + player.getName()
-                + " from world " + event.getFrom().getName() + " to " + player.getWorld().getName());
-        Bukkit.getScheduler().runTaskLater(nakedAndAfraid.getPlugin(), new Runnable() {
-            @Override
-            public void run() {
-                applyToPlayer(player);
-                nakedAndAfraid.debugLog("[TabListClearer] Processed PlayerChangedWorldEvent for "
-                        + player.getName());
+        Player player = event.getPlayer();
+        nakedAndAfraid.debugLog("[TabListClearer] PlayerChangedWorldEvent triggered for {} from world {} to {}",
+                player.getName(), event.getFrom().getName(), player.getWorld().getName());
+        applyToPlayer(player);
+    }
+
+    /** Sends what the update queue flushes, counting packets against its budget. */
+    private final class UpdateSink implements TabListUpdateQueue.Sink {
+
+        @Override
+        public int refresh(Player recipient) {
+            return refreshTabListForPlayer(recipient);
+        }
+
+        @Override
+        public int hide(Player recipient, List<UUID> subjects) {
+            List<Player> online = new ArrayList<Player>(subjects.size());
+            for (UUID uuid : subjects) {
+                Player subject = Bukkit.getPlayer(uuid);
+                if (subject != null) online.add(subject);
             }
-        }, 1L);
-        nakedAndAfraid.debugLog("[TabListClearer] Scheduled tab list update for " + player.getName());
+            return hideFrom(recipient, online);
+        }
     }
 }
\ No newline at end of file
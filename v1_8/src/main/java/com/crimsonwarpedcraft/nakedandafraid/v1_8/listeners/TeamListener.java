@@ -1,99 +1,97 @@
 package com.crimsonwarpedcraft.nakedandafraid.v1_8.listeners;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.NakedAndAfraid;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.team.TeamCommands;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.team.TeamsManager;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scoreboard.Scoreboard;
-import org.bukkit.scoreboard.Team;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.EnumMap;
+import java.util.Map;
 
 public class TeamListener implements Listener {
 
     private final NakedAndAfraid plugin;
     private final TeamsManager teamsManager;
     private final TeamCommands teamCommands;
+    private final ServerCapabilities capabilities;
 
     private static final String TEAM_BLOCK_SELECTOR_NAME = "Team Block Selector";
+    private static final String SELECTOR_DISPLAY_NAME = "§6" + TEAM_BLOCK_SELECTOR_NAME;
+
+    /** Right-click handlers keyed by the item type they handle. */
+    private final Map<Material, ItemUseHandler> itemHandlers = new EnumMap<Material, ItemUseHandler>(Material.class);
 
     public TeamListener(NakedAndAfraid plugin, TeamsManager teamsManager, TeamCommands teamCommands) {
         this.plugin = plugin;
         this.teamsManager = teamsManager;
         this.teamCommands = teamCommands;
-        plugin.debugLog("[TeamListener] Initialized TeamListener for Bukkit version " + Bukkit.getBukkitVersion());
-    }
-
-    private boolean isPre113() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[3-9]|2[0-1]).*");
-    }
-
-    private boolean isPre116() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[6-9]|2[0-1]).*");
+        this.capabilities = plugin.getServerCapabilities();
+        itemHandlers.put(Material.IRON_AXE, new ItemUseHandler() {
+            @Override
+            public void onUse(PlayerInteractEvent event, Player player, ItemStack item) {
+                onSelectorUse(event, player, item);
+            }
+        });
+        itemHandlers.put(Material.COMPASS, new ItemUseHandler() {
+            @Override
+            public void onUse(PlayerInteractEvent event, Player player, ItemStack item) {
+                onLocatorCompassUse(player, item);
+            }
+        });
+        plugin.debugLog("[TeamListener] Initialized TeamListener for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     private void sendMessage(Player player, String message, String legacyColor) {
         player.sendMessage(legacyColor + message);
-        plugin.debugLog("[TeamListener] Sent message to " + player.getName() + ": " + message);
-    }
-
-    private ChatColor parseChatColor(String colorName) {
-        if (colorName == null) return null;
-        colorName = colorName.toUpperCase();
-        switch (colorName) {
-            case "RED": return ChatColor.RED;
-            case "GOLD": return ChatColor.GOLD;
-            case "YELLOW": return ChatColor.YELLOW;
-            case "GREEN": return ChatColor.GREEN;
-            case "AQUA": return ChatColor.AQUA;
-            case "BLUE": return ChatColor.BLUE;
-            case "DARK_PURPLE": return ChatColor.DARK_PURPLE;
-            case "LIGHT_PURPLE": return ChatColor.LIGHT_PURPLE;
-            case "WHITE": return ChatColor.WHITE;
-            default: return null;
-        }
+        plugin.debugLog("[TeamListener] Sent message to {}: {}", player.getName(), message);
     }
 
+    /**
+     * Single entry point for right-clicks with a plugin item. The held item's type
+     * picks the handler, so clicks with anything else cost one map probe and never
+     * touch item meta.
+     */
     @EventHandler
-    public void onPlayerUseSelector(PlayerInteractEvent event) {
-        if (event.getAction() != org.bukkit.event.block.Action.RIGHT_CLICK_BLOCK) return;
-
-        Player player = event.getPlayer();
-        ItemStack item = player.getInventory().getItemInMainHand();
-        if (item == null || !item.hasItemMeta()) return;
-        if (item.getType() != Material.IRON_AXE) return;
-        if (item.getItemMeta() == null) return;
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        Action action = event.getAction();
+        if (action != Action.RIGHT_CLICK_AIR && action != Action.RIGHT_CLICK_BLOCK) return;
+
+        ItemStack item = event.getItem();
+        if (item == null) return;
+        ItemUseHandler handler = itemHandlers.get(item.getType());
+        if (handler == null) return;
+        handler.onUse(event, event.getPlayer(), item);
+    }
 
-        String displayName = item.getItemMeta().getDisplayName();
-        boolean isValidSelector = displayName != null && displayName.equals("§6" + TEAM_BLOCK_SELECTOR_NAME);
-        if (!isValidSelector) return;
+    private void onSelectorUse(PlayerInteractEvent event, Player player, ItemStack item) {
+        if (event.getAction() != Action.RIGHT_CLICK_BLOCK || !item.hasItemMeta()) return;
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null || !SELECTOR_DISPLAY_NAME.equals(meta.getDisplayName())) return;
 
         Block clickedBlock = event.getClickedBlock();
         if (clickedBlock == null) return;
 
         event.setCancelled(true);
-        teamCommands.onTeamBlockSelectorUse(player, clickedBlock);
+        teamCommands.onTeamBlockSelectorUse(player, clickedBlock, meta);
     }
 
-    @EventHandler
-    public void onPlayerUseLocatorCompass(PlayerInteractEvent event) {
-        if (event.getAction() != org.bukkit.event.block.Action.RIGHT_CLICK_AIR &&
-                event.getAction() != org.bukkit.event.block.Action.RIGHT_CLICK_BLOCK) return;
-
-        Player player = event.getPlayer();
-        ItemStack item = player.getInventory().getItemInMainHand();
-        if (item == null || !item.hasItemMeta()) return;
-        if (item.getType() != Material.COMPASS) return;
+    private void onLocatorCompassUse(Player player, ItemStack item) {
+        if (!item.hasItemMeta()) return;
 
-        if (isPre116()) {
+        if (capabilities.isPre116()) {
             TeamsManager.Team team = teamCommands.getTeamForPlayer(player);
             if (team == null) {
                 sendMessage(player, "You are not in a team.", "§c");
@@ -113,29 +111,30 @@ public class TeamListener implements Listener {
         }
     }
 
-    private void updateTeamScoreboard(Player player, TeamsManager.Team team) {
-        Scoreboard scoreboard = player.getScoreboard();
-        Team scoreboardTeam = scoreboard.getTeam(team.getName());
-        if (scoreboardTeam == null) {
-            scoreboardTeam = scoreboard.registerNewTeam(team.getName());
-            ChatColor chatColor = parseChatColor(team.getColor());
-            if (chatColor != null) scoreboardTeam.setColor(chatColor);
-            scoreboardTeam.setDisplayName(team.getName());
-        }
-
-        for (java.util.UUID memberUUID : team.getMembers()) {
-            Player member = Bukkit.getPlayer(memberUUID);
-            if (member != null && member.isOnline()) scoreboardTeam.addEntry(member.getName());
-        }
-
-        for (java.util.UUID memberUUID : team.getMembers()) {
-            Player member = Bukkit.getPlayer(memberUUID);
-            if (member != null && member.isOnline()) member.setScoreboard(scoreboard);
+    /**
+     * Clears a team's lodestone once its block is broken; a direct block lookup, so
+     * ordinary block breaks cost one hash probe.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeamBlockBreak(BlockBreakEvent event) {
+        TeamsManager.Team team = teamsManager.getTeamAt(event.getBlock());
+        if (team == null) {
+            return;
         }
+        teamsManager.setLodestone(team.getName(), null);
+        sendMessage(event.getPlayer(), "You broke the lodestone of team " + team.getName() + ".", "§e");
+        plugin.debugLog("[TeamListener] {} broke the lodestone of team {}", event.getPlayer().getName(), team.getName());
+    }
 
+    private void updateTeamScoreboard(Player player, TeamsManager.Team team) {
+        teamsManager.showNametags(team.getName());
         sendMessage(player, "Your nametag has been colored for your team's color", "§a");
     }
 
+    private interface ItemUseHandler {
+        void onUse(PlayerInteractEvent event, Player player, ItemStack item);
+    }
+
     private String formatBlockLocation(Block block) {
         return String.format("(world=%s, x=%d, y=%d, z=%d)",
                 block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
@@ -42,9 +42,9 @@ public class TotemDisablerListener implements Listener {
     public TotemDisablerListener(NakedAndAfraid nakedAndAfraid) {
         this.nakedAndAfraid = nakedAndAfraid;
         this.plugin = nakedAndAfraid.getPlugin();
-        nakedAndAfraid.debugLog("[TotemDisablerListener] Initialized for Bukkit version " + Bukkit.getBukkitVersion());
+        nakedAndAfraid.debugLog("[TotemDisablerListener] Initialized for Bukkit version {}", Bukkit.getBukkitVersion());
 
-        if (!plugin.getConfig().getBoolean("disable-totems", true)) {
+        if (!nakedAndAfraid.getConfigSnapshot().isDisableTotems()) {
             nakedAndAfraid.debugLog("[TotemDisablerListener] Totem disabling is turned off in config.");
             return;
         }
@@ -77,11 +77,11 @@ public class TotemDisablerListener implements Listener {
                 if (totemEventClass.isInstance(event)) {
                     try {
                         Player player = (Player) getPlayerMethod.invoke(event);
-                        nakedAndAfraid.debugLog("[TotemDisablerListener] Detected totem activation for player " +
-                                player.getName() + ", cancelling PlayerTotemDeathEvent.");
+                        nakedAndAfraid.debugLog("[TotemDisablerListener] Detected totem activation for player {}, cancelling PlayerTotemDeathEvent.",
+                                player.getName());
                         setCancelledMethod.invoke(event, true);
                     } catch (Exception e) {
-                        nakedAndAfraid.debugLog("[TotemDisablerListener] Failed to cancel PlayerTotemDeathEvent: " + e.getMessage());
+                        nakedAndAfraid.debugLog("[TotemDisablerListener] Failed to cancel PlayerTotemDeathEvent: {}", e.getMessage());
                     }
                 }
             };
@@ -96,7 +96,7 @@ public class TotemDisablerListener implements Listener {
             );
             return true;
         } catch (ClassNotFoundException | NoSuchMethodException e) {
-            nakedAndAfraid.debugLog("[TotemDisablerListener] PlayerTotemDeathEvent not available: " + e.getMessage());
+            nakedAndAfraid.debugLog("[TotemDisablerListener] PlayerTotemDeathEvent not available: {}", e.getMessage());
             return false;
         }
     }
@@ -112,7 +112,7 @@ public class TotemDisablerListener implements Listener {
             return;
         }
 
-        if (!plugin.getConfig().getBoolean("disable-totems", true)) {
+        if (!nakedAndAfraid.getConfigSnapshot().isDisableTotems()) {
             nakedAndAfraid.debugLog("[TotemDisablerListener] Totem disabling is turned off in config.");
             return;
         }
@@ -121,8 +121,10 @@ public class TotemDisablerListener implements Listener {
             Player player = (Player) event.getEntity();
             double finalDamage = event.getFinalDamage();
             double health = player.getHealth();
-            nakedAndAfraid.debugLog("[TotemDisablerListener] Checking damage for player " + player.getName() +
-                    ": finalDamage=" + finalDamage + ", health=" + health);
+            if (nakedAndAfraid.isDebugEnabled()) {
+                nakedAndAfraid.debugLog("[TotemDisablerListener] Checking damage for player " + player.getName() +
+                        ": finalDamage=" + finalDamage + ", health=" + health);
+            }
 
             // Optional: Uncomment to allow totems in specific worlds
             // if (player.getWorld().getName().equals("allowed_world")) {
@@ -135,8 +137,8 @@ public class TotemDisablerListener implements Listener {
                 ItemStack offHand = player.getInventory().getItemInOffHand();
                 if ((mainHand != null && mainHand.getType() == Material.TOTEM) ||
                         (offHand != null && offHand.getType() == Material.TOTEM)) {
-                    nakedAndAfraid.debugLog("[TotemDisablerListener] Totem detected for player " + player.getName() +
-                            ", disabling activation by cancelling damage and forcing death.");
+                    nakedAndAfraid.debugLog("[TotemDisablerListener] Totem detected for player {}, disabling activation by cancelling damage and forcing death.",
+                            player.getName());
                     event.setCancelled(true);
                     player.setHealth(0);
 
@@ -160,18 +162,4 @@ public class TotemDisablerListener implements Listener {
         }
     }
 
-    /**
-     * Checks if the server supports the Adventure API (1.19+).
-     */
-    private boolean isAdventureSupported() {
-        try {
-            String version = Bukkit.getBukkitVersion().split("-")[0];
-            String[] parts = version.split("\\.");
-            int major = Integer.parseInt(parts[1]);
-            return major >= 19;
-        } catch (Exception e) {
-            nakedAndAfraid.debugLog("[TotemDisablerListener] Failed to parse Bukkit version: " + e.getMessage());
-            return false;
-        }
-    }
 }
\ No newline at end of file
@@ -4,20 +4,30 @@ package com.crimsonwarpedcraft.nakedandafraid.v1_8.spawn;
 
 import org.bukkit.Location;
 
+import java.util.UUID;
+
 public class SpawnData {
     private final Location location;
     private final String targetPlayerName;
+    private final UUID targetPlayerId;
 
-    public SpawnData(Location location, String targetPlayerName) {
+    public SpawnData(Location location, String targetPlayerName, UUID targetPlayerId) {
         this.location = location;
         this.targetPlayerName = targetPlayerName;
+        this.targetPlayerId = targetPlayerId;
     }
 
     public Location getLocation() {
         return location;
     }
 
+    /** Null for an open spawn that belongs to nobody. */
     public String getTargetPlayerName() {
         return targetPlayerName;
     }
+
+    /** Null when only the target's name is known. */
+    public UUID getTargetPlayerId() {
+        return targetPlayerId;
+    }
 }
\ No newline at end of file
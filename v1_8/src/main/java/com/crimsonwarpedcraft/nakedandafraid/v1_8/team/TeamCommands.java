@@ -2,6 +2,9 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_8.team;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PlayerResolver;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ServerCapabilities;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.TeamAutoFill;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.NakedAndAfraid;
 import org.bukkit.*;
 import org.bukkit.block.Block;
@@ -9,89 +12,88 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scoreboard.Scoreboard;
-import org.bukkit.scoreboard.Team;
+import org.bukkit.plugin.Plugin;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class TeamCommands {
 
     private final TeamsManager teamsManager;
     private final NakedAndAfraid plugin;
+    private final ServerCapabilities capabilities;
 
     private static final String TEAM_BLOCK_SELECTOR_NAME = "Team Block Selector";
 
     private final Set<UUID> usedSelectorPlayers = new HashSet<>();
 
+    // Reflective handles for the 1.14+ PDC selector tag, resolved once on first use
+    private boolean persistentDataResolved;
+    private Object selectorKey;
+    private Object stringType;
+    private Method getContainer;
+    private Method containerSet;
+    private Method containerGet;
+
     public TeamCommands(TeamsManager teamsManager, NakedAndAfraid plugin) {
         this.plugin = plugin;
         this.teamsManager = teamsManager;
-        (plugin).debugLog("[TeamCommands] Initialized TeamCommands for Bukkit version " + Bukkit.getBukkitVersion());
+        this.capabilities = plugin.getServerCapabilities();
+        (plugin).debugLog("[TeamCommands] Initialized TeamCommands for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
-    /**
-     * Checks if the server is pre-1.13 (Minecraft 1.12).
-     */
-    private boolean isPre113() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[3-9]|2[0-1]).*");
-    }
 
     /**
-     * Checks if the server is pre-1.14 (Minecraft 1.12–1.13.2).
+     * Looks up the NamespacedKey, PersistentDataType.STRING and container methods
+     * once; afterwards a selector read or write is plain method invocations.
      */
-    private boolean isPre114() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[4-9]|2[0-1]).*");
-    }
-
-
-    private void setPersistentTeamName(ItemMeta meta, String teamName) {
-        if (isPre114() || meta == null) return;
+    private boolean resolvePersistentData() {
+        if (persistentDataResolved) return selectorKey != null;
+        persistentDataResolved = true;
+        if (capabilities.isPre114()) return false;
         try {
             // NamespacedKey key = new NamespacedKey(plugin, "teamSelector");
             Class<?> namespacedKeyClass = Class.forName("org.bukkit.NamespacedKey");
-            Constructor<?> keyCtor = namespacedKeyClass.getConstructor(JavaPlugin.class, String.class);
-            Object key = keyCtor.newInstance(plugin, "teamSelector");
-
-            // PersistentDataContainer container = meta.getPersistentDataContainer();
-            Method getContainer = ItemMeta.class.getMethod("getPersistentDataContainer");
-            Object container = getContainer.invoke(meta);
+            Constructor<?> keyCtor = namespacedKeyClass.getConstructor(Plugin.class, String.class);
+            Object key = keyCtor.newInstance(plugin.getPlugin(), "teamSelector");
 
             // PersistentDataType.STRING
             Class<?> pdtClass = Class.forName("org.bukkit.persistence.PersistentDataType");
             Field stringField = pdtClass.getField("STRING");
-            Object stringType = stringField.get(null);
+            stringType = stringField.get(null);
 
-            // container.set(key, STRING, teamName);
-            Method setMethod = container.getClass().getMethod("set", namespacedKeyClass, pdtClass, Object.class);
-            setMethod.invoke(container, key, stringType, teamName);
+            Class<?> containerClass = Class.forName("org.bukkit.persistence.PersistentDataContainer");
+            getContainer = ItemMeta.class.getMethod("getPersistentDataContainer");
+            containerSet = containerClass.getMethod("set", namespacedKeyClass, pdtClass, Object.class);
+            containerGet = containerClass.getMethod("get", namespacedKeyClass, pdtClass);
+            selectorKey = key;
+            return true;
         } catch (Throwable t) {
-            plugin.debugLog("[TeamCommands] Reflection setPersistentTeamName failed: " + t);
+            plugin.debugLog("[TeamCommands] Reflection lookup of PersistentDataContainer failed: {}", t);
+            return false;
         }
     }
 
-    private String getPersistentTeamName(ItemMeta meta) {
-        if (isPre114() || meta == null) return null;
+    private void setPersistentTeamName(ItemMeta meta, String teamName) {
+        if (meta == null || !resolvePersistentData()) return;
         try {
-            Class<?> namespacedKeyClass = Class.forName("org.bukkit.NamespacedKey");
-            Constructor<?> keyCtor = namespacedKeyClass.getConstructor(JavaPlugin.class, String.class);
-            Object key = keyCtor.newInstance(plugin, "teamSelector");
-
-            Method getContainer = ItemMeta.class.getMethod("getPersistentDataContainer");
-            Object container = getContainer.invoke(meta);
-
-            Class<?> pdtClass = Class.forName("org.bukkit.persistence.PersistentDataType");
-            Field stringField = pdtClass.getField("STRING");
-            Object stringType = stringField.get(null);
+            // meta.getPersistentDataContainer().set(key, STRING, teamName);
+            containerSet.invoke(getContainer.invoke(meta), selectorKey, stringType, teamName);
+        } catch (Throwable t) {
+            plugin.debugLog("[TeamCommands] Reflection setPersistentTeamName failed: {}", t);
+        }
+    }
 
-            Method getMethod = container.getClass().getMethod("get", namespacedKeyClass, pdtClass);
-            Object result = getMethod.invoke(container, key, stringType);
+    private String getPersistentTeamName(ItemMeta meta) {
+        if (meta == null || !resolvePersistentData()) return null;
+        try {
+            Object result = containerGet.invoke(getContainer.invoke(meta), selectorKey, stringType);
             return (result instanceof String) ? (String) result : null;
         } catch (Throwable t) {
-            plugin.debugLog("[TeamCommands] Reflection getPersistentTeamName failed: " + t);
+            plugin.debugLog("[TeamCommands] Reflection getPersistentTeamName failed: {}", t);
             return null;
         }
     }
@@ -104,19 +106,22 @@ public class TeamCommands {
     }
 
     /**
-     * Handles /nf teams <create|remove|list> - management operations.
+     * Handles /nf teams <create|remove|list|autofill> - management operations.
      */
     public boolean handleTeamsCommand(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Processing teams command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Processing teams command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 2) {
-            sendMessage(sender, "Usage: /nf teams <create|remove|list>", "§c");
+            sendMessage(sender, "Usage: /nf teams <create|remove|list|autofill>", "§c");
             return true;
         }
         String sub = args[1].toLowerCase();
         if (sub.equals("create")) return handleTeamCreate(sender, args);
         if (sub.equals("list"))   return handleTeamList(sender);
         if (sub.equals("remove")) return handleTeamRemove(sender, args);
-        sendMessage(sender, "Unknown subcommand. Usage: /nf teams <create|remove|list>", "§c");
+        if (sub.equals("autofill")) return handleTeamAutofill(sender, args);
+        sendMessage(sender, "Unknown subcommand. Usage: /nf teams <create|remove|list|autofill>", "§c");
         return true;
     }
 
@@ -124,7 +129,9 @@ public class TeamCommands {
      * Handles /nf team <team-name> <block|setblock|meta> - per-team operations.
      */
     public boolean handleTeamCommand(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Processing team command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Processing team command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf team <team-name> <block|setblock|meta> ...", "§c");
             return true;
@@ -151,7 +158,9 @@ public class TeamCommands {
     }
 
     public boolean handleUserCommand(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Processing user command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Processing user command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 4) {
             sendMessage(sender, "Usage: /nf user <player> team <add|remove|list> [team]", "§c");
             plugin.debugLog("[TeamCommands] Invalid arguments for user command, expected at least 4");
@@ -159,11 +168,10 @@ public class TeamCommands {
         }
 
         String playerName = args[1];
-        plugin.debugLog("[TeamCommands] Target player: " + playerName);
-        OfflinePlayer target = Bukkit.getOfflinePlayer(playerName);
+        plugin.debugLog("[TeamCommands] Target player: {}", playerName);
 
         String userSub = args[3].toLowerCase();
-        plugin.debugLog("[TeamCommands] User subcommand: " + userSub);
+        plugin.debugLog("[TeamCommands] User subcommand: {}", userSub);
 
         if (userSub.equals("add")) {
             if (args.length < 5) {
@@ -171,25 +179,44 @@ public class TeamCommands {
                 plugin.debugLog("[TeamCommands] Invalid arguments for user add, expected 5");
                 return true;
             }
-            return handleUserTeamAdd(sender, target, args[4]);
+            return withResolvedPlayer(sender, playerName, target -> handleUserTeamAdd(sender, target, args[4]));
         } else if (userSub.equals("remove")) {
             if (args.length < 5) {
                 sendMessage(sender, "Usage: /nf user <player> team remove <team>", "§c");
                 plugin.debugLog("[TeamCommands] Invalid arguments for user remove, expected 5");
                 return true;
             }
-            return handleUserTeamRemove(sender, target, args[4]);
+            return withResolvedPlayer(sender, playerName, target -> handleUserTeamRemove(sender, target, args[4]));
         } else if (userSub.equals("list")) {
-            return handleUserTeamList(sender, target);
+            return withResolvedPlayer(sender, playerName, target -> handleUserTeamList(sender, target));
         } else {
             sendMessage(sender, "Unknown user team subcommand.", "§c");
-            plugin.debugLog("[TeamCommands] Unknown user subcommand: " + userSub);
+            plugin.debugLog("[TeamCommands] Unknown user subcommand: {}", userSub);
             return true;
         }
     }
 
+    /**
+     * Resolves {@code playerName} without blocking the server thread, then runs
+     * {@code action}; right away if the player is known locally, otherwise once
+     * the profile lookup is back.
+     */
+    private boolean withResolvedPlayer(CommandSender sender, String playerName, Consumer<PlayerResolver.Resolved> action) {
+        plugin.getPlayerResolver().resolve(playerName, target -> {
+            if (target == null) {
+                sendMessage(sender, "Player '" + playerName + "' could not be found.", "§c");
+                plugin.debugLog("[TeamCommands] Could not resolve player '{}'", playerName);
+                return;
+            }
+            action.accept(target);
+        });
+        return true;
+    }
+
     private boolean handleTeamCreate(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Handling team create command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team create command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 4) {
             sendMessage(sender, "Usage: /nf team create <team-name> <team-color>", "§c");
             plugin.debugLog("[TeamCommands] Invalid arguments for create, expected at least 4");
@@ -198,29 +225,29 @@ public class TeamCommands {
 
         String teamName = args[2].toLowerCase();
         String colorName = args[3].toUpperCase();
-        plugin.debugLog("[TeamCommands] Team name: " + teamName + ", color: " + colorName);
+        plugin.debugLog("[TeamCommands] Team name: {}, color: {}", teamName, colorName);
 
         if (!isValidColor(colorName)) {
             sendMessage(sender, "Invalid color. Valid colors: RED, BLUE, GREEN, YELLOW, AQUA, DARK_PURPLE, GOLD, LIGHT_PURPLE, WHITE", "§c");
-            plugin.debugLog("[TeamCommands] Invalid color: " + colorName);
+            plugin.debugLog("[TeamCommands] Invalid color: {}", colorName);
             return true;
         }
 
         if (teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team already exists.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' already exists");
+            plugin.debugLog("[TeamCommands] Team '{}' already exists", teamName);
             return true;
         }
 
         if (!teamsManager.createTeam(teamName, colorName)) {
             sendMessage(sender, "Max teams reached!", "§c");
-            plugin.debugLog("[TeamCommands] Max teams reached for '" + teamName + "'");
+            plugin.debugLog("[TeamCommands] Max teams reached for '{}'", teamName);
             return true;
         }
 
         String message = "Team '" + teamName + "' created with color " + colorName;
         sendMessage(sender, message, getLegacyColor(colorName));
-        plugin.debugLog("[TeamCommands] Created team '" + teamName + "' with color " + colorName);
+        plugin.debugLog("[TeamCommands] Created team '{}' with color {}", teamName, colorName);
         return true;
     }
 
@@ -245,44 +272,151 @@ public class TeamCommands {
     }
 
     private boolean handleTeamList(CommandSender sender) {
-        plugin.debugLog("[TeamCommands] Handling team list command for " + sender.getName());
+        plugin.debugLog("[TeamCommands] Handling team list command for {}", sender.getName());
         List<TeamsManager.Team> teams = (List<TeamsManager.Team>) teamsManager.getTeams();
         if (teams.isEmpty()) {
             sendMessage(sender, "No teams available.", "§e");
-            plugin.debugLog("[TeamCommands] No teams available for " + sender.getName());
+            plugin.debugLog("[TeamCommands] No teams available for {}", sender.getName());
             return true;
         }
         sendMessage(sender, "Teams:", "§6");
         for (TeamsManager.Team team : teams) {
             String message = "- " + team.getName();
             sendMessage(sender, message, getLegacyColor(team.getColor()));
-            plugin.debugLog("[TeamCommands] Listed team '" + team.getName() + "' with color " + team.getColor());
+            plugin.debugLog("[TeamCommands] Listed team '{}' with color {}", team.getName(), team.getColor());
         }
         return true;
     }
 
     private boolean handleTeamRemove(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Handling team remove command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team remove command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 3) {
             sendMessage(sender, "Usage: /nf team remove <team>", "§c");
             plugin.debugLog("[TeamCommands] Invalid arguments for remove, expected 3");
             return true;
         }
         String teamName = args[2].toLowerCase();
-        plugin.debugLog("[TeamCommands] Team name: " + teamName);
+        plugin.debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         teamsManager.removeTeam(teamName);
         sendMessage(sender, "Team '" + teamName + "' removed.", "§a");
-        plugin.debugLog("[TeamCommands] Removed team '" + teamName + "' for " + sender.getName());
+        plugin.debugLog("[TeamCommands] Removed team '{}' for {}", teamName, sender.getName());
+        return true;
+    }
+
+    /**
+     * Handles /nf teams autofill [strategy] [player|player+player ...] - spreads the
+     * listed players, or every online player without a team in an enabled world,
+     * over the existing teams. Names are resolved in one batch and teams.yml is
+     * saved once.
+     */
+    private boolean handleTeamAutofill(CommandSender sender, String[] args) {
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team autofill for " + sender.getName() + ": " + String.join(" ", args));
+        }
+        if (teamsManager.getTeams().isEmpty()) {
+            sendMessage(sender, "No teams available. Create some with /nf teams create first.", "§c");
+            plugin.debugLog("[TeamCommands] No teams to autofill");
+            return true;
+        }
+        TeamAutoFill.Strategy parsed = args.length > 2 ? TeamAutoFill.Strategy.parse(args[2]) : null;
+        TeamAutoFill.Strategy strategy = parsed != null ? parsed : TeamAutoFill.Strategy.SMALLEST;
+        int first = parsed != null ? 3 : 2;
+
+        if (first == args.length) {
+            List<List<UUID>> groups = new ArrayList<List<UUID>>();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (teamsManager.getTeamOf(player.getUniqueId()) == null
+                        && plugin.isWorldEnabled(player.getWorld().getName())) {
+                    groups.add(Collections.singletonList(player.getUniqueId()));
+                }
+            }
+            applyAutofill(sender, strategy, groups);
+            return true;
+        }
+
+        final String[] tokens = Arrays.copyOfRange(args, first, args.length);
+        Set<String> names = new LinkedHashSet<String>();
+        for (String token : tokens) {
+            names.addAll(Arrays.asList(token.split("\\+")));
+        }
+        names.remove("");
+        plugin.getPlayerResolver().resolveAll(names, resolved -> {
+            List<List<UUID>> groups = new ArrayList<List<UUID>>();
+            for (String token : tokens) {
+                List<UUID> group = new ArrayList<UUID>();
+                for (String name : token.split("\\+")) {
+                    PlayerResolver.Resolved target = resolved.get(name);
+                    if (target != null) {
+                        group.add(target.getUniqueId());
+                    } else if (!name.isEmpty()) {
+                        sendMessage(sender, "Player '" + name + "' could not be found.", "§c");
+                    }
+                }
+                if (!group.isEmpty()) {
+                    groups.add(group);
+                }
+            }
+            applyAutofill(sender, strategy, groups);
+        });
         return true;
     }
 
+    /**
+     * Plans the placement over the first {@code max-teams} teams by name and
+     * applies it with a single {@link TeamsManager#addMembers} call.
+     */
+    private void applyAutofill(CommandSender sender, TeamAutoFill.Strategy strategy, List<List<UUID>> groups) {
+        List<TeamsManager.Team> teams = new ArrayList<TeamsManager.Team>(teamsManager.getTeams());
+        teams.sort(Comparator.comparing(TeamsManager.Team::getName));
+        Map<String, Integer> teamSizes = new LinkedHashMap<String, Integer>();
+        for (TeamsManager.Team team : teams.subList(0, Math.min(teams.size(), teamsManager.getMaxTeams()))) {
+            teamSizes.put(team.getName(), team.getMembers().size());
+        }
+        TeamAutoFill.Plan result = TeamAutoFill.plan(strategy, teamSizes, groups, uuid -> {
+            TeamsManager.Team team = teamsManager.getTeamOf(uuid);
+            return team == null ? null : team.getName();
+        });
+        final Map<UUID, String> plan = result.getAssignments();
+        List<UUID> added = teamsManager.addMembers(plan);
+        for (UUID uuid : added) {
+            Player online = Bukkit.getPlayer(uuid);
+            if (online != null) {
+                sendMessage(online, "You have been added to team " + plan.get(uuid), "§a");
+            }
+        }
+
+        int requested = 0;
+        for (List<UUID> group : groups) {
+            requested += group.size();
+        }
+        int skipped = requested - added.size();
+        sendMessage(sender, "Autofilled " + added.size() + " player(s) across " + teamSizes.size() + " team(s)"
+                + (skipped > 0 ? "; " + skipped + " already in a team." : "."), "§a");
+        plugin.debugLog("[TeamCommands] Autofill ({}) placed {} players, skipped {}", strategy, added.size(), skipped);
+        // A member already in a team outside the first max-teams, or pair members in two
+        // different teams, can't be brought together without moving someone
+        for (List<UUID> group : result.getSplitGroups()) {
+            List<String> names = new ArrayList<String>();
+            for (UUID uuid : group) {
+                String name = Bukkit.getOfflinePlayer(uuid).getName();
+                names.add(name != null ? name : uuid.toString());
+            }
+            sendMessage(sender, "Could not keep " + String.join("+", names)
+                    + " together: one of them is already in another team.", "§e");
+        }
+    }
+
     private boolean handleTeamBlockSelector(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Handling team block selector command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team block selector command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (!(sender instanceof Player)) {
             sendMessage(sender, "Only players can use this command.", "§c");
             plugin.debugLog("[TeamCommands] Non-player sender attempted block selector command");
@@ -294,10 +428,10 @@ public class TeamCommands {
             return true;
         }
         String teamName = args[1].toLowerCase();
-        plugin.debugLog("[TeamCommands] Team name: " + teamName);
+        plugin.debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team '" + teamName + "' does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         if (!args[2].equalsIgnoreCase("block") || !args[3].equalsIgnoreCase("selector")) {
@@ -308,23 +442,23 @@ public class TeamCommands {
         Player target = Bukkit.getPlayer(args[4]);
         if (target == null) {
             sendMessage(sender, "Player not found or offline.", "§c");
-            plugin.debugLog("[TeamCommands] Player '" + args[4] + "' not found or offline");
+            plugin.debugLog("[TeamCommands] Player '{}' not found or offline", args[4]);
             return true;
         }
         ItemStack axe = createTeamBlockSelector(teamName);
         target.getInventory().addItem(axe);
         sendMessage(sender, "Given team block selector for team '" + teamName + "' to " + target.getName(), "§a");
-        plugin.debugLog("[TeamCommands] Gave block selector for team '" + teamName + "' to " + target.getName());
+        plugin.debugLog("[TeamCommands] Gave block selector for team '{}' to {}", teamName, target.getName());
         return true;
     }
 
     private ItemStack createTeamBlockSelector(String teamName) {
-        plugin.debugLog("[TeamCommands] Creating team block selector for team '" + teamName + "'");
+        plugin.debugLog("[TeamCommands] Creating team block selector for team '{}'", teamName);
         ItemStack axe = new ItemStack(Material.IRON_AXE);
         ItemMeta meta = axe.getItemMeta();
         if (meta != null) {
             meta.setDisplayName("§6" + TEAM_BLOCK_SELECTOR_NAME);
-            if (isPre114()) {
+            if (capabilities.isPre114()) {
                 meta.setLore(Collections.singletonList("Team: " + teamName));
             } else {
                 setPersistentTeamName(meta, teamName);
@@ -335,7 +469,9 @@ public class TeamCommands {
     }
 
     private boolean handleTeamSetBlock(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Handling team setblock command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team setblock command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (!(sender instanceof Player)) {
             sendMessage(sender, "Only players can use this command.", "§c");
             plugin.debugLog("[TeamCommands] Non-player sender attempted setblock command");
@@ -348,10 +484,10 @@ public class TeamCommands {
             return true;
         }
         String teamName = args[1].toLowerCase();
-        plugin.debugLog("[TeamCommands] Team name: " + teamName);
+        plugin.debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team '" + teamName + "' does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         int x, y, z;
@@ -359,10 +495,14 @@ public class TeamCommands {
             x = Integer.parseInt(args[3]);
             y = Integer.parseInt(args[4]);
             z = Integer.parseInt(args[5]);
-            plugin.debugLog("[TeamCommands] Parsed coordinates: x=" + x + ", y=" + y + ", z=" + z);
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("[TeamCommands] Parsed coordinates: x=" + x + ", y=" + y + ", z=" + z);
+            }
         } catch (NumberFormatException e) {
             sendMessage(sender, "Coordinates must be numbers.", "§c");
-            plugin.debugLog("[TeamCommands] Invalid coordinates: " + Arrays.toString(Arrays.copyOfRange(args, 3, args.length)));
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("[TeamCommands] Invalid coordinates: " + Arrays.toString(Arrays.copyOfRange(args, 3, args.length)));
+            }
             return true;
         }
         World world = player.getWorld();
@@ -370,108 +510,126 @@ public class TeamCommands {
         Block block = world.getBlockAt(loc);
         if (block.getType() != teamsManager.getTeamBlockMaterial()) {
             sendMessage(sender, "Block at location is not the configured team block (" + teamsManager.getTeamBlockMaterial() + ").", "§c");
-            plugin.debugLog("[TeamCommands] Block at " + formatLocation(loc) + " is " + block.getType() + ", expected " + teamsManager.getTeamBlockMaterial());
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("[TeamCommands] Block at " + formatLocation(loc) + " is " + block.getType() + ", expected " + teamsManager.getTeamBlockMaterial());
+            }
+            return true;
+        }
+        if (isOtherTeamsLodestone(sender, block, teamName)) {
             return true;
         }
         teamsManager.setLodestone(teamName, loc);
         sendMessage(sender, "Lodestone set for team '" + teamName + "' at " + x + " " + y + " " + z, "§a");
-        plugin.debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(loc));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Set lodestone for team '" + teamName + "' at " + formatLocation(loc));
+        }
+        return true;
+    }
+
+    private boolean isOtherTeamsLodestone(CommandSender sender, Block block, String teamName) {
+        TeamsManager.Team owner = teamsManager.getTeamAt(block);
+        if (owner == null || owner.getName().equalsIgnoreCase(teamName)) {
+            return false;
+        }
+        sendMessage(sender, "That block is already the lodestone of team '" + owner.getName() + "'.", "§c");
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Block " + formatLocation(block.getLocation()) + " already belongs to team '" + owner.getName() + "'");
+        }
         return true;
     }
 
     public TeamsManager.Team getTeamForPlayer(Player player) {
-        plugin.debugLog("[TeamCommands] Getting team for player " + player.getName());
-        UUID uuid = player.getUniqueId();
-        for (TeamsManager.Team team : teamsManager.getTeams()) {
-            if (team.getMembers().contains(uuid)) {
-                plugin.debugLog("[TeamCommands] Found team '" + team.getName() + "' for player " + player.getName());
-                return team;
-            }
+        plugin.debugLog("[TeamCommands] Getting team for player {}", player.getName());
+        TeamsManager.Team team = teamsManager.getTeamOf(player.getUniqueId());
+        if (team != null) {
+            plugin.debugLog("[TeamCommands] Found team '{}' for player {}", team.getName(), player.getName());
+            return team;
         }
-        plugin.debugLog("[TeamCommands] No team found for player " + player.getName());
+        plugin.debugLog("[TeamCommands] No team found for player {}", player.getName());
         return null;
     }
 
-    private boolean handleUserTeamAdd(CommandSender sender, OfflinePlayer target, String teamName) {
-        plugin.debugLog("[TeamCommands] Handling user team add for " + sender.getName() + ": player=" + target.getName() + ", team=" + teamName);
+    private boolean handleUserTeamAdd(CommandSender sender, PlayerResolver.Resolved target, String teamName) {
+        plugin.debugLog("[TeamCommands] Handling user team add for {}: player={}, team={}", sender.getName(), target.getName(), teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         if (teamsManager.addMember(teamName, target.getUniqueId())) {
             sendMessage(sender, "Added " + target.getName() + " to team " + teamName, "§a");
-            plugin.debugLog("[TeamCommands] Added " + target.getName() + " to team '" + teamName + "'");
-            if (target.isOnline()) {
-                sendMessage((Player) target, "You have been added to team " + teamName, "§a");
-                plugin.debugLog("[TeamCommands] Notified " + target.getName() + " of team addition");
+            plugin.debugLog("[TeamCommands] Added {} to team '{}'", target.getName(), teamName);
+            Player online = Bukkit.getPlayer(target.getUniqueId());
+            if (online != null) {
+                sendMessage(online, "You have been added to team " + teamName, "§a");
+                plugin.debugLog("[TeamCommands] Notified {} of team addition", target.getName());
             }
         } else {
-            sendMessage(sender, target.getName() + " is already in the team or error occurred.", "§c");
-            plugin.debugLog("[TeamCommands] Failed to add " + target.getName() + " to team '" + teamName + "', already in team or error");
+            sendMessage(sender, target.getName() + " is already in a team or error occurred.", "§c");
+            plugin.debugLog("[TeamCommands] Failed to add {} to team '{}', already in team or error", target.getName(), teamName);
         }
         return true;
     }
 
-    private boolean handleUserTeamRemove(CommandSender sender, OfflinePlayer target, String teamName) {
-        plugin.debugLog("[TeamCommands] Handling user team remove for " + sender.getName() + ": player=" + target.getName() + ", team=" + teamName);
+    private boolean handleUserTeamRemove(CommandSender sender, PlayerResolver.Resolved target, String teamName) {
+        plugin.debugLog("[TeamCommands] Handling user team remove for {}: player={}, team={}", sender.getName(), target.getName(), teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
         if (teamsManager.removeMember(teamName, target.getUniqueId())) {
             sendMessage(sender, "Removed " + target.getName() + " from team " + teamName, "§a");
-            plugin.debugLog("[TeamCommands] Removed " + target.getName() + " from team '" + teamName + "'");
-            if (target.isOnline()) {
-                sendMessage((Player) target, "You have been removed from team " + teamName, "§c");
-                plugin.debugLog("[TeamCommands] Notified " + target.getName() + " of team removal");
+            plugin.debugLog("[TeamCommands] Removed {} from team '{}'", target.getName(), teamName);
+            Player online = Bukkit.getPlayer(target.getUniqueId());
+            if (online != null) {
+                sendMessage(online, "You have been removed from team " + teamName, "§c");
+                plugin.debugLog("[TeamCommands] Notified {} of team removal", target.getName());
             }
         } else {
             sendMessage(sender, target.getName() + " is not in the team or error occurred.", "§c");
-            plugin.debugLog("[TeamCommands] Failed to remove " + target.getName() + " from team '" + teamName + "', not in team or error");
+            plugin.debugLog("[TeamCommands] Failed to remove {} from team '{}', not in team or error", target.getName(), teamName);
         }
         return true;
     }
 
-    private boolean handleUserTeamList(CommandSender sender, OfflinePlayer target) {
-        plugin.debugLog("[TeamCommands] Handling user team list for " + sender.getName() + ": player=" + target.getName());
-        UUID uuid = target.getUniqueId();
+    private boolean handleUserTeamList(CommandSender sender, PlayerResolver.Resolved target) {
+        plugin.debugLog("[TeamCommands] Handling user team list for {}: player={}", sender.getName(), target.getName());
         ArrayList<String> playerTeams = new ArrayList<String>();
-        for (TeamsManager.Team team : teamsManager.getTeams()) {
-            if (team.getMembers().contains(uuid)) {
-                playerTeams.add(team.getName());
-                plugin.debugLog("[TeamCommands] Found team '" + team.getName() + "' for " + target.getName());
-            }
+        TeamsManager.Team team = teamsManager.getTeamOf(target.getUniqueId());
+        if (team != null) {
+            playerTeams.add(team.getName());
+            plugin.debugLog("[TeamCommands] Found team '{}' for {}", team.getName(), target.getName());
         }
 
         if (playerTeams.isEmpty()) {
             sendMessage(sender, target.getName() + " is not in any team.", "§e");
-            plugin.debugLog("[TeamCommands] No teams found for " + target.getName());
+            plugin.debugLog("[TeamCommands] No teams found for {}", target.getName());
             return true;
         }
 
         sendMessage(sender, target.getName() + "'s teams:", "§6");
         for (String team : playerTeams) {
             sendMessage(sender, "- " + team, "§f");
-            plugin.debugLog("[TeamCommands] Listed team '" + team + "' for " + target.getName());
+            plugin.debugLog("[TeamCommands] Listed team '{}' for {}", team, target.getName());
         }
         return true;
     }
 
-    public void onTeamBlockSelectorUse(Player player, Block block) {
-        plugin.debugLog("[TeamCommands] Player " + player.getName() + " used team block selector on block at " + formatLocation(block.getLocation()));
+    /**
+     * Sets the selector's team lodestone to {@code block}. {@code meta} is the
+     * selector's meta, already read by the listener that recognised it.
+     */
+    public void onTeamBlockSelectorUse(Player player, Block block, ItemMeta meta) {
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Player " + player.getName() + " used team block selector on block at " + formatLocation(block.getLocation()));
+        }
         if (block.getType() != teamsManager.getTeamBlockMaterial()) {
             sendMessage(player, "This block is not the configured team block (" + teamsManager.getTeamBlockMaterial() + ").", "§c");
             return;
         }
-        ItemStack item = player.getInventory().getItemInMainHand();
-        if (item == null || !item.hasItemMeta()) return;
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) return;
-
         String teamName;
-        if (isPre114()) {
+        if (capabilities.isPre114()) {
             List<String> lore = meta.getLore();
             if (lore == null || lore.isEmpty() || !lore.get(0).startsWith("Team: ")) {
                 sendMessage(player, "This selector is invalid (missing team info)", "§c");
@@ -491,6 +649,9 @@ public class TeamCommands {
             return;
         }
 
+        if (isOtherTeamsLodestone(player, block, teamName)) {
+            return;
+        }
         teamsManager.setLodestone(teamName, block.getLocation());
         sendMessage(player, "Team lodestone for '" + teamName + "' set at " +
                 block.getX() + ", " + block.getY() + ", " + block.getZ(), "§a");
@@ -498,59 +659,16 @@ public class TeamCommands {
     }
 
     private void updatePlayerNametagColor(Player player, String teamName) {
-        plugin.debugLog("[TeamCommands] Updating nametag color for player " + player.getName() + " in team '" + teamName + "'");
-        TeamsManager.Team team = teamsManager.getTeam(teamName);
-        if (team == null) {
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' not found for nametag update");
-            return;
-        }
-
-        Scoreboard scoreboard = player.getScoreboard();
-        Team scoreboardTeam = scoreboard.getTeam(teamName);
-
-        if (scoreboardTeam == null) {
-            scoreboardTeam = scoreboard.registerNewTeam(teamName);
-            scoreboardTeam.setDisplayName(teamName);
-            ChatColor chatColor = parseChatColor(team.getColor());
-            if (chatColor != null) {
-                scoreboardTeam.setColor(chatColor);
-                plugin.debugLog("[TeamCommands] Set scoreboard team color to " + chatColor + " for team '" + teamName + "'");
-            }
-            plugin.debugLog("[TeamCommands] Registered new scoreboard team '" + teamName + "' with color " + team.getColor());
-        }
-
-        for (UUID memberUUID : team.getMembers()) {
-            Player member = Bukkit.getPlayer(memberUUID);
-            if (member != null && member.isOnline()) {
-                scoreboardTeam.addEntry(member.getName());
-                plugin.debugLog("[TeamCommands] Added " + member.getName() + " to scoreboard team '" + teamName + "'");
-            }
-        }
-
-        player.setScoreboard(scoreboard);
+        plugin.debugLog("[TeamCommands] Updating nametag color for player {} in team '{}'", player.getName(), teamName);
+        teamsManager.showNametags(teamName);
         sendMessage(player, "Nametag color updated for team '" + teamName + "'", "§a");
-        plugin.debugLog("[TeamCommands] Updated nametag color for " + player.getName() + " in team '" + teamName + "'");
-    }
-
-    private ChatColor parseChatColor(String colorName) {
-        if (colorName == null) return null;
-        colorName = colorName.toUpperCase();
-
-        if (colorName.equals("RED")) return ChatColor.RED;
-        if (colorName.equals("GOLD")) return ChatColor.GOLD;
-        if (colorName.equals("YELLOW")) return ChatColor.YELLOW;
-        if (colorName.equals("GREEN")) return ChatColor.GREEN;
-        if (colorName.equals("AQUA")) return ChatColor.AQUA;
-        if (colorName.equals("BLUE")) return ChatColor.BLUE;
-        if (colorName.equals("DARK_PURPLE")) return ChatColor.DARK_PURPLE;
-        if (colorName.equals("LIGHT_PURPLE")) return ChatColor.LIGHT_PURPLE;
-        if (colorName.equals("WHITE")) return ChatColor.WHITE;
-
-        return null;
+        plugin.debugLog("[TeamCommands] Updated nametag color for {} in team '{}'", player.getName(), teamName);
     }
 
     private boolean handleTeamMetaColor(CommandSender sender, String[] args) {
-        plugin.debugLog("[TeamCommands] Handling team meta color command for " + sender.getName() + ": " + String.join(" ", args));
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamCommands] Handling team meta color command for " + sender.getName() + ": " + String.join(" ", args));
+        }
         if (args.length < 5) {
             sendMessage(sender, "Usage: /nf team meta <team-name> color <get|set> [color]", "§c");
             plugin.debugLog("[TeamCommands] Invalid arguments for meta color, expected at least 5");
@@ -558,20 +676,20 @@ public class TeamCommands {
         }
 
         String teamName = args[2].toLowerCase();
-        plugin.debugLog("[TeamCommands] Team name: " + teamName);
+        plugin.debugLog("[TeamCommands] Team name: {}", teamName);
         if (!teamsManager.teamExists(teamName)) {
             sendMessage(sender, "Team '" + teamName + "' does not exist.", "§c");
-            plugin.debugLog("[TeamCommands] Team '" + teamName + "' does not exist");
+            plugin.debugLog("[TeamCommands] Team '{}' does not exist", teamName);
             return true;
         }
 
         String action = args[4].toLowerCase();
-        plugin.debugLog("[TeamCommands] Color action: " + action);
+        plugin.debugLog("[TeamCommands] Color action: {}", action);
         TeamsManager.Team team = teamsManager.getTeam(teamName);
 
         if (action.equals("get")) {
             sendMessage(sender, "Team '" + teamName + "' color: " + team.getColor(), getLegacyColor(team.getColor()));
-            plugin.debugLog("[TeamCommands] Retrieved color " + team.getColor() + " for team '" + teamName + "'");
+            plugin.debugLog("[TeamCommands] Retrieved color {} for team '{}'", team.getColor(), teamName);
         } else if (action.equals("set")) {
             if (args.length < 6) {
                 sendMessage(sender, "Usage: /nf team meta <team-name> color set <color>", "§c");
@@ -580,28 +698,22 @@ public class TeamCommands {
             }
 
             String newColorName = args[5].toUpperCase();
-            plugin.debugLog("[TeamCommands] New color: " + newColorName);
+            plugin.debugLog("[TeamCommands] New color: {}", newColorName);
 
             if (!isValidColor(newColorName)) {
                 sendMessage(sender, "Invalid color. Valid colors: RED, BLUE, GREEN, YELLOW, AQUA, DARK_PURPLE, GOLD, LIGHT_PURPLE, WHITE", "§c");
-                plugin.debugLog("[TeamCommands] Invalid color: " + newColorName);
+                plugin.debugLog("[TeamCommands] Invalid color: {}", newColorName);
                 return true;
             }
 
             team.setColor(newColorName);
             sendMessage(sender, "Team '" + teamName + "' color updated to " + newColorName, getLegacyColor(newColorName));
-            plugin.debugLog("[TeamCommands] Updated color for team '" + teamName + "' to " + newColorName);
+            plugin.debugLog("[TeamCommands] Updated color for team '{}' to {}", teamName, newColorName);
 
-            for (UUID memberUUID : team.getMembers()) {
-                Player member = Bukkit.getPlayer(memberUUID);
-                if (member != null && member.isOnline()) {
-                    updatePlayerNametagColor(member, teamName);
-                    plugin.debugLog("[TeamCommands] Updated nametag for " + member.getName() + " in team '" + teamName + "'");
-                }
-            }
+            teamsManager.showNametags(teamName);
         } else {
             sendMessage(sender, "Unknown color action. Use get or set.", "§c");
-            plugin.debugLog("[TeamCommands] Unknown color action: " + action);
+            plugin.debugLog("[TeamCommands] Unknown color action: {}", action);
         }
 
         return true;
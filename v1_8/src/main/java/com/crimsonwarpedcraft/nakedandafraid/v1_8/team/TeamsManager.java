@@ -2,10 +2,13 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_8.team;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.listeners.NametagSyncEngine;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.BlockIndex;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.NakedAndAfraid;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
@@ -21,6 +24,12 @@ public class TeamsManager {
     private int maxTeams;
     private Material teamBlockMaterial;
     private final Map<String, Team> teams = new HashMap<>();
+    /** Which team each player belongs to; kept in step with every team's member set. */
+    private final Map<UUID, Team> teamByMember = new HashMap<>();
+    /** Team lodestones by block; ones in worlds that aren't loaded yet bind when the world loads. */
+    private final BlockIndex<Team> lodestones;
+    /** Mirrors every team's color and members onto the main scoreboard, one diff at a time. */
+    private final NametagSyncEngine nametags;
 
     private static final List<String> VALID_COLORS =
             Collections.unmodifiableList(Arrays.asList(
@@ -31,41 +40,37 @@ public class TeamsManager {
     public TeamsManager(NakedAndAfraid plugin) {
         this.plugin = plugin;
         this.teamsFile = new File(plugin.getPlugin().getDataFolder(), "teams.yml");
-        debugLog("Initialized TeamsManager for Bukkit version " + Bukkit.getBukkitVersion() +
-                ", teams file: " + teamsFile.getPath());
+        this.lodestones = new BlockIndex<>(plugin);
+        Bukkit.getPluginManager().registerEvents(lodestones, plugin.getPlugin());
+        this.nametags = new NametagSyncEngine(plugin.getPlugin(), plugin, plugin.getServerCapabilities());
+        Bukkit.getPluginManager().registerEvents(nametags, plugin.getPlugin());
+        debugLog("Initialized TeamsManager for Bukkit version {}, teams file: {}", Bukkit.getBukkitVersion(), teamsFile.getPath());
         loadConfig();
     }
 
     private void debugLog(String message) {
-        if (plugin.getConfig().getBoolean("debug-mode", false)) {
-            plugin.getPlugin().getLogger().info("[TeamsManager] " + message);
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamsManager] " + message);
         }
     }
 
-    /**
-     * Checks if the server supports the Adventure API (Minecraft 1.19+).
-     *
-     * @return true if the server version is 1.19 or higher, false otherwise.
-     */
-    private boolean isAdventureSupported() {
-        String version = Bukkit.getBukkitVersion().split("-")[0];
-        try {
-            String[] parts = version.split("\\.");
-            int major = Integer.parseInt(parts[1]);
-            return major >= 19;
-        } catch (Exception e) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Failed to parse Bukkit version: " + version);
-            return false;
+    // The prefix is only added once the gate has passed, so disabled calls build nothing
+    private void debugLog(String pattern, Object arg) {
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamsManager] " + pattern, arg);
         }
     }
 
-    /**
-     * Checks if the server is pre-1.16 (Minecraft 1.12–1.15.2).
-     *
-     * @return true if the server version is before 1.16, false otherwise.
-     */
-    private boolean isPre116() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[6-9]|2[0-1]).*");
+    private void debugLog(String pattern, Object arg1, Object arg2) {
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamsManager] " + pattern, arg1, arg2);
+        }
+    }
+
+    private void debugLog(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (plugin.isDebugEnabled()) {
+            plugin.debugLog("[TeamsManager] " + pattern, arg1, arg2, arg3);
+        }
     }
 
     public void loadConfig() {
@@ -77,25 +82,30 @@ public class TeamsManager {
         teamsConfig = YamlConfiguration.loadConfiguration(teamsFile);
         ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded teams.yml configuration");
 
-        maxTeams = plugin.getPlugin().getConfig().getInt("max-teams", 10);
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded max-teams: " + maxTeams);
+        maxTeams = plugin.getConfigSnapshot().getMaxTeams();
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded max-teams: {}", maxTeams);
 
-        String blockName = plugin.getPlugin().getConfig().getString("team-block", "LODESTONE").toUpperCase(Locale.ENGLISH);
+        String blockName = plugin.getConfigSnapshot().getTeamBlock();
         try {
-            if (isPre116() && blockName.equals("LODESTONE")) {
+            if (plugin.getServerCapabilities().isPre116() && blockName.equals("LODESTONE")) {
                 teamBlockMaterial = Material.OBSIDIAN;
                 ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Pre-1.16 detected, defaulting team-block to OBSIDIAN (LODESTONE unavailable)");
             } else {
                 teamBlockMaterial = Material.valueOf(blockName);
-                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded team-block: " + teamBlockMaterial.name());
+                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded team-block: {}", teamBlockMaterial.name());
             }
         } catch (IllegalArgumentException e) {
-            teamBlockMaterial = isPre116() ? Material.OBSIDIAN : Material.BEACON;
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid team-block '" + blockName + "', defaulting to " + teamBlockMaterial.name());
+            teamBlockMaterial = plugin.getServerCapabilities().isPre116() ? Material.OBSIDIAN : Material.BEACON;
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid team-block '{}', defaulting to {}", blockName, teamBlockMaterial.name());
             plugin.getPlugin().getLogger().warning("Invalid team-block material in config.yml, defaulting to " + teamBlockMaterial.name());
         }
 
+        for (Team team : teams.values()) {
+            nametags.remove(team.name);
+        }
         teams.clear();
+        teamByMember.clear();
+        lodestones.clear();
         ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Cleared existing teams map");
 
         if (teamsConfig.contains("teams")) {
@@ -105,7 +115,7 @@ public class TeamsManager {
                 String colorName = teamsConfig.getString(path + ".color", "WHITE").toUpperCase(Locale.ENGLISH);
                 String color = VALID_COLORS.contains(colorName) ? colorName : "WHITE";
                 if (!colorName.equals(color)) {
-                    ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid color '" + colorName + "' for team '" + teamName + "', defaulting to WHITE");
+                    ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid color '{}' for team '{}', defaulting to WHITE", colorName, teamName);
                 }
 
                 List<String> memberUUIDs = teamsConfig.getStringList(path + ".members");
@@ -114,27 +124,28 @@ public class TeamsManager {
                     try {
                         members.add(UUID.fromString(s));
                     } catch (IllegalArgumentException ignored) {
-                        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid UUID '" + s + "' for team '" + teamName + "', skipping");
+                        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid UUID '{}' for team '{}', skipping", s, teamName);
                     }
                 }
 
-                Location lodestone = null;
-                if (teamsConfig.contains(path + ".lodestone.world")) {
-                    String worldName = teamsConfig.getString(path + ".lodestone.world");
-                    if (worldName != null && Bukkit.getWorld(worldName) != null) {
-                        double x = teamsConfig.getDouble(path + ".lodestone.x");
-                        double y = teamsConfig.getDouble(path + ".lodestone.y");
-                        double z = teamsConfig.getDouble(path + ".lodestone.z");
-                        lodestone = new Location(Bukkit.getWorld(worldName), x, y, z);
-                        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded lodestone for team '" + teamName + "' at " + formatLocation(lodestone));
-                    } else {
-                        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid world for lodestone of team '" + teamName + "', skipping");
+                Team team = new Team(teamName, color, members);
+                indexMembers(team);
+                nametags.define(team.name, team.color, team.members);
+                teams.put(teamName.toLowerCase(Locale.ENGLISH), team);
+
+                String worldName = teamsConfig.getString(path + ".lodestone.world");
+                if (worldName != null) {
+                    lodestones.put(team, worldName,
+                            (int) Math.floor(teamsConfig.getDouble(path + ".lodestone.x")),
+                            (int) Math.floor(teamsConfig.getDouble(path + ".lodestone.y")),
+                            (int) Math.floor(teamsConfig.getDouble(path + ".lodestone.z")));
+                    BlockIndex.Position lodestone = lodestones.positionOf(team);
+                    if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+                        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded lodestone for team '" + teamName + "' at " + formatPosition(lodestone) +
+                                (lodestone.isBound() ? "" : ", waiting for its world to load"));
                     }
                 }
-
-                Team team = new Team(teamName, color, members, lodestone);
-                teams.put(teamName.toLowerCase(Locale.ENGLISH), team);
-                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded team '" + teamName + "' with color " + color + ", " + members.size() + " members");
+                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Loaded team '{}' with color {}, {} members", teamName, color, members.size());
             }
         } else {
             ((NakedAndAfraid) plugin).debugLog("[TeamsManager] No teams section found in teams.yml");
@@ -157,19 +168,22 @@ public class TeamsManager {
             }
             teamsConfig.set(path + ".members", memberUUIDs);
 
-            Location lodestone = team.getLodestone();
+            BlockIndex.Position lodestone = lodestones.positionOf(team);
             if (lodestone != null) {
-                teamsConfig.set(path + ".lodestone.world", lodestone.getWorld().getName());
+                teamsConfig.set(path + ".lodestone.world", lodestone.getWorldName());
                 teamsConfig.set(path + ".lodestone.x", lodestone.getX());
                 teamsConfig.set(path + ".lodestone.y", lodestone.getY());
                 teamsConfig.set(path + ".lodestone.z", lodestone.getZ());
-                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Saved lodestone for team '" + team.getName() + "' at " + formatLocation(lodestone));
+                if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+                    ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Saved lodestone for team '" + team.getName() + "' at " + formatPosition(lodestone));
+                }
             } else {
                 teamsConfig.set(path + ".lodestone", null);
-                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Cleared lodestone for team '" + team.getName() + "'");
+                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Cleared lodestone for team '{}'", team.getName());
             }
 
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Saved team '" + team.getName() + "' with color " + team.getColor() + ", " + memberUUIDs.size() + " members");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Saved team '{}' with color {}, {} members",
+                    team.getName(), team.getColor(), memberUUIDs.size());
         }
 
         try {
@@ -177,28 +191,36 @@ public class TeamsManager {
             ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Successfully saved teams.yml");
         } catch (IOException e) {
             plugin.getPlugin().getLogger().severe("Could not save teams.yml");
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Failed to save teams.yml: " + e.getMessage());
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Failed to save teams.yml: {}", e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /** Takes the team nametags off the main scoreboard. */
+    public void shutdown() {
+        nametags.shutdown();
+        debugLog("Shut down nametags");
+    }
+
     public void refreshWorlds() {
         ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Refreshing worlds for teams");
         List<String> toRemove = new ArrayList<>();
         for (Team team : teams.values()) {
-            Location lodestone = team.getLodestone();
+            // The stored position, so teams in disabled worlds that aren't loaded are found too
+            BlockIndex.Position lodestone = lodestones.positionOf(team);
             if (lodestone != null) {
-                String worldName = lodestone.getWorld().getName();
+                String worldName = lodestone.getWorldName();
                 if (!((NakedAndAfraid) plugin).isWorldEnabled(worldName)) {
                     toRemove.add(team.getName().toLowerCase(Locale.ENGLISH));
-                    ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Marking team '" + team.getName() + "' for removal due to disabled world: " + worldName);
+                    ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Marking team '{}' for removal due to disabled world: {}",
+                            team.getName(), worldName);
                 }
             }
         }
         for (String teamName : toRemove) {
-            teams.remove(teamName);
+            forget(teams.remove(teamName));
             teamsConfig.set("teams." + teamName, null);
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Removed team '" + teamName + "' from disabled world");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Removed team '{}' from disabled world", teamName);
         }
         if (!toRemove.isEmpty()) {
             try {
@@ -206,123 +228,217 @@ public class TeamsManager {
                 ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Saved teams.yml after removing teams from disabled worlds");
             } catch (IOException e) {
                 plugin.getPlugin().getLogger().severe("Could not save teams.yml after world refresh");
-                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Failed to save teams.yml after world refresh: " + e.getMessage());
+                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Failed to save teams.yml after world refresh: {}", e.getMessage());
                 e.printStackTrace();
             }
         }
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] World refresh completed, removed " + toRemove.size() + " teams");
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] World refresh completed, removed {} teams", toRemove.size());
     }
 
     public boolean removeTeam(String teamName) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Attempting to remove team '" + teamName + "'");
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Attempting to remove team '{}'", teamName);
         String teamKey = teamName.toLowerCase(Locale.ENGLISH);
         if (!teams.containsKey(teamKey)) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '" + teamName + "' does not exist, cannot remove");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '{}' does not exist, cannot remove", teamName);
             return false;
         }
-        teams.remove(teamKey);
+        forget(teams.remove(teamKey));
         teamsConfig.set("teams." + teamName, null);
         saveConfig();
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Removed team '" + teamName + "'");
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Removed team '{}'", teamName);
         return true;
     }
 
     public int getMaxTeams() {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved max-teams: " + maxTeams);
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved max-teams: {}", maxTeams);
         return maxTeams;
     }
 
     public Material getTeamBlockMaterial() {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved team-block material: " + teamBlockMaterial.name());
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved team-block material: {}", teamBlockMaterial.name());
         return teamBlockMaterial;
     }
 
     public boolean teamExists(String teamName) {
         boolean exists = teams.containsKey(teamName.toLowerCase(Locale.ENGLISH));
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Checked team existence for '" + teamName + "': " + exists);
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Checked team existence for '{}': {}", teamName, exists);
         return exists;
     }
 
     public Team getTeam(String teamName) {
         Team team = teams.get(teamName.toLowerCase(Locale.ENGLISH));
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved team '" + teamName + "': " + (team != null ? team.getName() : "null"));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved team '" + teamName + "': " + (team != null ? team.getName() : "null"));
+        }
         return team;
     }
 
     public boolean createTeam(String teamName, String color) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Attempting to create team '" + teamName + "' with color " + color);
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Attempting to create team '{}' with color {}", teamName, color);
         if (teams.size() >= maxTeams) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Cannot create team '" + teamName + "', max teams reached (" + teams.size() + "/" + maxTeams + ")");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Cannot create team '{}', max teams reached ({}/{})", teamName, teams.size(), maxTeams);
             return false;
         }
         if (teamExists(teamName)) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Cannot create team '" + teamName + "', already exists");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Cannot create team '{}', already exists", teamName);
             return false;
         }
         String validatedColor = VALID_COLORS.contains(color.toUpperCase(Locale.ENGLISH)) ? color.toUpperCase(Locale.ENGLISH) : "WHITE";
         if (!color.toUpperCase(Locale.ENGLISH).equals(validatedColor)) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid color '" + color + "' for team '" + teamName + "', defaulting to WHITE");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Invalid color '{}' for team '{}', defaulting to WHITE", color, teamName);
         }
-        teams.put(teamName.toLowerCase(Locale.ENGLISH), new Team(teamName, validatedColor, new HashSet<UUID>(), null));
+        Team team = new Team(teamName, validatedColor, new HashSet<UUID>());
+        teams.put(teamName.toLowerCase(Locale.ENGLISH), team);
+        nametags.define(team.name, team.color, team.members);
         saveConfig();
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Created team '" + teamName + "' with color " + validatedColor);
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Created team '{}' with color {}", teamName, validatedColor);
         return true;
     }
 
     public boolean addMember(String teamName, UUID playerUUID) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Attempting to add player " + playerUUID + " to team '" + teamName + "'");
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Attempting to add player {} to team '{}'", playerUUID, teamName);
         Team team = getTeam(teamName);
         if (team == null) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '" + teamName + "' does not exist, cannot add member");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '{}' does not exist, cannot add member", teamName);
             return false;
         }
-        if (team.getMembers().contains(playerUUID)) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Player " + playerUUID + " already in team '" + teamName + "'");
+        if (team.members.contains(playerUUID)) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Player {} already in team '{}'", playerUUID, teamName);
             return false;
         }
-        team.getMembers().add(playerUUID);
+        Team current = teamByMember.get(playerUUID);
+        if (current != null) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Player {} already in team '{}', cannot add to '{}'",
+                    playerUUID, current.name, teamName);
+            return false;
+        }
+        team.members.add(playerUUID);
+        teamByMember.put(playerUUID, team);
+        nametags.addMember(team.name, playerUUID);
         saveConfig();
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Added player " + playerUUID + " to team '" + teamName + "'");
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Added player {} to team '{}'", playerUUID, teamName);
         return true;
     }
 
+    /**
+     * Adds many players at once, e.g. for {@code /nf teams autofill}, saving
+     * teams.yml once at the end instead of per player. Entries whose team doesn't
+     * exist or whose player is already in a team are skipped.
+     *
+     * @param assignments team name per player
+     * @return the players that were added
+     */
+    public List<UUID> addMembers(Map<UUID, String> assignments) {
+        List<UUID> added = new ArrayList<UUID>();
+        for (Map.Entry<UUID, String> entry : assignments.entrySet()) {
+            UUID playerUUID = entry.getKey();
+            Team team = teams.get(entry.getValue().toLowerCase());
+            if (team == null || teamByMember.containsKey(playerUUID)) {
+                continue;
+            }
+            team.members.add(playerUUID);
+            teamByMember.put(playerUUID, team);
+            nametags.addMember(team.name, playerUUID);
+            added.add(playerUUID);
+        }
+        if (!added.isEmpty()) {
+            saveConfig();
+        }
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Bulk added {} of {} players", added.size(), assignments.size());
+        return added;
+    }
+
     public boolean removeMember(String teamName, UUID playerUUID) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Attempting to remove player " + playerUUID + " from team '" + teamName + "'");
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Attempting to remove player {} from team '{}'", playerUUID, teamName);
         Team team = getTeam(teamName);
         if (team == null) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '" + teamName + "' does not exist, cannot remove member");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '{}' does not exist, cannot remove member", teamName);
             return false;
         }
-        if (!team.getMembers().contains(playerUUID)) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Player " + playerUUID + " not in team '" + teamName + "'");
+        if (!team.members.remove(playerUUID)) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Player {} not in team '{}'", playerUUID, teamName);
             return false;
         }
-        team.getMembers().remove(playerUUID);
+        teamByMember.remove(playerUUID);
+        nametags.removeMember(team.name, playerUUID);
         saveConfig();
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Removed player " + playerUUID + " from team '" + teamName + "'");
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Removed player {} from team '{}'", playerUUID, teamName);
         return true;
     }
 
     public Set<UUID> getTeamMembers(String teamName) {
         Team team = getTeam(teamName);
         if (team == null) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '" + teamName + "' does not exist, returning empty members set");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '{}' does not exist, returning empty members set", teamName);
             return Collections.emptySet();
         }
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved " + team.getMembers().size() + " members for team '" + teamName + "'");
-        return Collections.unmodifiableSet(team.getMembers());
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved {} members for team '{}'", team.getMembers().size(), teamName);
+        return team.getMembers();
+    }
+
+    /** The team {@code playerUUID} belongs to, or {@code null} if none. */
+    public Team getTeamOf(UUID playerUUID) {
+        Team team = teamByMember.get(playerUUID);
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved team for player " + playerUUID + ": " + (team != null ? team.name : "null"));
+        }
+        return team;
+    }
+
+    /** Adds a freshly loaded team's members to the index; a player listed under an earlier team stays there. */
+    private void indexMembers(Team team) {
+        Iterator<UUID> it = team.members.iterator();
+        while (it.hasNext()) {
+            UUID uuid = it.next();
+            Team other = teamByMember.get(uuid);
+            if (other == null) {
+                teamByMember.put(uuid, team);
+            } else {
+                it.remove();
+                ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Player {} already in team '{}', dropping from '{}'", uuid, other.name, team.name);
+            }
+        }
+    }
+
+    /** Drops a removed team from the member and lodestone indexes. */
+    private void forget(Team team) {
+        if (team == null) {
+            return;
+        }
+        lodestones.remove(team);
+        nametags.remove(team.name);
+        for (UUID uuid : team.members) {
+            teamByMember.remove(uuid);
+        }
+    }
+
+    /**
+     * Starts showing a team's color on its members' nametags. Later membership
+     * and color changes follow automatically.
+     *
+     * @return {@code false} if the team doesn't exist or was already shown
+     */
+    public boolean showNametags(String teamName) {
+        Team team = teams.get(teamName.toLowerCase(Locale.ENGLISH));
+        boolean activated = team != null && nametags.activate(team.name);
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Show nametags for team '" + teamName + "': " + (activated ? "activated" : "no change"));
+        }
+        return activated;
     }
 
     public Collection<Team> getTeams() {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved " + teams.size() + " teams");
+        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved {} teams", teams.size());
         return Collections.unmodifiableCollection(teams.values());
     }
 
     public void setLodestone(String teamName, Location lodestone) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Setting lodestone for team '" + teamName + "' to " + (lodestone != null ? formatLocation(lodestone) : "null"));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Setting lodestone for team '" + teamName + "' to " + (lodestone != null ? formatLocation(lodestone) : "null"));
+        }
         Team team = getTeam(teamName);
         if (team == null) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '" + teamName + "' does not exist, skipping lodestone set");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '{}' does not exist, skipping lodestone set", teamName);
             return;
         }
         team.setLodestone(lodestone);
@@ -332,29 +448,35 @@ public class TeamsManager {
     public Location getLodestone(String teamName) {
         Team team = getTeam(teamName);
         if (team == null) {
-            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '" + teamName + "' does not exist, returning null lodestone");
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Team '{}' does not exist, returning null lodestone", teamName);
             return null;
         }
         Location lodestone = team.getLodestone();
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved lodestone for team '" + teamName + "': " + (lodestone != null ? formatLocation(lodestone) : "null"));
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Retrieved lodestone for team '" + teamName + "': " + (lodestone != null ? formatLocation(lodestone) : "null"));
+        }
         return lodestone;
     }
 
     public Optional<Team> getTeamByLodestone(Location location) {
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Looking for team with lodestone at " + formatLocation(location));
-        for (Team t : teams.values()) {
-            Location l = t.getLodestone();
-            if (l != null && Objects.equals(l.getWorld(), location.getWorld())) {
-                if (l.getBlockX() == location.getBlockX() &&
-                        l.getBlockY() == location.getBlockY() &&
-                        l.getBlockZ() == location.getBlockZ()) {
-                    ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Found team '" + t.getName() + "' for lodestone at " + formatLocation(location));
-                    return Optional.of(t);
-                }
-            }
+        Team team = lodestones.get(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        if (((NakedAndAfraid) plugin).isDebugEnabled()) {
+            ((NakedAndAfraid) plugin).debugLog("[TeamsManager] Lodestone at " + formatLocation(location) + " belongs to " + (team != null ? "team '" + team.name + "'" : "no team"));
         }
-        ((NakedAndAfraid) plugin).debugLog("[TeamsManager] No team found for lodestone at " + formatLocation(location));
-        return Optional.empty();
+        return Optional.ofNullable(team);
+    }
+
+    /** The team whose lodestone is {@code block}, or {@code null}; for block events. */
+    public Team getTeamAt(Block block) {
+        return lodestones.get(block);
+    }
+
+    /**
+     * Helper method to format a lodestone position for debug logging.
+     */
+    private String formatPosition(BlockIndex.Position position) {
+        return String.format("(world=%s, x=%d, y=%d, z=%d)",
+                position.getWorldName(), position.getX(), position.getY(), position.getZ());
     }
 
     /**
@@ -371,16 +493,15 @@ public class TeamsManager {
         private final String name;
         private String color;
         private final Set<UUID> members;
-        private Location lodestone;
+        private final Set<UUID> memberView;
 
-        public Team(String name, String color, Set<UUID> members, Location lodestone) {
+        public Team(String name, String color, Set<UUID> members) {
             this.name = name;
             this.color = color;
             this.members = members;
-            this.lodestone = lodestone;
+            this.memberView = Collections.unmodifiableSet(members);
             ((NakedAndAfraid) Objects.requireNonNull(Bukkit.getPluginManager().getPlugin("NakedAndAfraid")))
-                    .debugLog("[Team] Created team '" + name + "' with color " + color +
-                            ", members: " + members.size() + ", lodestone: " + (lodestone != null ? lodestone.toString() : "null"));
+                    .debugLog("[Team] Created team '{}' with color {}, members: {}", name, color, members.size());
         }
 
         private TeamsManager getOuterInstance() {
@@ -388,38 +509,51 @@ public class TeamsManager {
         }
 
         public String getName() {
-            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Retrieved name for team '" + name + "'");
+            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Retrieved name for team '{}'", name);
             return name;
         }
 
         public String getColor() {
-            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Retrieved color " + color + " for team '" + name + "'");
+            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Retrieved color {} for team '{}'", color, name);
             return color;
         }
 
         public void setColor(String color) {
-            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Setting color for team '" + name + "' to " + color);
+            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Setting color for team '{}' to {}", name, color);
             this.color = VALID_COLORS.contains(color.toUpperCase()) ? color.toUpperCase() : "WHITE";
+            getOuterInstance().nametags.setColor(name, this.color);
             if (!color.toUpperCase().equals(this.color)) {
-                ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Invalid color '" + color + "' for team '" + name + "', defaulting to WHITE");
+                ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Invalid color '{}' for team '{}', defaulting to WHITE",
+                        color, name);
             }
         }
 
+        /** Read-only view; membership changes go through {@link TeamsManager#addMember} and {@link TeamsManager#removeMember}. */
         public Set<UUID> getMembers() {
-            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Retrieved " + members.size() + " members for team '" + name + "'");
-            return members;
+            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Retrieved {} members for team '{}'", members.size(), name);
+            return memberView;
         }
 
+        /** The lodestone block, or {@code null} if unset or its world isn't loaded. */
         public Location getLodestone() {
-            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Retrieved lodestone for team '" + name + "': " +
-                    (lodestone != null ? getOuterInstance().formatLocation(lodestone) : "null"));
+            Location lodestone = getOuterInstance().lodestones.locationOf(this);
+            if (getOuterInstance().plugin.isDebugEnabled()) {
+                getOuterInstance().plugin.debugLog("[TeamsManager] Retrieved lodestone for team '" + name + "': " +
+                        (lodestone != null ? getOuterInstance().formatLocation(lodestone) : "null"));
+            }
             return lodestone;
         }
 
         public void setLodestone(Location lodestone) {
-            ((NakedAndAfraid) getOuterInstance().plugin).debugLog("[TeamsManager] Setting lodestone for team '" + name + "' to " +
-                    (lodestone != null ? getOuterInstance().formatLocation(lodestone) : "null"));
-            this.lodestone = lodestone;
+            if (getOuterInstance().plugin.isDebugEnabled()) {
+                getOuterInstance().plugin.debugLog("[TeamsManager] Setting lodestone for team '" + name + "' to " +
+                        (lodestone != null ? getOuterInstance().formatLocation(lodestone) : "null"));
+            }
+            if (lodestone == null) {
+                getOuterInstance().lodestones.remove(this);
+            } else {
+                getOuterInstance().lodestones.put(this, lodestone);
+            }
         }
     }
 }
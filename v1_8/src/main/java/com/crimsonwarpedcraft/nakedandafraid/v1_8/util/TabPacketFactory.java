@@ -0,0 +1,75 @@
+package com.crimsonwarpedcraft.nakedandafraid.v1_8.util;
+
+import com.crimsonwarpedcraft.nakedandafraid.common.util.PacketSender;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds and sends {@code PacketPlayOutPlayerInfo} on versioned-NMS servers
+ * (1.8 to 1.16.5). Classes, the constructor, the action constants and the
+ * send path are resolved once in {@link #create()}.
+ */
+public final class TabPacketFactory {
+
+    private final PacketSender sender;
+    private final MethodHandle infoConstructor;
+    private final Object addAction;
+    private final Object removeAction;
+
+    private TabPacketFactory(PacketSender sender, MethodHandle infoConstructor, Object addAction, Object removeAction) {
+        this.sender = sender;
+        this.infoConstructor = infoConstructor;
+        this.addAction = addAction;
+        this.removeAction = removeAction;
+    }
+
+    /**
+     * Resolves everything against the running server.
+     *
+     * @throws ReflectiveOperationException if the server's internals don't match
+     */
+    public static TabPacketFactory create() throws ReflectiveOperationException {
+        // e.g. "v1_8_R3", from org.bukkit.craftbukkit.v1_8_R3.CraftServer
+        String nmsVersion = Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3];
+        String nmsBase = "net.minecraft.server." + nmsVersion + ".";
+
+        Class<?> packetInterface = Class.forName(nmsBase + "Packet");
+        PacketSender sender = PacketSender.resolve(PacketSender.craftPlayerClass(),
+                new String[]{"playerConnection"}, packetInterface, new String[]{"sendPacket"});
+
+        Class<?> packetClass = Class.forName(nmsBase + "PacketPlayOutPlayerInfo");
+        Class<?> actionClass = Class.forName(nmsBase + "PacketPlayOutPlayerInfo$EnumPlayerInfoAction");
+        // PacketPlayOutPlayerInfo(EnumPlayerInfoAction, Iterable<EntityPlayer>)
+        MethodHandle infoConstructor = MethodHandles.publicLookup()
+                .findConstructor(packetClass, MethodType.methodType(void.class, actionClass, Iterable.class))
+                .asType(MethodType.methodType(Object.class, Object.class, Iterable.class));
+
+        Object addAction = actionClass.getField("ADD_PLAYER").get(null);
+        Object removeAction = actionClass.getField("REMOVE_PLAYER").get(null);
+        return new TabPacketFactory(sender, infoConstructor, addAction, removeAction);
+    }
+
+    /** A packet adding ({@code add}) or removing {@code subjects} on the recipient's tab list. */
+    public Object playerInfoPacket(boolean add, Collection<? extends Player> subjects) {
+        List<Object> handles = new ArrayList<Object>(subjects.size());
+        for (Player subject : subjects) {
+            handles.add(sender.handle(subject));
+        }
+        try {
+            return (Object) infoConstructor.invokeExact(add ? addAction : removeAction, (Iterable<?>) handles);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to build PacketPlayOutPlayerInfo", t);
+        }
+    }
+
+    public void send(Player recipient, Object packet) {
+        sender.send(recipient, packet);
+    }
+}
@@ -2,57 +2,57 @@
 
 package com.crimsonwarpedcraft.nakedandafraid.v1_8.util;
 
+import com.crimsonwarpedcraft.nakedandafraid.common.config.ConfigSnapshot;
+import com.crimsonwarpedcraft.nakedandafraid.common.listeners.FreezeEngine;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.ChunkPreloader;
+import com.crimsonwarpedcraft.nakedandafraid.common.util.CountdownTicker;
 import com.crimsonwarpedcraft.nakedandafraid.v1_8.NakedAndAfraid;
+import io.papermc.lib.PaperLib;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerCommandPreprocessEvent;
-import org.bukkit.event.player.PlayerDropItemEvent;
-import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Utility class for handling countdown-based teleportation with player freezing.
  * Compatible with Minecraft 1.8.8-1.21.11 (Spigot 1.8.8+, Paper 1.16.5+).
  */
-public class TeleportHelper implements Listener {
+public class TeleportHelper {
+
+    /** Destination chunks loaded per tick on servers without async chunk loading. */
+    private static final int SYNC_CHUNK_LOADS_PER_TICK = 2;
 
     private final Plugin plugin;
     private final NakedAndAfraid nakedAndAfraid;
-    private final Set<Player> frozenPlayers = new HashSet<>();
+    private final FreezeEngine freezes;
+    private final ChunkPreloader chunkPreloader;
+    private final CountdownTicker countdowns;
 
     public TeleportHelper(Plugin plugin, NakedAndAfraid nakedAndAfraid) {
         this.plugin = plugin;
         this.nakedAndAfraid = nakedAndAfraid;
-        Bukkit.getPluginManager().registerEvents(this, plugin);
-        nakedAndAfraid.debugLog("[TeleportHelper] Initialized TeleportHelper and registered events for Bukkit version " + Bukkit.getBukkitVersion());
+        this.chunkPreloader = new ChunkPreloader(plugin, nakedAndAfraid, SYNC_CHUNK_LOADS_PER_TICK);
+        this.countdowns = new CountdownTicker(plugin, nakedAndAfraid, nakedAndAfraid.getServerCapabilities(),
+                Sound.BLOCK_NOTE_BELL, Sound.BLOCK_NOTE_PLING);
+        this.freezes = new FreezeEngine(plugin, nakedAndAfraid, nakedAndAfraid.getServerCapabilities());
+        nakedAndAfraid.debugLog("[TeleportHelper] Initialized TeleportHelper for Bukkit version {}", Bukkit.getBukkitVersion());
     }
 
     /**
-     * Gets the set of frozen players.
+     * Gets the freeze engine.
      *
-     * @return The set of players currently frozen during teleportation.
+     * @return The engine holding players in place during teleport countdowns.
      */
-    public Set<Player> getFrozenPlayers() {
-        return frozenPlayers;
+    public FreezeEngine getFreezeEngine() {
+        return freezes;
     }
 
-    /**
-     * Checks if the server is pre-1.13 (Minecraft 1.12 or earlier).
-     *
-     * @return true if the server version is before 1.13, false otherwise.
-     */
-    private boolean isPre113() {
-        return !Bukkit.getBukkitVersion().matches(".*1\\.(1[3-9]|2[0-1]).*");
+    /** Ends running countdowns, removing their boss bars. Called on disable. */
+    public void shutdown() {
+        countdowns.shutdown();
     }
 
     /**
@@ -62,117 +62,135 @@ public class TeleportHelper implements Listener {
      *
      * @param player The player to teleport.
      * @param target The target location for teleportation.
+     * @return Completes with whether the player was teleported, once the teleport has happened.
      */
-    public void startCountdownTeleport(Player player, Location target) {
-        nakedAndAfraid.debugLog("[TeleportHelper] Starting countdown teleport for player " + player.getName() +
-                " to location " + formatLocation(target));
-
-        if (!nakedAndAfraid.getConfig().getBoolean("enable-countdown", true)) {
-            nakedAndAfraid.debugLog("[TeleportHelper] Countdown disabled, teleporting " + player.getName() + " immediately");
-            player.teleport(target);
-            player.sendMessage("§aTeleported!");
-            nakedAndAfraid.debugLog("[TeleportHelper] Teleported " + player.getName() + " to " + formatLocation(target));
-            return;
+    public CompletableFuture<Boolean> startCountdownTeleport(Player player, Location target) {
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[TeleportHelper] Starting countdown teleport for player " + player.getName() +
+                    " to location " + formatLocation(target));
         }
 
-        if (frozenPlayers.contains(player)) {
-            nakedAndAfraid.debugLog("[TeleportHelper] Player " + player.getName() + " is already teleporting, aborting");
+        if (!nakedAndAfraid.getConfigSnapshot().isEnableCountdown()) {
+            nakedAndAfraid.debugLog("[TeleportHelper] Countdown disabled, teleporting {} immediately", player.getName());
+            return teleport(player, target);
+        }
+
+        if (countdowns.isCountingDown(player)) {
+            nakedAndAfraid.debugLog("[TeleportHelper] Player {} is already teleporting, aborting", player.getName());
             player.sendMessage("§cYou are already teleporting!");
-            return;
+            return CompletableFuture.completedFuture(false);
         }
 
-        int duration = nakedAndAfraid.getConfig().getInt("countdown-duration", 10);
-        String messageTemplate = nakedAndAfraid.getConfig().getString("countdown-message", "Game starts in {time}");
+        ConfigSnapshot config = nakedAndAfraid.getConfigSnapshot();
         boolean teleportOnCountdownEnd = nakedAndAfraid.isTeleportOnCountdownEnd();
-        nakedAndAfraid.debugLog("[TeleportHelper] Teleport on countdown end: " + teleportOnCountdownEnd);
+        boolean freeze = config.isCountdownFreeze();
+        nakedAndAfraid.debugLog("[TeleportHelper] Teleport on countdown end: {}, freeze: {}", teleportOnCountdownEnd, freeze);
 
-        sendCountdownMessages(player, duration, messageTemplate, target, teleportOnCountdownEnd);
+        CompletableFuture<Boolean> teleported = new CompletableFuture<>();
+        countdowns.start(new CountdownTeleport(player, target, teleportOnCountdownEnd, teleported),
+                config.getCountdownDuration(), config.getCountdownMessage(), config.getCountdownColor());
 
-        frozenPlayers.add(player);
-        nakedAndAfraid.debugLog("[TeleportHelper] Added " + player.getName() + " to frozenPlayers");
+        if (freeze) {
+            freezes.freeze(player);
+            nakedAndAfraid.debugLog("[TeleportHelper] Froze {}", player.getName());
+        }
+        return teleported;
     }
 
-    private void sendCountdownMessages(Player player, int duration, String messageTemplate, Location target, boolean teleportOnCountdownEnd) {
-        new BukkitRunnable() {
-            int timeLeft = duration;
-
-            @Override
-            public void run() {
-                if (timeLeft == duration) {
-                    if (!teleportOnCountdownEnd) {
-                        nakedAndAfraid.debugLog("[TeleportHelper] Teleporting " + player.getName() + " at countdown start");
-                        player.teleport(target);
-                        player.sendMessage("§aTeleported!");
-                        nakedAndAfraid.debugLog("[TeleportHelper] Teleported " + player.getName() + " to " + formatLocation(target));
-                    }
-                }
+    /**
+     * Loads the chunk at {@code target} first, then starts the countdown
+     * teleport. Loading is asynchronous on Paper 1.13+ and spread over
+     * several ticks elsewhere, so teleporting many players at once doesn't
+     * load every destination on the main thread in the same tick.
+     *
+     * @return Completes with whether the player was teleported, once the teleport has happened.
+     */
+    public CompletableFuture<Boolean> preloadAndStartCountdownTeleport(Player player, Location target) {
+        if (nakedAndAfraid.isDebugEnabled()) {
+            nakedAndAfraid.debugLog("[TeleportHelper] Preloading destination of " + player.getName() + " at " + formatLocation(target));
+        }
+        return chunkPreloader.preload(target).thenCompose(loaded -> {
+            if (!player.isOnline()) {
+                nakedAndAfraid.debugLog("[TeleportHelper] {} went offline while their destination loaded", player.getName());
+                return CompletableFuture.completedFuture(false);
+            }
+            return startCountdownTeleport(player, target);
+        });
+    }
 
-                if (timeLeft <= 0) {
-                    frozenPlayers.remove(player);
-                    nakedAndAfraid.debugLog("[TeleportHelper] Removed " + player.getName() + " from frozenPlayers");
-                    if (teleportOnCountdownEnd) {
-                        nakedAndAfraid.debugLog("[TeleportHelper] Teleporting " + player.getName() + " at countdown end");
-                        player.teleport(target);
-                        player.sendMessage("§aTeleported!");
-                        nakedAndAfraid.debugLog("[TeleportHelper] Teleported " + player.getName() + " to " + formatLocation(target));
-                    }
-                    Sound plingSound = Sound.BLOCK_NOTE_PLING;
-                    player.playSound(player.getLocation(), plingSound, 1, 1);
-                    nakedAndAfraid.debugLog("[TeleportHelper] Played pling sound (" + plingSound + ") for " + player.getName());
-                    this.cancel();
-                    nakedAndAfraid.debugLog("[TeleportHelper] Cancelled countdown task for " + player.getName());
-                    return;
+    /**
+     * Teleports through PaperLib, which loads the destination asynchronously
+     * on Paper and falls back to a synchronous teleport elsewhere.
+     */
+    private CompletableFuture<Boolean> teleport(Player player, Location target) {
+        return PaperLib.teleportAsync(player, target).thenApply(success -> {
+            if (success) {
+                player.sendMessage("§aTeleported!");
+                if (nakedAndAfraid.isDebugEnabled()) {
+                    nakedAndAfraid.debugLog("[TeleportHelper] Teleported " + player.getName() + " to " + formatLocation(target));
+                }
+            } else {
+                if (nakedAndAfraid.isDebugEnabled()) {
+                    nakedAndAfraid.debugLog("[TeleportHelper] Teleport of " + player.getName() + " to " + formatLocation(target) + " failed");
                 }
-
-                String tickMessage = messageTemplate.replace("{time}", String.valueOf(timeLeft));
-                player.sendMessage("§e" + tickMessage);
-                Sound bellSound = Sound.BLOCK_NOTE_BELL;
-                player.playSound(player.getLocation(), bellSound, 1, 1);
-                nakedAndAfraid.debugLog("[TeleportHelper] Updated countdown for " + player.getName() +
-                        ": timeLeft=" + timeLeft + ", message=" + tickMessage + ", sound=" + bellSound);
-
-                timeLeft--;
             }
-        }.runTaskTimer(plugin, 0L, 20L);
-        nakedAndAfraid.debugLog("[TeleportHelper] Started countdown task for " + player.getName() +
-                " with duration " + duration + " seconds");
+            return success;
+        });
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        if (frozenPlayers.contains(event.getPlayer())) {
-            if (event.getFrom().distanceSquared(event.getTo()) > 0) {
-                event.setTo(event.getFrom());
-                nakedAndAfraid.debugLog("[TeleportHelper] Cancelled move for " + event.getPlayer().getName() +
-                        " from " + formatLocation(event.getFrom()) + " to " + formatLocation(event.getTo()));
+    /** Teleports at the start or end of the shared countdown and releases the player afterwards. */
+    private final class CountdownTeleport implements CountdownTicker.Participant {
+        private final Player player;
+        private final Location target;
+        private final boolean teleportOnCountdownEnd;
+        private final CompletableFuture<Boolean> teleported;
+
+        CountdownTeleport(Player player, Location target, boolean teleportOnCountdownEnd,
+                          CompletableFuture<Boolean> teleported) {
+            this.player = player;
+            this.target = target;
+            this.teleportOnCountdownEnd = teleportOnCountdownEnd;
+            this.teleported = teleported;
+        }
+
+        @Override
+        public Player getPlayer() {
+            return player;
+        }
+
+        @Override
+        public void onStart() {
+            if (!teleportOnCountdownEnd) {
+                nakedAndAfraid.debugLog("[TeleportHelper] Teleporting {} at countdown start", player.getName());
+                teleportAndComplete();
             }
         }
-    }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerInteract(PlayerInteractEvent event) {
-        if (frozenPlayers.contains(event.getPlayer())) {
-            event.setCancelled(true);
-            nakedAndAfraid.debugLog("[TeleportHelper] Cancelled interact event for " + event.getPlayer().getName() +
-                    ", action: " + event.getAction());
+        @Override
+        public void onFinish() {
+            freezes.unfreeze(player);
+            nakedAndAfraid.debugLog("[TeleportHelper] Countdown over for {}", player.getName());
+            if (teleportOnCountdownEnd) {
+                nakedAndAfraid.debugLog("[TeleportHelper] Teleporting {} at countdown end", player.getName());
+                teleportAndComplete();
+            }
         }
-    }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerDropItem(PlayerDropItemEvent event) {
-        if (frozenPlayers.contains(event.getPlayer())) {
-            event.setCancelled(true);
-            nakedAndAfraid.debugLog("[TeleportHelper] Cancelled item drop for " + event.getPlayer().getName());
+        /** Completes {@link #teleported} however the teleport ends, so callers waiting on it never hang. */
+        private void teleportAndComplete() {
+            teleport(player, target).whenComplete((success, error) -> {
+                if (error != null) {
+                    nakedAndAfraid.debugLog("[TeleportHelper] Teleport of {} failed with {}", player.getName(), error);
+                }
+                teleported.complete(error == null && Boolean.TRUE.equals(success));
+            });
         }
-    }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerCommandPreprocess(PlayerCommandPreprocessEvent event) {
-        if (frozenPlayers.contains(event.getPlayer())) {
-            event.setCancelled(true);
-            event.getPlayer().sendMessage("§cYou cannot run commands while teleporting!");
-            nakedAndAfraid.debugLog("[TeleportHelper] Cancelled command '" + event.getMessage() +
-                    "' for " + event.getPlayer().getName());
+        @Override
+        public void onLeave() {
+            freezes.unfreeze(player);
+            teleported.complete(false);
+            nakedAndAfraid.debugLog("[TeleportHelper] {} went offline during their countdown", player.getName());
         }
     }
 